@@ -15,16 +15,20 @@
  */
 package rabbit.data.handler;
 
+import rabbit.data.access.model.IBuildData;
 import rabbit.data.access.model.ICommandData;
 import rabbit.data.access.model.IFileData;
+import rabbit.data.access.model.IFreezeData;
 import rabbit.data.access.model.IJavaData;
 import rabbit.data.access.model.ILaunchData;
 import rabbit.data.access.model.IPartData;
 import rabbit.data.access.model.IPerspectiveData;
 import rabbit.data.access.model.ISessionData;
 import rabbit.data.access.model.ITaskData;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -51,6 +55,8 @@ public class DataHandlerTest {
     assertNotNull(DataHandler.getStorer(TaskFileEvent.class));
     assertNotNull(DataHandler.getStorer(LaunchEvent.class));
     assertNotNull(DataHandler.getStorer(JavaEvent.class));
+    assertNotNull(DataHandler.getStorer(FreezeEvent.class));
+    assertNotNull(DataHandler.getStorer(BuildEvent.class));
   }
 
   @Test
@@ -63,5 +69,21 @@ public class DataHandlerTest {
     assertNotNull(DataHandler.getAccessor(ITaskData.class));
     assertNotNull(DataHandler.getAccessor(ILaunchData.class));
     assertNotNull(DataHandler.getAccessor(IJavaData.class));
+    assertNotNull(DataHandler.getAccessor(IFreezeData.class));
+    assertNotNull(DataHandler.getAccessor(IBuildData.class));
+  }
+
+  @Test
+  public void shouldReturnAnAggregateAccessor() {
+    assertNotNull(DataHandler.getAggregateAccessor(IPerspectiveData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(ICommandData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(IFileData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(IPartData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(ISessionData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(ITaskData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(ILaunchData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(IJavaData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(IFreezeData.class));
+    assertNotNull(DataHandler.getAggregateAccessor(IBuildData.class));
   }
 }
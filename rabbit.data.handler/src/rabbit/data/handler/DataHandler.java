@@ -16,17 +16,26 @@
 package rabbit.data.handler;
 
 import rabbit.data.access.IAccessor;
+import rabbit.data.access.IAggregateAccessor;
+import rabbit.data.access.model.IBuildData;
 import rabbit.data.access.model.ICommandData;
+import rabbit.data.access.model.IData;
 import rabbit.data.access.model.IFileData;
+import rabbit.data.access.model.IFreezeData;
 import rabbit.data.access.model.IJavaData;
 import rabbit.data.access.model.ILaunchData;
 import rabbit.data.access.model.IPartData;
 import rabbit.data.access.model.IPerspectiveData;
 import rabbit.data.access.model.ISessionData;
 import rabbit.data.access.model.ITaskData;
+import rabbit.data.store.IBufferedStorer;
 import rabbit.data.store.IStorer;
+import rabbit.data.store.StoreWriter;
+import rabbit.data.store.WriteBehindStorer;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -35,12 +44,15 @@ import rabbit.data.store.model.SessionEvent;
 import rabbit.data.store.model.TaskFileEvent;
 import rabbit.data.xml.XmlModule;
 
+import com.google.common.collect.MapMaker;
 import com.google.inject.ConfigurationException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.util.Types;
 
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Handler class provider common classes to access the data.
  */
@@ -48,8 +60,12 @@ public class DataHandler {
 
   private static final Injector injector;
 
+  /** The write behind storers, one for each object type. */
+  private static final ConcurrentMap<Class<?>, IStorer<?>> storers;
+
   static {
     injector = Guice.createInjector(new XmlModule());
+    storers = new MapMaker().makeMap();
   }
 
   /**
@@ -65,17 +81,38 @@ public class DataHandler {
    * <li>{@link TaskFileEvent}</li>
    * <li>{@link SessionEvent}</li>
    * <li>{@link JavaEvent}</li>
+   * <li>{@link FreezeEvent}</li>
+   * <li>{@link BuildEvent}</li>
    * </ul>
    * </p>
+   * <p>
+   * The storer writes in the background, {@link IStorer#commit()} returns once
+   * the data has been handed to the shared {@link StoreWriter}. Use
+   * {@link StoreWriter#drain(long, java.util.concurrent.TimeUnit)} to wait for
+   * the data to be written. If the storer is an {@link IBufferedStorer}, the
+   * data left in its buffer by the last session is stored by the first call.
+   * </p>
    * 
    * @param clazz The class of the type.
    * @return A storer that stores the objects of the given type, or null.
    */
   @SuppressWarnings("unchecked")
   public static <T> IStorer<T> getStorer(Class<T> clazz) {
+    IStorer<T> storer = (IStorer<T>) storers.get(clazz);
+    if (storer != null) {
+      return storer;
+    }
     try {
       Key<?> k = Key.get(Types.newParameterizedType(IStorer.class, clazz));
-      return (IStorer<T>) injector.getInstance(k);
+      IStorer<T> delegate = (IStorer<T>) injector.getInstance(k);
+      if (delegate instanceof IBufferedStorer<?>) {
+        // The data left by the last session is stored before the storer is
+        // used, only the first call finds any:
+        ((IBufferedStorer<T>) delegate).recover();
+      }
+      storer = new WriteBehindStorer<T>(delegate, StoreWriter.getDefault());
+      IStorer<T> existing = (IStorer<T>) storers.putIfAbsent(clazz, storer);
+      return existing != null ? existing : storer;
 
     } catch (ConfigurationException e) {
       return null;
@@ -95,6 +132,8 @@ public class DataHandler {
    * <li>{@link ITaskData}</li>
    * <li>{@link ISessionData}</li>
    * <li>{@link IJavaData}</li>
+   * <li>{@link IFreezeData}</li>
+   * <li>{@link IBuildData}</li>
    * </ul>
    * </p>
    * 
@@ -112,5 +151,27 @@ public class DataHandler {
     }
   }
 
+  /**
+   * Gets an accessor that groups and sums the stored data.
+   * <p>
+   * The same object types as {@link #getAccessor(Class)} are supported.
+   * </p>
+   * 
+   * @param clazz The class of the type.
+   * @return An accessor that aggregates the data of the given type, or null.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends IData> IAggregateAccessor<T> getAggregateAccessor(
+      Class<T> clazz) {
+    try {
+      Key<?> k = Key.get(
+          Types.newParameterizedType(IAggregateAccessor.class, clazz));
+      return (IAggregateAccessor<T>) injector.getInstance(k);
+
+    } catch (ConfigurationException e) {
+      return null;
+    }
+  }
+
   private DataHandler() {}
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.access.model;
+
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.Keys;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Maps;
+
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * @see AggregateData
+ */
+public class AggregateDataTest {
+
+  @Test
+  public void shouldReturnTheValues() {
+    Map<IKey<?>, Object> map = Maps.newHashMap();
+    map.put(Keys.DURATION, new Duration(10));
+    map.put(Keys.FILE, null);
+    AggregateData data = new AggregateData(map);
+    assertThat(data.get(Keys.DURATION), is(new Duration(10)));
+    assertThat(data.get(Keys.FILE), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCopyTheMap() {
+    Map<IKey<?>, Object> map = Maps.newHashMap();
+    map.put(Keys.COUNT, 1);
+    AggregateData data = new AggregateData(map);
+    map.put(Keys.COUNT, 2);
+    assertThat(data.get(Keys.COUNT), is(1));
+  }
+
+  @Test
+  public void shouldReturnNullIfKeyIsNull() {
+    Map<IKey<?>, Object> map = Maps.newHashMap();
+    assertThat(new AggregateData(map).get(null), is(nullValue()));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfConstructedWithoutAMap() {
+    new AggregateData(null);
+  }
+}
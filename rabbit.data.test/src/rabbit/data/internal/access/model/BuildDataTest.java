@@ -0,0 +1,104 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.access.model;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.data.access.model.WorkspaceStorage;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Path;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @see BuildData
+ */
+public class BuildDataTest {
+
+  private LocalDate date;
+  private WorkspaceStorage workspace;
+  private IProject project;
+  private boolean fullBuild;
+  private int count;
+  private Duration duration;
+
+  @Before
+  public void before() {
+    date = new LocalDate();
+    workspace = new WorkspaceStorage(new Path(""), new Path(""));
+    project = mock(IProject.class);
+    fullBuild = true;
+    count = 2;
+    duration = new Duration(1200);
+  }
+
+  @Test
+  public void shouldReturnNullIfKeyIsNull() {
+    assertThat(create().get(null), is(nullValue()));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfConstructedWithoutADate() {
+    date = null;
+    create();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfConstructedWithoutAWorkspace() {
+    workspace = null;
+    create();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfConstructedWithoutAProject() {
+    project = null;
+    create();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfConstructedWithoutADuration() {
+    duration = null;
+    create();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionIfConstructedWithACountOfZero() {
+    count = 0;
+    create();
+  }
+
+  @Test
+  public void shouldReturnTheValues() {
+    BuildData data = create();
+    assertThat(data.get(IBuildData.DATE), is(date));
+    assertThat(data.get(IBuildData.WORKSPACE), is(workspace));
+    assertThat(data.get(IBuildData.PROJECT), is(project));
+    assertThat(data.get(IBuildData.FULL_BUILD), is(fullBuild));
+    assertThat(data.get(IBuildData.COUNT), is(count));
+    assertThat(data.get(IBuildData.DURATION), is(duration));
+  }
+
+  private BuildData create() {
+    return new BuildData(date, workspace, project, fullBuild, count, duration);
+  }
+}
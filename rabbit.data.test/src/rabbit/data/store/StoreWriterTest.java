@@ -0,0 +1,285 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @see StoreWriter
+ */
+public class StoreWriterTest {
+
+  /**
+   * A storer that blocks in {@link #commit()} until it is released.
+   */
+  private static class BlockingStorer implements IStorer<String> {
+    final CountDownLatch committing = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> inserted =
+        Collections.synchronizedList(Lists.<String> newArrayList());
+    volatile int commits;
+
+    @Override
+    public void commit() {
+      committing.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      commits++;
+    }
+
+    @Override
+    public void insert(Collection<? extends String> collection) {
+      inserted.addAll(collection);
+    }
+
+    @Override
+    public void insert(String element) {
+      inserted.add(element);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldInsertTheEventsAndCommit() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    IStorer<String> storer = mock(IStorer.class);
+    List<String> events = ImmutableList.of("a", "b");
+    writer.submit(storer, events);
+
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    InOrder order = inOrder(storer);
+    order.verify(storer).insert(events);
+    order.verify(storer).commit();
+    assertThat(writer.size(), is(0));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldRunTheCallbackAfterCommitting() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    IStorer<String> storer = mock(IStorer.class);
+    Runnable callback = mock(Runnable.class);
+    writer.submit(storer, ImmutableList.of("a"), callback);
+
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    InOrder order = inOrder(storer, callback);
+    order.verify(storer).commit();
+    order.verify(callback).run();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldRunTheFirstCallbackBeforeInserting() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    IStorer<String> storer = mock(IStorer.class);
+    Runnable onStoring = mock(Runnable.class);
+    Runnable onStored = mock(Runnable.class);
+    List<String> events = ImmutableList.of("a");
+    writer.submit(storer, events, onStoring, onStored);
+
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    InOrder order = inOrder(onStoring, storer, onStored);
+    order.verify(onStoring).run();
+    order.verify(storer).insert(events);
+    order.verify(storer).commit();
+    order.verify(onStored).run();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotRunTheCallbackIfTheStorerFails() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    IStorer<String> storer = mock(IStorer.class);
+    doThrow(new RuntimeException()).when(storer).commit();
+    Runnable callback = mock(Runnable.class);
+    writer.submit(storer, ImmutableList.of("a"), callback);
+
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    verify(callback, never()).run();
+  }
+
+  @Test
+  public void shouldCommitOnceForAllTheBatchesWaiting() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    BlockingStorer blocker = new BlockingStorer();
+    writer.submit(blocker, ImmutableList.of("x"));
+    blocker.committing.await();
+
+    BlockingStorer storer = new BlockingStorer();
+    storer.release.countDown();
+    writer.submit(storer, ImmutableList.of("a"));
+    writer.submit(storer, ImmutableList.of("b"));
+    blocker.release.countDown();
+
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    assertThat(storer.inserted,
+        equalTo((List<String>) ImmutableList.of("a", "b")));
+    assertThat(storer.commits, is(1));
+  }
+
+  @Test
+  public void shouldBlockUntilThereIsRoomForTheEvents() throws Exception {
+    final StoreWriter writer = new StoreWriter(2);
+    final BlockingStorer storer = new BlockingStorer();
+    writer.submit(storer, ImmutableList.of("a", "b"));
+    storer.committing.await();
+
+    final CountDownLatch submitted = new CountDownLatch(1);
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        writer.submit(storer, ImmutableList.of("c"));
+        submitted.countDown();
+      }
+    };
+    thread.start();
+    assertThat(submitted.await(200, TimeUnit.MILLISECONDS), is(false));
+
+    storer.release.countDown();
+    assertThat(submitted.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    assertThat(storer.inserted.size(), is(3));
+  }
+
+  @Test
+  public void shouldAcceptABatchLargerThanTheCapacityIfIdle()
+      throws Exception {
+    StoreWriter writer = new StoreWriter(1);
+    BlockingStorer storer = new BlockingStorer();
+    storer.release.countDown();
+    writer.submit(storer, ImmutableList.of("a", "b", "c"));
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    assertThat(storer.inserted.size(), is(3));
+  }
+
+  @Test
+  public void shouldReturnFalseIfTheTimeIsUpWhileDraining() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    BlockingStorer storer = new BlockingStorer();
+    writer.submit(storer, ImmutableList.of("a"));
+    storer.committing.await();
+
+    assertThat(writer.drain(50, TimeUnit.MILLISECONDS), is(false));
+    storer.release.countDown();
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldContinueWritingIfAStorerFails() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    IStorer<String> failing = mock(IStorer.class);
+    doThrow(new RuntimeException()).when(failing).commit();
+    IStorer<String> storer = mock(IStorer.class);
+
+    writer.submit(failing, ImmutableList.of("a"));
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    writer.submit(storer, ImmutableList.of("b"));
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+    verify(storer, times(1)).commit();
+  }
+
+  @Test
+  public void shouldWriteDifferentStorersInParallel() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    BlockingStorer blocker = new BlockingStorer();
+    writer.submit(blocker, ImmutableList.of("x"));
+    blocker.committing.await();
+
+    BlockingStorer first = new BlockingStorer();
+    BlockingStorer second = new BlockingStorer();
+    writer.submit(first, ImmutableList.of("a"));
+    writer.submit(second, ImmutableList.of("b"));
+    blocker.release.countDown();
+
+    // Both are committing before either is released:
+    assertThat(first.committing.await(5, TimeUnit.SECONDS), is(true));
+    assertThat(second.committing.await(5, TimeUnit.SECONDS), is(true));
+    first.release.countDown();
+    second.release.countDown();
+    assertThat(writer.drain(5, TimeUnit.SECONDS), is(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldSpillTheBatchesNotWrittenInTime() throws Exception {
+    StoreWriter writer = new StoreWriter(10);
+    BlockingStorer blocker = new BlockingStorer();
+    writer.submit(blocker, ImmutableList.of("x"));
+    blocker.committing.await();
+
+    ISpillableStorer<String> spillable = mock(ISpillableStorer.class);
+    IStorer<String> storer = mock(IStorer.class);
+    writer.submit(spillable, ImmutableList.of("a"));
+    writer.submit(storer, ImmutableList.of("b"));
+
+    final StoreWriter flushed = writer;
+    FutureTask<Boolean> flush = new FutureTask<Boolean>(
+        new Callable<Boolean>() {
+          @Override
+          public Boolean call() throws Exception {
+            return flushed.flush(50, TimeUnit.MILLISECONDS);
+          }
+        });
+    new Thread(flush).start();
+    verify(spillable, timeout(5000)).spill();
+    verify(spillable).insert(ImmutableList.of("a"));
+    verify(spillable, never()).commit();
+    verify(storer).commit();
+
+    // The batch being written is waited for:
+    assertThat(flush.isDone(), is(false));
+    blocker.release.countDown();
+    assertThat(flush.get(5, TimeUnit.SECONDS), is(false));
+    assertThat(writer.size(), is(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionIfCapacityIsNotPositive() {
+    new StoreWriter(0);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfStorerIsNull() {
+    new StoreWriter(1).submit(null, ImmutableList.of("a"));
+  }
+}
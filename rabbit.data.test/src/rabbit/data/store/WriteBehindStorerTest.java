@@ -0,0 +1,122 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @see WriteBehindStorer
+ */
+public class WriteBehindStorerTest {
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldWriteTheInsertedObjectsOnCommit() throws Exception {
+    IStorer<String> storer = mock(IStorer.class);
+    StoreWriter writer = new StoreWriter(10);
+    WriteBehindStorer<String> s = new WriteBehindStorer<String>(storer, writer);
+    s.insert("a");
+    s.insert(ImmutableList.of("b", "c"));
+    verify(storer, never()).insert(anyCollection());
+
+    s.commit();
+    writer.drain(5, TimeUnit.SECONDS);
+    verify(storer).insert((List<String>) ImmutableList.of("a", "b", "c"));
+    verify(storer).commit();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldReleaseTheRecordsOnceStored() throws Exception {
+    IBufferedStorer<String> storer = mock(IBufferedStorer.class);
+    when(storer.record(anyCollection())).thenReturn(3L);
+    StoreWriter writer = new StoreWriter(10);
+    WriteBehindStorer<String> s = new WriteBehindStorer<String>(storer, writer);
+    assertEquals(3L, s.record(ImmutableList.of("a")));
+    verify(storer).record(ImmutableList.of("a"));
+
+    s.insert("a");
+    s.commit(3L);
+    writer.drain(5, TimeUnit.SECONDS);
+    InOrder order = inOrder(storer);
+    order.verify(storer).prepare(3L);
+    order.verify(storer).insert((List<String>) ImmutableList.of("a"));
+    order.verify(storer).commit();
+    order.verify(storer).release(3L);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotReleaseTheRecordsWithoutAMark() throws Exception {
+    IBufferedStorer<String> storer = mock(IBufferedStorer.class);
+    StoreWriter writer = new StoreWriter(10);
+    WriteBehindStorer<String> s = new WriteBehindStorer<String>(storer, writer);
+    s.insert("a");
+    s.commit();
+    writer.drain(5, TimeUnit.SECONDS);
+    verify(storer).commit();
+    verify(storer, never()).release(anyLong());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldKeepTheRecordsIfNothingHasBeenInserted() throws Exception {
+    IBufferedStorer<String> storer = mock(IBufferedStorer.class);
+    StoreWriter writer = new StoreWriter(10);
+    new WriteBehindStorer<String>(storer, writer).commit(3L);
+    writer.drain(5, TimeUnit.SECONDS);
+    verify(storer, never()).release(anyLong());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldNotWriteIfNothingHasBeenInserted() throws Exception {
+    IStorer<String> storer = mock(IStorer.class);
+    StoreWriter writer = new StoreWriter(10);
+    new WriteBehindStorer<String>(storer, writer).commit();
+    writer.drain(5, TimeUnit.SECONDS);
+    verify(storer, never()).commit();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldReturnTheStorer() {
+    IStorer<String> storer = mock(IStorer.class);
+    assertSame(storer, new WriteBehindStorer<String>(storer,
+        StoreWriter.getDefault()).getStorer());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfStorerIsNull() {
+    new WriteBehindStorer<String>(null, StoreWriter.getDefault());
+  }
+}
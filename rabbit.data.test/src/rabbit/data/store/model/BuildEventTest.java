@@ -0,0 +1,66 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+/**
+ * Test for {@link BuildEvent}
+ */
+public class BuildEventTest extends DiscreteEventTest {
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_withNullProject() {
+    new BuildEvent(new DateTime(), null, true, 1, new Duration(1));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_withNullDuration() {
+    new BuildEvent(new DateTime(), mock(IProject.class), true, 1, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructor_withZeroCount() {
+    new BuildEvent(new DateTime(), mock(IProject.class), true, 0,
+        new Duration(1));
+  }
+
+  @Test
+  public void testGetters() {
+    IProject project = mock(IProject.class);
+    int count = 3;
+    Duration duration = new Duration(2000);
+    BuildEvent event =
+        new BuildEvent(new DateTime(), project, true, count, duration);
+    assertEquals(project, event.getProject());
+    assertTrue(event.isFullBuild());
+    assertEquals(count, event.getCount());
+    assertEquals(duration, event.getDuration());
+  }
+
+  @Override
+  protected BuildEvent createEvent(DateTime time) {
+    return new BuildEvent(time, mock(IProject.class), false, 1,
+        new Duration(1));
+  }
+}
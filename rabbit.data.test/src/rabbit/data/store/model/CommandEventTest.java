@@ -17,6 +17,7 @@ package rabbit.data.store.model;
 
 import rabbit.data.store.model.CommandEvent;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 
@@ -54,6 +55,17 @@ public class CommandEventTest extends DiscreteEventTest {
     new CommandEvent(new DateTime(), null);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructor_withZeroCount() {
+    new CommandEvent(new DateTime(), exe, 0);
+  }
+
+  @Test
+  public void testGetCount() {
+    assertEquals(1, event.getCount());
+    assertEquals(3, new CommandEvent(new DateTime(), exe, 3).getCount());
+  }
+
   @Test
   public void testGetExecutionEvent() {
     assertSame(exe, event.getExecutionEvent());
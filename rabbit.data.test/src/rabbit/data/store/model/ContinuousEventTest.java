@@ -21,6 +21,7 @@ import rabbit.data.store.model.DiscreteEvent;
 import static org.junit.Assert.assertEquals;
 
 import org.joda.time.DateTime;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 import org.junit.Test;
 
@@ -41,6 +42,25 @@ public class ContinuousEventTest extends DiscreteEventTest {
     assertEquals(interval, createEvent(interval).getInterval());
   }
 
+  @Test
+  public void testGetDuration() {
+    Interval interval = new Interval(1, 3);
+    assertEquals(interval.toDuration(), createEvent(interval).getDuration());
+  }
+
+  @Test
+  public void testGetDuration_ofSeveralEvents() {
+    ContinuousEvent event = new ContinuousEvent(new Interval(1, 10),
+        new Duration(4));
+    assertEquals(new Interval(1, 10), event.getInterval());
+    assertEquals(new Duration(4), event.getDuration());
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_durationNull() {
+    new ContinuousEvent(new Interval(1, 2), null);
+  }
+
   /**
    * @deprecated ContinuesEvent doesn't use an constructor with DateTime, use
    *             {@link #createEvent(Interval)} instead.
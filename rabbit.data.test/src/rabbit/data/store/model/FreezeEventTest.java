@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store.model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+/**
+ * Test for {@link FreezeEvent}
+ */
+public class FreezeEventTest extends DiscreteEventTest {
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_withNullPartId() {
+    new FreezeEvent(new DateTime(), null, new Duration(1), 1, new Duration(1));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_withNullBucket() {
+    new FreezeEvent(new DateTime(), "a", null, 1, new Duration(1));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testConstructor_withNullDuration() {
+    new FreezeEvent(new DateTime(), "a", new Duration(1), 1, null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructor_withZeroCount() {
+    new FreezeEvent(new DateTime(), "a", new Duration(1), 0, new Duration(1));
+  }
+
+  @Test
+  public void testGetters() {
+    String partId = "abc";
+    Duration bucket = new Duration(500);
+    int count = 3;
+    Duration duration = new Duration(2000);
+    FreezeEvent event =
+        new FreezeEvent(new DateTime(), partId, bucket, count, duration);
+    assertEquals(partId, event.getPartId());
+    assertEquals(bucket, event.getBucket());
+    assertEquals(count, event.getCount());
+    assertEquals(duration, event.getDuration());
+  }
+
+  @Override
+  protected FreezeEvent createEvent(DateTime time) {
+    return new FreezeEvent(time, "a", new Duration(1), 1, new Duration(1));
+  }
+}
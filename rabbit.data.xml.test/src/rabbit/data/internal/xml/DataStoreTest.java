@@ -15,17 +15,24 @@
  */
 package rabbit.data.internal.xml;
 
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
 import rabbit.data.internal.xml.schema.events.ObjectFactory;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.matchers.JUnitMatchers.hasItems;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.PrefixFileFilter;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.joda.time.LocalDate;
@@ -34,6 +41,7 @@ import org.joda.time.MutableDateTime;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -47,6 +55,8 @@ public class DataStoreTest {
 
   private DataStore store = DataStore.PART_STORE;
 
+  private ObjectFactory objectFactory = new ObjectFactory();
+
   @Test
   public void testGetDataFile() {
     assertNotNull(store.getDataFile(new LocalDate()));
@@ -169,6 +179,113 @@ public class DataStoreTest {
     }
   }
 
+  @Test
+  public void testRead_startEnd() throws IOException {
+    LocalDate date = new LocalDate(1, 1, 1);
+    File f = File.createTempFile("DataStoreTest", ".xml");
+
+    EventListType doc = objectFactory.createEventListType();
+    PartEventListType inside = objectFactory.createPartEventListType();
+    inside.setDate(toXmlDate(date));
+    PartEventListType outside = objectFactory.createPartEventListType();
+    outside.setDate(toXmlDate(date.plusDays(1)));
+    doc.getPartEvents().add(inside);
+    doc.getPartEvents().add(outside);
+    store.write(doc, f);
+
+    EventListType result = store.read(f, date, date);
+    assertThat(result.getPartEvents().size(), equalTo(1));
+    assertThat(toLocalDate(result.getPartEvents().get(0).getDate()),
+        equalTo(date));
+    FileUtils.forceDelete(f);
+  }
+
+  @Test
+  public void testRead_startEnd_fileNotExist() {
+    File f = new File(System.getProperty("user.home") + File.separator
+        + System.nanoTime() + ".xml");
+    assertFalse(f.exists());
+    LocalDate date = new LocalDate();
+    assertNotNull(store.read(f, date, date));
+  }
+
+  @Test
+  public void testAppend() throws IOException {
+    LocalDate date = new LocalDate(1, 1, 1);
+    File f = File.createTempFile("DataStoreTest", ".xml");
+    FileUtils.forceDelete(f);
+
+    EventListType doc = objectFactory.createEventListType();
+    PartEventListType group = objectFactory.createPartEventListType();
+    group.setDate(toXmlDate(date));
+    doc.getPartEvents().add(group);
+    assertTrue(store.append(doc, f));
+    assertTrue(store.append(doc, f));
+
+    assertFalse(f.exists());
+    assertTrue(store.getJournalFile(f).exists());
+    assertThat(store.read(f).getPartEvents().size(), equalTo(2));
+    assertThat(store.read(f, date, date).getPartEvents().size(), equalTo(2));
+    assertTrue(store.read(f, date.plusDays(1), date.plusDays(1))
+        .getPartEvents().isEmpty());
+
+    // Writing the file replaces the journal:
+    assertTrue(store.write(objectFactory.createEventListType(), f));
+    assertFalse(store.getJournalFile(f).exists());
+    assertTrue(store.read(f).getPartEvents().isEmpty());
+    FileUtils.forceDelete(f);
+  }
+
+  @Test
+  public void testAppend_incompleteJournal() throws IOException {
+    LocalDate date = new LocalDate(1, 1, 1);
+    File f = File.createTempFile("DataStoreTest", ".xml");
+    FileUtils.forceDelete(f);
+    File journal = store.getJournalFile(f);
+
+    EventListType doc = objectFactory.createEventListType();
+    PartEventListType group = objectFactory.createPartEventListType();
+    group.setDate(toXmlDate(date));
+    doc.getPartEvents().add(group);
+    assertTrue(store.append(doc, f));
+    FileUtils.writeStringToFile(journal,
+        FileUtils.readFileToString(journal, "UTF-8") + "<events><part",
+        "UTF-8");
+
+    // The bad tail is cut off, so that the fragments after it can be read:
+    assertTrue(store.append(doc, f));
+    assertThat(store.read(f).getPartEvents().size(), equalTo(2));
+    File[] corrupt = f.getParentFile().listFiles(
+        (FilenameFilter) new PrefixFileFilter(journal.getName() + "-"));
+    assertThat(corrupt.length, equalTo(1));
+    assertThat(FileUtils.readFileToString(corrupt[0], "UTF-8"),
+        equalTo("<events><part"));
+    FileUtils.forceDelete(corrupt[0]);
+    FileUtils.forceDelete(journal);
+  }
+
+  @Test
+  public void testReadForUpdate() throws IOException {
+    File f = File.createTempFile("DataStoreTest", ".xml");
+    FileUtils.forceDelete(f);
+    assertNotNull(store.readForUpdate(f));
+
+    FileUtils.writeStringToFile(f, "<events><part", "UTF-8");
+    assertNull(store.readForUpdate(f));
+    assertNotNull(store.read(f));
+    FileUtils.forceDelete(f);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testAppend_dataNull() {
+    store.append(null, new File("/"));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testAppend_fileNull() {
+    store.append(new ObjectFactory().createEventListType(), null);
+  }
+
   @Test
   public void testWrite() {
 
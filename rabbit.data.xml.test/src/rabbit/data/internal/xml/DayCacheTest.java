@@ -0,0 +1,141 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @see DayCache
+ */
+public class DayCacheTest {
+
+  private DayCache cache;
+  private IDataStore store;
+  private File file;
+  private File journal;
+
+  @Before
+  public void before() throws Exception {
+    cache = new DayCache(10 * DayCache.BYTES_PER_NODE);
+    file = File.createTempFile("DayCacheTest", ".xml");
+    journal = new File(file.getPath() + ".journal");
+    store = mock(IDataStore.class);
+    when(store.getJournalFile(file)).thenReturn(journal);
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+    FileUtils.deleteQuietly(journal);
+  }
+
+  @Test
+  public void shouldReturnTheNodesOfAnUnchangedFile() {
+    LocalDate day = new LocalDate(2010, 1, 1);
+    List<Long> stamp = DayCache.stamp(store, file);
+    cache.put(file, stamp, day, ImmutableList.of("a", "b"));
+    assertThat(cache.get(file, DayCache.stamp(store, file), day),
+        equalTo((List<?>) ImmutableList.of("a", "b")));
+  }
+
+  @Test
+  public void shouldReturnNullIfTheDayIsNotCached() {
+    List<Long> stamp = DayCache.stamp(store, file);
+    cache.put(file, stamp, new LocalDate(2010, 1, 1), ImmutableList.of("a"));
+    assertThat(cache.get(file, stamp, new LocalDate(2010, 1, 2)),
+        is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnNullIfTheFileHasChanged() throws Exception {
+    LocalDate day = new LocalDate(2010, 1, 1);
+    cache.put(file, DayCache.stamp(store, file), day, ImmutableList.of("a"));
+    FileUtils.writeStringToFile(journal, "changed");
+    assertThat(cache.get(file, DayCache.stamp(store, file), day),
+        is(nullValue()));
+  }
+
+  @Test
+  public void shouldKeepTheOtherDaysAfterAnUpdate() throws Exception {
+    LocalDate day1 = new LocalDate(2010, 1, 1);
+    LocalDate day2 = new LocalDate(2010, 1, 2);
+    List<Long> stamp = DayCache.stamp(store, file);
+    cache.put(file, stamp, day1, ImmutableList.of("a"));
+    cache.put(file, stamp, day2, ImmutableList.of("b"));
+
+    FileUtils.writeStringToFile(journal, "changed");
+    cache.update(store, file, Collections.singleton(day2));
+
+    stamp = DayCache.stamp(store, file);
+    assertThat(cache.get(file, stamp, day1),
+        equalTo((List<?>) ImmutableList.of("a")));
+    assertThat(cache.get(file, stamp, day2), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnNullAfterTheFileIsInvalidated() {
+    LocalDate day = new LocalDate(2010, 1, 1);
+    List<Long> stamp = DayCache.stamp(store, file);
+    cache.put(file, stamp, day, ImmutableList.of("a"));
+    cache.invalidate(file);
+    assertThat(cache.get(file, stamp, day), is(nullValue()));
+  }
+
+  @Test
+  public void shouldEvictEntriesOverTheBudget() throws Exception {
+    File other = File.createTempFile("DayCacheTest", ".xml");
+    try {
+      when(store.getJournalFile(other)).thenReturn(journal);
+      LocalDate day = new LocalDate(2010, 1, 1);
+      List<Long> stamp = DayCache.stamp(store, file);
+      cache.put(file, stamp, day, ImmutableList.of("1", "2", "3", "4"));
+      cache.put(other, DayCache.stamp(store, other), day,
+          ImmutableList.of("1", "2", "3", "4", "5"));
+
+      assertThat(cache.get(file, stamp, day), is(nullValue()));
+      assertThat(cache.getWeight() <= 10 * DayCache.BYTES_PER_NODE, is(true));
+    } finally {
+      FileUtils.deleteQuietly(other);
+    }
+  }
+
+  @Test
+  public void shouldCacheNothingIfTheSizeIsZero() {
+    cache.setSize(0);
+    LocalDate day = new LocalDate(2010, 1, 1);
+    List<Long> stamp = DayCache.stamp(store, file);
+    cache.put(file, stamp, day, ImmutableList.of("a"));
+    assertThat(cache.get(file, stamp, day), is(nullValue()));
+    assertThat(cache.getWeight(), is(0L));
+  }
+}
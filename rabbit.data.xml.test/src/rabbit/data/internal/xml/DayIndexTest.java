@@ -0,0 +1,151 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import javax.xml.bind.JAXBElement;
+
+/**
+ * @see DayIndex
+ */
+public class DayIndexTest {
+
+  private final ObjectFactory objectFactory = new ObjectFactory();
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("DayIndexTest", ".xml");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(DayIndex.getIndexFile(file));
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Test
+  public void shouldWriteAFileThatCanBeReadAsAWhole() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    DayIndex.write(createDoc(date), file);
+
+    Object obj = JaxbUtil.unmarshal(file);
+    EventListType doc = (EventListType) ((JAXBElement<?>) obj).getValue();
+    assertThat(doc.getFileEvents().size(), is(3));
+  }
+
+  @Test
+  public void shouldOnlyReadTheGroupsBetweenTheDates() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    DayIndex.write(createDoc(date), file);
+
+    DayIndex index = DayIndex.load(file);
+    assertThat(index, is(notNullValue()));
+
+    List<EventGroupType> groups = Lists.newArrayList();
+    assertThat(index.read(date, date, collector(groups)), is(true));
+    assertThat(groups.size(), is(1));
+    FileEventListType group = (FileEventListType) groups.get(0);
+    assertThat(group.getFileEvent().get(0).getFilePath(), equalTo("/b"));
+  }
+
+  @Test
+  public void shouldNotLoadAnIndexIfTheFileHasChanged() throws Exception {
+    DayIndex.write(createDoc(new LocalDate(2010, 3, 15)), file);
+    FileUtils.writeStringToFile(file, "<events></events>");
+    assertThat(DayIndex.load(file), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotLoadAMissingIndex() throws Exception {
+    assertThat(DayIndex.load(file), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReadNothingIfAChecksumDoesNotMatch() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    DayIndex.write(createDoc(date), file);
+    DayIndex index = DayIndex.load(file);
+
+    // Changes the content without changing the length:
+    long modified = file.lastModified();
+    RandomAccessFile out = new RandomAccessFile(file, "rw");
+    try {
+      out.seek(out.length() - "</events>".length() - 10);
+      out.write('x');
+    } finally {
+      out.close();
+    }
+    file.setLastModified(modified);
+
+    List<EventGroupType> groups = Lists.newArrayList();
+    assertThat(index.read(null, null, collector(groups)), is(false));
+    assertThat(groups.isEmpty(), is(true));
+  }
+
+  private EventListType createDoc(LocalDate date) {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date.minusDays(1), "/a"));
+    doc.getFileEvents().add(createGroup(date, "/b"));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/c"));
+    return doc;
+  }
+
+  private FileEventListType createGroup(LocalDate date, String path) {
+    FileEventType type = objectFactory.createFileEventType();
+    type.setFilePath(path);
+    type.setDuration(10);
+    FileEventListType group = objectFactory.createFileEventListType();
+    group.setDate(toXmlDate(date));
+    group.getFileEvent().add(type);
+    return group;
+  }
+
+  private IEventGroupHandler collector(final List<EventGroupType> groups) {
+    return new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        groups.add(group);
+      }
+    };
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * @see EventGroupReader
+ */
+public class EventGroupReaderTest {
+
+  private final ObjectFactory objectFactory = new ObjectFactory();
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("EventGroupReaderTest", ".xml");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Test
+  public void shouldOnlyReadTheGroupsBetweenTheDates() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date.minusDays(1), "/a"));
+    doc.getFileEvents().add(createGroup(date, "/b"));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/c"));
+    JaxbUtil.marshal(objectFactory.createEvents(doc), file);
+
+    List<EventGroupType> groups = read(date, date);
+    assertThat(groups.size(), is(1));
+    assertThat(groups.get(0), instanceOf(FileEventListType.class));
+
+    FileEventListType group = (FileEventListType) groups.get(0);
+    assertThat(toLocalDate(group.getDate()), equalTo(date));
+    assertThat(group.getFileEvent().size(), is(1));
+    assertThat(group.getFileEvent().get(0).getFilePath(), equalTo("/b"));
+  }
+
+  @Test
+  public void shouldReadAllTheGroupsWithinTheDates() throws Exception {
+    LocalDate start = new LocalDate(2010, 3, 1);
+    LocalDate end = new LocalDate(2010, 3, 31);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(start, "/a"));
+    doc.getFileEvents().add(createGroup(end, "/b"));
+    JaxbUtil.marshal(objectFactory.createEvents(doc), file);
+
+    assertThat(read(start, end).size(), is(2));
+  }
+
+  @Test
+  public void shouldReadNothingIfNoGroupsAreWithinTheDates() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a"));
+    JaxbUtil.marshal(objectFactory.createEvents(doc), file);
+
+    assertThat(read(date.plusDays(1), date.plusDays(2)).isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldReadTheGroupsOfAllTheFragmentsInAJournal()
+      throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a"));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/b"));
+    OutputStream out = new FileOutputStream(file);
+    try {
+      JaxbUtil.marshalFragment(objectFactory.createEvents(doc), out);
+      JaxbUtil.marshalFragment(objectFactory.createEvents(doc), out);
+    } finally {
+      out.close();
+    }
+
+    assertThat(readJournal(date, date).size(), is(2));
+    assertThat(readJournal(null, null).size(), is(4));
+  }
+
+  @Test
+  public void shouldOnlyReadTheCompleteFragmentsOfAJournal() throws Exception {
+    LocalDate date = new LocalDate(2010, 3, 15);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a"));
+    OutputStream out = new FileOutputStream(file);
+    try {
+      JaxbUtil.marshalFragment(objectFactory.createEvents(doc), out);
+      out.write("<events><fileEvents".getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+    long complete = file.length() - "<events><fileEvents".length();
+
+    final List<EventGroupType> groups = Lists.newArrayList();
+    long length = EventGroupReader.readJournal(file, null, null,
+        new IEventGroupHandler() {
+          @Override
+          public void handle(EventGroupType group) {
+            groups.add(group);
+          }
+        });
+    assertThat(length, is(complete));
+    assertThat(groups.size(), is(1));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfHandlerIsNull()
+      throws Exception {
+    EventGroupReader.read(file, new LocalDate(), new LocalDate(), null);
+  }
+
+  private FileEventListType createGroup(LocalDate date, String path) {
+    FileEventType type = objectFactory.createFileEventType();
+    type.setFilePath(path);
+    type.setDuration(10);
+    FileEventListType group = objectFactory.createFileEventListType();
+    group.setDate(toXmlDate(date));
+    group.getFileEvent().add(type);
+    return group;
+  }
+
+  private List<EventGroupType> readJournal(LocalDate start, LocalDate end)
+      throws Exception {
+    final List<EventGroupType> groups = Lists.newArrayList();
+    EventGroupReader.readJournal(file, start, end, new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        groups.add(group);
+      }
+    });
+    return groups;
+  }
+
+  private List<EventGroupType> read(LocalDate start, LocalDate end)
+      throws Exception {
+    final List<EventGroupType> groups = Lists.newArrayList();
+    EventGroupReader.read(file, start, end, new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        groups.add(group);
+      }
+    });
+    return groups;
+  }
+}
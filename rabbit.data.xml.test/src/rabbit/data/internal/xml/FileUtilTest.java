@@ -0,0 +1,87 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * @see FileUtil
+ */
+public class FileUtilTest {
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("FileUtilTest", ".xml");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+    FileUtils.deleteQuietly(FileUtil.getTempFile(file));
+  }
+
+  @Test
+  public void shouldGetATempFileInTheSameDirectory() {
+    File temp = FileUtil.getTempFile(file);
+    assertThat(temp.getParentFile(), equalTo(file.getParentFile()));
+    assertThat(temp.equals(file), is(false));
+  }
+
+  @Test
+  public void shouldReplaceTheFileWithTheTempFile() throws Exception {
+    FileUtils.writeStringToFile(file, "old");
+    File temp = FileUtil.getTempFile(file);
+    FileUtils.writeStringToFile(temp, "new");
+
+    FileUtil.replace(temp, file);
+    assertThat(FileUtils.readFileToString(file), equalTo("new"));
+    assertThat(temp.exists(), is(false));
+  }
+
+  @Test
+  public void shouldDeleteTheFilesMovedAsideByEarlierReplaces()
+      throws Exception {
+    File old = new File(file.getParentFile(), file.getName() + "-1.old");
+    FileUtils.writeStringToFile(old, "older");
+    File temp = FileUtil.getTempFile(file);
+    FileUtils.writeStringToFile(temp, "new");
+
+    FileUtil.replace(temp, file);
+    assertThat(old.exists(), is(false));
+    assertThat(FileUtils.readFileToString(file), equalTo("new"));
+  }
+
+  @Test
+  public void shouldCreateTheFileIfItDoesNotExist() throws Exception {
+    FileUtils.forceDelete(file);
+    File temp = FileUtil.getTempFile(file);
+    FileUtils.writeStringToFile(temp, "new");
+
+    FileUtil.replace(temp, file);
+    assertThat(FileUtils.readFileToString(file), equalTo("new"));
+  }
+}
@@ -19,9 +19,21 @@ import rabbit.data.internal.xml.JaxbUtil;
 import rabbit.data.internal.xml.schema.events.EventListType;
 import rabbit.data.internal.xml.schema.events.ObjectFactory;
 
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Lists;
+
 import org.junit.Test;
 
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBElement;
 
@@ -54,4 +66,38 @@ public class JaxbUtilTest {
   public void testUnmarshal_withFileNull() throws Exception {
     JaxbUtil.unmarshal(null);
   }
+
+  @Test
+  public void testGetContext() throws Exception {
+    assertThat(JaxbUtil.getContext(), sameInstance(JaxbUtil.getContext()));
+  }
+
+  @Test
+  public void testMarshalAndUnmarshal_concurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Object>> results = Lists.newArrayList();
+      for (int i = 0; i < 20; i++) {
+        results.add(executor.submit(new Callable<Object>() {
+          @Override
+          public Object call() throws Exception {
+            File f = File.createTempFile("tmpJaxb", "abc");
+            try {
+              JaxbUtil.marshal(objectFactory.createEvents(objectFactory
+                  .createEventListType()), f);
+              return JaxbUtil.unmarshal(f);
+            } finally {
+              f.delete();
+            }
+          }
+        }));
+      }
+      for (Future<Object> result : results) {
+        // Throws an exception if any of the tasks has failed:
+        assertThat(result.get(), not(nullValue()));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
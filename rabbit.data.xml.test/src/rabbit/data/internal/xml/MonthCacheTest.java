@@ -0,0 +1,153 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * @see MonthCache
+ */
+public class MonthCacheTest {
+
+  private final ObjectFactory objectFactory = new ObjectFactory();
+
+  private MonthCache cache;
+  private IDataStore store;
+  private File file;
+  private File journal;
+
+  @Before
+  public void before() throws Exception {
+    cache = new MonthCache(10 * MonthCache.BYTES_PER_EVENT);
+    file = File.createTempFile("MonthCacheTest", ".xml");
+    journal = new File(file.getPath() + ".journal");
+    store = mock(IDataStore.class);
+    when(store.getJournalFile(file)).thenReturn(journal);
+    when(store.read(file)).thenReturn(objectFactory.createEventListType());
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+    FileUtils.deleteQuietly(journal);
+  }
+
+  @Test
+  public void shouldReadAnUnchangedFileOnlyOnce() {
+    EventListType doc = cache.read(store, file);
+    assertThat(cache.read(store, file), sameInstance(doc));
+    verify(store, times(1)).read(file);
+  }
+
+  @Test
+  public void shouldReadAgainAfterTheFileIsInvalidated() {
+    cache.read(store, file);
+    cache.invalidate(file);
+    cache.read(store, file);
+    verify(store, times(2)).read(file);
+  }
+
+  @Test
+  public void shouldReadAgainAfterTheJournalIsChanged() throws Exception {
+    cache.read(store, file);
+    FileUtils.writeStringToFile(journal, "changed");
+    cache.read(store, file);
+    verify(store, times(2)).read(file);
+  }
+
+  @Test
+  public void shouldEvictTheLeastRecentlyUsedEntriesWhenOverTheBudget()
+      throws Exception {
+    File other = File.createTempFile("MonthCacheTest", ".xml");
+    try {
+      when(store.getJournalFile(other)).thenReturn(journal);
+      when(store.read(other)).thenReturn(createDoc(5));
+      when(store.read(file)).thenReturn(createDoc(5));
+
+      cache.read(store, file);
+      cache.read(store, other); // Over the budget, evicts file
+      cache.read(store, other);
+      cache.read(store, file);
+      verify(store, times(2)).read(file);
+      verify(store, times(1)).read(other);
+      assertThat(cache.getWeight() <= 10 * MonthCache.BYTES_PER_EVENT,
+          is(true));
+    } finally {
+      FileUtils.deleteQuietly(other);
+    }
+  }
+
+  @Test
+  public void shouldWeighAnEntryByItsEventsAndTheLengthsOfItsFiles()
+      throws Exception {
+    FileUtils.writeStringToFile(file, "1234567890");
+    FileUtils.writeStringToFile(journal, "12345");
+    when(store.read(file)).thenReturn(createDoc(2));
+
+    cache = new MonthCache(Long.MAX_VALUE);
+    cache.read(store, file);
+    // Two events, one group, and the document:
+    assertThat(cache.getWeight(), is(4 * MonthCache.BYTES_PER_EVENT + 15 * 2));
+  }
+
+  @Test
+  public void shouldNotCacheAnythingIfTheSizeIsZero() {
+    cache.setSize(0);
+    cache.read(store, file);
+    cache.read(store, file);
+    verify(store, times(2)).read(file);
+    assertThat(cache.getWeight(), is(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionIfTheSizeIsNegative() {
+    cache.setSize(-1);
+  }
+
+  /**
+   * Creates a document with the given number of events, in one group.
+   */
+  private EventListType createDoc(int numEvents) {
+    PartEventListType group = objectFactory.createPartEventListType();
+    group.setDate(toXmlDate(new LocalDate()));
+    for (int i = 0; i < numEvents; i++) {
+      group.getPartEvent().add(objectFactory.createPartEventType());
+    }
+    EventListType doc = objectFactory.createEventListType();
+    doc.getPartEvents().add(group);
+    return doc;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import rabbit.data.internal.xml.Rollups.Period;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * @see Rollups
+ */
+public class RollupsTest {
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("RollupsTest", ".xml");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Test
+  public void shouldReturnTheMondayAndSundayOfAWeek() {
+    LocalDate wednesday = new LocalDate(2010, 3, 17);
+    assertThat(Period.WEEK.getStart(wednesday),
+        equalTo(new LocalDate(2010, 3, 15)));
+    assertThat(Period.WEEK.getEnd(wednesday),
+        equalTo(new LocalDate(2010, 3, 21)));
+  }
+
+  @Test
+  public void shouldClipTheWeeksToTheMonth() {
+    // 2010-03-31 is a Wednesday, 2010-04-01 is a Thursday:
+    assertThat(Period.WEEK.getStart(new LocalDate(2010, 4, 1)),
+        equalTo(new LocalDate(2010, 4, 1)));
+    assertThat(Period.WEEK.getEnd(new LocalDate(2010, 3, 29)),
+        equalTo(new LocalDate(2010, 3, 31)));
+  }
+
+  @Test
+  public void shouldReturnTheFirstAndLastDaysOfAMonth() {
+    LocalDate day = new LocalDate(2010, 2, 10);
+    assertThat(Period.MONTH.getStart(day), equalTo(new LocalDate(2010, 2, 1)));
+    assertThat(Period.MONTH.getEnd(day), equalTo(new LocalDate(2010, 2, 28)));
+  }
+
+  @Test
+  public void shouldReturnTheRollupFilesNextToTheDataFile() {
+    File week = Rollups.getRollupFile(file, Period.WEEK);
+    File month = Rollups.getRollupFile(file, Period.MONTH);
+    assertThat(week.getParentFile(), equalTo(file.getParentFile()));
+    assertThat(week.equals(month), is(false));
+  }
+
+  @Test
+  public void shouldReturnNullIfThereIsNoRollup() {
+    assertThat(Rollups.read(mock(IDataStore.class), file, Period.MONTH),
+        is(nullValue()));
+  }
+}
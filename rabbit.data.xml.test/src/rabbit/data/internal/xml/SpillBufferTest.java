@@ -0,0 +1,200 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * @see SpillBuffer
+ */
+public class SpillBufferTest {
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("SpillBufferTest", ".spill");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Test
+  public void shouldReadTheRecordsAppended() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    buffer.append(bytes("b"));
+    assertThat(strings(buffer.read()), equalTo(list("a", "b")));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldKeepTheRecordsNotReleasedWhenReopened() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    long mark = buffer.mark();
+    buffer.append(bytes("b"));
+    buffer.release(mark);
+    buffer.close();
+
+    buffer = SpillBuffer.open(file, 1024);
+    assertThat(strings(buffer.read()), equalTo(list("b")));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldReuseTheSpaceOfTheRecordsReleased() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 64);
+    // Each record takes 8 + 20 bytes, so the ring wraps around:
+    for (int i = 0; i < 10; i++) {
+      String data = String.format("%020d", i);
+      assertThat(buffer.append(bytes(data)), is(true));
+      buffer.release(buffer.mark() - 1);
+      assertThat(strings(buffer.read()), equalTo(list(data)));
+    }
+    buffer.close();
+
+    buffer = SpillBuffer.open(file, 64);
+    assertThat(strings(buffer.read()),
+        equalTo(list(String.format("%020d", 9))));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldRejectARecordIfThereIsNoSpace() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 64);
+    assertThat(buffer.append(new byte[30]), is(true));
+    assertThat(buffer.append(new byte[30]), is(false));
+    buffer.release(buffer.mark());
+    assertThat(buffer.append(new byte[30]), is(true));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldIgnoreACorruptRecordAndTheRecordsAfterIt()
+      throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    buffer.append(bytes("b"));
+    buffer.append(bytes("c"));
+    buffer.close();
+
+    // Changes the data of "b", after the 1024 byte header and record "a":
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.seek(1024 + 9 + 8);
+      raf.write('x');
+    } finally {
+      raf.close();
+    }
+
+    buffer = SpillBuffer.open(file, 1024);
+    assertThat(strings(buffer.read()), equalTo(list("a")));
+    buffer.append(bytes("d"));
+    assertThat(strings(buffer.read()), equalTo(list("a", "d")));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldKeepTheNoteOfAPreparedWriteWhenReopened()
+      throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    long mark = buffer.mark();
+    buffer.append(bytes("b"));
+    buffer.prepare(mark, bytes("note"));
+    buffer.close();
+
+    buffer = SpillBuffer.open(file, 1024);
+    assertThat(new String(buffer.getPrepared(), Charsets.UTF_8),
+        equalTo("note"));
+    buffer.releasePrepared();
+    assertThat(buffer.getPrepared(), nullValue());
+    assertThat(strings(buffer.read()), equalTo(list("b")));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldKeepTheRecordsOfADiscardedWrite() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    buffer.prepare(buffer.mark(), bytes("note"));
+    buffer.close();
+
+    buffer = SpillBuffer.open(file, 1024);
+    buffer.discardPrepared();
+    assertThat(buffer.getPrepared(), nullValue());
+    assertThat(strings(buffer.read()), equalTo(list("a")));
+    buffer.close();
+  }
+
+  @Test
+  public void shouldDropTheNoteOfAPreparedWriteOnRelease() throws Exception {
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    buffer.append(bytes("a"));
+    long mark = buffer.mark();
+    buffer.prepare(mark, bytes("note"));
+    buffer.release(mark);
+    assertThat(buffer.getPrepared(), nullValue());
+    buffer.close();
+  }
+
+  @Test
+  public void shouldEmptyAFileThatIsNotABuffer() throws Exception {
+    FileUtils.writeStringToFile(file, "Not a buffer, not a buffer at all.");
+    SpillBuffer buffer = SpillBuffer.open(file, 1024);
+    assertThat(buffer.read().isEmpty(), is(true));
+    buffer.close();
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfFileIsNull() throws Exception {
+    SpillBuffer.open(null, 1024);
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(Charsets.UTF_8);
+  }
+
+  private static List<String> list(String... strings) {
+    return Lists.newArrayList(strings);
+  }
+
+  private static List<String> strings(List<byte[]> records) {
+    List<String> result = Lists.newArrayList();
+    for (byte[] record : records) {
+      result.add(new String(record, Charsets.UTF_8));
+    }
+    return result;
+  }
+}
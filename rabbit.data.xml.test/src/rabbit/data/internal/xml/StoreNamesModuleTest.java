@@ -28,6 +28,8 @@ public class StoreNamesModuleTest {
     return Arrays.asList(new Object[][]{
         {StoreNames.COMMAND_STORE,      DataStore.COMMAND_STORE},
         {StoreNames.FILE_STORE,         DataStore.FILE_STORE},
+        {StoreNames.FREEZE_STORE,       DataStore.FREEZE_STORE},
+        {StoreNames.BUILD_STORE,        DataStore.BUILD_STORE},
         {StoreNames.JAVA_STORE,         DataStore.JAVA_STORE},
         {StoreNames.LAUNCH_STORE,       DataStore.LAUNCH_STORE},
         {StoreNames.PART_STORE,         DataStore.PART_STORE},
@@ -17,6 +17,8 @@ package rabbit.data.internal.xml.access;
 
 import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
 
+import rabbit.data.access.IDataHandler;
+import rabbit.data.access.model.IData;
 import rabbit.data.access.model.WorkspaceStorage;
 import rabbit.data.internal.xml.XmlPlugin;
 import rabbit.data.internal.xml.access.AbstractAccessor;
@@ -30,9 +32,14 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.matchers.JUnitMatchers.hasItem;
 
+import com.google.common.collect.Lists;
+
 import org.apache.commons.io.FileUtils;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
 import org.joda.time.LocalDate;
 import org.junit.AfterClass;
@@ -47,7 +54,8 @@ import java.util.List;
 /**
  * @see AbstractAccessor
  */
-public abstract class AbstractAccessorTest2<T, E, S extends EventGroupType> {
+public abstract class AbstractAccessorTest2<T extends IData, E,
+    S extends EventGroupType> {
 
   /**
    * The original storage root, to be restored after the tests.
@@ -184,6 +192,57 @@ public abstract class AbstractAccessorTest2<T, E, S extends EventGroupType> {
     assertValues(element, date, ws, data.iterator().next());
   }
 
+  @Test(expected = OperationCanceledException.class)
+  public void getDataShouldThrowOperationCanceledExceptionIfCanceled() {
+    LocalDate date = new LocalDate();
+    writeData(createElement(), date, accessor.getDataStore().getDataFile(date));
+
+    IProgressMonitor monitor = new NullProgressMonitor();
+    monitor.setCanceled(true);
+    accessor.getData(date, date, monitor);
+  }
+
+  @Test
+  public void getDataShouldReturnTheSameDataWithAMonitor() {
+    LocalDate date = new LocalDate();
+    writeData(createElement(), date, accessor.getDataStore().getDataFile(date));
+
+    assertThat(accessor.getData(date, date, new NullProgressMonitor()).size(),
+        is(accessor.getData(date, date).size()));
+  }
+
+  @Test
+  public void getDataShouldPassTheSameDataToTheHandler() {
+    LocalDate date = new LocalDate();
+    E element = createElement();
+    File file = accessor.getDataStore().getDataFile(date);
+    writeData(element, date, file);
+
+    final List<T> handled = Lists.newArrayList();
+    accessor.getData(date, date, new NullProgressMonitor(),
+        new IDataHandler<T>() {
+          @Override
+          public void handle(T data) {
+            handled.add(data);
+          }
+        });
+    assertThat(handled.size(), is(1));
+    WorkspaceStorage ws = new WorkspaceStorage(new Path(
+        file.getParentFile().getAbsolutePath()), currentWorkspacePath());
+    assertValues(element, date, ws, handled.get(0));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void getDataShouldThrowNullPointerExceptionIfHandlerIsNull() {
+    accessor.getData(new LocalDate(), new LocalDate(),
+        new NullProgressMonitor(), null);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void getDataShouldThrowNullPointerExceptionIfMonitorIsNull() {
+    accessor.getData(new LocalDate(), new LocalDate(), null);
+  }
+
   @Test(expected = NullPointerException.class)
   public void getDataShouldThrowNullPointerExceptionIfEndDateIsNull() {
     accessor.getData(new LocalDate(), null);
@@ -16,8 +16,11 @@
 package rabbit.data.internal.xml.access;
 
 import rabbit.data.access.IAccessor;
+import rabbit.data.access.IAggregateAccessor;
+import rabbit.data.access.model.IBuildData;
 import rabbit.data.access.model.ICommandData;
 import rabbit.data.access.model.IFileData;
+import rabbit.data.access.model.IFreezeData;
 import rabbit.data.access.model.IJavaData;
 import rabbit.data.access.model.ILaunchData;
 import rabbit.data.access.model.IPartData;
@@ -27,7 +30,9 @@ import rabbit.data.access.model.ITaskData;
 import rabbit.data.internal.xml.StoreNamesModule;
 import rabbit.data.internal.xml.access.AccessorModule;
 import rabbit.data.internal.xml.access.CommandDataAccessor;
+import rabbit.data.internal.xml.access.BuildDataAccessor;
 import rabbit.data.internal.xml.access.FileDataAccessor;
+import rabbit.data.internal.xml.access.FreezeDataAccessor;
 import rabbit.data.internal.xml.access.JavaDataAccessor;
 import rabbit.data.internal.xml.access.LaunchDataAccessor;
 import rabbit.data.internal.xml.access.PartDataAccessor;
@@ -63,12 +68,24 @@ public class AccessorModuleTest {
     return Arrays.asList(new Object[][]{
         {new TypeLiteral<IAccessor<ICommandData>>     () {}, CommandDataAccessor     .class},
         {new TypeLiteral<IAccessor<IFileData>>        () {}, FileDataAccessor        .class},
+        {new TypeLiteral<IAccessor<IFreezeData>>      () {}, FreezeDataAccessor      .class},
+        {new TypeLiteral<IAccessor<IBuildData>>       () {}, BuildDataAccessor       .class},
         {new TypeLiteral<IAccessor<IJavaData>>        () {}, JavaDataAccessor        .class},
         {new TypeLiteral<IAccessor<ILaunchData>>      () {}, LaunchDataAccessor      .class},
         {new TypeLiteral<IAccessor<IPartData>>        () {}, PartDataAccessor        .class},
         {new TypeLiteral<IAccessor<IPerspectiveData>> () {}, PerspectiveDataAccessor .class},
         {new TypeLiteral<IAccessor<ISessionData>>     () {}, SessionDataAccessor     .class},
         {new TypeLiteral<IAccessor<ITaskData>>        () {}, TaskDataAccessor        .class},
+        {new TypeLiteral<IAggregateAccessor<ICommandData>>     () {}, CommandDataAccessor     .class},
+        {new TypeLiteral<IAggregateAccessor<IFileData>>        () {}, FileDataAccessor        .class},
+        {new TypeLiteral<IAggregateAccessor<IFreezeData>>      () {}, FreezeDataAccessor      .class},
+        {new TypeLiteral<IAggregateAccessor<IBuildData>>       () {}, BuildDataAccessor       .class},
+        {new TypeLiteral<IAggregateAccessor<IJavaData>>        () {}, JavaDataAccessor        .class},
+        {new TypeLiteral<IAggregateAccessor<ILaunchData>>      () {}, LaunchDataAccessor      .class},
+        {new TypeLiteral<IAggregateAccessor<IPartData>>        () {}, PartDataAccessor        .class},
+        {new TypeLiteral<IAggregateAccessor<IPerspectiveData>> () {}, PerspectiveDataAccessor .class},
+        {new TypeLiteral<IAggregateAccessor<ISessionData>>     () {}, SessionDataAccessor     .class},
+        {new TypeLiteral<IAggregateAccessor<ITaskData>>        () {}, TaskDataAccessor        .class},
     });
     // @formatter:on
   }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.model.IData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.Keys;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.access.model.SessionData;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+
+import org.eclipse.core.runtime.Path;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @see Aggregator
+ */
+public class AggregatorTest {
+
+  private final WorkspaceStorage ws1 =
+      new WorkspaceStorage(new Path("/a"), new Path("/a"));
+  private final WorkspaceStorage ws2 =
+      new WorkspaceStorage(new Path("/b"), new Path("/b"));
+
+  @Test
+  public void shouldSumTheDataOfTheSameGroup() {
+    LocalDate date = new LocalDate();
+    Aggregator aggregator = new Aggregator(
+        ImmutableSet.of(Keys.DATE, Keys.WORKSPACE), Keys.DURATION);
+    aggregator.handle(new SessionData(date, ws1, new Duration(10)));
+    aggregator.handle(new SessionData(date, ws1, new Duration(20)));
+
+    List<IData> result = aggregator.getResult();
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).get(Keys.DATE), equalTo(date));
+    assertThat(result.get(0).get(Keys.WORKSPACE), equalTo(ws1));
+    assertThat(result.get(0).get(Keys.DURATION), equalTo(new Duration(30)));
+  }
+
+  @Test
+  public void shouldNotSumTheDataOfDifferentGroups() {
+    LocalDate date = new LocalDate();
+    Aggregator aggregator = new Aggregator(
+        ImmutableSet.of(Keys.WORKSPACE), Keys.DURATION);
+    aggregator.handle(new SessionData(date, ws1, new Duration(10)));
+    aggregator.handle(new SessionData(date, ws2, new Duration(20)));
+    aggregator.handle(new SessionData(date.plusDays(1), ws1, new Duration(5)));
+
+    List<IData> result = aggregator.getResult();
+    assertThat(result.size(), is(2));
+    assertThat(result.get(0).get(Keys.WORKSPACE), equalTo(ws1));
+    assertThat(result.get(0).get(Keys.DURATION), equalTo(new Duration(15)));
+    assertThat(result.get(1).get(Keys.WORKSPACE), equalTo(ws2));
+    assertThat(result.get(1).get(Keys.DURATION), equalTo(new Duration(20)));
+  }
+
+  @Test
+  public void shouldSumAllTheDataIntoOneRowIfThereAreNoDimensions() {
+    LocalDate date = new LocalDate();
+    Aggregator aggregator = new Aggregator(
+        Collections.<IKey<?>> emptySet(), Keys.DURATION);
+    aggregator.handle(new SessionData(date, ws1, new Duration(10)));
+    aggregator.handle(new SessionData(date, ws2, new Duration(20)));
+
+    List<IData> result = aggregator.getResult();
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0).get(Keys.DURATION), equalTo(new Duration(30)));
+    assertThat(result.get(0).get(Keys.DATE), is((LocalDate) null));
+  }
+
+  @Test
+  public void shouldIgnoreTheDataWithoutTheMeasure() {
+    Aggregator aggregator = new Aggregator(
+        ImmutableSet.of(Keys.DATE), Keys.COUNT);
+    aggregator.handle(new SessionData(new LocalDate(), ws1, new Duration(10)));
+    assertThat(aggregator.getResult().isEmpty(), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionIfMeasureIsNotSupported() {
+    new Aggregator(ImmutableSet.of(Keys.DATE), Keys.WORKSPACE);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfDimensionsIsNull() {
+    new Aggregator(null, Keys.DURATION);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfMeasureIsNull() {
+    new Aggregator(ImmutableSet.of(Keys.DATE), null);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.DatatypeUtil;
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.joda.time.LocalDate;
+
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * @see BuildDataAccessor
+ */
+public class BuildDataAccessorTest extends
+    AbstractAccessorTest2<IBuildData, BuildEventType, BuildEventListType> {
+
+  @Override
+  protected BuildDataAccessor create() {
+    return new BuildDataAccessor(DataStore.BUILD_STORE);
+  }
+
+  @Override
+  protected BuildEventListType createCategory() {
+    BuildEventListType type = new BuildEventListType();
+    type.setDate(DatatypeUtil.toXmlDateTime(new GregorianCalendar()));
+    return type;
+  }
+
+  @Override
+  protected BuildEventType createElement() {
+    BuildEventType type = new BuildEventType();
+    type.setProject("project");
+    type.setFullBuild(true);
+    type.setCount(2);
+    type.setTotalDuration(4712);
+    return type;
+  }
+
+  @Override
+  protected List<BuildEventType> getElements(BuildEventListType list) {
+    return list.getBuildEvent();
+  }
+
+  @Override
+  protected void assertValues(BuildEventType expected, LocalDate expectedDate,
+      WorkspaceStorage expectedWs, IBuildData actual) {
+    assertThat(actual.get(IBuildData.DATE), is(expectedDate));
+    assertThat(actual.get(IBuildData.WORKSPACE), is(expectedWs));
+    assertThat(actual.get(IBuildData.PROJECT).getName(),
+        is(expected.getProject()));
+    assertThat(actual.get(IBuildData.FULL_BUILD), is(expected.isFullBuild()));
+    assertThat(actual.get(IBuildData.COUNT), is(expected.getCount()));
+    assertThat(actual.get(IBuildData.DURATION).getMillis(),
+        is(expected.getTotalDuration()));
+  }
+
+  @Override
+  protected List<BuildEventListType> getCategories(EventListType events) {
+    return events.getBuildEvents();
+  }
+}
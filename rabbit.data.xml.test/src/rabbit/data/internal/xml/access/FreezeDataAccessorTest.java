@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.model.IFreezeData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.DatatypeUtil;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.joda.time.LocalDate;
+
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * @see FreezeDataAccessor
+ */
+public class FreezeDataAccessorTest extends
+    AbstractAccessorTest2<IFreezeData, FreezeEventType, FreezeEventListType> {
+
+  @Override
+  protected FreezeDataAccessor create() {
+    return new FreezeDataAccessor(DataStore.FREEZE_STORE);
+  }
+
+  @Override
+  protected FreezeEventListType createCategory() {
+    FreezeEventListType type = new FreezeEventListType();
+    type.setDate(DatatypeUtil.toXmlDateTime(new GregorianCalendar()));
+    return type;
+  }
+
+  @Override
+  protected FreezeEventType createElement() {
+    FreezeEventType type = new FreezeEventType();
+    type.setPartId("partId");
+    type.setBucket(2000);
+    type.setCount(2);
+    type.setTotalDuration(4712);
+    return type;
+  }
+
+  @Override
+  protected List<FreezeEventType> getElements(FreezeEventListType list) {
+    return list.getFreezeEvent();
+  }
+
+  @Override
+  protected void assertValues(FreezeEventType expected, LocalDate expectedDate,
+      WorkspaceStorage expectedWs, IFreezeData actual) {
+    assertThat(actual.get(IFreezeData.DATE), is(expectedDate));
+    assertThat(actual.get(IFreezeData.WORKSPACE), is(expectedWs));
+    assertThat(actual.get(IFreezeData.PART_ID), is(expected.getPartId()));
+    assertThat(actual.get(IFreezeData.FREEZE_BUCKET).getMillis(),
+        is(expected.getBucket()));
+    assertThat(actual.get(IFreezeData.COUNT), is(expected.getCount()));
+    assertThat(actual.get(IFreezeData.DURATION).getMillis(),
+        is(expected.getTotalDuration()));
+  }
+
+  @Override
+  protected List<FreezeEventListType> getCategories(EventListType events) {
+    return events.getFreezeEvents();
+  }
+}
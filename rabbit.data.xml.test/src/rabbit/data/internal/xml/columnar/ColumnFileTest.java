@@ -0,0 +1,153 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+/**
+ * @see ColumnFile
+ */
+public class ColumnFileTest {
+
+  private File file;
+
+  @Before
+  public void before() throws Exception {
+    file = File.createTempFile("ColumnFileTest", ".col");
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Test
+  public void shouldReadTheRowsThatHaveBeenWritten() throws Exception {
+    ColumnBlock block = new ColumnBlock();
+    for (int i = 0; i < 100; i++) { // More than the initial capacity
+      block.add(i, "key" + (i % 3), i * 10L);
+    }
+    ColumnFile.write(file, block, false);
+
+    List<String> rows = read(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    assertThat(rows.size(), is(100));
+    assertThat(rows.get(0), equalTo("0,key0,0"));
+    assertThat(rows.get(99), equalTo("99,key0,990"));
+  }
+
+  @Test
+  public void shouldOnlyReadTheRowsBetweenTheDays() throws Exception {
+    ColumnBlock block = new ColumnBlock();
+    block.add(1, "a", 1);
+    block.add(2, "b", 2);
+    block.add(3, "c", 3);
+    ColumnFile.write(file, block, false);
+
+    List<String> rows = read(2, 2);
+    assertThat(rows.size(), is(1));
+    assertThat(rows.get(0), equalTo("2,b,2"));
+  }
+
+  @Test
+  public void shouldReadAllTheAppendedBlocks() throws Exception {
+    ColumnBlock block = new ColumnBlock();
+    block.add(1, "a", 1);
+    ColumnFile.write(file, block, true);
+    ColumnFile.write(file, block, true);
+    assertThat(read(1, 1).size(), is(2));
+
+    ColumnFile.write(file, block, false);
+    assertThat(read(1, 1).size(), is(1));
+  }
+
+  @Test
+  public void shouldReadTheCompleteBlocksBeforeAnIncompleteBlock()
+      throws Exception {
+    ColumnBlock block = new ColumnBlock();
+    block.add(1, "a", 1);
+    ColumnFile.write(file, block, true);
+    ColumnFile.write(file, block, true);
+
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.setLength(raf.length() - 4);
+    } finally {
+      raf.close();
+    }
+
+    final List<String> rows = Lists.newArrayList();
+    try {
+      ColumnFile.read(file, 1, 1, collector(rows));
+      fail();
+    } catch (EOFException e) {
+      assertThat(rows.size(), is(1));
+    }
+  }
+
+  @Test
+  public void shouldGetTheLengthOfTheCompleteBlocks() throws Exception {
+    ColumnBlock block = new ColumnBlock();
+    block.add(1, "a", 1);
+    ColumnFile.write(file, block, true);
+    long complete = file.length();
+    assertThat(ColumnFile.getCompleteLength(file), is(complete));
+
+    ColumnFile.write(file, block, true);
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      raf.setLength(raf.length() - 4);
+    } finally {
+      raf.close();
+    }
+    assertThat(ColumnFile.getCompleteLength(file), is(complete));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void shouldThrowNullPointerExceptionIfHandlerIsNull()
+      throws Exception {
+    ColumnFile.read(file, 0, 0, null);
+  }
+
+  private List<String> read(int startDay, int endDay) throws Exception {
+    List<String> rows = Lists.newArrayList();
+    ColumnFile.read(file, startDay, endDay, collector(rows));
+    return rows;
+  }
+
+  private IRowHandler collector(final List<String> rows) {
+    return new IRowHandler() {
+      @Override
+      public void handle(int day, String key, long value) {
+        rows.add(day + "," + key + "," + value);
+      }
+    };
+  }
+}
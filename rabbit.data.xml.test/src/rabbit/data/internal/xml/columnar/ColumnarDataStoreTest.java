@@ -0,0 +1,261 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.DatatypeUtil;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+import rabbit.data.internal.xml.schema.events.TaskFileEventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventType;
+import rabbit.data.internal.xml.schema.events.TaskIdType;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+/**
+ * @see ColumnarDataStore
+ */
+public class ColumnarDataStoreTest {
+
+  private final ObjectFactory objectFactory = new ObjectFactory();
+
+  private final ColumnarDataStore store = ColumnarDataStore.FILE_STORE;
+
+  private final LocalDate date = new LocalDate(2010, 3, 15);
+
+  private IPath location;
+
+  @Before
+  public void before() throws Exception {
+    File dir = File.createTempFile("ColumnarDataStoreTest", "");
+    dir.delete();
+    dir.mkdirs();
+    location = Path.fromOSString(dir.getAbsolutePath());
+  }
+
+  @After
+  public void after() {
+    FileUtils.deleteQuietly(location.toFile());
+  }
+
+  @Test
+  public void shouldReadTheEventsThatHaveBeenWritten() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/b", 20));
+    File f = store.getDataFile(date, location);
+    assertThat(store.write(doc, f), is(true));
+
+    doc = store.read(f);
+    assertThat(doc.getFileEvents().size(), is(2));
+    FileEventListType group = doc.getFileEvents().get(0);
+    assertThat(toLocalDate(group.getDate()), equalTo(date));
+    assertThat(group.getFileEvent().size(), is(1));
+    assertThat(group.getFileEvent().get(0).getFilePath(), equalTo("/a"));
+    assertThat(group.getFileEvent().get(0).getDuration(), is(10L));
+  }
+
+  @Test
+  public void shouldOnlyReadTheEventsBetweenTheDates() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/b", 20));
+    File f = store.getDataFile(date, location);
+    store.write(doc, f);
+
+    doc = store.read(f, date.plusDays(1), date.plusDays(1));
+    assertThat(doc.getFileEvents().size(), is(1));
+    assertThat(doc.getFileEvents().get(0).getFileEvent().get(0).getFilePath(),
+        equalTo("/b"));
+  }
+
+  @Test
+  public void shouldReadTheAppendedEventsUntilTheFileIsWritten() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    File f = store.getDataFile(date, location);
+    store.append(doc, f);
+    store.append(doc, f);
+    assertThat(store.getDataFiles(date, date, location).size(), is(1));
+    assertThat(store.read(f).getFileEvents().size(), is(2));
+
+    store.write(doc, f);
+    assertThat(store.getJournalFile(f).exists(), is(false));
+    assertThat(store.read(f).getFileEvents().size(), is(1));
+  }
+
+  @Test
+  public void shouldReadTheXmlDataWithoutConvertingIt() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    DataStore.FILE_STORE.write(doc, DataStore.FILE_STORE.getDataFile(date,
+        location));
+
+    File f = store.getDataFile(date, location);
+    store.append(doc, f);
+    assertThat(store.getDataFiles(date, date, location).size(), is(1));
+    assertThat(store.read(f).getFileEvents().size(), is(2));
+    assertThat(f.exists(), is(false));
+
+    assertThat(store.convertFromXml(f), is(true));
+    assertThat(store.read(f).getFileEvents().size(), is(2));
+  }
+
+  @Test
+  public void shouldScanTheEventsBetweenTheDates() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    doc.getFileEvents().add(createGroup(date.plusDays(1), "/a", 20));
+    doc.getFileEvents().add(createGroup(date.plusDays(2), "/b", 30));
+    File f = store.getDataFile(date, location);
+    store.write(doc, f);
+    store.append(doc, f);
+
+    final List<String> rows = Lists.newArrayList();
+    store.scan(f, date, date.plusDays(1), new IElementHandler<FileEventType>() {
+      @Override
+      public void handle(LocalDate day, FileEventType element) {
+        rows.add(day + "," + element.getFilePath() + ","
+            + element.getDuration());
+      }
+    });
+    assertThat(rows, equalTo(Arrays.asList(
+        date + ",/a,10", date.plusDays(1) + ",/a,20",
+        date + ",/a,10", date.plusDays(1) + ",/a,20")));
+  }
+
+  @Test
+  public void shouldKeepTheNullFieldsOfAnEvent() {
+    File f = store.getDataFile(date, location);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, null, 10));
+    doc.getFileEvents().add(createGroup(date, "", 20));
+    store.write(doc, f);
+
+    doc = store.read(f);
+    assertThat(doc.getFileEvents().get(0).getFileEvent().get(0).getFilePath(),
+        nullValue());
+    assertThat(doc.getFileEvents().get(0).getFileEvent().get(1).getFilePath(),
+        equalTo(""));
+  }
+
+  @Test
+  public void shouldKeepATaskEventWithoutATaskId() {
+    TaskFileEventType type = objectFactory.createTaskFileEventType();
+    type.setFilePath("/a");
+    type.setDuration(10);
+    TaskFileEventListType group = objectFactory.createTaskFileEventListType();
+    group.setDate(toXmlDate(date));
+    group.getTaskFileEvent().add(type);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getTaskFileEvents().add(group);
+
+    File f = ColumnarDataStore.TASK_STORE.getDataFile(date, location);
+    ColumnarDataStore.TASK_STORE.write(doc, f);
+    doc = ColumnarDataStore.TASK_STORE.read(f);
+
+    TaskFileEventType actual = doc.getTaskFileEvents().get(0)
+        .getTaskFileEvent().get(0);
+    assertThat(actual.getFilePath(), equalTo("/a"));
+    assertThat(actual.getTaskId(), nullValue());
+  }
+
+  @Test
+  public void shouldConvertAllTheXmlDataOfALocation() {
+    EventListType doc = objectFactory.createEventListType();
+    doc.getFileEvents().add(createGroup(date, "/a", 10));
+    DataStore.FILE_STORE.write(doc, DataStore.FILE_STORE.getDataFile(date,
+        location));
+    DataStore.FILE_STORE.write(doc, DataStore.FILE_STORE.getDataFile(
+        date.plusMonths(1), location));
+
+    assertThat(ColumnarConverter.convert(location), is(2));
+    assertThat(store.getDataFile(date, location).exists(), is(true));
+    assertThat(ColumnarConverter.convert(location), is(0));
+  }
+
+  @Test
+  public void shouldKeepAllTheFieldsOfATaskEvent() {
+    TaskIdType id = objectFactory.createTaskIdType();
+    id.setHandleId("abc");
+    id.setCreationDate(DatatypeUtil.toXmlDateTime(new GregorianCalendar()));
+    TaskFileEventType type = objectFactory.createTaskFileEventType();
+    type.setFilePath("/a");
+    type.setTaskId(id);
+    type.setDuration(10);
+    TaskFileEventListType group = objectFactory.createTaskFileEventListType();
+    group.setDate(toXmlDate(date));
+    group.getTaskFileEvent().add(type);
+    EventListType doc = objectFactory.createEventListType();
+    doc.getTaskFileEvents().add(group);
+
+    File f = ColumnarDataStore.TASK_STORE.getDataFile(date, location);
+    ColumnarDataStore.TASK_STORE.write(doc, f);
+    doc = ColumnarDataStore.TASK_STORE.read(f);
+
+    TaskFileEventType actual = doc.getTaskFileEvents().get(0)
+        .getTaskFileEvent().get(0);
+    assertThat(actual.getFilePath(), equalTo("/a"));
+    assertThat(actual.getDuration(), is(10L));
+    assertThat(actual.getTaskId().getHandleId(), equalTo("abc"));
+    assertThat(actual.getTaskId().getCreationDate(),
+        equalTo(id.getCreationDate()));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testWrite_dataNull() {
+    store.write(null, store.getDataFile(date, location));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testAppend_fileNull() {
+    store.append(objectFactory.createEventListType(), null);
+  }
+
+  private FileEventListType createGroup(LocalDate date, String path,
+      long duration) {
+    FileEventType type = objectFactory.createFileEventType();
+    type.setFilePath(path);
+    type.setDuration(duration);
+    FileEventListType group = objectFactory.createFileEventListType();
+    group.setDate(toXmlDate(date));
+    group.getFileEvent().add(type);
+    return group;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.convert;
+
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+import rabbit.data.store.model.BuildEvent;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * @see BuildEventConverter
+ */
+public class BuildEventConverterTest extends
+    AbstractConverterTest<BuildEvent, BuildEventType> {
+
+  @Override
+  protected BuildEventConverter createConverter() {
+    return new BuildEventConverter();
+  }
+
+  @Override
+  public void testConvert() throws Exception {
+    String projectName = "projectName";
+    IProject project = mock(IProject.class);
+    given(project.getName()).willReturn(projectName);
+    Duration duration = new Duration(1834);
+    int count = 2;
+    BuildEvent event = new BuildEvent(
+        new DateTime(), project, true, count, duration);
+
+    BuildEventType type = converter.convert(event);
+    assertThat(type.getProject(), equalTo(projectName));
+    assertThat(type.isFullBuild(), is(true));
+    assertThat(type.getCount(), is(count));
+    assertThat(type.getTotalDuration(), is(duration.getMillis()));
+  }
+}
@@ -25,6 +25,7 @@ import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.commands.ICommandService;
 import org.joda.time.DateTime;
+import org.junit.Test;
 
 import java.util.Collections;
 
@@ -48,6 +49,13 @@ public class CommandEventConverterTest extends
     assertEquals(1, type.getCount());
   }
 
+  @Test
+  public void testConvert_withCount() throws Exception {
+    CommandEvent event = new CommandEvent(new DateTime(),
+        createExecutionEvent("adnk2o385"), 5);
+    assertEquals(5, converter.convert(event).getCount());
+  }
+
   private CommandEvent createEvent() {
     return new CommandEvent(new DateTime(), createExecutionEvent("adnk2o385"));
   }
@@ -15,16 +15,20 @@
  */
 package rabbit.data.internal.xml.convert;
 
+import rabbit.data.internal.xml.schema.events.BuildEventType;
 import rabbit.data.internal.xml.schema.events.CommandEventType;
 import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
 import rabbit.data.internal.xml.schema.events.JavaEventType;
 import rabbit.data.internal.xml.schema.events.LaunchEventType;
 import rabbit.data.internal.xml.schema.events.PartEventType;
 import rabbit.data.internal.xml.schema.events.PerspectiveEventType;
 import rabbit.data.internal.xml.schema.events.SessionEventType;
 import rabbit.data.internal.xml.schema.events.TaskFileEventType;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -63,6 +67,12 @@ public class ConverterModuleTest {
         {
             new TypeLiteral<IConverter<FileEvent, FileEventType>>() {},
             FileEventConverter.class},
+        {
+            new TypeLiteral<IConverter<FreezeEvent, FreezeEventType>>() {},
+            FreezeEventConverter.class},
+        {
+            new TypeLiteral<IConverter<BuildEvent, BuildEventType>>() {},
+            BuildEventConverter.class},
         {
             new TypeLiteral<IConverter<JavaEvent, JavaEventType>>() {},
             JavaEventConverter.class},
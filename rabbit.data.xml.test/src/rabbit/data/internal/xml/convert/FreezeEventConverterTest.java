@@ -0,0 +1,54 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.convert;
+
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+import rabbit.data.store.model.FreezeEvent;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * @see FreezeEventConverter
+ */
+public class FreezeEventConverterTest extends
+    AbstractConverterTest<FreezeEvent, FreezeEventType> {
+
+  @Override
+  protected FreezeEventConverter createConverter() {
+    return new FreezeEventConverter();
+  }
+
+  @Override
+  public void testConvert() throws Exception {
+    String partId = "org.eclipse.ui.views.ProblemView";
+    Duration bucket = new Duration(1000);
+    Duration duration = new Duration(1834);
+    int count = 2;
+    FreezeEvent event = new FreezeEvent(
+        new DateTime(), partId, bucket, count, duration);
+
+    FreezeEventType type = converter.convert(event);
+    assertThat(type.getPartId(), equalTo(partId));
+    assertThat(type.getBucket(), is(bucket.getMillis()));
+    assertThat(type.getCount(), is(count));
+    assertThat(type.getTotalDuration(), is(duration.getMillis()));
+  }
+}
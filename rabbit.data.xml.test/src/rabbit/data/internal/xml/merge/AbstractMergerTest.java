@@ -17,6 +17,11 @@ package rabbit.data.internal.xml.merge;
 
 import rabbit.data.internal.xml.merge.AbstractMerger;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
 import org.junit.Test;
 
 /**
@@ -48,6 +53,24 @@ public abstract class AbstractMergerTest<T> {
     merger.isMergeable(createTargetType(), null);
   }
 
+  @Test
+  public void testGetMergeKey() {
+    Object key = merger.getMergeKey(createTargetType());
+    assertThat(key, notNullValue());
+    assertThat(merger.getMergeKey(createTargetType()), equalTo(key));
+  }
+
+  @Test
+  public void testGetMergeKey_diff() {
+    assertThat(merger.getMergeKey(createTargetTypeDiff()),
+        not(equalTo(merger.getMergeKey(createTargetType()))));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testGetMergeKey_paramNull() {
+    merger.getMergeKey(null);
+  }
+
   /**
    * Tests {@link AbstractMerger#merge(Object, Object)} does what the subclass
    * implementation desires.
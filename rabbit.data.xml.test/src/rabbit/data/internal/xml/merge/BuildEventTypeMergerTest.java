@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.merge;
+
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @see BuildEventTypeMerger
+ */
+public class BuildEventTypeMergerTest extends
+    AbstractMergerTest<BuildEventType> {
+
+  @Test
+  public void testIsMergeable_projectIsNull() {
+    BuildEventType t1 = createTargetType();
+    t1.setProject(null);
+    BuildEventType t2 = createTargetType();
+    t2.setProject(null);
+    assertFalse(merger.isMergeable(t1, t2));
+  }
+
+  @Test
+  public void testIsMergeable_differentBuildKinds() {
+    BuildEventType t1 = createTargetType();
+    BuildEventType t2 = createTargetType();
+    t2.setFullBuild(!t1.isFullBuild());
+    assertFalse(merger.isMergeable(t1, t2));
+  }
+
+  @Override
+  public void testIsMergeable() throws Exception {
+    BuildEventType t1 = createTargetType();
+    BuildEventType t2 = createTargetTypeDiff();
+
+    assertTrue(merger.isMergeable(t1, t1));
+    assertFalse(merger.isMergeable(t1, t2));
+
+    t2.setProject(t1.getProject());
+    assertTrue(merger.isMergeable(t1, t2));
+  }
+
+  @Override
+  public void testMerge() throws Exception {
+    BuildEventType t1 = createTargetType();
+    BuildEventType t2 = createTargetTypeDiff();
+    t2.setProject(t1.getProject());
+
+    BuildEventType result = merger.merge(t1, t2);
+    assertEquals(t1.getProject(), result.getProject());
+    assertEquals(t1.isFullBuild(), result.isFullBuild());
+    assertEquals(t1.getCount() + t2.getCount(), result.getCount());
+    assertEquals(t1.getTotalDuration() + t2.getTotalDuration(),
+        result.getTotalDuration());
+  }
+
+  @Override
+  public void testMerge_notModifyParams() throws Exception {
+    BuildEventType t1 = createTargetType();
+    BuildEventType t2 = createTargetTypeDiff();
+    t2.setProject(t1.getProject());
+    String project = t1.getProject();
+    boolean fullBuild = t1.isFullBuild();
+    int count1 = t1.getCount();
+    int count2 = t2.getCount();
+    long duration1 = t1.getTotalDuration();
+    long duration2 = t2.getTotalDuration();
+
+    BuildEventType result = merger.merge(t1, t2);
+    assertNotSame(t1, result);
+    assertNotSame(t2, result);
+    assertEquals(project, t1.getProject());
+    assertEquals(project, t2.getProject());
+    assertEquals(fullBuild, t1.isFullBuild());
+    assertEquals(fullBuild, t2.isFullBuild());
+    assertEquals(count1, t1.getCount());
+    assertEquals(count2, t2.getCount());
+    assertEquals(duration1, t1.getTotalDuration());
+    assertEquals(duration2, t2.getTotalDuration());
+  }
+
+  @Override
+  protected BuildEventTypeMerger createMerger() {
+    return new BuildEventTypeMerger();
+  }
+
+  @Override
+  protected BuildEventType createTargetType() {
+    BuildEventType type = new BuildEventType();
+    type.setProject("projectA");
+    type.setFullBuild(false);
+    type.setCount(1);
+    type.setTotalDuration(1200);
+    return type;
+  }
+
+  @Override
+  protected BuildEventType createTargetTypeDiff() {
+    BuildEventType type = new BuildEventType();
+    type.setProject("projectB");
+    type.setFullBuild(false);
+    type.setCount(3);
+    type.setTotalDuration(3900);
+    return type;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.merge;
+
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @see FreezeEventTypeMerger
+ */
+public class FreezeEventTypeMergerTest extends
+    AbstractMergerTest<FreezeEventType> {
+
+  @Test
+  public void testIsMergeable_partIdIsNull() {
+    FreezeEventType t1 = createTargetType();
+    t1.setPartId(null);
+    FreezeEventType t2 = createTargetType();
+    t2.setPartId(null);
+    assertFalse(merger.isMergeable(t1, t2));
+  }
+
+  @Test
+  public void testIsMergeable_differentBuckets() {
+    FreezeEventType t1 = createTargetType();
+    FreezeEventType t2 = createTargetType();
+    t2.setBucket(t1.getBucket() * 2);
+    assertFalse(merger.isMergeable(t1, t2));
+  }
+
+  @Override
+  public void testIsMergeable() throws Exception {
+    FreezeEventType t1 = createTargetType();
+    FreezeEventType t2 = createTargetTypeDiff();
+
+    assertTrue(merger.isMergeable(t1, t1));
+    assertFalse(merger.isMergeable(t1, t2));
+
+    t2.setPartId(t1.getPartId());
+    assertTrue(merger.isMergeable(t1, t2));
+  }
+
+  @Override
+  public void testMerge() throws Exception {
+    FreezeEventType t1 = createTargetType();
+    FreezeEventType t2 = createTargetTypeDiff();
+    t2.setPartId(t1.getPartId());
+
+    FreezeEventType result = merger.merge(t1, t2);
+    assertEquals(t1.getPartId(), result.getPartId());
+    assertEquals(t1.getBucket(), result.getBucket());
+    assertEquals(t1.getCount() + t2.getCount(), result.getCount());
+    assertEquals(t1.getTotalDuration() + t2.getTotalDuration(),
+        result.getTotalDuration());
+  }
+
+  @Override
+  public void testMerge_notModifyParams() throws Exception {
+    FreezeEventType t1 = createTargetType();
+    FreezeEventType t2 = createTargetTypeDiff();
+    t2.setPartId(t1.getPartId());
+    String partId = t1.getPartId();
+    long bucket = t1.getBucket();
+    int count1 = t1.getCount();
+    int count2 = t2.getCount();
+    long duration1 = t1.getTotalDuration();
+    long duration2 = t2.getTotalDuration();
+
+    FreezeEventType result = merger.merge(t1, t2);
+    assertNotSame(t1, result);
+    assertNotSame(t2, result);
+    assertEquals(partId, t1.getPartId());
+    assertEquals(partId, t2.getPartId());
+    assertEquals(bucket, t1.getBucket());
+    assertEquals(bucket, t2.getBucket());
+    assertEquals(count1, t1.getCount());
+    assertEquals(count2, t2.getCount());
+    assertEquals(duration1, t1.getTotalDuration());
+    assertEquals(duration2, t2.getTotalDuration());
+  }
+
+  @Override
+  protected FreezeEventTypeMerger createMerger() {
+    return new FreezeEventTypeMerger();
+  }
+
+  @Override
+  protected FreezeEventType createTargetType() {
+    FreezeEventType type = new FreezeEventType();
+    type.setPartId("partIdA");
+    type.setBucket(1000);
+    type.setCount(1);
+    type.setTotalDuration(1200);
+    return type;
+  }
+
+  @Override
+  protected FreezeEventType createTargetTypeDiff() {
+    FreezeEventType type = new FreezeEventType();
+    type.setPartId("partIdB");
+    type.setBucket(1000);
+    type.setCount(3);
+    type.setTotalDuration(3900);
+    return type;
+  }
+}
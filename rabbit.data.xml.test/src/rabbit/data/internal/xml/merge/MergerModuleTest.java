@@ -15,8 +15,10 @@
  */
 package rabbit.data.internal.xml.merge;
 
+import rabbit.data.internal.xml.schema.events.BuildEventType;
 import rabbit.data.internal.xml.schema.events.CommandEventType;
 import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
 import rabbit.data.internal.xml.schema.events.JavaEventType;
 import rabbit.data.internal.xml.schema.events.LaunchEventType;
 import rabbit.data.internal.xml.schema.events.PartEventType;
@@ -52,6 +54,8 @@ public class MergerModuleTest {
     return Arrays.asList(new Object[][] {
         {new TypeLiteral<IMerger<CommandEventType>>     () {}, CommandEventTypeMerger     .class},
         {new TypeLiteral<IMerger<FileEventType>>        () {}, FileEventTypeMerger        .class},
+        {new TypeLiteral<IMerger<FreezeEventType>>      () {}, FreezeEventTypeMerger      .class},
+        {new TypeLiteral<IMerger<BuildEventType>>       () {}, BuildEventTypeMerger       .class},
         {new TypeLiteral<IMerger<JavaEventType>>        () {}, JavaEventTypeMerger        .class},
         {new TypeLiteral<IMerger<LaunchEventType>>      () {}, LaunchEventTypeMerger      .class},
         {new TypeLiteral<IMerger<PartEventType>>        () {}, PartEventTypeMerger        .class},
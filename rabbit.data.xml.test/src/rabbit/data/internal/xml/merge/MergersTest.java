@@ -123,4 +123,38 @@ public class MergersTest {
     assertEquals(duration1, type1.getDuration());
     assertEquals(duration2, type2.getDuration());
   }
+
+  @Test
+  public void testMerge_collectionAndCollection_mergeableElements() {
+    List<PartEventType> to = Lists.newArrayList(
+        createPartEvent("a", 1), createPartEvent("b", 2));
+    List<PartEventType> from = Lists.newArrayList(
+        createPartEvent("b", 10), createPartEvent("c", 20),
+        createPartEvent("c", 30), createPartEvent("a", 40));
+    Mergers.merge(new PartEventTypeMerger(), to, from);
+
+    // Merged elements keep their positions, new ones are added to the end:
+    assertEquals(3, to.size());
+    assertEquals("a", to.get(0).getPartId());
+    assertEquals(41, to.get(0).getDuration());
+    assertEquals("b", to.get(1).getPartId());
+    assertEquals(12, to.get(1).getDuration());
+    assertEquals("c", to.get(2).getPartId());
+    assertEquals(50, to.get(2).getDuration());
+  }
+
+  @Test
+  public void testMerge_collectionAndCollection_unmergeableElements() {
+    List<PartEventType> to = Lists.newArrayList(createPartEvent(null, 1));
+    List<PartEventType> from = Lists.newArrayList(createPartEvent(null, 2));
+    Mergers.merge(new PartEventTypeMerger(), to, from);
+    assertEquals(2, to.size());
+  }
+
+  private PartEventType createPartEvent(String id, long duration) {
+    PartEventType type = new PartEventType();
+    type.setPartId(id);
+    type.setDuration(duration);
+    return type;
+  }
 }
@@ -49,6 +49,13 @@ public class SessionEventTypeMergerTest extends
     return null;
   }
 
+  @Test
+  @Override
+  @Ignore("Does not apply, all SessionEventTypes are mergeable")
+  public void testGetMergeKey_diff() {
+    super.testGetMergeKey_diff();
+  }
+
   @Test
   @Override
   @Ignore("Does not apply, all SessionEventTypes are mergeable")
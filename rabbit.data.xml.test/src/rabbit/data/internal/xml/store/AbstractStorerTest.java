@@ -98,6 +98,76 @@ public abstract class AbstractStorerTest<E extends DiscreteEvent, T, S extends E
     assertTrue(equal(getConverter(storer).convert(event), element));
   }
 
+  @Test
+  public void testCommit_journal() throws Exception {
+    E event = createEvent(new DateTime());
+    IDataStore store = getDataStore(storer);
+    File file = store.getDataFile(event.getTime().toLocalDate());
+    File journal = store.getJournalFile(file);
+    if ((file.exists() && !file.delete())
+        || (journal.exists() && !journal.delete()))
+      fail("Files must be deleted before test can continue");
+
+    XmlPlugin.getDefault().setJournalEnabled(true);
+    try {
+      storer.insert(event);
+      storer.commit();
+      storer.insert(event);
+      storer.commit();
+    } finally {
+      XmlPlugin.getDefault().setJournalEnabled(false);
+    }
+    assertFalse(file.exists());
+    assertTrue(journal.exists());
+
+    // Groups in the journal are read as they are:
+    List<S> data = getCategories(storer, store.read(file));
+    assertEquals(2, data.size());
+
+    storer.compact(file);
+    assertTrue(file.exists());
+    assertFalse(journal.exists());
+
+    data = getCategories(storer, store.read(file));
+    assertEquals(1, data.size());
+    assertEquals(toXmlDate(event.getTime()), data.get(0).getDate());
+
+    List<T> elements = storer.getElements(data.get(0));
+    T element = getConverter(storer).convert(event);
+    IMerger<T> merger = storer.getMerger();
+    if (merger != null) {
+      assertEquals(1, elements.size());
+      assertTrue(equal(merger.merge(element, element), elements.get(0)));
+    } else {
+      assertEquals(2, elements.size());
+    }
+  }
+
+  @Test
+  public void testSpill() throws Exception {
+    E event = createEvent(new DateTime());
+    IDataStore store = getDataStore(storer);
+    File file = store.getDataFile(event.getTime().toLocalDate());
+    File journal = store.getJournalFile(file);
+    if ((file.exists() && !file.delete())
+        || (journal.exists() && !journal.delete()))
+      fail("Files must be deleted before test can continue");
+
+    storer.insert(event);
+    storer.spill();
+    assertTrue(getDataField(storer).isEmpty());
+    assertFalse(file.exists());
+    assertTrue(journal.exists());
+    assertEquals(1, getCategories(storer, store.read(file)).size());
+
+    // The next commit folds the spilled data into the file:
+    storer.insert(event);
+    storer.commit();
+    assertTrue(file.exists());
+    assertFalse(journal.exists());
+    assertEquals(1, getCategories(storer, store.read(file)).size());
+  }
+
   @Test
   public void testCommit_emptyDataAfterward() throws Exception {
     E event = createEvent(new DateTime());
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.store;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.convert.BuildEventConverter;
+import rabbit.data.internal.xml.merge.BuildEventTypeMerger;
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+import rabbit.data.store.model.BuildEvent;
+
+import com.google.common.base.Objects;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * @see BuildEventStorer
+ */
+public class BuildEventStorerTest extends
+    AbstractStorerTest<BuildEvent, BuildEventType, BuildEventListType> {
+
+  @Override
+  protected BuildEventStorer createStorer() {
+    return new BuildEventStorer(new BuildEventConverter(),
+                                 new BuildEventTypeMerger(),
+                                 DataStore.BUILD_STORE);
+  }
+
+  @Override
+  protected BuildEvent createEvent(DateTime dateTime) {
+    IProject project = mock(IProject.class);
+    given(project.getName()).willReturn("projectA");
+    return new BuildEvent(dateTime, project, false, 1, new Duration(1563));
+  }
+
+  @Override
+  protected BuildEvent createEventDiff(DateTime dateTime) {
+    IProject project = mock(IProject.class);
+    given(project.getName()).willReturn("projectB");
+    return new BuildEvent(dateTime, project, true, 2, new Duration(11002));
+  }
+
+  @Override
+  protected boolean equal(BuildEventType t1, BuildEventType t2) {
+    return Objects.equal(t1.getProject(), t2.getProject())
+        && t1.isFullBuild() == t2.isFullBuild()
+        && t1.getCount() == t2.getCount()
+        && t1.getTotalDuration() == t2.getTotalDuration();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.store;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.convert.FreezeEventConverter;
+import rabbit.data.internal.xml.merge.FreezeEventTypeMerger;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+import rabbit.data.store.model.FreezeEvent;
+
+import com.google.common.base.Objects;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * @see FreezeEventStorer
+ */
+public class FreezeEventStorerTest extends
+    AbstractStorerTest<FreezeEvent, FreezeEventType, FreezeEventListType> {
+
+  @Override
+  protected FreezeEventStorer createStorer() {
+    return new FreezeEventStorer(new FreezeEventConverter(),
+                                 new FreezeEventTypeMerger(),
+                                 DataStore.FREEZE_STORE);
+  }
+
+  @Override
+  protected FreezeEvent createEvent(DateTime dateTime) {
+    return new FreezeEvent(dateTime, "partIdA",
+        new Duration(1000), 1, new Duration(1563));
+  }
+
+  @Override
+  protected FreezeEvent createEventDiff(DateTime dateTime) {
+    return new FreezeEvent(dateTime, "partIdB",
+        new Duration(5000), 2, new Duration(11002));
+  }
+
+  @Override
+  protected boolean equal(FreezeEventType t1, FreezeEventType t2) {
+    return Objects.equal(t1.getPartId(), t2.getPartId())
+        && t1.getBucket() == t2.getBucket()
+        && t1.getCount() == t2.getCount()
+        && t1.getTotalDuration() == t2.getTotalDuration();
+  }
+}
@@ -19,8 +19,10 @@ import rabbit.data.internal.xml.StoreNamesModule;
 import rabbit.data.internal.xml.convert.ConverterModule;
 import rabbit.data.internal.xml.merge.MergerModule;
 import rabbit.data.store.IStorer;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -57,6 +59,8 @@ public class StorerModuleTest {
     return Arrays.asList(new Object[][] {
         {new TypeLiteral<IStorer<CommandEvent>>     () {}, CommandEventStorer     .class},
         {new TypeLiteral<IStorer<FileEvent>>        () {}, FileEventStorer        .class},
+        {new TypeLiteral<IStorer<FreezeEvent>>      () {}, FreezeEventStorer      .class},
+        {new TypeLiteral<IStorer<BuildEvent>>       () {}, BuildEventStorer       .class},
         {new TypeLiteral<IStorer<JavaEvent>>        () {}, JavaEventStorer        .class},
         {new TypeLiteral<IStorer<LaunchEvent>>      () {}, LaunchEventStorer      .class},
         {new TypeLiteral<IStorer<PartEvent>>        () {}, PartEventStorer        .class},
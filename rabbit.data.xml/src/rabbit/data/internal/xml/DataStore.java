@@ -15,21 +15,42 @@
  */
 package rabbit.data.internal.xml;
 
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.CommandEventListType;
+import rabbit.data.internal.xml.schema.events.EventGroupType;
 import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.JavaEventListType;
+import rabbit.data.internal.xml.schema.events.LaunchEventListType;
 import rabbit.data.internal.xml.schema.events.ObjectFactory;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
+import rabbit.data.internal.xml.schema.events.PerspectiveEventListType;
+import rabbit.data.internal.xml.schema.events.SessionEventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventListType;
 
 import com.google.common.collect.Lists;
 
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.joda.time.LocalDate;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.Nullable;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLStreamException;
 
 /**
  * Data stores.
@@ -44,9 +65,39 @@ public enum DataStore implements IDataStore {
   TASK_STORE        ("taskEvents"),
   LAUNCH_STORE      ("launchEvents"),
   SESSION_STORE     ("sessionEvents"),
-  JAVA_STORE        ("javaEvents");
+  JAVA_STORE        ("javaEvents"),
+  FREEZE_STORE      ("freezeEvents"),
+  BUILD_STORE       ("buildEvents");
   //@formatter:on
 
+  /**
+   * The file extension of journal files.
+   */
+  private static final String JOURNAL_EXTENSION = ".journal";
+
+  /**
+   * The file extension of spill buffer files.
+   */
+  private static final String SPILL_EXTENSION = "spill";
+
+  /**
+   * The journals that have been checked, mapped to the lengths of their
+   * complete fragments when they were last checked or appended to. Only the
+   * storers write the journals, one storer for each file, so a journal whose
+   * length is the same as the length here is complete.
+   */
+  private static final ConcurrentMap<File, Long> checkedJournals =
+      new ConcurrentHashMap<File, Long>();
+
+  /**
+   * A handler that ignores the groups it receives.
+   */
+  private static final IEventGroupHandler IGNORER = new IEventGroupHandler() {
+    @Override
+    public void handle(EventGroupType group) {
+    }
+  };
+
   /**
    * An object factory for creating XML object types.
    */
@@ -89,7 +140,7 @@ public enum DataStore implements IDataStore {
     List<File> result = Lists.newLinkedList();
     for (; numMonths >= 0; numMonths--) {
       File f = getDataFile(end.minusMonths(numMonths), location);
-      if (f.exists()) {
+      if (f.exists() || getJournalFile(f).exists()) {
         result.add(f);
       }
     }
@@ -114,10 +165,175 @@ public enum DataStore implements IDataStore {
     return path;
   }
 
+  @Override
+  public File getJournalFile(File dataFile) {
+    return new File(dataFile.getParentFile(),
+        FilenameUtils.getBaseName(dataFile.getName()) + JOURNAL_EXTENSION);
+  }
+
+  @Override
+  public File getSpillFile() {
+    return getStorageLocation().append(id).addFileExtension(SPILL_EXTENSION)
+        .toFile();
+  }
+
   @Override
   public EventListType read(File file) {
+    EventListType doc = readBase(file);
+    if (doc == null) {
+      doc = objectFactory.createEventListType();
+    }
+    readJournal(file, null, null, doc);
+    return doc;
+  }
+
+  @Override
+  @Nullable
+  public EventListType readForUpdate(File file) {
+    EventListType doc = readBase(file);
+    if (doc != null) {
+      readJournal(file, null, null, doc);
+    }
+    return doc;
+  }
+
+  @Override
+  public EventListType read(File file, LocalDate start, LocalDate end) {
+    EventListType doc = objectFactory.createEventListType();
+    if (file.exists()) {
+      try {
+        // Seeks straight to the requested days if the file has an index:
+        DayIndex index = DayIndex.load(file);
+        if (index == null || !read(index, start, end, doc)) {
+          EventGroupReader.read(file, start, end, adder(doc));
+        }
+      } catch (JAXBException e) {
+        doc = objectFactory.createEventListType();
+      } catch (XMLStreamException e) {
+        doc = objectFactory.createEventListType();
+      } catch (Exception e) {
+        XmlPlugin
+            .getDefault()
+            .getLog()
+            .log(
+                new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, e.getMessage(), e));
+        doc = objectFactory.createEventListType();
+      }
+    }
+    readJournal(file, start, end, doc);
+    return doc;
+  }
+
+  @Override
+  public boolean write(EventListType doc, File f) {
+    if (doc == null || f == null) {
+      throw new NullPointerException();
+    }
     try {
-      if (file.exists()) {
+      DayIndex.write(doc, f);
+    } catch (JAXBException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } finally {
+      MonthCache.getDefault().invalidate(f);
+    }
+
+    // The complete fragments of the journal have been folded into the document
+    // by whoever read it, the rest has not been read and is kept aside:
+    File journal = getJournalFile(f);
+    try {
+      if (!isComplete(journal)) {
+        JournalUtil.moveTail(journal, checkedJournals.get(journal));
+      }
+    } catch (IOException e) {
+      File corrupt = JournalUtil.getCorruptFile(journal);
+      if (!journal.renameTo(corrupt)) {
+        XmlPlugin
+            .getDefault()
+            .getLog()
+            .log(
+                new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                    "Unable to check journal.\n"
+                        + journal.getAbsolutePath(), e));
+        return false;
+      }
+    } finally {
+      checkedJournals.remove(journal);
+    }
+    if (journal.exists() && !journal.delete()) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to delete journal.\n" + journal.getAbsolutePath()));
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean append(EventListType doc, File f) {
+    if (doc == null || f == null) {
+      throw new NullPointerException();
+    }
+    File journal = getJournalFile(f);
+    OutputStream out = null;
+    try {
+      // The fragments appended after a bad fragment could never be read:
+      truncate(journal);
+      out = new BufferedOutputStream(new FileOutputStream(journal, true));
+      JaxbUtil.marshalFragment(objectFactory.createEvents(doc), out);
+      out.close();
+      checkedJournals.put(journal, journal.length());
+      return true;
+
+    } catch (JAXBException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } finally {
+      IOUtils.closeQuietly(out);
+      MonthCache.getDefault().invalidate(f);
+    }
+  }
+
+  /**
+   * Reads the data file, without its journal.
+   * 
+   * @param file The file to read from.
+   * @return An {@link EventListType} object with data, an empty one if the file
+   *         does not exist or is empty, or null if the file cannot be read.
+   */
+  @Nullable
+  private EventListType readBase(File file) {
+    try {
+      if (file.exists() && file.length() > 0) {
         Object obj = JaxbUtil.unmarshal(file);
         if (obj instanceof JAXBElement<?>) {
           JAXBElement<?> element = (JAXBElement<?>) obj;
@@ -125,10 +341,9 @@ public enum DataStore implements IDataStore {
             return (EventListType) element.getValue();
           }
         }
+        return null;
       }
 
-    } catch (JAXBException e) {
-      return objectFactory.createEventListType();
     } catch (Exception e) {
       // XML file not valid?
 
@@ -136,28 +351,139 @@ public enum DataStore implements IDataStore {
           .getDefault()
           .getLog()
           .log(
-              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, e.getMessage(), e));
-      return objectFactory.createEventListType();
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to read data.\n" + file.getAbsolutePath(), e));
+      return null;
     }
     return objectFactory.createEventListType();
   }
 
-  @Override
-  public boolean write(EventListType doc, File f) {
-    if (doc == null || f == null) {
-      throw new NullPointerException();
+  /**
+   * Truncates the given journal after its last complete fragment, if it ends
+   * with a bad fragment. The bytes cut off are moved to a file of their own.
+   * 
+   * @param journal The journal file.
+   * @throws IOException If the journal cannot be read or truncated.
+   */
+  private static void truncate(File journal) throws IOException {
+    if (!isComplete(journal)) {
+      long complete = checkedJournals.get(journal);
+      JournalUtil.truncate(journal, complete);
+      checkedJournals.put(journal, complete);
     }
-    try {
-      JaxbUtil.marshal(objectFactory.createEvents(doc), f);
+  }
+
+  /**
+   * Checks whether the given journal contains only complete fragments. If not,
+   * the length of its complete fragments is left in {@link #checkedJournals}.
+   * 
+   * @param journal The journal file.
+   * @return True if the journal is complete or does not exist.
+   * @throws IOException If the journal cannot be read.
+   */
+  private static boolean isComplete(File journal) throws IOException {
+    if (!journal.exists()) {
       return true;
-    } catch (JAXBException e) {
+    }
+    long length = journal.length();
+    Long checked = checkedJournals.get(journal);
+    if (checked == null || checked != length) {
+      checked = EventGroupReader.readJournal(journal, null, null, IGNORER);
+      checkedJournals.put(journal, checked);
+    }
+    return checked == length;
+  }
+
+  /**
+   * Reads the groups between the dates through the index of a data file.
+   * 
+   * @param index The index of the data file.
+   * @param start The start date.
+   * @param end The end date.
+   * @param doc The document to add the groups to.
+   * @return True if the groups have been read, false if the index cannot be
+   *         used, in which case nothing is added to the document.
+   */
+  private static boolean read(DayIndex index, LocalDate start, LocalDate end,
+      EventListType doc) {
+    try {
+      return index.read(start, end, adder(doc));
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  /**
+   * Reads the groups in the journal of the given data file into the document.
+   * The groups are added as they are, they are not merged with the groups
+   * already in the document. If the journal ends with an incomplete record, as
+   * can happen after a crash, the records before it are still read.
+   * 
+   * @param file The data file.
+   * @param start The start date, or null if there is no lower bound.
+   * @param end The end date, or null if there is no upper bound.
+   * @param doc The document to add the groups to.
+   */
+  private void readJournal(File file, @Nullable LocalDate start,
+      @Nullable LocalDate end, EventListType doc) {
+    File journal = getJournalFile(file);
+    if (!journal.exists()) {
+      return;
+    }
+    try {
+      EventGroupReader.readJournal(journal, start, end, adder(doc));
+    } catch (IOException e) {
       XmlPlugin
           .getDefault()
           .getLog()
           .log(
-              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
-                  "Unable to save data.", e));
-      return false;
+              new Status(IStatus.WARNING, XmlPlugin.PLUGIN_ID,
+                  "Unable to read journal.\n" + journal.getAbsolutePath(), e));
+    }
+  }
+
+  /**
+   * Gets a handler that adds the groups it receives to the given document.
+   * 
+   * @param doc The document.
+   * @return A handler.
+   */
+  static IEventGroupHandler adder(final EventListType doc) {
+    return new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        add(doc, group);
+      }
+    };
+  }
+
+  /**
+   * Adds a group to the list of its type in the given document.
+   * 
+   * @param doc The document.
+   * @param group The group to add.
+   */
+  private static void add(EventListType doc, EventGroupType group) {
+    if (group instanceof CommandEventListType) {
+      doc.getCommandEvents().add((CommandEventListType) group);
+    } else if (group instanceof PartEventListType) {
+      doc.getPartEvents().add((PartEventListType) group);
+    } else if (group instanceof FileEventListType) {
+      doc.getFileEvents().add((FileEventListType) group);
+    } else if (group instanceof PerspectiveEventListType) {
+      doc.getPerspectiveEvents().add((PerspectiveEventListType) group);
+    } else if (group instanceof TaskFileEventListType) {
+      doc.getTaskFileEvents().add((TaskFileEventListType) group);
+    } else if (group instanceof LaunchEventListType) {
+      doc.getLaunchEvents().add((LaunchEventListType) group);
+    } else if (group instanceof SessionEventListType) {
+      doc.getSessionEvents().add((SessionEventListType) group);
+    } else if (group instanceof JavaEventListType) {
+      doc.getJavaEvents().add((JavaEventListType) group);
+    } else if (group instanceof FreezeEventListType) {
+      doc.getFreezeEvents().add((FreezeEventListType) group);
+    } else if (group instanceof BuildEventListType) {
+      doc.getBuildEvents().add((BuildEventListType) group);
     }
   }
 
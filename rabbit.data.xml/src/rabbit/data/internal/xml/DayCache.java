@@ -0,0 +1,266 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A least recently used cache of the data nodes of past days, created by the
+ * accessors from the data files, bounded by an estimate of the memory used.
+ * <p>
+ * The entry of a data file is only used while the data file and its journal
+ * have the same length and modification time as when the nodes were added. The
+ * storers {@link #update(IDataStore, File, Collection) update} the entry of a
+ * file after writing to it, removing only the days they have written, so the
+ * other days stay cached while today's data keeps changing.
+ * </p>
+ */
+public final class DayCache {
+
+  /**
+   * The estimated memory used by a data node, in bytes.
+   */
+  static final long BYTES_PER_NODE = 256;
+
+  /**
+   * The default memory budget, in megabytes. This is separate from the budget
+   * of the {@link MonthCache}.
+   */
+  public static final int DEFAULT_SIZE = 16;
+
+  private static final DayCache instance = new DayCache(DEFAULT_SIZE
+      * 1024L * 1024L);
+
+  /**
+   * Gets the shared instance.
+   * 
+   * @return The cache used by the accessors.
+   */
+  public static DayCache getDefault() {
+    return instance;
+  }
+
+  /**
+   * Gets the lengths and modification times of the data file and its journal,
+   * to be passed to {@link #get(File, List, LocalDate)} and
+   * {@link #put(File, List, LocalDate, List)}. The stamp should be taken before
+   * the file is read.
+   * 
+   * @param store The data store the file belongs to.
+   * @param f The data file.
+   * @return The stamp of the file.
+   * @throws NullPointerException If any argument is null.
+   */
+  public static List<Long> stamp(IDataStore store, File f) {
+    return MonthCache.stamp(checkNotNull(store), checkNotNull(f));
+  }
+
+  /**
+   * Entries mapped by the absolute paths of the data files, in access order.
+   */
+  private final LinkedHashMap<String, Entry> entries =
+      new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+  /** The memory budget, in bytes. */
+  private long maxWeight;
+
+  /** The estimated memory used by all the entries, in bytes. */
+  private long weight;
+
+  /**
+   * Constructor.
+   * 
+   * @param maxWeight The memory budget, in bytes.
+   * @throws IllegalArgumentException If maxWeight is negative.
+   */
+  DayCache(long maxWeight) {
+    checkArgument(maxWeight >= 0);
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Gets the data nodes of the given day.
+   * 
+   * @param f The data file containing the day.
+   * @param stamp The current stamp of the file.
+   * @param day The day.
+   * @return The data nodes, or null if the day is not cached for the given
+   *         stamp.
+   * @throws NullPointerException If any argument is null.
+   */
+  @Nullable
+  public synchronized List<?> get(File f, List<Long> stamp, LocalDate day) {
+    checkNotNull(stamp);
+    checkNotNull(day);
+    Entry entry = entries.get(f.getAbsolutePath());
+    if (entry == null || !entry.stamp.equals(stamp)) {
+      return null;
+    }
+    return entry.days.get(day);
+  }
+
+  /**
+   * Caches the data nodes of the given day. The other days of the file are
+   * discarded if they were cached for a different stamp.
+   * 
+   * @param f The data file containing the day.
+   * @param stamp The stamp of the file, taken before it was read.
+   * @param day The day.
+   * @param nodes The data nodes of the day, may be empty, must not be modified
+   *          afterward.
+   * @throws NullPointerException If any argument is null.
+   */
+  public synchronized void put(File f, List<Long> stamp, LocalDate day,
+      List<?> nodes) {
+    checkNotNull(stamp);
+    checkNotNull(day);
+    checkNotNull(nodes);
+    String key = f.getAbsolutePath();
+    Entry entry = entries.get(key);
+    if (entry == null || !entry.stamp.equals(stamp)) {
+      remove(key);
+      entry = new Entry(stamp);
+      entries.put(key, entry);
+    }
+    List<?> old = entry.days.put(day, ImmutableList.copyOf(nodes));
+    if (old != null) {
+      entry.weight -= weigh(old);
+      weight -= weigh(old);
+    }
+    entry.weight += weigh(nodes);
+    weight += weigh(nodes);
+    evict();
+  }
+
+  /**
+   * Updates the entry of the given data file after the file has been written
+   * to. The given days are removed, the other days will be used with the new
+   * stamp of the file.
+   * 
+   * @param store The data store the file belongs to.
+   * @param f The data file that has been written.
+   * @param days The days that have been written.
+   * @throws NullPointerException If any argument is null.
+   */
+  public void update(IDataStore store, File f, Collection<LocalDate> days) {
+    checkNotNull(days);
+    List<Long> stamp = stamp(store, f);
+    synchronized (this) {
+      Entry entry = entries.get(f.getAbsolutePath());
+      if (entry == null) {
+        return;
+      }
+      for (LocalDate day : days) {
+        List<?> old = entry.days.remove(day);
+        if (old != null) {
+          entry.weight -= weigh(old);
+          weight -= weigh(old);
+        }
+      }
+      entry.stamp = stamp;
+    }
+  }
+
+  /**
+   * Removes the entry of the given data file, if there is one.
+   * 
+   * @param f The data file.
+   * @throws NullPointerException If f is null.
+   */
+  public synchronized void invalidate(File f) {
+    remove(f.getAbsolutePath());
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  /**
+   * Sets the memory budget, evicting the least recently used entries if
+   * needed.
+   * 
+   * @param megabytes The budget, in megabytes.
+   * @throws IllegalArgumentException If the budget is negative.
+   */
+  public synchronized void setSize(int megabytes) {
+    checkArgument(megabytes >= 0);
+    maxWeight = megabytes * 1024L * 1024L;
+    evict();
+  }
+
+  /**
+   * Gets the estimated memory used by all the entries.
+   * 
+   * @return The weight, in bytes.
+   */
+  synchronized long getWeight() {
+    return weight;
+  }
+
+  private void evict() {
+    for (Iterator<Entry> it = entries.values().iterator(); it.hasNext()
+        && weight > maxWeight;) {
+      weight -= it.next().weight;
+      it.remove();
+    }
+  }
+
+  private void remove(String key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      weight -= entry.weight;
+    }
+  }
+
+  /**
+   * Estimates the memory used by the given nodes.
+   */
+  private static long weigh(List<?> nodes) {
+    return (nodes.size() + 1) * BYTES_PER_NODE;
+  }
+
+  /**
+   * An entry of the cache, holding the days of a data file.
+   */
+  private static class Entry {
+    final Map<LocalDate, List<?>> days = Maps.newHashMap();
+    List<Long> stamp;
+    long weight;
+
+    Entry(List<Long> stamp) {
+      this.stamp = stamp;
+    }
+  }
+}
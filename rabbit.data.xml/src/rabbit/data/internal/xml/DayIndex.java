@@ -0,0 +1,327 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.joda.time.LocalDate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * An index of the groups of a data file, kept in a sidecar file next to the
+ * data file. The index records the byte offset, length, and checksum of each
+ * group, so that the groups of a few days can be read without reading the rest
+ * of the file.
+ * <p>
+ * The index is written together with the data file by
+ * {@link #write(EventListType, File)}. An index is only used while the data
+ * file has the length and modification time recorded in it, a data file
+ * written by other means is read in full.
+ * </p>
+ */
+public final class DayIndex {
+
+  /** The file extension of index files. */
+  private static final String EXTENSION = ".index";
+
+  /** The first bytes of an index file, "RBIX". */
+  private static final int MAGIC = 0x52424958;
+
+  /** Written before the groups of a data file. */
+  private static final byte[] HEADER = ("<?xml version=\"1.0\" encoding=\"UTF-8\""
+      + " standalone=\"yes\"?><events>").getBytes(Charsets.UTF_8);
+
+  /** Written after the groups of a data file. */
+  private static final byte[] FOOTER = "</events>".getBytes(Charsets.UTF_8);
+
+  /**
+   * Gets the index file of the given data file.
+   * 
+   * @param file The data file.
+   * @return The index file, this file may not be physically existing.
+   */
+  public static File getIndexFile(File file) {
+    return new File(file.getParentFile(),
+        FilenameUtils.getBaseName(file.getName()) + EXTENSION);
+  }
+
+  /**
+   * Loads the index of the given data file.
+   * 
+   * @param file The data file.
+   * @return The index, or null if the file has no index, or if the index is
+   *         out of date or cannot be read.
+   * @throws NullPointerException If file is null.
+   */
+  @Nullable
+  public static DayIndex load(File file) {
+    File indexFile = getIndexFile(checkNotNull(file));
+    if (!indexFile.exists()) {
+      return null;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(
+          indexFile)));
+      if (in.readInt() != MAGIC
+          || in.readLong() != file.length()
+          || in.readLong() != file.lastModified()) {
+        return null;
+      }
+      int count = in.readInt();
+      List<Entry> entries = Lists.newArrayListWithCapacity(count);
+      for (int i = 0; i < count; i++) {
+        LocalDate date = new LocalDate(in.readUTF());
+        entries.add(new Entry(date, in.readLong(), in.readInt(), in.readLong()));
+      }
+      return new DayIndex(file, entries);
+
+    } catch (IOException e) {
+      return null;
+    } catch (IllegalArgumentException e) {
+      return null; // Invalid date.
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Writes the given document to the data file, and writes the index of the
+   * data file. The data file has the same content as when the document is
+   * marshalled as a whole, and is replaced atomically, see {@link FileUtil}.
+   * 
+   * @param doc The document.
+   * @param file The data file.
+   * @throws NullPointerException If any argument is null.
+   * @throws IOException If the files cannot be written.
+   * @throws JAXBException If a group cannot be marshalled.
+   */
+  public static void write(EventListType doc, File file) throws IOException,
+      JAXBException {
+    checkNotNull(doc);
+    File indexFile = getIndexFile(checkNotNull(file));
+    // An old index must never be used with the new data file:
+    if (indexFile.exists() && !indexFile.delete()) {
+      throw new IOException("Unable to delete " + indexFile);
+    }
+
+    List<Entry> entries = Lists.newArrayList();
+    File temp = FileUtil.getTempFile(file);
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(temp));
+    try {
+      out.write(HEADER);
+      long offset = HEADER.length;
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      CRC32 crc = new CRC32();
+      for (Group group : groups(doc)) {
+        buffer.reset();
+        JaxbUtil.marshalFragment(group.element, buffer);
+        byte[] bytes = buffer.toByteArray();
+        out.write(bytes);
+        if (group.date != null) {
+          crc.reset();
+          crc.update(bytes);
+          entries.add(new Entry(group.date, offset, bytes.length,
+              crc.getValue()));
+        }
+        offset += bytes.length;
+      }
+      out.write(FOOTER);
+      out.close();
+      FileUtil.replace(temp, file);
+    } finally {
+      IOUtils.closeQuietly(out);
+      temp.delete();
+    }
+
+    DataOutputStream index = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(indexFile)));
+    try {
+      index.writeInt(MAGIC);
+      index.writeLong(file.length());
+      index.writeLong(file.lastModified());
+      index.writeInt(entries.size());
+      for (Entry entry : entries) {
+        index.writeUTF(entry.date.toString());
+        index.writeLong(entry.offset);
+        index.writeInt(entry.length);
+        index.writeLong(entry.checksum);
+      }
+    } finally {
+      index.close();
+    }
+  }
+
+  private final File file;
+  private final List<Entry> entries;
+
+  private DayIndex(File file, List<Entry> entries) {
+    this.file = file;
+    this.entries = ImmutableList.copyOf(entries);
+  }
+
+  /**
+   * Reads the groups of the data file that are dated between the two dates,
+   * inclusive, seeking straight to each of them. The groups are only passed to
+   * the handler if all of them match their checksums.
+   * 
+   * @param start The start date, or null if there is no lower bound.
+   * @param end The end date, or null if there is no upper bound.
+   * @param handler The handler to receive the groups.
+   * @return True if the groups have been read, false if the data file does not
+   *         match the index, in which case nothing is passed to the handler.
+   * @throws NullPointerException If handler is null.
+   * @throws IOException If the data file cannot be read.
+   * @throws XMLStreamException If a group does not contain well formed XML.
+   * @throws JAXBException If a group cannot be unmarshalled.
+   */
+  public boolean read(@Nullable LocalDate start, @Nullable LocalDate end,
+      IEventGroupHandler handler) throws IOException, XMLStreamException,
+      JAXBException {
+    checkNotNull(handler);
+
+    final List<EventGroupType> groups = Lists.newArrayList();
+    IEventGroupHandler collector = new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        groups.add(group);
+      }
+    };
+
+    RandomAccessFile in = new RandomAccessFile(file, "r");
+    try {
+      CRC32 crc = new CRC32();
+      for (Entry entry : entries) {
+        if ((start != null && entry.date.isBefore(start))
+            || (end != null && entry.date.isAfter(end))) {
+          continue;
+        }
+        if (entry.offset + entry.length > in.length()) {
+          return false;
+        }
+        byte[] bytes = new byte[entry.length];
+        in.seek(entry.offset);
+        in.readFully(bytes);
+        crc.reset();
+        crc.update(bytes);
+        if (crc.getValue() != entry.checksum) {
+          return false;
+        }
+        EventGroupReader.read(new ByteArrayInputStream(bytes), start, end,
+            collector);
+      }
+    } finally {
+      in.close();
+    }
+
+    for (EventGroupType group : groups) {
+      handler.handle(group);
+    }
+    return true;
+  }
+
+  /**
+   * Gets the groups of the given document, in the order of the schema.
+   */
+  private static List<Group> groups(EventListType doc) {
+    List<Group> groups = Lists.newArrayList();
+    add(groups, "commandEvents", doc.getCommandEvents());
+    add(groups, "partEvents", doc.getPartEvents());
+    add(groups, "fileEvents", doc.getFileEvents());
+    add(groups, "perspectiveEvents", doc.getPerspectiveEvents());
+    add(groups, "taskFileEvents", doc.getTaskFileEvents());
+    add(groups, "launchEvents", doc.getLaunchEvents());
+    add(groups, "sessionEvents", doc.getSessionEvents());
+    add(groups, "javaEvents", doc.getJavaEvents());
+    add(groups, "freezeEvents", doc.getFreezeEvents());
+    add(groups, "buildEvents", doc.getBuildEvents());
+    return groups;
+  }
+
+  private static <T extends EventGroupType> void add(List<Group> groups,
+      String name, List<T> list) {
+    for (T group : list) {
+      @SuppressWarnings("unchecked")
+      Class<T> type = (Class<T>) group.getClass();
+      LocalDate date = group.getDate() == null ? null : toLocalDate(group
+          .getDate());
+      groups.add(new Group(date, new JAXBElement<T>(new QName(name), type,
+          group)));
+    }
+  }
+
+  /**
+   * A group to be written, with the element to marshal it as.
+   */
+  private static class Group {
+    @Nullable
+    final LocalDate date;
+    final JAXBElement<?> element;
+
+    Group(@Nullable LocalDate date, JAXBElement<?> element) {
+      this.date = date;
+      this.element = element;
+    }
+  }
+
+  /**
+   * An entry of the index.
+   */
+  private static class Entry {
+    final LocalDate date;
+    final long offset;
+    final int length;
+    final long checksum;
+
+    Entry(LocalDate date, long offset, int length, long checksum) {
+      this.date = date;
+      this.offset = offset;
+      this.length = length;
+      this.checksum = checksum;
+    }
+  }
+}
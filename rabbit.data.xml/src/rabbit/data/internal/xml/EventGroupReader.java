@@ -0,0 +1,295 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.CommandEventListType;
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.JavaEventListType;
+import rabbit.data.internal.xml.schema.events.LaunchEventListType;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
+import rabbit.data.internal.xml.schema.events.PerspectiveEventListType;
+import rabbit.data.internal.xml.schema.events.SessionEventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventListType;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.joda.time.LocalDate;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the event groups of a data file or a journal file with a pull parser.
+ * Groups dated outside of the requested range are skipped without being
+ * unmarshalled, only the groups within the range are bound to their XML types,
+ * one group at a time.
+ */
+public class EventGroupReader {
+
+  /** The name of the date attribute of an event group. */
+  private static final String ATTR_DATE = "date";
+
+  /** Element names of the event groups, mapped to their XML types. */
+  private static final Map<String, Class<? extends EventGroupType>> GROUPS =
+      ImmutableMap.<String, Class<? extends EventGroupType>> builder()
+          .put("commandEvents", CommandEventListType.class)
+          .put("partEvents", PartEventListType.class)
+          .put("fileEvents", FileEventListType.class)
+          .put("perspectiveEvents", PerspectiveEventListType.class)
+          .put("taskFileEvents", TaskFileEventListType.class)
+          .put("launchEvents", LaunchEventListType.class)
+          .put("sessionEvents", SessionEventListType.class)
+          .put("javaEvents", JavaEventListType.class)
+          .put("freezeEvents", FreezeEventListType.class)
+          .put("buildEvents", BuildEventListType.class)
+          .build();
+
+  /**
+   * Names of the elements containing the event groups, the root element of a
+   * data file, which is also the root element of each fragment in a journal
+   * file.
+   */
+  private static final Set<String> CONTAINERS = ImmutableSet.of("events");
+
+  /**
+   * The start of each fragment in a journal file. Markup characters are
+   * escaped in attribute values, so this only occurs at the start of a
+   * fragment.
+   */
+  private static final byte[] FRAGMENT_START =
+      "<events".getBytes(Charsets.UTF_8);
+
+  private static final XMLInputFactory inputFactory =
+      XMLInputFactory.newInstance();
+
+  /**
+   * Reads the groups of the given file that are dated between the two dates,
+   * inclusive, passing each to the handler as soon as it has been read.
+   * 
+   * @param file The file to read.
+   * @param start The start date, or null if there is no lower bound.
+   * @param end The end date, or null if there is no upper bound.
+   * @param handler The handler to receive the groups.
+   * @throws NullPointerException If file or handler is null.
+   * @throws IOException If the file cannot be read.
+   * @throws XMLStreamException If the file does not contain well formed XML.
+   * @throws JAXBException If a group cannot be unmarshalled.
+   */
+  public static void read(File file, @Nullable LocalDate start,
+      @Nullable LocalDate end, IEventGroupHandler handler) throws IOException,
+      XMLStreamException, JAXBException {
+
+    checkNotNull(file);
+    checkNotNull(handler);
+
+    InputStream in = new BufferedInputStream(new FileInputStream(file));
+    try {
+      read(in, start, end, handler);
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Reads the groups of the given journal file that are dated between the two
+   * dates, inclusive. A journal file is a sequence of {@code events}
+   * fragments, one appended by each commit, each fragment is passed to the
+   * handler once it has been read in full.
+   * <p>
+   * If a fragment is incomplete or corrupt, as can happen after a crash, the
+   * reading stops there: the groups of the fragments before it have been
+   * passed to the handler, the groups of that fragment and of the fragments
+   * after it have not.
+   * </p>
+   * 
+   * @param journal The journal file to read.
+   * @param start The start date, or null if there is no lower bound.
+   * @param end The end date, or null if there is no upper bound.
+   * @param handler The handler to receive the groups.
+   * @return The length in bytes of the fragments read, which is the length of
+   *         the file unless the reading stopped at a bad fragment.
+   * @throws NullPointerException If journal or handler is null.
+   * @throws IOException If the file cannot be read.
+   */
+  public static long readJournal(File journal, @Nullable LocalDate start,
+      @Nullable LocalDate end, IEventGroupHandler handler) throws IOException {
+
+    checkNotNull(journal);
+    checkNotNull(handler);
+
+    byte[] bytes = FileUtils.readFileToByteArray(journal);
+    final List<EventGroupType> groups = Lists.newArrayList();
+    IEventGroupHandler collector = new IEventGroupHandler() {
+      @Override
+      public void handle(EventGroupType group) {
+        groups.add(group);
+      }
+    };
+
+    int offset = 0;
+    while (offset < bytes.length) {
+      int next = indexOf(bytes, FRAGMENT_START, offset + 1);
+      int fragmentEnd = (next < 0) ? bytes.length : next;
+      groups.clear();
+      try {
+        read(new ByteArrayInputStream(bytes, offset, fragmentEnd - offset),
+            start, end, collector);
+      } catch (XMLStreamException e) {
+        return offset;
+      } catch (JAXBException e) {
+        return offset;
+      }
+      for (EventGroupType group : groups) {
+        handler.handle(group);
+      }
+      offset = fragmentEnd;
+    }
+    return offset;
+  }
+
+  /**
+   * Reads the groups from the given stream. The stream may contain a data file,
+   * or a single group.
+   * 
+   * @see #read(File, LocalDate, LocalDate, IEventGroupHandler)
+   */
+  public static void read(InputStream in, @Nullable LocalDate start,
+      @Nullable LocalDate end, IEventGroupHandler handler)
+      throws XMLStreamException, JAXBException {
+
+    XMLStreamReader reader = inputFactory.createXMLStreamReader(in);
+    try {
+      int event = reader.getEventType();
+      while (event != XMLStreamConstants.END_DOCUMENT) {
+        if (event != XMLStreamConstants.START_ELEMENT) {
+          event = reader.next();
+          continue;
+        }
+
+        String name = reader.getLocalName();
+        if (CONTAINERS.contains(name)) {
+          event = reader.next(); // Walks into the container.
+          continue;
+        }
+
+        Class<? extends EventGroupType> type = GROUPS.get(name);
+        LocalDate date = parseDate(reader.getAttributeValue(null, ATTR_DATE));
+        if (type == null
+            || date == null
+            || (start != null && date.isBefore(start))
+            || (end != null && date.isAfter(end))) {
+          skipElement(reader);
+          event = reader.next();
+        } else {
+          // The reader will be pointing at the token right after the group:
+          handler.handle(JaxbUtil.unmarshal(reader, type).getValue());
+          event = reader.getEventType();
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Finds the first occurrence of the given bytes.
+   * 
+   * @param bytes The bytes to search in.
+   * @param target The bytes to search for.
+   * @param from The index to start searching from.
+   * @return The index of the first occurrence, or -1 if there is none.
+   */
+  private static int indexOf(byte[] bytes, byte[] target, int from) {
+    for (int i = from; i <= bytes.length - target.length; i++) {
+      int j = 0;
+      while (j < target.length && bytes[i + j] == target[j]) {
+        j++;
+      }
+      if (j == target.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parses a date attribute.
+   * 
+   * @param value The value of the attribute.
+   * @return The date, or null if the value is not a valid date.
+   */
+  @Nullable
+  private static LocalDate parseDate(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return toLocalDate(DatatypeUtil.datatypeFactory
+          .newXMLGregorianCalendar(value.trim()));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Skips the element the reader is currently pointing at, including all of its
+   * children. Upon return the reader will be pointing at the end of the
+   * element.
+   * 
+   * @param reader The reader, pointing at the start of an element.
+   */
+  private static void skipElement(XMLStreamReader reader)
+      throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  private EventGroupReader() {
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+
+/**
+ * A utility class for replacing files atomically. A file is replaced by
+ * writing its new content to a temporary file in the same directory, which is
+ * then renamed to the file, so that the file is never left half written if
+ * the writing is interrupted, and a reader that has mapped the old file keeps
+ * reading the old content.
+ */
+public class FileUtil {
+
+  /** The file extension of a file moved aside while it is replaced. */
+  private static final String OLD_EXTENSION = ".old";
+
+  /**
+   * Gets the temporary file to write the new content of the given file to.
+   * 
+   * @param file The file to be replaced.
+   * @return The temporary file, in the same directory as the file.
+   */
+  public static File getTempFile(File file) {
+    return new File(file.getParentFile(), file.getName() + ".tmp");
+  }
+
+  /**
+   * Renames the given temporary file to the given file, replacing the file.
+   * 
+   * @param temp The temporary file, as returned by {@link #getTempFile(File)}.
+   * @param file The file to be replaced.
+   * @throws IOException If the file cannot be replaced, in which case the file
+   *           is left as it was.
+   */
+  public static void replace(File temp, File file) throws IOException {
+    deleteOldFiles(file);
+    if (temp.renameTo(file)) {
+      return;
+    }
+    // Some platforms cannot rename a file over an existing one, the file is
+    // moved aside first, and is restored if the rename still fails. The file
+    // moved aside may still be mapped by a reader and not be deletable yet,
+    // so it gets a name of its own, and is deleted by a later replace:
+    File old = new File(file.getParentFile(), file.getName() + "-"
+        + System.nanoTime() + OLD_EXTENSION);
+    if (file.exists() && !file.renameTo(old)) {
+      throw new IOException("Unable to replace file.\n"
+          + file.getAbsolutePath());
+    }
+    if (!temp.renameTo(file)) {
+      old.renameTo(file);
+      throw new IOException("Unable to replace file.\n"
+          + file.getAbsolutePath());
+    }
+    old.delete();
+  }
+
+  /**
+   * Deletes the files the given file has been moved aside to by earlier
+   * replaces, the files that are still in use are left for the next time.
+   */
+  private static void deleteOldFiles(File file) {
+    final String prefix = file.getName() + "-";
+    File[] olds = file.getParentFile().listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith(prefix) && name.endsWith(OLD_EXTENSION);
+      }
+    });
+    if (olds != null) {
+      for (File old : olds) {
+        old.delete();
+      }
+    }
+  }
+
+  private FileUtil() {
+  }
+}
@@ -23,6 +23,8 @@ import org.joda.time.LocalDate;
 import java.io.File;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a data store for storing data.
  */
@@ -51,7 +53,8 @@ public interface IDataStore {
    * 
    * @param start The start date.
    * @param end The end date.
-   * @return A list of files that are physically existing across all workspaces.
+   * @return A list of files that are physically existing across all
+   *         workspaces, or that have a journal.
    */
   List<File> getDataFiles(LocalDate start, LocalDate end);
 
@@ -62,7 +65,8 @@ public interface IDataStore {
    * @param start The start date.
    * @param end The end date.
    * @param location The folder location.
-   * @return A list of files that are physically existing in the folder.
+   * @return A list of files that are physically existing in the folder, or
+   *         that have a journal.
    */
   List<File> getDataFiles(LocalDate start, LocalDate end, IPath location);
 
@@ -75,7 +79,28 @@ public interface IDataStore {
   IPath getStorageLocation();
 
   /**
-   * Creates the data from a given file.
+   * Gets the journal file of the given data file. Records appended by
+   * {@link #append(EventListType, File)} are kept in the journal until the
+   * data file is next written.
+   * 
+   * @param dataFile The data file.
+   * @return The journal file, this file may not be physically existing.
+   */
+  File getJournalFile(File dataFile);
+
+  /**
+   * Gets the file of the crash-safe buffer of this store, holding the data
+   * recorded but not yet stored.
+   * 
+   * @return The buffer file, this file may not be physically existing.
+   * @see SpillBuffer
+   */
+  File getSpillFile();
+
+  /**
+   * Creates the data from a given file. The groups in the journal of the file,
+   * if any, are included, but they are not merged with the other groups of the
+   * same date.
    * 
    * @param f The file to read from.
    * @return An {@link EventListType} object with data, or an empty one if the
@@ -84,11 +109,50 @@ public interface IDataStore {
   EventListType read(File f);
 
   /**
-   * Writes the given element to the file.
+   * Creates the data from a given file, including only the groups that are
+   * dated between the two dates, inclusive. Groups outside of the range are
+   * skipped without being fully parsed. The groups in the journal of the file
+   * are included the same way as {@link #read(File)} does.
+   * 
+   * @param f The file to read from.
+   * @param start The start date.
+   * @param end The end date.
+   * @return An {@link EventListType} object with the data between the dates, or
+   *         an empty one if the file does not contain any.
+   */
+  EventListType read(File f, LocalDate start, LocalDate end);
+
+  /**
+   * Creates the data from a given file to be modified and written back, the
+   * same way as {@link #read(File)} does, except that an unreadable file is
+   * reported instead of being read as an empty one, as writing the data back
+   * would replace the content of the file.
+   * 
+   * @param f The file to read from.
+   * @return An {@link EventListType} object with data, an empty one if the
+   *         file does not exist, or null if the file cannot be read.
+   */
+  @Nullable
+  EventListType readForUpdate(File f);
+
+  /**
+   * Writes the given element to the file. The element replaces the content of
+   * the file, including its journal, which is then deleted.
    * 
    * @param doc The element.
    * @param f The file.
+   * @return True if the element is written, false otherwise.
    */
   boolean write(EventListType doc, File f);
 
+  /**
+   * Appends the given element to the journal of the file, without reading or
+   * rewriting the file itself.
+   * 
+   * @param doc The element, containing only the data to be added.
+   * @param f The data file.
+   * @return True if the element is appended, false otherwise.
+   */
+  boolean append(EventListType doc, File f);
+
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+
+/**
+ * Receives event groups as they are read from a data file.
+ * 
+ * @see EventGroupReader
+ */
+public interface IEventGroupHandler {
+
+  /**
+   * Handles a group that has just been read.
+   * 
+   * @param group The group, with its date and all its events.
+   */
+  void handle(EventGroupType group);
+
+}
@@ -18,6 +18,7 @@ package rabbit.data.internal.xml;
 import rabbit.data.internal.xml.schema.events.ObjectFactory;
 
 import java.io.File;
+import java.io.OutputStream;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -26,26 +27,42 @@ import javax.xml.bind.MarshalException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamReader;
 
 /**
- * Utility class contains JAXB related operations.
+ * Utility class contains JAXB related operations. The methods of this class
+ * are thread safe, marshallers and unmarshallers are not, so each thread has
+ * its own. The context is created the first time it is needed.
  */
 public class JaxbUtil {
 
-  private static JAXBContext context;
-  private static Marshaller mar;
-  private static Unmarshaller unmar;
+  private static volatile JAXBContext context;
 
-  static {
-    try {
-      initialize();
-    } catch (JAXBException e) {
-      try {
-        initialize();
-      } catch (JAXBException ex) {
-        ex.printStackTrace();
+  private static final ThreadLocal<Marshaller> mar =
+      new ThreadLocal<Marshaller>();
+  private static final ThreadLocal<Marshaller> fragmentMar =
+      new ThreadLocal<Marshaller>();
+  private static final ThreadLocal<Unmarshaller> unmar =
+      new ThreadLocal<Unmarshaller>();
+
+  /**
+   * Gets the JAXB context, creating it if it has not been created.
+   * 
+   * @return The context.
+   * @throws JAXBException If the context cannot be created.
+   */
+  public static JAXBContext getContext() throws JAXBException {
+    JAXBContext result = context;
+    if (result == null) {
+      synchronized (JaxbUtil.class) {
+        result = context;
+        if (result == null) {
+          result = JAXBContext.newInstance(ObjectFactory.class);
+          context = result;
+        }
       }
     }
+    return result;
   }
 
   /**
@@ -61,7 +78,25 @@ public class JaxbUtil {
    * @throws IllegalArgumentException If any of the method parameters are null
    */
   public static void marshal(JAXBElement<?> e, File f) throws JAXBException {
-    mar.marshal(e, f);
+    getMarshaller().marshal(e, f);
+  }
+
+  /**
+   * Marshals the given element to the stream as a fragment, without an XML
+   * declaration, so that it can be appended to other fragments.
+   * 
+   * @param e The element.
+   * @param out The stream to write to.
+   * @throws JAXBException If any unexpected problem occurs during the
+   *           marshalling.
+   * @throws MarshalException If the ValidationEventHandler returns false from
+   *           its handleEvent method or the Marshaller is unable to marshal obj
+   *           (or any object reachable from obj).
+   * @throws IllegalArgumentException If any of the method parameters are null
+   */
+  public static void marshalFragment(JAXBElement<?> e, OutputStream out)
+      throws JAXBException {
+    getFragmentMarshaller().marshal(e, out);
   }
 
   /**
@@ -76,13 +111,62 @@ public class JaxbUtil {
    * @throws IllegalArgumentException If the file parameter is null
    */
   public static Object unmarshal(File f) throws JAXBException {
-    return unmar.unmarshal(f);
+    return getUnmarshaller().unmarshal(f);
+  }
+
+  /**
+   * Unmarshals the element the given reader is pointing at. Upon return the
+   * reader will be pointing at the token right after the end of the element.
+   * 
+   * @param reader The reader, pointing at the start of an element.
+   * @param type The type to bind the element to.
+   * @return The element unmarshaled.
+   * @throws JAXBException If any unexpected errors occur while unmarshalling
+   * @throws UnmarshalException If the ValidationEventHandler returns false from
+   *           its handleEvent method or the Unmarshaller is unable to perform
+   *           the XML to Java binding.
+   * @throws IllegalArgumentException If any of the parameters is null
+   */
+  public static <T> JAXBElement<T> unmarshal(XMLStreamReader reader,
+      Class<T> type) throws JAXBException {
+    return getUnmarshaller().unmarshal(reader, type);
   }
 
-  private static void initialize() throws JAXBException {
-    context = JAXBContext.newInstance(ObjectFactory.class);
-    mar = context.createMarshaller();
-    unmar = context.createUnmarshaller();
+  /**
+   * Gets the marshaller of the current thread.
+   */
+  private static Marshaller getMarshaller() throws JAXBException {
+    Marshaller result = mar.get();
+    if (result == null) {
+      result = getContext().createMarshaller();
+      mar.set(result);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the fragment marshaller of the current thread.
+   */
+  private static Marshaller getFragmentMarshaller() throws JAXBException {
+    Marshaller result = fragmentMar.get();
+    if (result == null) {
+      result = getContext().createMarshaller();
+      result.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+      fragmentMar.set(result);
+    }
+    return result;
+  }
+
+  /**
+   * Gets the unmarshaller of the current thread.
+   */
+  private static Unmarshaller getUnmarshaller() throws JAXBException {
+    Unmarshaller result = unmar.get();
+    if (result == null) {
+      result = getContext().createUnmarshaller();
+      unmar.set(result);
+    }
+    return result;
   }
 
   private JaxbUtil() {
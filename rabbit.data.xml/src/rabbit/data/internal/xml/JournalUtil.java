@@ -0,0 +1,111 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A utility class for journal files that end with data that cannot be read, as
+ * can happen after a crash. The unreadable data is never discarded, it is moved
+ * to a file of its own so that it is not in the way of the data appended after
+ * it.
+ */
+public class JournalUtil {
+
+  /**
+   * The file extension of the files the unreadable data is moved to.
+   */
+  private static final String CORRUPT_EXTENSION = ".corrupt";
+
+  /**
+   * Truncates the given journal to the given length, the bytes cut off are
+   * moved to a file of their own. The journal is replaced by a copy of its
+   * readable part rather than truncated in place, as it may be mapped by a
+   * reader.
+   * 
+   * @param journal The journal file.
+   * @param complete The length of the readable part of the journal.
+   * @throws IOException If the journal cannot be read or truncated.
+   */
+  public static void truncate(File journal, long complete) throws IOException {
+    moveTail(journal, complete);
+    byte[] bytes = FileUtils.readFileToByteArray(journal);
+    File temp = FileUtil.getTempFile(journal);
+    try {
+      FileOutputStream out = new FileOutputStream(temp);
+      try {
+        out.write(bytes, 0, (int) complete);
+        out.close();
+      } finally {
+        IOUtils.closeQuietly(out);
+      }
+      FileUtil.replace(temp, journal);
+    } finally {
+      temp.delete();
+    }
+  }
+
+  /**
+   * Copies the bytes of the given journal after the given length to a file of
+   * their own, so that they are kept when the journal is truncated or deleted.
+   * 
+   * @param journal The journal file.
+   * @param complete The length of the readable part of the journal.
+   * @return The file the bytes have been copied to.
+   * @throws IOException If the bytes cannot be copied.
+   */
+  public static File moveTail(File journal, long complete) throws IOException {
+    byte[] bytes = FileUtils.readFileToByteArray(journal);
+    File corrupt = getCorruptFile(journal);
+    FileOutputStream out = new FileOutputStream(corrupt);
+    try {
+      out.write(Arrays.copyOfRange(bytes, (int) complete, bytes.length));
+      out.close();
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+    XmlPlugin
+        .getDefault()
+        .getLog()
+        .log(
+            new Status(IStatus.WARNING, XmlPlugin.PLUGIN_ID,
+                "Journal is incomplete, the part that cannot be read has been"
+                    + " moved to:\n" + corrupt.getAbsolutePath()));
+    return corrupt;
+  }
+
+  /**
+   * Gets a new file to move the unreadable data of the given file to.
+   * 
+   * @param file The file.
+   * @return A file that does not exist yet.
+   */
+  public static File getCorruptFile(File file) {
+    return new File(file.getParentFile(), file.getName() + "-"
+        + System.currentTimeMillis() + CORRUPT_EXTENSION);
+  }
+
+  private JournalUtil() {
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.CommandEventListType;
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.JavaEventListType;
+import rabbit.data.internal.xml.schema.events.LaunchEventListType;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
+import rabbit.data.internal.xml.schema.events.PerspectiveEventListType;
+import rabbit.data.internal.xml.schema.events.SessionEventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventListType;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A least recently used cache of the parsed contents of data files, bounded by
+ * an estimate of the memory used. An entry is only used while the data file
+ * and its journal have the same length and modification time as when the
+ * entry was added, and the data stores invalidate the entry of a file when
+ * they write to it. The accessors only read whole months of the past through
+ * this cache, a part of a month is read without parsing the rest of the file.
+ * <p>
+ * The cached documents are shared and must not be modified.
+ * </p>
+ */
+public final class MonthCache {
+
+  /**
+   * The estimated memory used by an event object, not counting the characters
+   * of its strings, in bytes.
+   */
+  static final long BYTES_PER_EVENT = 96;
+
+  /**
+   * The memory used by a character of a string, in bytes.
+   */
+  private static final long BYTES_PER_CHAR = 2;
+
+  /**
+   * The default memory budget, in megabytes.
+   */
+  public static final int DEFAULT_SIZE = 32;
+
+  private static final MonthCache instance = new MonthCache(DEFAULT_SIZE
+      * 1024L * 1024L);
+
+  /**
+   * Gets the shared instance.
+   * 
+   * @return The cache used by the accessors.
+   */
+  public static MonthCache getDefault() {
+    return instance;
+  }
+
+  /**
+   * Entries mapped by the absolute paths of the data files, in access order.
+   */
+  private final LinkedHashMap<String, Entry> entries =
+      new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+  /** The memory budget, in bytes. */
+  private long maxWeight;
+
+  /** The estimated memory used by all the entries, in bytes. */
+  private long weight;
+
+  /**
+   * Constructor.
+   * 
+   * @param maxWeight The memory budget, in bytes.
+   * @throws IllegalArgumentException If maxWeight is negative.
+   */
+  MonthCache(long maxWeight) {
+    checkArgument(maxWeight >= 0);
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Reads the given data file, through the cache.
+   * 
+   * @param store The data store the file belongs to.
+   * @param f The data file.
+   * @return The content of the file, as returned by
+   *         {@link IDataStore#read(File)}, must not be modified.
+   * @throws NullPointerException If any argument is null.
+   */
+  public EventListType read(IDataStore store, File f) {
+    checkNotNull(store);
+    String key = f.getAbsolutePath();
+    List<Long> stamp = stamp(store, f);
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.stamp.equals(stamp)) {
+        return entry.doc;
+      }
+    }
+
+    // Reads outside of the lock, so that different files can be read at the
+    // same time:
+    EventListType doc = store.read(f);
+    synchronized (this) {
+      remove(key);
+      Entry entry = new Entry(doc, stamp);
+      if (entry.weight <= maxWeight) {
+        entries.put(key, entry);
+        weight += entry.weight;
+        evict();
+      }
+    }
+    return doc;
+  }
+
+  /**
+   * Removes the entry of the given data file, if there is one.
+   * 
+   * @param f The data file.
+   * @throws NullPointerException If f is null.
+   */
+  public synchronized void invalidate(File f) {
+    remove(f.getAbsolutePath());
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  /**
+   * Sets the memory budget, evicting the least recently used entries if
+   * needed.
+   * 
+   * @param megabytes The budget, in megabytes.
+   * @throws IllegalArgumentException If the budget is negative.
+   */
+  public synchronized void setSize(int megabytes) {
+    checkArgument(megabytes >= 0);
+    maxWeight = megabytes * 1024L * 1024L;
+    evict();
+  }
+
+  /**
+   * Gets the estimated memory used by all the entries.
+   * 
+   * @return The weight, in bytes.
+   */
+  synchronized long getWeight() {
+    return weight;
+  }
+
+  private void evict() {
+    for (Iterator<Entry> it = entries.values().iterator(); it.hasNext()
+        && weight > maxWeight;) {
+      weight -= it.next().weight;
+      it.remove();
+    }
+  }
+
+  private void remove(String key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      weight -= entry.weight;
+    }
+  }
+
+  /**
+   * Gets the lengths and modification times of the data file and its journal.
+   */
+  static List<Long> stamp(IDataStore store, File f) {
+    File journal = store.getJournalFile(f);
+    return ImmutableList.of(f.length(), f.lastModified(), journal.length(),
+        journal.lastModified());
+  }
+
+  /**
+   * Estimates the memory used by the given document, read from files of the
+   * given stamp. The text of the files is held by the strings of the events,
+   * which are weighed by the lengths of the files, an upper bound as the
+   * markup of the files is counted as well.
+   */
+  private static long weigh(EventListType doc, List<Long> stamp) {
+    long chars = stamp.get(0) + stamp.get(2); // The lengths of the files.
+    return count(doc) * BYTES_PER_EVENT + chars * BYTES_PER_CHAR;
+  }
+
+  /**
+   * Counts the events and the groups of the given document.
+   */
+  private static long count(EventListType doc) {
+    long events = 0;
+    events += count(doc.getCommandEvents());
+    events += count(doc.getFileEvents());
+    events += count(doc.getJavaEvents());
+    events += count(doc.getLaunchEvents());
+    events += count(doc.getPartEvents());
+    events += count(doc.getPerspectiveEvents());
+    events += count(doc.getSessionEvents());
+    events += count(doc.getTaskFileEvents());
+    events += count(doc.getFreezeEvents());
+    events += count(doc.getBuildEvents());
+    return events + 1;
+  }
+
+  /**
+   * Counts the events in the given groups.
+   */
+  private static long count(List<? extends EventGroupType> groups) {
+    long count = groups.size();
+    for (EventGroupType group : groups) {
+      count += size(group);
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of events in the given group.
+   */
+  private static int size(EventGroupType group) {
+    if (group instanceof CommandEventListType) {
+      return ((CommandEventListType) group).getCommandEvent().size();
+    } else if (group instanceof PartEventListType) {
+      return ((PartEventListType) group).getPartEvent().size();
+    } else if (group instanceof FileEventListType) {
+      return ((FileEventListType) group).getFileEvent().size();
+    } else if (group instanceof PerspectiveEventListType) {
+      return ((PerspectiveEventListType) group).getPerspectiveEvent().size();
+    } else if (group instanceof TaskFileEventListType) {
+      return ((TaskFileEventListType) group).getTaskFileEvent().size();
+    } else if (group instanceof LaunchEventListType) {
+      return ((LaunchEventListType) group).getLaunchEvent().size();
+    } else if (group instanceof SessionEventListType) {
+      return ((SessionEventListType) group).getSessionEvent().size();
+    } else if (group instanceof JavaEventListType) {
+      return ((JavaEventListType) group).getJavaEvent().size();
+    } else if (group instanceof FreezeEventListType) {
+      return ((FreezeEventListType) group).getFreezeEvent().size();
+    } else if (group instanceof BuildEventListType) {
+      return ((BuildEventListType) group).getBuildEvent().size();
+    }
+    return 0;
+  }
+
+  /**
+   * An entry of the cache.
+   */
+  private static class Entry {
+    final EventListType doc;
+    final List<Long> stamp;
+    final long weight;
+
+    Entry(EventListType doc, List<Long> stamp) {
+      this.doc = doc;
+      this.stamp = stamp;
+      this.weight = weigh(doc, stamp);
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.joda.time.LocalDate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBException;
+
+/**
+ * Reads and writes the rollups of data files. A rollup holds the data of a
+ * month file summed over longer periods, one group for each period, dated at
+ * the first day of the period. The storers write the rollups of a file each
+ * time they write the whole file, a rollup is only used while the data file
+ * and its journal have not changed since.
+ */
+public final class Rollups {
+
+  /**
+   * The periods of the rollups.
+   */
+  public static enum Period {
+
+    /**
+     * ISO weeks, split at the boundaries of the month. Each group is dated at
+     * the Monday of the week, or at the first day of the month.
+     */
+    WEEK("week"),
+
+    /**
+     * The whole month, the group is dated at the first day of the month.
+     */
+    MONTH("month");
+
+    private final String id;
+
+    private Period(String id) {
+      this.id = id;
+    }
+
+    /**
+     * Gets the first day of the period containing the given date.
+     * 
+     * @param date The date.
+     * @return The first day of the period.
+     */
+    public LocalDate getStart(LocalDate date) {
+      LocalDate month = date.dayOfMonth().withMinimumValue();
+      if (this == MONTH) {
+        return month;
+      }
+      LocalDate monday = date.dayOfWeek().withMinimumValue();
+      return monday.isBefore(month) ? month : monday;
+    }
+
+    /**
+     * Gets the last day of the period containing the given date.
+     * 
+     * @param date The date.
+     * @return The last day of the period.
+     */
+    public LocalDate getEnd(LocalDate date) {
+      LocalDate month = date.dayOfMonth().withMaximumValue();
+      if (this == MONTH) {
+        return month;
+      }
+      LocalDate sunday = date.dayOfWeek().withMaximumValue();
+      return sunday.isAfter(month) ? month : sunday;
+    }
+  }
+
+  /** The first bytes of a rollup file, "RBRU". */
+  private static final int MAGIC = 0x52425255;
+
+  /** The file extension of rollup files. */
+  private static final String EXTENSION = ".rollup";
+
+  private static final ObjectFactory objectFactory = new ObjectFactory();
+
+  /**
+   * Gets the rollup file of the given data file.
+   * 
+   * @param dataFile The data file.
+   * @param period The period of the rollup.
+   * @return The rollup file, this file may not be physically existing.
+   */
+  public static File getRollupFile(File dataFile, Period period) {
+    return new File(dataFile.getParentFile(),
+        FilenameUtils.getBaseName(dataFile.getName()) + "." + period.id
+            + EXTENSION);
+  }
+
+  /**
+   * Reads the rollup of the given data file.
+   * 
+   * @param store The data store the file belongs to.
+   * @param dataFile The data file.
+   * @param period The period of the rollup.
+   * @return The rollup, or null if there is none, or if the data file has
+   *         changed since the rollup was written.
+   * @throws NullPointerException If any argument is null.
+   */
+  @Nullable
+  public static EventListType read(IDataStore store, File dataFile,
+      Period period) {
+    File file = getRollupFile(dataFile, checkNotNull(period));
+    if (!file.exists()) {
+      return null;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(
+          new FileInputStream(file)));
+      if (in.readInt() != MAGIC) {
+        return null;
+      }
+      for (Long value : MonthCache.stamp(store, dataFile)) {
+        if (in.readLong() != value.longValue()) {
+          return null;
+        }
+      }
+      EventListType doc = objectFactory.createEventListType();
+      EventGroupReader.read(in, null, null, DataStore.adder(doc));
+      return doc;
+
+    } catch (Exception e) {
+      return null;
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Writes the rollup of the given data file. Should be called right after the
+   * data file has been written. The rollup file is replaced atomically, see
+   * {@link FileUtil}.
+   * 
+   * @param store The data store the file belongs to.
+   * @param dataFile The data file.
+   * @param period The period of the rollup.
+   * @param doc The rollup, one group for each period.
+   * @throws NullPointerException If any argument is null.
+   * @throws IOException If the rollup cannot be written.
+   * @throws JAXBException If the rollup cannot be marshalled.
+   */
+  public static void write(IDataStore store, File dataFile, Period period,
+      EventListType doc) throws IOException, JAXBException {
+    checkNotNull(doc);
+    List<Long> stamp = MonthCache.stamp(store, dataFile);
+    File file = getRollupFile(dataFile, checkNotNull(period));
+    File temp = FileUtil.getTempFile(file);
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          new FileOutputStream(temp)));
+      try {
+        out.writeInt(MAGIC);
+        for (Long value : stamp) {
+          out.writeLong(value.longValue());
+        }
+        JaxbUtil.marshalFragment(objectFactory.createEvents(doc), out);
+        out.close();
+      } finally {
+        IOUtils.closeQuietly(out);
+      }
+      FileUtil.replace(temp, file);
+    } finally {
+      temp.delete();
+    }
+  }
+
+  private Rollups() {
+  }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+/**
+ * A crash-safe ring buffer of records, kept in a memory-mapped file. Records
+ * are appended as data is produced, and released once the data has been
+ * stored. The records not released by the time the process dies are read back
+ * when the buffer is opened again.
+ * <p>
+ * A record is written to the free space of the ring before the header is
+ * updated to include it, and a release only moves the start of the ring in
+ * the header, so a record is either complete or ignored. The pages of a mapped
+ * file are kept by the operating system if the process is killed, the buffer
+ * is not forced to the disk, so the records may still be lost if the operating
+ * system crashes.
+ * </p>
+ * <p>
+ * Each record appended is numbered, {@link #mark()} returns the number of the
+ * next record, which can later be passed to {@link #release(long)} to release
+ * all the records appended before the mark.
+ * </p>
+ * <p>
+ * The data of the records is stored elsewhere before the records are released,
+ * if the process dies in between, the records would be stored twice. To tell
+ * whether such a write has happened, a write can be noted with
+ * {@link #prepare(long, byte[])} before it is done, the note is kept until the
+ * records are released. If a note is left when the buffer is opened again, the
+ * caller checks the note against what has been written, then either releases
+ * the records of the note with {@link #releasePrepared()} or keeps them with
+ * {@link #discardPrepared()}.
+ * </p>
+ */
+public final class SpillBuffer {
+
+  /** The default number of bytes of records a buffer can hold. */
+  public static final int DEFAULT_CAPACITY = 4 * 1024 * 1024;
+
+  /** The first bytes of a buffer file, "RBS2". */
+  private static final int MAGIC = 0x52425332;
+
+  /** Offset of the length of the note of the prepared write. */
+  private static final int NOTE_LENGTH = 4;
+
+  /** Offset of the logical position of the first record. */
+  private static final int START = 8;
+
+  /** Offset of the logical position after the last record. */
+  private static final int END = 16;
+
+  /**
+   * Offset of the logical position after the records of the prepared write, or
+   * -1 if there is none.
+   */
+  private static final int PREPARED = 24;
+
+  /** Offset of the note of the prepared write. */
+  private static final int NOTE = 32;
+
+  /** The maximum size of the note of a prepared write. */
+  public static final int MAX_NOTE_SIZE = 992;
+
+  /** The size of the header, the records follow. */
+  private static final int HEADER_SIZE = NOTE + MAX_NOTE_SIZE;
+
+  /** The size of the length and checksum before the data of a record. */
+  private static final int RECORD_HEADER_SIZE = 8;
+
+  /** The length of a record marking the rest of the ring as unused. */
+  private static final int PADDING = -1;
+
+  /** A record in the ring. */
+  private static final class Record {
+    final long number;
+    final long position;
+
+    Record(long number, long position) {
+      this.number = number;
+      this.position = position;
+    }
+  }
+
+  /**
+   * Opens the buffer kept in the given file, creating the file if it does not
+   * exist. If the file exists but is not a valid buffer, it is emptied.
+   * 
+   * @param file The file.
+   * @param capacity The number of bytes of records the buffer can hold, only
+   *          used if the file is created or emptied.
+   * @return The buffer.
+   * @throws NullPointerException If file is null.
+   * @throws IllegalArgumentException If the capacity is less than the size of
+   *           a record header.
+   * @throws IOException If the file cannot be opened.
+   */
+  public static SpillBuffer open(File file, int capacity) throws IOException {
+    checkNotNull(file);
+    checkArgument(capacity > RECORD_HEADER_SIZE, "capacity = " + capacity);
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      return new SpillBuffer(raf, capacity);
+    } catch (IOException e) {
+      closeQuietly(raf);
+      throw e;
+    }
+  }
+
+  private final RandomAccessFile raf;
+  private final MappedByteBuffer buffer;
+
+  /** The number of bytes of records the ring can hold. */
+  private final int capacity;
+
+  /** The records not yet released, oldest first. */
+  private final LinkedList<Record> records;
+
+  /** The logical positions of the start and the end of the ring. */
+  private long start;
+  private long end;
+
+  /** The number of the next record. */
+  private long next;
+
+  private SpillBuffer(RandomAccessFile raf, int capacity) throws IOException {
+    this.raf = raf;
+    this.records = Lists.newLinkedList();
+
+    long length = raf.length();
+    boolean valid = length > HEADER_SIZE + RECORD_HEADER_SIZE
+        && length - HEADER_SIZE <= Integer.MAX_VALUE;
+    if (valid) {
+      this.capacity = (int) (length - HEADER_SIZE);
+    } else {
+      this.capacity = capacity;
+      raf.setLength(HEADER_SIZE + capacity);
+    }
+    buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+        HEADER_SIZE + this.capacity);
+
+    start = buffer.getLong(START);
+    end = buffer.getLong(END);
+    if (!valid
+        || buffer.getInt(0) != MAGIC
+        || start < 0
+        || end < start
+        || end - start > this.capacity) {
+      start = 0;
+      end = 0;
+      buffer.putLong(START, start);
+      buffer.putLong(END, end);
+      buffer.putLong(PREPARED, -1);
+      buffer.putInt(0, MAGIC);
+    } else {
+      scan();
+    }
+  }
+
+  /**
+   * Appends a record.
+   * 
+   * @param data The data of the record.
+   * @return True if the record has been appended, false if there is not enough
+   *         free space in the buffer.
+   * @throws NullPointerException If data is null.
+   */
+  public synchronized boolean append(byte[] data) {
+    int size = RECORD_HEADER_SIZE + data.length;
+    int remaining = capacity - offset(end);
+    int padding = remaining < size ? remaining : 0;
+    if ((end - start) + padding + size > capacity) {
+      return false;
+    }
+
+    if (padding > 0) {
+      if (padding >= 4) {
+        buffer.putInt(HEADER_SIZE + offset(end), PADDING);
+      }
+      end += padding;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    int offset = HEADER_SIZE + offset(end);
+    buffer.putInt(offset, data.length);
+    buffer.putInt(offset + 4, (int) crc.getValue());
+    ByteBuffer target = buffer.duplicate();
+    target.position(offset + RECORD_HEADER_SIZE);
+    target.put(data);
+
+    records.add(new Record(next++, end));
+    end += size;
+    // Only now the record is part of the buffer:
+    buffer.putLong(END, end);
+    return true;
+  }
+
+  /**
+   * Closes the buffer, the records are kept in the file.
+   */
+  public synchronized void close() {
+    closeQuietly(raf);
+  }
+
+  /**
+   * Gets a mark of the records appended so far.
+   * 
+   * @return The number of the next record.
+   */
+  public synchronized long mark() {
+    return next;
+  }
+
+  /**
+   * Notes a write of the data of the records appended before the given mark,
+   * before the write is done. The note is dropped once the records are
+   * released.
+   * 
+   * @param mark A mark returned by {@link #mark()}.
+   * @param note The note, describing the write.
+   * @throws NullPointerException If note is null.
+   * @throws IllegalArgumentException If the note is longer than
+   *           {@link #MAX_NOTE_SIZE}.
+   */
+  public synchronized void prepare(long mark, byte[] note) {
+    checkArgument(note.length <= MAX_NOTE_SIZE, "note = " + note.length);
+    long position = end;
+    for (Record record : records) {
+      if (record.number >= mark) {
+        position = record.position;
+        break;
+      }
+    }
+    ByteBuffer target = buffer.duplicate();
+    target.position(NOTE);
+    target.put(note);
+    buffer.putInt(NOTE_LENGTH, note.length);
+    // Only now the note is part of the buffer:
+    buffer.putLong(PREPARED, position);
+  }
+
+  /**
+   * Gets the note of the write prepared and not yet released.
+   * 
+   * @return The note, or null if there is none.
+   */
+  @Nullable
+  public synchronized byte[] getPrepared() {
+    if (buffer.getLong(PREPARED) < 0) {
+      return null;
+    }
+    int length = buffer.getInt(NOTE_LENGTH);
+    if (length < 0 || length > MAX_NOTE_SIZE) {
+      return null;
+    }
+    byte[] note = new byte[length];
+    ByteBuffer source = buffer.duplicate();
+    source.position(NOTE);
+    source.get(note);
+    return note;
+  }
+
+  /**
+   * Releases the records of the prepared write, as the write has been done.
+   */
+  public synchronized void releasePrepared() {
+    long prepared = buffer.getLong(PREPARED);
+    while (!records.isEmpty() && records.getFirst().position < prepared) {
+      records.removeFirst();
+    }
+    updateStart();
+  }
+
+  /**
+   * Drops the note of the prepared write and keeps its records, as the write
+   * has not been done.
+   */
+  public synchronized void discardPrepared() {
+    buffer.putLong(PREPARED, -1);
+  }
+
+  /**
+   * Reads the records not yet released.
+   * 
+   * @return The data of the records, oldest first.
+   */
+  public synchronized List<byte[]> read() {
+    List<byte[]> result = Lists.newArrayListWithCapacity(records.size());
+    for (Record record : records) {
+      int offset = HEADER_SIZE + offset(record.position);
+      byte[] data = new byte[buffer.getInt(offset)];
+      ByteBuffer source = buffer.duplicate();
+      source.position(offset + RECORD_HEADER_SIZE);
+      source.get(data);
+      result.add(data);
+    }
+    return result;
+  }
+
+  /**
+   * Releases the records appended before the given mark, their space is
+   * reused by the records appended later.
+   * 
+   * @param mark A mark returned by {@link #mark()}.
+   */
+  public synchronized void release(long mark) {
+    while (!records.isEmpty() && records.getFirst().number < mark) {
+      records.removeFirst();
+    }
+    updateStart();
+  }
+
+  private static void closeQuietly(RandomAccessFile raf) {
+    try {
+      raf.close();
+    } catch (IOException e) {
+      // Ignored, nothing has been written through the file.
+    }
+  }
+
+  /**
+   * Moves the start of the ring to the first record left, dropping the note of
+   * the prepared write once its records have all been released.
+   */
+  private void updateStart() {
+    start = records.isEmpty() ? end : records.getFirst().position;
+    buffer.putLong(START, start);
+    if (buffer.getLong(PREPARED) <= start) {
+      buffer.putLong(PREPARED, -1);
+    }
+  }
+
+  /**
+   * Gets the offset of a logical position in the ring.
+   */
+  private int offset(long position) {
+    return (int) (position % capacity);
+  }
+
+  /**
+   * Reads the records of the ring, the ring is cut at the first record that
+   * is incomplete or corrupt.
+   */
+  private void scan() {
+    CRC32 crc = new CRC32();
+    long position = start;
+    while (position < end) {
+      int remaining = capacity - offset(position);
+      int offset = HEADER_SIZE + offset(position);
+      int length = remaining < 4 ? PADDING : buffer.getInt(offset);
+      if (length == PADDING) {
+        position += remaining;
+        continue;
+      }
+
+      boolean valid = length >= 0
+          && RECORD_HEADER_SIZE + length <= remaining
+          && position + RECORD_HEADER_SIZE + length <= end;
+      if (valid) {
+        byte[] data = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(offset + RECORD_HEADER_SIZE);
+        source.get(data);
+        crc.reset();
+        crc.update(data);
+        valid = buffer.getInt(offset + 4) == (int) crc.getValue();
+      }
+      if (!valid) {
+        end = position;
+        buffer.putLong(END, end);
+        break;
+      }
+      records.add(new Record(next++, position));
+      position += RECORD_HEADER_SIZE + length;
+    }
+  }
+}
@@ -21,8 +21,10 @@ package rabbit.data.internal.xml;
 public class StoreNames {
 
   //@formatter:off
+  public static final String BUILD_STORE       = "BuildStore";
   public static final String COMMAND_STORE     = "CommandStore";
   public static final String FILE_STORE        = "FileStore";
+  public static final String FREEZE_STORE      = "FreezeStore";
   public static final String JAVA_STORE        = "JavaStore";
   public static final String LAUNCH_STORE      = "LaunchStore";
   public static final String PART_STORE        = "PartStore";
@@ -10,12 +10,18 @@ public class StoreNamesModule extends AbstractModule {
 
   @Override
   protected void configure() {
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.BUILD_STORE))
+        .toInstance(DataStore.BUILD_STORE);
     bind(IDataStore.class)
         .annotatedWith(Names.named(StoreNames.COMMAND_STORE))
         .toInstance(DataStore.COMMAND_STORE);
     bind(IDataStore.class)
         .annotatedWith(Names.named(StoreNames.FILE_STORE))
         .toInstance(DataStore.FILE_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.FREEZE_STORE))
+        .toInstance(DataStore.FREEZE_STORE);
     bind(IDataStore.class)
         .annotatedWith(Names.named(StoreNames.JAVA_STORE))
         .toInstance(DataStore.JAVA_STORE);
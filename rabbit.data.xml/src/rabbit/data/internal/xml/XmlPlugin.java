@@ -15,15 +15,22 @@
  */
 package rabbit.data.internal.xml;
 
+import rabbit.data.internal.xml.columnar.ColumnarConverter;
+import rabbit.data.store.StoreWriter;
+
 import static com.google.common.collect.Sets.newHashSet;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
@@ -38,6 +45,12 @@ import java.io.Reader;
 import java.io.Writer;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBException;
 
 /**
  * Activator class for this plug-in.
@@ -60,6 +73,55 @@ public class XmlPlugin extends AbstractUIPlugin {
    */
   private static final String PROP_STORAGE_ROOT = "storage.root";
 
+  /**
+   * Constant string to use with a java.util.Properties to get/set whether data
+   * is committed to journals instead of rewriting the data files.
+   */
+  private static final String PROP_JOURNAL = "storage.journal";
+
+  /**
+   * Constant string to use with a java.util.Properties to get/set whether data
+   * is stored in columnar files instead of XML files.
+   */
+  private static final String PROP_COLUMNAR = "storage.columnar";
+
+  /**
+   * Constant string to use with a java.util.Properties to get/set the memory
+   * budget of the cache of parsed data files, in megabytes.
+   */
+  private static final String PROP_CACHE_SIZE = "storage.cache.size";
+
+  /**
+   * Constant string to use with a java.util.Properties to get/set the memory
+   * budget of the cache of the data nodes of past days, in megabytes.
+   */
+  private static final String PROP_DAY_CACHE_SIZE = "storage.daycache.size";
+
+  /**
+   * Constant string to use with a java.util.Properties to get/set the maximum
+   * number of data files read in parallel.
+   */
+  private static final String PROP_READ_THREADS = "storage.read.threads";
+
+  /**
+   * Constant string to use with a java.util.Properties to get/set whether the
+   * data produced is recorded in a crash-safe buffer until it is stored.
+   */
+  private static final String PROP_BUFFER = "storage.buffer";
+
+  /** The default maximum number of data files read in parallel. */
+  private static final int DEFAULT_READ_THREADS =
+      Runtime.getRuntime().availableProcessors();
+
+  /** The number of seconds an idle reader thread is kept alive. */
+  private static final long READ_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+  /**
+   * The number of seconds to wait at stop for the data to be written, before
+   * the data not yet being written is spilled.
+   */
+  private static final long STOP_WRITE_SECONDS = 10;
+
   public static XmlPlugin getDefault() {
     return plugin;
   }
@@ -67,6 +129,9 @@ public class XmlPlugin extends AbstractUIPlugin {
   /** The settings. */
   private Properties properties = new Properties();
 
+  /** The executor for reading data files, created on demand. */
+  private ThreadPoolExecutor readExecutor;
+
   public XmlPlugin() {}
 
   /**
@@ -125,6 +190,193 @@ public class XmlPlugin extends AbstractUIPlugin {
     return paths.toArray(new IPath[paths.size()]);
   }
 
+  /**
+   * Checks whether data is committed by appending to the journals of the data
+   * files, instead of rewriting the data files.
+   * 
+   * @return True if journals are used, false otherwise.
+   */
+  public boolean isJournalEnabled() {
+    return Boolean.parseBoolean(properties.getProperty(PROP_JOURNAL));
+  }
+
+  /**
+   * Sets whether data is committed by appending to the journals of the data
+   * files, instead of rewriting the data files.
+   * 
+   * @param enabled True to use journals, false otherwise.
+   */
+  public void setJournalEnabled(boolean enabled) {
+    properties.setProperty(PROP_JOURNAL, String.valueOf(enabled));
+  }
+
+  /**
+   * Checks whether the data produced is recorded in a crash-safe buffer until
+   * it is stored, so that it can be recovered if the workbench is killed. The
+   * setting takes effect the next time the plug-in is started.
+   * 
+   * @return True if the buffer is used, false otherwise.
+   */
+  public boolean isBufferEnabled() {
+    return Boolean.parseBoolean(properties.getProperty(PROP_BUFFER));
+  }
+
+  /**
+   * Sets whether the data produced is recorded in a crash-safe buffer until it
+   * is stored. The setting takes effect the next time the plug-in is started.
+   * 
+   * @param enabled True to use the buffer, false otherwise.
+   */
+  public void setBufferEnabled(boolean enabled) {
+    properties.setProperty(PROP_BUFFER, String.valueOf(enabled));
+  }
+
+  /**
+   * Checks whether data is stored in columnar files instead of XML files. The
+   * setting takes effect the next time the plug-in is started.
+   * 
+   * @return True if columnar files are used, false otherwise.
+   */
+  public boolean isColumnarEnabled() {
+    return Boolean.parseBoolean(properties.getProperty(PROP_COLUMNAR));
+  }
+
+  /**
+   * Sets whether data is stored in columnar files instead of XML files. The
+   * setting takes effect the next time the plug-in is started, when the XML
+   * data is converted to columnar files in the background, see
+   * {@link ColumnarConverter}. Columnar data is not converted back to XML if
+   * the setting is turned off again.
+   * 
+   * @param enabled True to use columnar files, false otherwise.
+   */
+  public void setColumnarEnabled(boolean enabled) {
+    properties.setProperty(PROP_COLUMNAR, String.valueOf(enabled));
+  }
+
+  /**
+   * Gets the memory budget of the cache of parsed data files. The cache of the
+   * data nodes of past days has a budget of its own, the total memory used by
+   * the caches is the sum of the two budgets.
+   * 
+   * @return The budget, in megabytes.
+   * @see MonthCache
+   * @see #getDayCacheSize()
+   */
+  public int getCacheSize() {
+    try {
+      return Math.max(0, Integer.parseInt(properties.getProperty(
+          PROP_CACHE_SIZE)));
+    } catch (NumberFormatException e) {
+      return MonthCache.DEFAULT_SIZE;
+    }
+  }
+
+  /**
+   * Sets the memory budget of the cache of parsed data files, 0 disables the
+   * cache.
+   * 
+   * @param megabytes The budget, in megabytes.
+   * @throws IllegalArgumentException If the budget is negative.
+   * @see MonthCache
+   * @see #setDayCacheSize(int)
+   */
+  public void setCacheSize(int megabytes) {
+    MonthCache.getDefault().setSize(megabytes);
+    properties.setProperty(PROP_CACHE_SIZE, String.valueOf(megabytes));
+  }
+
+  /**
+   * Gets the memory budget of the cache of the data nodes of past days.
+   * 
+   * @return The budget, in megabytes.
+   * @see DayCache
+   * @see #getCacheSize()
+   */
+  public int getDayCacheSize() {
+    try {
+      return Math.max(0, Integer.parseInt(properties.getProperty(
+          PROP_DAY_CACHE_SIZE)));
+    } catch (NumberFormatException e) {
+      return DayCache.DEFAULT_SIZE;
+    }
+  }
+
+  /**
+   * Sets the memory budget of the cache of the data nodes of past days, 0
+   * disables the cache.
+   * 
+   * @param megabytes The budget, in megabytes.
+   * @throws IllegalArgumentException If the budget is negative.
+   * @see DayCache
+   * @see #setCacheSize(int)
+   */
+  public void setDayCacheSize(int megabytes) {
+    DayCache.getDefault().setSize(megabytes);
+    properties.setProperty(PROP_DAY_CACHE_SIZE, String.valueOf(megabytes));
+  }
+
+  /**
+   * Gets the maximum number of data files read in parallel.
+   * 
+   * @return The number of threads, at least 1.
+   * @see #getReadExecutor()
+   */
+  public int getReadThreads() {
+    try {
+      return Math.max(1, Integer.parseInt(properties.getProperty(
+          PROP_READ_THREADS)));
+    } catch (NumberFormatException e) {
+      return DEFAULT_READ_THREADS;
+    }
+  }
+
+  /**
+   * Sets the maximum number of data files read in parallel.
+   * 
+   * @param threads The number of threads.
+   * @throws IllegalArgumentException If the number is less than 1.
+   * @see #getReadExecutor()
+   */
+  public synchronized void setReadThreads(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads = " + threads);
+    }
+    properties.setProperty(PROP_READ_THREADS, String.valueOf(threads));
+    if (readExecutor != null) {
+      // The core size must never be greater than the maximum size:
+      if (threads > readExecutor.getMaximumPoolSize()) {
+        readExecutor.setMaximumPoolSize(threads);
+        readExecutor.setCorePoolSize(threads);
+      } else {
+        readExecutor.setCorePoolSize(threads);
+        readExecutor.setMaximumPoolSize(threads);
+      }
+    }
+  }
+
+  /**
+   * Gets the executor for reading data files in parallel. The number of
+   * threads is bounded by {@link #getReadThreads()}, idle threads are
+   * discarded after a while.
+   * 
+   * @return The executor, shared by all the accessors.
+   */
+  public synchronized ExecutorService getReadExecutor() {
+    if (readExecutor == null) {
+      int threads = getReadThreads();
+      readExecutor = new ThreadPoolExecutor(threads, threads,
+          READ_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("Rabbit Data Reader %d")
+              .build());
+      readExecutor.allowCoreThreadTimeOut(true);
+    }
+    return readExecutor;
+  }
+
   /**
    * Sets the storage root.
    * 
@@ -176,10 +428,39 @@ public class XmlPlugin extends AbstractUIPlugin {
       IOUtils.closeQuietly(reader);
       checkProperties(properties);
     }
+    MonthCache.getDefault().setSize(getCacheSize());
+    DayCache.getDefault().setSize(getDayCacheSize());
+
+    // Creates the JAXB context in the background, instead of on the first
+    // read or write, which may be on the UI thread. The XML data is converted
+    // to columnar files here too, the stores never convert data as it is read:
+    Job job = new Job("Initializing Rabbit data storage") {
+      @Override
+      protected IStatus run(IProgressMonitor monitor) {
+        try {
+          JaxbUtil.getContext();
+        } catch (JAXBException e) {
+          getLog().log(new Status(IStatus.WARNING, PLUGIN_ID,
+              e.getMessage(), e));
+        }
+        if (isColumnarEnabled()) {
+          ColumnarConverter.convertAll();
+        }
+        return Status.OK_STATUS;
+      }
+    };
+    job.setSystem(true);
+    job.schedule();
   }
 
   @Override
   public void stop(BundleContext context) throws Exception {
+    // The data still waiting to be written would otherwise be lost:
+    if (!StoreWriter.getDefault().flush(STOP_WRITE_SECONDS, TimeUnit.SECONDS)) {
+      getLog().log(new Status(IStatus.INFO, PLUGIN_ID,
+          "Data not saved in time has been spilled."));
+    }
+
     Writer writer = null;
     try {
       checkProperties(properties);
@@ -196,6 +477,13 @@ public class XmlPlugin extends AbstractUIPlugin {
       IOUtils.closeQuietly(writer);
     }
 
+    synchronized (this) {
+      if (readExecutor != null) {
+        readExecutor.shutdownNow();
+        readExecutor = null;
+      }
+    }
+
     plugin = null;
     super.stop(context);
   }
@@ -209,6 +497,25 @@ public class XmlPlugin extends AbstractUIPlugin {
     if (prop.getProperty(PROP_STORAGE_ROOT) == null) {
       prop.setProperty(PROP_STORAGE_ROOT, DEFAULT_STORAGE_ROOT);
     }
+    if (prop.getProperty(PROP_JOURNAL) == null) {
+      prop.setProperty(PROP_JOURNAL, String.valueOf(false));
+    }
+    if (prop.getProperty(PROP_COLUMNAR) == null) {
+      prop.setProperty(PROP_COLUMNAR, String.valueOf(false));
+    }
+    if (prop.getProperty(PROP_CACHE_SIZE) == null) {
+      prop.setProperty(PROP_CACHE_SIZE, String.valueOf(MonthCache.DEFAULT_SIZE));
+    }
+    if (prop.getProperty(PROP_DAY_CACHE_SIZE) == null) {
+      prop.setProperty(PROP_DAY_CACHE_SIZE,
+          String.valueOf(DayCache.DEFAULT_SIZE));
+    }
+    if (prop.getProperty(PROP_READ_THREADS) == null) {
+      prop.setProperty(PROP_READ_THREADS, String.valueOf(DEFAULT_READ_THREADS));
+    }
+    if (prop.getProperty(PROP_BUFFER) == null) {
+      prop.setProperty(PROP_BUFFER, String.valueOf(false));
+    }
 
     // Maps the name of the storage folder for this workspace with the actual
     // OS path:
@@ -16,30 +16,51 @@
 package rabbit.data.internal.xml.access;
 
 import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
-import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
 
 import rabbit.data.access.IAccessor;
+import rabbit.data.access.IAggregateAccessor;
+import rabbit.data.access.IDataHandler;
+import rabbit.data.access.model.IData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.Keys;
 import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.xml.DayCache;
 import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.MonthCache;
+import rabbit.data.internal.xml.Rollups;
+import rabbit.data.internal.xml.Rollups.Period;
 import rabbit.data.internal.xml.XmlPlugin;
+import rabbit.data.internal.xml.columnar.ColumnarDataStore;
+import rabbit.data.internal.xml.columnar.IElementHandler;
 import rabbit.data.internal.xml.schema.events.EventGroupType;
 import rabbit.data.internal.xml.schema.events.EventListType;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.collect.LinkedListMultimap;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.Maps;
 
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.joda.time.LocalDate;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-
-import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Abstract class provides default behaviors, this class is designed
@@ -49,8 +70,14 @@ import javax.xml.datatype.XMLGregorianCalendar;
  * @param <E> The XML type.
  * @param <S> The XML category type.
  */
-public abstract class AbstractAccessor<T, E, S extends EventGroupType>
-    implements IAccessor<T> {
+public abstract class AbstractAccessor<T extends IData, E,
+    S extends EventGroupType> implements IAccessor<T>, IAggregateAccessor<T> {
+
+  /**
+   * The interval at which a cancellation is checked for, while waiting for a
+   * file to be read.
+   */
+  private static final long CANCELLATION_CHECK_MILLIS = 100;
 
   private final IDataStore store;
 
@@ -66,8 +93,56 @@ public abstract class AbstractAccessor<T, E, S extends EventGroupType>
 
   @Override
   public final Collection<T> getData(LocalDate start, LocalDate end) {
-    return filter(getXmlData(checkNotNull(start, "start date is null"),
-                             checkNotNull(end, "end date is null")));
+    return getData(start, end, new NullProgressMonitor());
+  }
+
+  @Override
+  public final Collection<T> getData(LocalDate start, LocalDate end,
+      IProgressMonitor monitor) {
+    final List<T> result = Lists.newArrayList();
+    getData(start, end, monitor, new IDataHandler<T>() {
+      @Override
+      public void handle(T data) {
+        result.add(data);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The data is aggregated as the data files are read, the data nodes are
+   * discarded as soon as they have been added to their groups. If the data is
+   * not grouped by {@link Keys#DATE}, the whole weeks and months within the
+   * dates are read from the {@link Rollups rollups} of the data files where
+   * possible, only the days at the edges are read from the daily data.
+   * </p>
+   */
+  @Override
+  public final Collection<IData> getData(LocalDate start, LocalDate end,
+      Set<? extends IKey<?>> dimensions, IKey<?> measure,
+      IProgressMonitor monitor) {
+    Aggregator aggregator = new Aggregator(dimensions, measure);
+    read(start, end, monitor, aggregator, !dimensions.contains(Keys.DATE));
+    return aggregator.getResult();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The data files are read in parallel by the
+   * {@link XmlPlugin#getReadExecutor() read executor}, the data of each file is
+   * passed to the handler as soon as the file and all the files before it have
+   * been read. The data nodes of the days before today are kept in the
+   * {@link DayCache}, so that only today's data is read again when a file is
+   * written to.
+   * </p>
+   */
+  @Override
+  public final void getData(LocalDate start, LocalDate end,
+      IProgressMonitor monitor, IDataHandler<? super T> handler) {
+    read(start, end, monitor, handler, false);
   }
 
   /**
@@ -107,70 +182,360 @@ public abstract class AbstractAccessor<T, E, S extends EventGroupType>
   protected abstract Collection<E> getElements(S category);
 
   /**
-   * Filters the given data.
+   * Filters the data of a file, passing the data nodes to the handler. The data
+   * nodes of the past days that have been read from the file are cached.
    * 
-   * @param data The raw data between the two dates of
-   *          {@link #getData(LocalDate, LocalDate)}.
-   * @return The filtered data.
+   * @param read The read of the file.
+   * @param monitor The monitor to check for cancellation.
+   * @param handler The handler to receive the data nodes.
+   * @throws OperationCanceledException If the monitor is canceled.
    */
-  private Collection<T> filter(Multimap<WorkspaceStorage, S> data) {
-    List<T> result = Lists.newLinkedList();
-    for (Map.Entry<WorkspaceStorage, S> entry : data.entries()) {
-      LocalDate date = toLocalDate(entry.getValue().getDate());
-      for (E element : getElements(entry.getValue())) {
+  private void filter(MonthRead read, IProgressMonitor monitor,
+      IDataHandler<? super T> handler) {
+    for (List<T> nodes : read.cached.values()) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+      for (T node : nodes) {
+        handler.handle(node);
+      }
+    }
+
+    Map<LocalDate, List<T>> days = Maps.newLinkedHashMap();
+    for (LocalDate day : read.uncached) {
+      days.put(day, Lists.<T> newArrayList());
+    }
+    for (Map.Entry<LocalDate, List<T>> entry : read.scanned.entrySet()) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+      for (T node : entry.getValue()) {
+        handler.handle(node);
+      }
+      List<T> nodes = days.get(entry.getKey());
+      if (nodes != null) {
+        nodes.addAll(entry.getValue());
+      }
+    }
+    for (S category : read.categories) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+      LocalDate date = toLocalDate(category.getDate());
+      List<T> nodes = days.get(date);
+      for (E element : getElements(category)) {
         T node = null;
         try {
-          node = createDataNode(date, entry.getKey(), element);
+          node = createDataNode(date, read.storage, element);
         } catch (Exception e) {
           node = null;
         }
         if (node != null) {
-          result.add(node);
+          handler.handle(node);
+          if (nodes != null) {
+            nodes.add(node);
+          }
         }
       }
     }
+
+    DayCache cache = DayCache.getDefault();
+    for (Map.Entry<LocalDate, List<T>> entry : days.entrySet()) {
+      cache.put(read.file, read.stamp, entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Reads the categories of the given file, a whole month, through the
+   * {@link MonthCache}.
+   * 
+   * @param file The data file.
+   * @return The categories of the file.
+   */
+  private List<S> readMonth(File file) {
+    EventListType doc = MonthCache.getDefault().read(getDataStore(), file);
+    List<S> result = Lists.newArrayList();
+    for (S list : getCategories(doc)) {
+      if (list.getDate() != null) { // Ignore invalid data.
+        result.add(list);
+      }
+    }
     return result;
   }
 
   /**
-   * Gets the data from the XML files.
+   * Reads the data between the dates, passing the data nodes to the handler.
    * 
-   * @param start The start date of the data to get.
-   * @param end The end date of the data to get.
-   * @return The data between the dates, inclusive.
+   * @param start The start date.
+   * @param end The end date.
+   * @param monitor The monitor to check for cancellation.
+   * @param handler The handler to receive the data nodes.
+   * @param rollUp True to read whole weeks and months from the rollups where
+   *          possible, in which case the dates of the data nodes are the first
+   *          days of their periods.
+   * @throws OperationCanceledException If the monitor is canceled.
    */
-  private Multimap<WorkspaceStorage, S> getXmlData(LocalDate start,
-                                                   LocalDate end) {
+  private void read(LocalDate start, LocalDate end, IProgressMonitor monitor,
+      IDataHandler<? super T> handler, boolean rollUp) {
+    checkNotNull(start, "start date is null");
+    checkNotNull(end, "end date is null");
+    checkNotNull(monitor, "monitor is null");
+    checkNotNull(handler, "handler is null");
 
-    XMLGregorianCalendar startDate = toXmlDate(start);
-    XMLGregorianCalendar endDate = toXmlDate(end);
     XmlPlugin plugin = XmlPlugin.getDefault();
+    List<MonthRead> reads = Lists.newArrayList();
+    for (IPath storagePath : plugin.getStoragePaths()) {
+      IPath workspacePath = plugin.getWorkspacePath(storagePath);
+      WorkspaceStorage storage =
+          new WorkspaceStorage(storagePath, workspacePath);
 
-    IPath[] storagePaths = plugin.getStoragePaths();
-    Multimap<WorkspaceStorage, S> data = 
-        LinkedListMultimap.create(storagePaths.length);
-    Multimap<WorkspaceStorage, File> files = 
-        LinkedListMultimap.create(storagePaths.length);
+      // Narrows the dates down to the month of each file:
+      Map<File, LocalDate> months = Maps.newHashMap();
+      for (LocalDate month = start.withDayOfMonth(1); !month.isAfter(end);
+          month = month.plusMonths(1)) {
+        months.put(getDataStore().getDataFile(month, storagePath), month);
+      }
+      for (File file : getDataStore().getDataFiles(start, end, storagePath)) {
+        LocalDate month = months.get(file);
+        LocalDate first = start;
+        LocalDate last = end;
+        if (month != null) {
+          first = max(start, month);
+          last = min(end, month.dayOfMonth().withMaximumValue());
+        }
+        reads.add(new MonthRead(storage, file, first, last,
+            rollUp && month != null));
+      }
+    }
 
-    for (IPath storagePath : storagePaths) {
-      List<File> fileList = getDataStore().getDataFiles(start, end, storagePath);
-      IPath workspacePath = plugin.getWorkspacePath(storagePath);
-      files.putAll(new WorkspaceStorage(storagePath, workspacePath), fileList);
+    // Only a few reads are in flight at a time, the next read is submitted as
+    // each result is handled, so the completed reads waiting to be handled do
+    // not hold the data of all the months in memory:
+    ExecutorService executor = plugin.getReadExecutor();
+    int maxInFlight = plugin.getReadThreads() + 1;
+    Iterator<MonthRead> pending = reads.iterator();
+    LinkedList<Future<MonthRead>> results = Lists.newLinkedList();
+    try {
+      while (pending.hasNext() && results.size() < maxInFlight) {
+        results.add(executor.submit(pending.next()));
+      }
+      // Results are dropped as soon as they are handled:
+      while (!results.isEmpty()) {
+        filter(await(results.peek(), monitor), monitor, handler);
+        results.poll();
+        if (pending.hasNext()) {
+          results.add(executor.submit(pending.next()));
+        }
+      }
+    } finally {
+      // Stops the reads that have not started, if canceled:
+      for (Future<?> result : results) {
+        result.cancel(false);
+      }
+    }
+  }
+
+  /**
+   * Waits for the result of a read, checking the monitor for cancellation
+   * while waiting.
+   * 
+   * @param result The result of the read.
+   * @param monitor The monitor to check for cancellation.
+   * @return The completed read.
+   * @throws OperationCanceledException If the monitor is canceled.
+   */
+  private MonthRead await(Future<MonthRead> result, IProgressMonitor monitor) {
+    while (true) {
+      if (monitor.isCanceled()) {
+        throw new OperationCanceledException();
+      }
+      try {
+        return result.get(CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        continue;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new OperationCanceledException();
+      } catch (ExecutionException e) {
+        throw Throwables.propagate(e.getCause());
+      }
+    }
+  }
+
+  private static LocalDate max(LocalDate a, LocalDate b) {
+    return a.isAfter(b) ? a : b;
+  }
+
+  private static LocalDate min(LocalDate a, LocalDate b) {
+    return a.isBefore(b) ? a : b;
+  }
+
+  /**
+   * A read of a data file between two dates. The data nodes of the past days
+   * are taken from the {@link DayCache} if all of them are cached for the
+   * current state of the file, then only the days from today on are read from
+   * the file. Otherwise all the days are read from the file. If the read is to
+   * roll up, the whole weeks and months are read from the rollups of the file
+   * instead. The daily data of a columnar file is scanned into data nodes
+   * directly, without reading it as categories.
+   */
+  private final class MonthRead implements Callable<MonthRead> {
+
+    final WorkspaceStorage storage;
+    final File file;
+    final LocalDate first;
+    final LocalDate last;
+    final boolean rollUp;
+
+    /** The stamp of the file, taken before the file is read. */
+    List<Long> stamp;
+
+    /** The cached data nodes, by day. */
+    final Map<LocalDate, List<T>> cached = Maps.newLinkedHashMap();
+
+    /** The past days to be cached, once their data nodes have been created. */
+    final List<LocalDate> uncached = Lists.newArrayList();
+
+    /** The categories read from the file. */
+    List<S> categories = Collections.emptyList();
+
+    /** The data nodes scanned from a columnar file, by day. */
+    final Map<LocalDate, List<T>> scanned = Maps.newLinkedHashMap();
+
+    MonthRead(WorkspaceStorage storage, File file, LocalDate first,
+        LocalDate last, boolean rollUp) {
+      this.storage = storage;
+      this.file = file;
+      this.first = first;
+      this.last = last;
+      this.rollUp = rollUp;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public MonthRead call() {
+      stamp = DayCache.stamp(getDataStore(), file);
+      if (rollUp) {
+        categories = readRollups();
+        return this;
+      }
+
+      LocalDate today = new LocalDate();
+      DayCache cache = DayCache.getDefault();
+      for (LocalDate day = first; !day.isAfter(last) && day.isBefore(today);
+          day = day.plusDays(1)) {
+        List<?> nodes = cache.get(file, stamp, day);
+        if (nodes != null) {
+          cached.put(day, (List<T>) nodes);
+        } else {
+          uncached.add(day);
+        }
+      }
+
+      if (!uncached.isEmpty()) {
+        // Some past days are not cached, reads all the days from the file.
+        // Only a whole past month is read through the month cache, a part of
+        // a month is read without parsing the rest of the file:
+        uncached.addAll(cached.keySet());
+        cached.clear();
+        if (last.isBefore(today)
+            && first.equals(Period.MONTH.getStart(first))
+            && last.equals(Period.MONTH.getEnd(first))
+            && !(getDataStore() instanceof ColumnarDataStore)) {
+          categories = readMonth(file);
+        } else {
+          categories = readDays(first, last);
+        }
+      } else if (!last.isBefore(today)) {
+        // Only the days from today on can have changed:
+        categories = readDays(max(first, today), last);
+      }
+      return this;
     }
 
-    for (Map.Entry<WorkspaceStorage, File> entry : files.entries()) {
-      for (S list : getCategories(getDataStore().read(entry.getValue()))) {
+    /**
+     * Reads the categories between the dates, taking the whole month or the
+     * whole weeks from the rollups of the file if they are up to date.
+     */
+    private List<S> readRollups() {
+      if (first.equals(Period.MONTH.getStart(first))
+          && last.equals(Period.MONTH.getEnd(first))) {
+        EventListType month = Rollups.read(getDataStore(), file, Period.MONTH);
+        if (month != null) {
+          return Lists.newArrayList(getCategories(month));
+        }
+      }
+      EventListType weeks = Rollups.read(getDataStore(), file, Period.WEEK);
+      if (weeks == null) {
+        return readDays(first, last);
+      }
 
-        XMLGregorianCalendar date = list.getDate();
-        if (date == null) {
-          continue; // Ignore invalid data.
+      Map<LocalDate, S> groups = Maps.newHashMap();
+      for (S category : getCategories(weeks)) {
+        if (category.getDate() != null) {
+          groups.put(toLocalDate(category.getDate()), category);
         }
-        if (startDate.compare(date) <= 0 && date.compare(endDate) <= 0) {
-          data.put(entry.getKey(), list);
+      }
+      List<S> result = Lists.newArrayList();
+      LocalDate edge = null; // The first day not covered by a rollup.
+      LocalDate day = first;
+      while (!day.isAfter(last)) {
+        LocalDate weekEnd = Period.WEEK.getEnd(day);
+        if (day.equals(Period.WEEK.getStart(day)) && !weekEnd.isAfter(last)) {
+          if (edge != null) {
+            result.addAll(readDays(edge, day.minusDays(1)));
+            edge = null;
+          }
+          S group = groups.get(day);
+          if (group != null) { // No group if there is no data for the week.
+            result.add(group);
+          }
+          day = weekEnd.plusDays(1);
+        } else {
+          if (edge == null) {
+            edge = day;
+          }
+          day = day.plusDays(1);
         }
       }
+      if (edge != null) {
+        result.addAll(readDays(edge, last));
+      }
+      return result;
+    }
+
+    /**
+     * Reads the daily categories between the given days, inclusive. The rows
+     * of a columnar file are scanned into {@link #scanned} instead, in which
+     * case no categories are returned.
+     */
+    private List<S> readDays(LocalDate from, LocalDate to) {
+      if (getDataStore() instanceof ColumnarDataStore) {
+        ((ColumnarDataStore) getDataStore()).scan(file, from, to,
+            new IElementHandler<E>() {
+              @Override
+              public void handle(LocalDate date, E element) {
+                T node = null;
+                try {
+                  node = createDataNode(date, storage, element);
+                } catch (Exception e) {
+                  node = null;
+                }
+                if (node != null) {
+                  List<T> nodes = scanned.get(date);
+                  if (nodes == null) {
+                    nodes = Lists.newArrayList();
+                    scanned.put(date, nodes);
+                  }
+                  nodes.add(node);
+                }
+              }
+            });
+        return Collections.emptyList();
+      }
+      return Lists.newArrayList(getCategories(
+          getDataStore().read(file, from, to)));
     }
-    return data;
   }
 
 }
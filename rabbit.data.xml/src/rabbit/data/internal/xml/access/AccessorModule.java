@@ -16,8 +16,11 @@
 package rabbit.data.internal.xml.access;
 
 import rabbit.data.access.IAccessor;
+import rabbit.data.access.IAggregateAccessor;
+import rabbit.data.access.model.IBuildData;
 import rabbit.data.access.model.ICommandData;
 import rabbit.data.access.model.IFileData;
+import rabbit.data.access.model.IFreezeData;
 import rabbit.data.access.model.IJavaData;
 import rabbit.data.access.model.ILaunchData;
 import rabbit.data.access.model.IPartData;
@@ -35,14 +38,27 @@ public class AccessorModule extends AbstractModule {
 
   @Override
   protected void configure() {
+    bind(new TypeLiteral<IAccessor<IBuildData>>() {})       .to(BuildDataAccessor.class);
     bind(new TypeLiteral<IAccessor<ICommandData>>() {})     .to(CommandDataAccessor.class);
     bind(new TypeLiteral<IAccessor<IFileData>>() {})        .to(FileDataAccessor.class);
+    bind(new TypeLiteral<IAccessor<IFreezeData>>() {})      .to(FreezeDataAccessor.class);
     bind(new TypeLiteral<IAccessor<IJavaData>>() {})        .to(JavaDataAccessor.class);
     bind(new TypeLiteral<IAccessor<ILaunchData>>() {})      .to(LaunchDataAccessor.class);
     bind(new TypeLiteral<IAccessor<IPartData>>() {})        .to(PartDataAccessor.class);
     bind(new TypeLiteral<IAccessor<IPerspectiveData>>() {}) .to(PerspectiveDataAccessor.class);
     bind(new TypeLiteral<IAccessor<ISessionData>>() {})     .to(SessionDataAccessor.class);
     bind(new TypeLiteral<IAccessor<ITaskData>>() {})        .to(TaskDataAccessor.class);
+
+    bind(new TypeLiteral<IAggregateAccessor<IBuildData>>() {})       .to(BuildDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<ICommandData>>() {})     .to(CommandDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<IFileData>>() {})        .to(FileDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<IFreezeData>>() {})      .to(FreezeDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<IJavaData>>() {})        .to(JavaDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<ILaunchData>>() {})      .to(LaunchDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<IPartData>>() {})        .to(PartDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<IPerspectiveData>>() {}) .to(PerspectiveDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<ISessionData>>() {})     .to(SessionDataAccessor.class);
+    bind(new TypeLiteral<IAggregateAccessor<ITaskData>>() {})        .to(TaskDataAccessor.class);
   }
 
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.IDataHandler;
+import rabbit.data.access.model.IData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.Keys;
+import rabbit.data.internal.access.model.AggregateData;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.joda.time.Duration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Groups and sums data as it is being read, by hashing the values of the
+ * dimensions of each element. Only one row is kept in memory for each group,
+ * the elements themselves are not kept.
+ * 
+ * @see rabbit.data.access.IAggregateAccessor
+ */
+public final class Aggregator implements IDataHandler<IData> {
+
+  private final List<IKey<?>> dimensions;
+  private final IKey<?> measure;
+
+  /** The sums of the measure, keyed by the values of the dimensions. */
+  private final Map<List<Object>, long[]> sums;
+
+  /**
+   * Constructor.
+   * 
+   * @param dimensions The keys to group the data by.
+   * @param measure The key of the values to sum, either {@link Keys#DURATION}
+   *          or {@link Keys#COUNT}.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws IllegalArgumentException If the measure is not supported.
+   */
+  public Aggregator(Set<? extends IKey<?>> dimensions, IKey<?> measure) {
+    checkNotNull(measure, "measure");
+    checkArgument(measure == Keys.DURATION || measure == Keys.COUNT,
+        "Unsupported measure");
+    this.dimensions = ImmutableList.copyOf(checkNotNull(dimensions,
+        "dimensions"));
+    this.measure = measure;
+    this.sums = Maps.newLinkedHashMap();
+  }
+
+  @Override
+  public void handle(IData data) {
+    Object value = data.get(measure);
+    if (value == null) {
+      return;
+    }
+
+    Object[] group = new Object[dimensions.size()];
+    for (int i = 0; i < group.length; i++) {
+      group[i] = data.get(dimensions.get(i));
+    }
+    List<Object> key = Arrays.asList(group);
+    long[] sum = sums.get(key);
+    if (sum == null) {
+      sum = new long[1];
+      sums.put(key, sum);
+    }
+    if (value instanceof Duration) {
+      sum[0] += ((Duration) value).getMillis();
+    } else {
+      sum[0] += ((Number) value).longValue();
+    }
+  }
+
+  /**
+   * Gets the rows aggregated so far, in the order their groups were first
+   * seen.
+   * 
+   * @return The rows, one for each group.
+   */
+  public List<IData> getResult() {
+    List<IData> result = Lists.newArrayListWithCapacity(sums.size());
+    for (Map.Entry<List<Object>, long[]> entry : sums.entrySet()) {
+      Map<IKey<?>, Object> row = Maps.newHashMapWithExpectedSize(
+          dimensions.size() + 1);
+      for (int i = 0; i < dimensions.size(); i++) {
+        row.put(dimensions.get(i), entry.getKey().get(i));
+      }
+      long sum = entry.getValue()[0];
+      if (measure == Keys.DURATION) {
+        row.put(measure, new Duration(sum));
+      } else {
+        row.put(measure,
+            Integer.valueOf((int) Math.min(sum, Integer.MAX_VALUE)));
+      }
+      result.add(new AggregateData(row));
+    }
+    return result;
+  }
+}
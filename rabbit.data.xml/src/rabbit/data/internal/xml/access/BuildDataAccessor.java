@@ -0,0 +1,72 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.access.model.BuildData;
+import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.StoreNames;
+import rabbit.data.internal.xml.schema.events.BuildEventListType;
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+
+import java.util.Collection;
+
+/**
+ * Accesses build event data.
+ */
+public class BuildDataAccessor extends
+    AbstractAccessor<IBuildData, BuildEventType, BuildEventListType> {
+
+  /**
+   * Constructor.
+   * 
+   * @param store The data store to get the data from.
+   * @throws NullPointerException If argument is null.
+   */
+  @Inject
+  BuildDataAccessor(@Named(StoreNames.BUILD_STORE) IDataStore store) {
+    super(store);
+  }
+
+  @Override
+  protected IBuildData createDataNode(LocalDate date, WorkspaceStorage ws,
+      BuildEventType type) throws Exception {
+    IProject project = ResourcesPlugin.getWorkspace().getRoot()
+        .getProject(type.getProject());
+    return new BuildData(date, ws, project, type.isFullBuild(),
+        type.getCount(), new Duration(type.getTotalDuration()));
+  }
+
+  @Override
+  protected Collection<BuildEventListType> getCategories(EventListType doc) {
+    return doc.getBuildEvents();
+  }
+
+  @Override
+  protected Collection<BuildEventType> getElements(BuildEventListType list) {
+    return list.getBuildEvent();
+  }
+}
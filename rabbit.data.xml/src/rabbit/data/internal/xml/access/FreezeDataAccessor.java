@@ -0,0 +1,69 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.access;
+
+import rabbit.data.access.model.IFreezeData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.internal.access.model.FreezeData;
+import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.StoreNames;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventListType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+
+import java.util.Collection;
+
+/**
+ * Accesses freeze event data.
+ */
+public class FreezeDataAccessor extends
+    AbstractAccessor<IFreezeData, FreezeEventType, FreezeEventListType> {
+
+  /**
+   * Constructor.
+   * 
+   * @param store The data store to get the data from.
+   * @throws NullPointerException If argument is null.
+   */
+  @Inject
+  FreezeDataAccessor(@Named(StoreNames.FREEZE_STORE) IDataStore store) {
+    super(store);
+  }
+
+  @Override
+  protected IFreezeData createDataNode(LocalDate date, WorkspaceStorage ws,
+      FreezeEventType type) throws Exception {
+    return new FreezeData(date, ws, type.getPartId(),
+        new Duration(type.getBucket()), type.getCount(),
+        new Duration(type.getTotalDuration()));
+  }
+
+  @Override
+  protected Collection<FreezeEventListType> getCategories(EventListType doc) {
+    return doc.getFreezeEvents();
+  }
+
+  @Override
+  protected Collection<FreezeEventType> getElements(FreezeEventListType list) {
+    return list.getFreezeEvent();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Abstract class containing common behaviours of a codec.
+ * 
+ * @param <S> The XML category type.
+ * @param <T> The XML event type.
+ */
+public abstract class AbstractColumnCodec<S extends EventGroupType, T>
+    implements IColumnCodec<S, T> {
+
+  /**
+   * An object factory for creating XML object types.
+   */
+  protected final ObjectFactory objectFactory = new ObjectFactory();
+
+  /**
+   * Stands for a null field in a key. The character cannot appear in a field,
+   * as it is not allowed in an XML document.
+   */
+  static final String NULL = "\u0001";
+
+  /**
+   * Encodes a field of a key.
+   * 
+   * @param field The field.
+   * @return The field, or {@link #NULL} if it is null.
+   */
+  protected static String encode(@Nullable String field) {
+    return (field == null) ? NULL : field;
+  }
+
+  /**
+   * Decodes a field of a key.
+   * 
+   * @param field The field, as returned by {@link #encode(String)}.
+   * @return The field, or null if it is {@link #NULL}.
+   */
+  @Nullable
+  protected static String decode(String field) {
+    return NULL.equals(field) ? null : field;
+  }
+}
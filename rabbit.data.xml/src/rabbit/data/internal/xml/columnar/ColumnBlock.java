@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A block of rows to be written to a columnar file. Each row is made of the
+ * date as days since the epoch, the ID of the key in the dictionary of the
+ * block, and the value.
+ * 
+ * @see ColumnFile
+ */
+public class ColumnBlock {
+
+  /** The dictionary, the index of a key is its ID. */
+  private final List<String> keys = Lists.newArrayList();
+
+  /** The IDs of the keys in the dictionary. */
+  private final Map<String, Integer> ids = Maps.newHashMap();
+
+  private int[] days = new int[16];
+  private int[] keyIds = new int[16];
+  private long[] values = new long[16];
+  private int size;
+
+  public ColumnBlock() {
+  }
+
+  /**
+   * Adds a row to this block.
+   * 
+   * @param day The date of the row, in days since the epoch.
+   * @param key The key of the row.
+   * @param value The value of the row.
+   * @throws NullPointerException If key is null.
+   */
+  public void add(int day, String key, long value) {
+    checkNotNull(key);
+    Integer id = ids.get(key);
+    if (id == null) {
+      id = Integer.valueOf(keys.size());
+      ids.put(key, id);
+      keys.add(key);
+    }
+    if (size == days.length) {
+      int capacity = size * 2;
+      days = Arrays.copyOf(days, capacity);
+      keyIds = Arrays.copyOf(keyIds, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    days[size] = day;
+    keyIds[size] = id.intValue();
+    values[size] = value;
+    size++;
+  }
+
+  /**
+   * Gets the number of rows in this block.
+   * 
+   * @return The number of rows.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the dictionary of this block.
+   * 
+   * @return The keys, in the order of their IDs.
+   */
+  List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * Gets the day column, which may be longer than {@link #size()}.
+   */
+  int[] getDays() {
+    return days;
+  }
+
+  /**
+   * Gets the key ID column, which may be longer than {@link #size()}.
+   */
+  int[] getKeyIds() {
+    return keyIds;
+  }
+
+  /**
+   * Gets the value column, which may be longer than {@link #size()}.
+   */
+  long[] getValues() {
+    return values;
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.FileUtil;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Charsets;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.List;
+
+/**
+ * Reads and writes columnar files. A columnar file is a sequence of blocks,
+ * each block is laid out as:
+ * 
+ * <pre>
+ * int     magic number
+ * int     number of keys, followed by each key as an int length and the UTF-8
+ *         bytes of the key
+ * int     number of rows, n
+ * int[n]  the dates of the rows, in days since the epoch
+ * int[n]  the key IDs of the rows, the index of the key in the block
+ * long[n] the values of the rows
+ * </pre>
+ * 
+ * Blocks are independent of each other, so a block can be appended to a file
+ * without reading the file. Files are read through a read-only memory mapped
+ * buffer, the columns are scanned in place through int and long views of the
+ * mapping, and only the keys of the rows within the requested dates are
+ * decoded. As a mapped file cannot be overwritten on some platforms until the
+ * mapping has been garbage collected, a file is never rewritten in place, its
+ * new content is written to a new file which is renamed to it.
+ */
+public class ColumnFile {
+
+  /** The magic number at the start of each block, "RBC1". */
+  static final int MAGIC = 0x52424331;
+
+  /**
+   * Reads the rows of the given file dated between the two days, inclusive.
+   * If the file ends with an incomplete block, as can happen after a crash,
+   * the rows of the blocks before it will still have been passed to the
+   * handler when the exception is thrown.
+   * 
+   * @param file The file to read.
+   * @param startDay The start date, in days since the epoch.
+   * @param endDay The end date, in days since the epoch.
+   * @param handler The handler to receive the rows.
+   * @throws NullPointerException If file or handler is null.
+   * @throws EOFException If the file ends with an incomplete block.
+   * @throws IOException If the file cannot be read, or is not a columnar file.
+   */
+  public static void read(File file, int startDay, int endDay,
+      IRowHandler handler) throws IOException {
+
+    checkNotNull(file);
+    checkNotNull(handler);
+
+    ByteBuffer buffer = map(file);
+    try {
+      while (buffer.hasRemaining()) {
+        readBlock(buffer, startDay, endDay, handler);
+      }
+    } catch (BufferUnderflowException e) {
+      throw new EOFException("Incomplete block.\n" + file.getAbsolutePath());
+    }
+  }
+
+  /**
+   * Gets the length of the complete blocks at the start of the given file. The
+   * rest of the file, if any, is an incomplete or a bad block.
+   * 
+   * @param file The file to check.
+   * @return The length of the complete blocks.
+   * @throws NullPointerException If file is null.
+   * @throws IOException If the file cannot be read.
+   */
+  public static long getCompleteLength(File file) throws IOException {
+    checkNotNull(file);
+
+    IRowHandler ignorer = new IRowHandler() {
+      @Override
+      public void handle(int day, String key, long value) {
+      }
+    };
+    ByteBuffer buffer = map(file);
+    long complete = 0;
+    try {
+      while (buffer.hasRemaining()) {
+        // No row is within the dates, only the layout is checked:
+        readBlock(buffer, 1, 0, ignorer);
+        complete = buffer.position();
+      }
+    } catch (BufferUnderflowException e) {
+      // The rest is an incomplete block.
+    } catch (IOException e) {
+      // The rest is a bad block.
+    }
+    return complete;
+  }
+
+  /**
+   * Writes a block to the given file. A file is replaced by writing the block
+   * to a temporary file first, which is then renamed to the file, so that the
+   * file is never left half written.
+   * 
+   * @param file The file to write to.
+   * @param block The block to write.
+   * @param append True to append the block to the end of the file, false to
+   *          replace the content of the file with the block.
+   * @throws NullPointerException If file or block is null.
+   * @throws IOException If the file cannot be written.
+   */
+  public static void write(File file, ColumnBlock block, boolean append)
+      throws IOException {
+
+    checkNotNull(file);
+    checkNotNull(block);
+
+    if (append) {
+      write(new FileOutputStream(file, true), block);
+      return;
+    }
+    File temp = FileUtil.getTempFile(file);
+    try {
+      write(new FileOutputStream(temp), block);
+      FileUtil.replace(temp, file);
+    } finally {
+      temp.delete();
+    }
+  }
+
+  /**
+   * Writes a block to the given stream, and closes the stream.
+   */
+  private static void write(FileOutputStream stream, ColumnBlock block)
+      throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        stream));
+    try {
+      out.writeInt(MAGIC);
+
+      List<String> keys = block.getKeys();
+      out.writeInt(keys.size());
+      for (String key : keys) {
+        byte[] bytes = key.getBytes(Charsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+
+      int size = block.size();
+      out.writeInt(size);
+      int[] days = block.getDays();
+      for (int i = 0; i < size; i++) {
+        out.writeInt(days[i]);
+      }
+      int[] keyIds = block.getKeyIds();
+      for (int i = 0; i < size; i++) {
+        out.writeInt(keyIds[i]);
+      }
+      long[] values = block.getValues();
+      for (int i = 0; i < size; i++) {
+        out.writeLong(values[i]);
+      }
+      out.close();
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  /**
+   * Maps the whole of the given file into a read-only buffer, the buffer stays
+   * valid after the file has been closed.
+   */
+  private static ByteBuffer map(File file) throws IOException {
+    FileInputStream in = new FileInputStream(file);
+    try {
+      FileChannel channel = in.getChannel();
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Gets a view of a range of the given buffer, indexed from the start of the
+   * range, without changing the position of the buffer.
+   */
+  private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + length);
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * Reads the block at the current position of the buffer. Upon return the
+   * buffer will be positioned at the end of the block.
+   */
+  private static void readBlock(ByteBuffer buffer, int startDay, int endDay,
+      IRowHandler handler) throws IOException {
+
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a columnar file.");
+    }
+
+    // Records where the keys are, they are only decoded when needed:
+    int numKeys = buffer.getInt();
+    if (numKeys < 0 || numKeys > buffer.remaining() / 4) {
+      throw new BufferUnderflowException();
+    }
+    int[] offsets = new int[numKeys];
+    for (int i = 0; i < numKeys; i++) {
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new BufferUnderflowException();
+      }
+      offsets[i] = buffer.position() - 4;
+      buffer.position(buffer.position() + length);
+    }
+    String[] keys = new String[numKeys];
+
+    int numRows = buffer.getInt();
+    if (numRows < 0 || numRows > buffer.remaining() / 16) {
+      throw new BufferUnderflowException();
+    }
+    int dayColumn = buffer.position();
+    int keyColumn = dayColumn + numRows * 4;
+    int valueColumn = keyColumn + numRows * 4;
+    IntBuffer days = slice(buffer, dayColumn, numRows * 4).asIntBuffer();
+    IntBuffer keyIds = slice(buffer, keyColumn, numRows * 4).asIntBuffer();
+    LongBuffer values = slice(buffer, valueColumn, numRows * 8).asLongBuffer();
+    for (int i = 0; i < numRows; i++) {
+      int day = days.get(i);
+      if (day < startDay || day > endDay) {
+        continue;
+      }
+      int id = keyIds.get(i);
+      if (id < 0 || id >= numKeys) {
+        throw new IOException("Invalid key ID: " + id);
+      }
+      if (keys[id] == null) {
+        keys[id] = decode(buffer, offsets[id]);
+      }
+      handler.handle(day, keys[id], values.get(i));
+    }
+    buffer.position(valueColumn + numRows * 8);
+  }
+
+  /**
+   * Decodes the key at the given position of the buffer, without changing the
+   * position of the buffer.
+   */
+  private static String decode(ByteBuffer buffer, int offset) {
+    byte[] bytes = new byte[buffer.getInt(offset)];
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset + 4);
+    view.get(bytes);
+    return new String(bytes, Charsets.UTF_8);
+  }
+
+  private ColumnFile() {
+  }
+}
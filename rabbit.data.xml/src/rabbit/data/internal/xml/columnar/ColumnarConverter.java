@@ -0,0 +1,91 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.XmlPlugin;
+
+import org.eclipse.core.runtime.IPath;
+import org.joda.time.LocalDate;
+
+import java.io.File;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts the XML data files of the storage locations into columnar files.
+ * This is the only place the data is converted, the plug-in runs it in the
+ * background when it is started with columnar storage enabled. Until a month
+ * has been converted the {@link ColumnarDataStore}s read it from its XML file.
+ */
+public final class ColumnarConverter {
+
+  /**
+   * Matches the name of an XML data file or journal, capturing its year and its
+   * month.
+   */
+  private static final Pattern FILE_NAME = Pattern
+      .compile(".+-(\\d{4})-(0[1-9]|1[0-2])\\.(xml|journal)");
+
+  /**
+   * Converts the XML data of all the storage locations.
+   * 
+   * @return The number of files converted.
+   */
+  public static int convertAll() {
+    int count = 0;
+    for (IPath path : XmlPlugin.getDefault().getStoragePaths()) {
+      count += convert(path);
+    }
+    return count;
+  }
+
+  /**
+   * Converts the XML data of the given storage location. Months that already
+   * have a columnar file are not converted again.
+   * 
+   * @param location The storage location.
+   * @return The number of files converted.
+   */
+  public static int convert(IPath location) {
+    File[] files = location.toFile().listFiles();
+    if (files == null) {
+      return 0;
+    }
+
+    int count = 0;
+    for (File file : files) {
+      Matcher matcher = FILE_NAME.matcher(file.getName());
+      if (!matcher.matches()) {
+        continue;
+      }
+      LocalDate month = new LocalDate(Integer.parseInt(matcher.group(1)),
+          Integer.parseInt(matcher.group(2)), 1);
+      for (ColumnarDataStore store : ColumnarDataStore.values()) {
+        DataStore xmlStore = DataStore.valueOf(store.name());
+        File xml = xmlStore.getDataFile(month, location);
+        if ((xml.equals(file) || xmlStore.getJournalFile(xml).equals(file))
+            && store.convertFromXml(store.getDataFile(month, location))) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  private ColumnarConverter() {
+  }
+}
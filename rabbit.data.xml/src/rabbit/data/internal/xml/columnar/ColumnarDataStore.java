@@ -0,0 +1,551 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
+import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.JournalUtil;
+import rabbit.data.internal.xml.MonthCache;
+import rabbit.data.internal.xml.XmlPlugin;
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.ObjectFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.io.FilenameUtils;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Data stores keeping the events of each month in a columnar file, see
+ * {@link ColumnFile}. Only the event types that can be represented by a single
+ * key and a single value have a columnar store, launch events are kept in
+ * {@link DataStore#LAUNCH_STORE}, freeze events are kept in
+ * {@link DataStore#FREEZE_STORE}, and build events are kept in
+ * {@link DataStore#BUILD_STORE}.
+ * <p>
+ * A month that has no columnar file yet is read from its XML file, if there is
+ * one, until it is converted by {@link #convertFromXml(File)}, after which the
+ * columnar file is used and the XML file is left untouched. The months are
+ * never converted as a side effect of reading them, see
+ * {@link ColumnarConverter}.
+ * </p>
+ * <p>
+ * The accessors read the events through
+ * {@link #scan(File, LocalDate, LocalDate, IElementHandler)}, which scans the
+ * columns without building an XML document.
+ * </p>
+ */
+public enum ColumnarDataStore implements IDataStore {
+
+  //@formatter:off
+  COMMAND_STORE     (DataStore.COMMAND_STORE,     new CommandColumnCodec()),
+  PART_STORE        (DataStore.PART_STORE,        new PartColumnCodec()),
+  PERSPECTIVE_STORE (DataStore.PERSPECTIVE_STORE, new PerspectiveColumnCodec()),
+  FILE_STORE        (DataStore.FILE_STORE,        new FileColumnCodec()),
+  TASK_STORE        (DataStore.TASK_STORE,        new TaskFileColumnCodec()),
+  SESSION_STORE     (DataStore.SESSION_STORE,     new SessionColumnCodec()),
+  JAVA_STORE        (DataStore.JAVA_STORE,        new JavaColumnCodec());
+  //@formatter:on
+
+  /**
+   * The file extension of data files.
+   */
+  private static final String EXTENSION = "col";
+
+  /**
+   * The file extension of journal files, appended to the name of the data file.
+   */
+  private static final String JOURNAL_EXTENSION = ".journal";
+
+  /**
+   * The date the days of the rows are counted from.
+   */
+  private static final LocalDate EPOCH = new LocalDate(1970, 1, 1);
+
+  /**
+   * An object factory for creating XML object types.
+   */
+  private final ObjectFactory objectFactory = new ObjectFactory();
+
+  /**
+   * The XML store of the same event type, the data of which is converted.
+   */
+  private final DataStore xmlStore;
+
+  private final IColumnCodec<?, ?> codec;
+
+  private ColumnarDataStore(DataStore xmlStore, IColumnCodec<?, ?> codec) {
+    this.xmlStore = xmlStore;
+    this.codec = codec;
+  }
+
+  @Override
+  public File getDataFile(LocalDate date) {
+    return getDataFile(date, getStorageLocation());
+  }
+
+  @Override
+  public File getDataFile(LocalDate date, IPath location) {
+    File xml = xmlStore.getDataFile(date, location);
+    return new File(xml.getParentFile(),
+        FilenameUtils.getBaseName(xml.getName()) + "." + EXTENSION);
+  }
+
+  @Override
+  public List<File> getDataFiles(LocalDate start, LocalDate end) {
+    List<File> result = Lists.newLinkedList();
+    IPath[] storagePaths = XmlPlugin.getDefault().getStoragePaths();
+    for (IPath path : storagePaths) {
+      result.addAll(getDataFiles(start, end, path));
+    }
+    return result;
+  }
+
+  @Override
+  public List<File> getDataFiles(LocalDate start, LocalDate end, IPath location) {
+    int numMonths = (end.getYear() - start.getYear()) * 12;
+    numMonths += end.getMonthOfYear() - start.getMonthOfYear();
+
+    List<File> result = Lists.newLinkedList();
+    for (; numMonths >= 0; numMonths--) {
+      LocalDate month = end.minusMonths(numMonths);
+      File f = getDataFile(month, location);
+      if (f.exists()
+          || getJournalFile(f).exists()
+          || !xmlStore.getDataFiles(month, month, location).isEmpty()) {
+        result.add(f);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public IPath getStorageLocation() {
+    return xmlStore.getStorageLocation();
+  }
+
+  @Override
+  public File getJournalFile(File dataFile) {
+    return new File(dataFile.getParentFile(),
+        dataFile.getName() + JOURNAL_EXTENSION);
+  }
+
+  @Override
+  public File getSpillFile() {
+    // The records are the same for both formats:
+    return xmlStore.getSpillFile();
+  }
+
+  @Override
+  public EventListType read(File f) {
+    return read(f, null, null);
+  }
+
+  @Override
+  public EventListType read(File f, @Nullable LocalDate start,
+      @Nullable LocalDate end) {
+    if (!f.exists()) {
+      EventListType doc = xmlStore.read(getXmlFile(f), start, end);
+      readJournal(f, toStartDay(start), toEndDay(end), doc);
+      return doc;
+    }
+    EventListType doc = objectFactory.createEventListType();
+    try {
+      ColumnFile.read(f, toStartDay(start), toEndDay(end), decoder(codec, doc));
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, e.getMessage(),
+                  e));
+      doc = objectFactory.createEventListType();
+    }
+    readJournal(f, toStartDay(start), toEndDay(end), doc);
+    return doc;
+  }
+
+  @Override
+  @Nullable
+  public EventListType readForUpdate(File f) {
+    EventListType doc;
+    if (!f.exists()) {
+      doc = xmlStore.readForUpdate(getXmlFile(f));
+      if (doc == null) {
+        return null;
+      }
+    } else {
+      doc = objectFactory.createEventListType();
+      try {
+        ColumnFile.read(f, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            decoder(codec, doc));
+      } catch (IOException e) {
+        XmlPlugin
+            .getDefault()
+            .getLog()
+            .log(
+                new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, e.getMessage(),
+                    e));
+        return null;
+      }
+    }
+    readJournal(f, Integer.MIN_VALUE, Integer.MAX_VALUE, doc);
+    return doc;
+  }
+
+  /**
+   * Scans the events of the data file and its journal dated between the two
+   * dates, inclusive. The rows are passed to the handler as they are scanned,
+   * no XML document is built, and only one event is created for each key, the
+   * event is reused for the other rows of the key. A month that has not been
+   * converted yet is read from its XML file instead.
+   * 
+   * @param f The data file.
+   * @param start The start date.
+   * @param end The end date.
+   * @param handler The handler to receive the events, of the event type of
+   *          this store.
+   * @throws NullPointerException If any argument is null.
+   */
+  public <T> void scan(File f, LocalDate start, LocalDate end,
+      IElementHandler<T> handler) {
+    checkNotNull(handler);
+    @SuppressWarnings("unchecked")
+    IColumnCodec<?, T> elementCodec = (IColumnCodec<?, T>) codec;
+    IRowHandler scanner = scanner(elementCodec, handler);
+    int startDay = toDay(start);
+    int endDay = toDay(end);
+
+    if (!f.exists()) {
+      handleAll(elementCodec, xmlStore.read(getXmlFile(f), start, end),
+          handler);
+    } else {
+      try {
+        ColumnFile.read(f, startDay, endDay, scanner);
+      } catch (IOException e) {
+        XmlPlugin
+            .getDefault()
+            .getLog()
+            .log(
+                new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, e.getMessage(),
+                    e));
+      }
+    }
+
+    File journal = getJournalFile(f);
+    try {
+      if (journal.exists()) {
+        ColumnFile.read(journal, startDay, endDay, scanner);
+      }
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.WARNING, XmlPlugin.PLUGIN_ID,
+                  "Journal is incomplete.\n" + journal.getAbsolutePath(), e));
+    }
+  }
+
+  @Override
+  public synchronized boolean write(EventListType doc, File f) {
+    if (doc == null || f == null) {
+      throw new NullPointerException();
+    }
+    try {
+      ColumnFile.write(f, encode(codec, doc), false);
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } finally {
+      MonthCache.getDefault().invalidate(f);
+    }
+
+    // The complete blocks of the journal have been folded into the document
+    // by whoever read it, the rest has not been read and is kept aside:
+    File journal = getJournalFile(f);
+    try {
+      if (journal.exists()) {
+        long complete = ColumnFile.getCompleteLength(journal);
+        if (complete < journal.length()) {
+          JournalUtil.moveTail(journal, complete);
+        }
+      }
+    } catch (IOException e) {
+      if (!journal.renameTo(JournalUtil.getCorruptFile(journal))) {
+        XmlPlugin
+            .getDefault()
+            .getLog()
+            .log(
+                new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                    "Unable to check journal.\n"
+                        + journal.getAbsolutePath(), e));
+        return false;
+      }
+    }
+    if (journal.exists() && !journal.delete()) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to delete journal.\n" + journal.getAbsolutePath()));
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean append(EventListType doc, File f) {
+    if (doc == null || f == null) {
+      throw new NullPointerException();
+    }
+    File journal = getJournalFile(f);
+    try {
+      // The blocks appended after a bad block could never be read:
+      if (journal.exists()) {
+        long complete = ColumnFile.getCompleteLength(journal);
+        if (complete < journal.length()) {
+          JournalUtil.truncate(journal, complete);
+        }
+      }
+      ColumnFile.write(journal, encode(codec, doc), true);
+      return true;
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to save data.", e));
+      return false;
+    } finally {
+      MonthCache.getDefault().invalidate(f);
+    }
+  }
+
+  /**
+   * Converts the XML data of the month of the given data file into the data
+   * file, if the data file does not exist yet. The journal of the data file,
+   * if any, is left as it is.
+   * 
+   * @param f The data file.
+   * @return True if the data has been converted, false if the data file already
+   *         exists, if there is no XML data for the month, or if an error
+   *         occurred.
+   */
+  public synchronized boolean convertFromXml(File f) {
+    if (f.exists()) {
+      return false;
+    }
+    File xml = getXmlFile(f);
+    if (!xml.exists() && !xmlStore.getJournalFile(xml).exists()) {
+      return false;
+    }
+    EventListType doc = xmlStore.readForUpdate(xml);
+    if (doc == null) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to convert data.\n" + xml.getAbsolutePath()));
+      return false;
+    }
+    try {
+      ColumnFile.write(f, encode(codec, doc), false);
+      return true;
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID,
+                  "Unable to convert data.\n" + xml.getAbsolutePath(), e));
+      return false;
+    } finally {
+      MonthCache.getDefault().invalidate(f);
+    }
+  }
+
+  /**
+   * Gets the XML data file of the same month as the given data file.
+   */
+  private File getXmlFile(File f) {
+    return new File(f.getParentFile(),
+        FilenameUtils.getBaseName(f.getName()) + ".xml");
+  }
+
+  /**
+   * Reads the rows of the journal of the data file dated between the two days,
+   * inclusive, into the document. If the journal ends with an incomplete
+   * block, the blocks before it are still read.
+   */
+  private void readJournal(File f, int startDay, int endDay,
+      EventListType doc) {
+    File journal = getJournalFile(f);
+    try {
+      if (journal.exists()) {
+        ColumnFile.read(journal, startDay, endDay, decoder(codec, doc));
+      }
+    } catch (IOException e) {
+      XmlPlugin
+          .getDefault()
+          .getLog()
+          .log(
+              new Status(IStatus.WARNING, XmlPlugin.PLUGIN_ID,
+                  "Journal is incomplete.\n" + journal.getAbsolutePath(), e));
+    }
+  }
+
+  /**
+   * Converts the given date to the number of days since the epoch.
+   */
+  private static int toDay(LocalDate date) {
+    return Days.daysBetween(EPOCH, date).getDays();
+  }
+
+  /**
+   * Converts the given start date to the number of days since the epoch, no
+   * date being the earliest day.
+   */
+  private static int toStartDay(@Nullable LocalDate date) {
+    return (date == null) ? Integer.MIN_VALUE : toDay(date);
+  }
+
+  /**
+   * Converts the given end date to the number of days since the epoch, no date
+   * being the latest day.
+   */
+  private static int toEndDay(@Nullable LocalDate date) {
+    return (date == null) ? Integer.MAX_VALUE : toDay(date);
+  }
+
+  /**
+   * Passes all the events of the codec's type in the given document to the
+   * handler.
+   */
+  private static <S extends EventGroupType, T> void handleAll(
+      IColumnCodec<S, T> codec, EventListType doc, IElementHandler<T> handler) {
+    for (S category : codec.getCategories(doc)) {
+      if (category.getDate() == null) {
+        continue; // Ignore invalid data.
+      }
+      LocalDate date = toLocalDate(category.getDate());
+      for (T element : codec.getElements(category)) {
+        handler.handle(date, element);
+      }
+    }
+  }
+
+  /**
+   * Gets a handler that passes the rows it receives to the given handler as
+   * events, one event is created for each key and is reused for the other rows
+   * of the key.
+   */
+  private static <T> IRowHandler scanner(final IColumnCodec<?, T> codec,
+      final IElementHandler<T> handler) {
+    return new IRowHandler() {
+      private final Map<String, T> elements = Maps.newHashMap();
+      @Nullable
+      private LocalDate last;
+      private int lastDay;
+
+      @Override
+      public void handle(int day, String key, long value) {
+        if (last == null || lastDay != day) {
+          last = EPOCH.plusDays(day);
+          lastDay = day;
+        }
+        T element = elements.get(key);
+        if (element == null) {
+          element = codec.newElement(key, value);
+          elements.put(key, element);
+        } else {
+          codec.setValue(element, value);
+        }
+        handler.handle(last, element);
+      }
+    };
+  }
+
+  /**
+   * Encodes the events of the codec's type in the given document as a block.
+   */
+  private static <S extends EventGroupType, T> ColumnBlock encode(
+      IColumnCodec<S, T> codec, EventListType doc) {
+    ColumnBlock block = new ColumnBlock();
+    for (S category : codec.getCategories(doc)) {
+      int day = toDay(toLocalDate(category.getDate()));
+      for (T element : codec.getElements(category)) {
+        block.add(day, codec.getKey(element), codec.getValue(element));
+      }
+    }
+    return block;
+  }
+
+  /**
+   * Gets a handler that decodes the rows it receives into events, adding them
+   * to a category of the given date in the document.
+   */
+  private static <S extends EventGroupType, T> IRowHandler decoder(
+      final IColumnCodec<S, T> codec, final EventListType doc) {
+    return new IRowHandler() {
+      private final Map<Integer, S> categories = Maps.newHashMap();
+      @Nullable
+      private S last;
+      private int lastDay;
+
+      @Override
+      public void handle(int day, String key, long value) {
+        // Rows of the same day are usually next to each other:
+        if (last == null || lastDay != day) {
+          last = categories.get(day);
+          if (last == null) {
+            last = codec.newCategory(toXmlDate(EPOCH.plusDays(day)));
+            codec.getCategories(doc).add(last);
+            categories.put(day, last);
+          }
+          lastDay = day;
+        }
+        codec.getElements(last).add(codec.newElement(key, value));
+      }
+    };
+  }
+}
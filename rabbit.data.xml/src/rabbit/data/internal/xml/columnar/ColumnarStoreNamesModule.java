@@ -0,0 +1,67 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.DataStore;
+import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.StoreNames;
+import rabbit.data.internal.xml.StoreNamesModule;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+/**
+ * Binds columnar data stores to store names, an alternative to
+ * {@link StoreNamesModule}. Launch events, freeze events and build events have
+ * no columnar store and stay in XML.
+ */
+public class ColumnarStoreNamesModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.BUILD_STORE))
+        .toInstance(DataStore.BUILD_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.COMMAND_STORE))
+        .toInstance(ColumnarDataStore.COMMAND_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.FILE_STORE))
+        .toInstance(ColumnarDataStore.FILE_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.FREEZE_STORE))
+        .toInstance(DataStore.FREEZE_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.JAVA_STORE))
+        .toInstance(ColumnarDataStore.JAVA_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.LAUNCH_STORE))
+        .toInstance(DataStore.LAUNCH_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.PART_STORE))
+        .toInstance(ColumnarDataStore.PART_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.PERSPECTIVE_STORE))
+        .toInstance(ColumnarDataStore.PERSPECTIVE_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.SESSION_STORE))
+        .toInstance(ColumnarDataStore.SESSION_STORE);
+    bind(IDataStore.class)
+        .annotatedWith(Names.named(StoreNames.TASK_STORE))
+        .toInstance(ColumnarDataStore.TASK_STORE);
+  }
+
+}
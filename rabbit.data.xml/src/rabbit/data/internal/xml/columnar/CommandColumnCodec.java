@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.CommandEventListType;
+import rabbit.data.internal.xml.schema.events.CommandEventType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link CommandEventType}, keyed by the command ID.
+ */
+public class CommandColumnCodec extends
+    AbstractColumnCodec<CommandEventListType, CommandEventType> {
+
+  public CommandColumnCodec() {
+  }
+
+  @Override
+  public List<CommandEventListType> getCategories(EventListType doc) {
+    return doc.getCommandEvents();
+  }
+
+  @Override
+  public List<CommandEventType> getElements(CommandEventListType category) {
+    return category.getCommandEvent();
+  }
+
+  @Override
+  public CommandEventListType newCategory(XMLGregorianCalendar date) {
+    CommandEventListType type = objectFactory.createCommandEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(CommandEventType element) {
+    return encode(element.getCommandId());
+  }
+
+  @Override
+  public long getValue(CommandEventType element) {
+    return element.getCount();
+  }
+
+  @Override
+  public CommandEventType newElement(String key, long value) {
+    CommandEventType type = objectFactory.createCommandEventType();
+    type.setCommandId(decode(key));
+    type.setCount((int) value);
+    return type;
+  }
+
+  @Override
+  public void setValue(CommandEventType type, long value) {
+    type.setCount((int) value);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.FileEventListType;
+import rabbit.data.internal.xml.schema.events.FileEventType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link FileEventType}, keyed by the file path.
+ */
+public class FileColumnCodec extends
+    AbstractColumnCodec<FileEventListType, FileEventType> {
+
+  public FileColumnCodec() {
+  }
+
+  @Override
+  public List<FileEventListType> getCategories(EventListType doc) {
+    return doc.getFileEvents();
+  }
+
+  @Override
+  public List<FileEventType> getElements(FileEventListType category) {
+    return category.getFileEvent();
+  }
+
+  @Override
+  public FileEventListType newCategory(XMLGregorianCalendar date) {
+    FileEventListType type = objectFactory.createFileEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(FileEventType element) {
+    return encode(element.getFilePath());
+  }
+
+  @Override
+  public long getValue(FileEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public FileEventType newElement(String key, long value) {
+    FileEventType type = objectFactory.createFileEventType();
+    type.setFilePath(decode(key));
+    type.setDuration(value);
+    return type;
+  }
+
+  @Override
+  public void setValue(FileEventType type, long value) {
+    type.setDuration(value);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventGroupType;
+import rabbit.data.internal.xml.schema.events.EventListType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Maps the events of an XML type to the rows of a columnar file, where each
+ * event is represented by a key and a value.
+ * 
+ * @param <S> The XML category type.
+ * @param <T> The XML event type.
+ */
+public interface IColumnCodec<S extends EventGroupType, T> {
+
+  /**
+   * Gets the categories of this codec's type from the given document.
+   * 
+   * @param doc The document.
+   * @return The live list of categories.
+   */
+  List<S> getCategories(EventListType doc);
+
+  /**
+   * Gets the events of the given category.
+   * 
+   * @param category The category.
+   * @return The live list of events.
+   */
+  List<T> getElements(S category);
+
+  /**
+   * Creates a new category.
+   * 
+   * @param date The date of the category.
+   * @return A new category.
+   */
+  S newCategory(XMLGregorianCalendar date);
+
+  /**
+   * Gets the key of an event, the fields that identify the event within a day.
+   * 
+   * @param element The event.
+   * @return The key, never null.
+   */
+  String getKey(T element);
+
+  /**
+   * Gets the value of an event, its duration or its count.
+   * 
+   * @param element The event.
+   * @return The value.
+   */
+  long getValue(T element);
+
+  /**
+   * Creates an event from its key and value.
+   * 
+   * @param key The key, as returned by {@link #getKey(Object)}.
+   * @param value The value, as returned by {@link #getValue(Object)}.
+   * @return A new event.
+   */
+  T newElement(String key, long value);
+
+  /**
+   * Sets the value of an event, so that an event created by
+   * {@link #newElement(String, long)} can be reused for other values of the
+   * same key.
+   * 
+   * @param element The event.
+   * @param value The value, as returned by {@link #getValue(Object)}.
+   */
+  void setValue(T element, long value);
+}
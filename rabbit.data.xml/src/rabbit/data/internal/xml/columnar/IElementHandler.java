@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import org.joda.time.LocalDate;
+
+/**
+ * Receives the events of a columnar data file as they are scanned.
+ * 
+ * @param <T> The XML event type.
+ * @see ColumnarDataStore#scan(java.io.File, LocalDate, LocalDate,
+ *      IElementHandler)
+ */
+public interface IElementHandler<T> {
+
+  /**
+   * Handles an event. The event is reused for the other events of the same
+   * key, it must not be kept nor modified.
+   * 
+   * @param date The date of the event.
+   * @param element The event.
+   */
+  void handle(LocalDate date, T element);
+
+}
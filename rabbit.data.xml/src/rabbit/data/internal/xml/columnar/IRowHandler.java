@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+/**
+ * Receives the rows of a columnar file as they are scanned.
+ * 
+ * @see ColumnFile
+ */
+public interface IRowHandler {
+
+  /**
+   * Handles a row.
+   * 
+   * @param day The date of the row, in days since the epoch.
+   * @param key The decoded key of the row.
+   * @param value The value of the row.
+   */
+  void handle(int day, String key, long value);
+
+}
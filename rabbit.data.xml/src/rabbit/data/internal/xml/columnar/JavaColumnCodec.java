@@ -0,0 +1,75 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.JavaEventListType;
+import rabbit.data.internal.xml.schema.events.JavaEventType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link JavaEventType}, keyed by the handle identifier of
+ * the element.
+ */
+public class JavaColumnCodec extends
+    AbstractColumnCodec<JavaEventListType, JavaEventType> {
+
+  public JavaColumnCodec() {
+  }
+
+  @Override
+  public List<JavaEventListType> getCategories(EventListType doc) {
+    return doc.getJavaEvents();
+  }
+
+  @Override
+  public List<JavaEventType> getElements(JavaEventListType category) {
+    return category.getJavaEvent();
+  }
+
+  @Override
+  public JavaEventListType newCategory(XMLGregorianCalendar date) {
+    JavaEventListType type = objectFactory.createJavaEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(JavaEventType element) {
+    return encode(element.getHandleIdentifier());
+  }
+
+  @Override
+  public long getValue(JavaEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public JavaEventType newElement(String key, long value) {
+    JavaEventType type = objectFactory.createJavaEventType();
+    type.setHandleIdentifier(decode(key));
+    type.setDuration(value);
+    return type;
+  }
+
+  @Override
+  public void setValue(JavaEventType type, long value) {
+    type.setDuration(value);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.PartEventListType;
+import rabbit.data.internal.xml.schema.events.PartEventType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link PartEventType}, keyed by the part ID.
+ */
+public class PartColumnCodec extends
+    AbstractColumnCodec<PartEventListType, PartEventType> {
+
+  public PartColumnCodec() {
+  }
+
+  @Override
+  public List<PartEventListType> getCategories(EventListType doc) {
+    return doc.getPartEvents();
+  }
+
+  @Override
+  public List<PartEventType> getElements(PartEventListType category) {
+    return category.getPartEvent();
+  }
+
+  @Override
+  public PartEventListType newCategory(XMLGregorianCalendar date) {
+    PartEventListType type = objectFactory.createPartEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(PartEventType element) {
+    return encode(element.getPartId());
+  }
+
+  @Override
+  public long getValue(PartEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public PartEventType newElement(String key, long value) {
+    PartEventType type = objectFactory.createPartEventType();
+    type.setPartId(decode(key));
+    type.setDuration(value);
+    return type;
+  }
+
+  @Override
+  public void setValue(PartEventType type, long value) {
+    type.setDuration(value);
+  }
+}
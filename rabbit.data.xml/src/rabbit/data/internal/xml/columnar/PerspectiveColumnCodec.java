@@ -0,0 +1,76 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.PerspectiveEventListType;
+import rabbit.data.internal.xml.schema.events.PerspectiveEventType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link PerspectiveEventType}, keyed by the perspective ID.
+ */
+public class PerspectiveColumnCodec extends
+    AbstractColumnCodec<PerspectiveEventListType, PerspectiveEventType> {
+
+  public PerspectiveColumnCodec() {
+  }
+
+  @Override
+  public List<PerspectiveEventListType> getCategories(EventListType doc) {
+    return doc.getPerspectiveEvents();
+  }
+
+  @Override
+  public List<PerspectiveEventType> getElements(
+      PerspectiveEventListType category) {
+    return category.getPerspectiveEvent();
+  }
+
+  @Override
+  public PerspectiveEventListType newCategory(XMLGregorianCalendar date) {
+    PerspectiveEventListType type = objectFactory
+        .createPerspectiveEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(PerspectiveEventType element) {
+    return encode(element.getPerspectiveId());
+  }
+
+  @Override
+  public long getValue(PerspectiveEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public PerspectiveEventType newElement(String key, long value) {
+    PerspectiveEventType type = objectFactory.createPerspectiveEventType();
+    type.setPerspectiveId(decode(key));
+    type.setDuration(value);
+    return type;
+  }
+
+  @Override
+  public void setValue(PerspectiveEventType type, long value) {
+    type.setDuration(value);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.SessionEventListType;
+import rabbit.data.internal.xml.schema.events.SessionEventType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link SessionEventType}, a session event has no key, so all the
+ * events share the empty key.
+ */
+public class SessionColumnCodec extends
+    AbstractColumnCodec<SessionEventListType, SessionEventType> {
+
+  public SessionColumnCodec() {
+  }
+
+  @Override
+  public List<SessionEventListType> getCategories(EventListType doc) {
+    return doc.getSessionEvents();
+  }
+
+  @Override
+  public List<SessionEventType> getElements(SessionEventListType category) {
+    return category.getSessionEvent();
+  }
+
+  @Override
+  public SessionEventListType newCategory(XMLGregorianCalendar date) {
+    SessionEventListType type = objectFactory.createSessionEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(SessionEventType element) {
+    return "";
+  }
+
+  @Override
+  public long getValue(SessionEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public SessionEventType newElement(String key, long value) {
+    SessionEventType type = objectFactory.createSessionEventType();
+    type.setDuration(value);
+    return type;
+  }
+
+  @Override
+  public void setValue(SessionEventType type, long value) {
+    type.setDuration(value);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.columnar;
+
+import rabbit.data.internal.xml.DatatypeUtil;
+import rabbit.data.internal.xml.schema.events.EventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventListType;
+import rabbit.data.internal.xml.schema.events.TaskFileEventType;
+import rabbit.data.internal.xml.schema.events.TaskIdType;
+
+import java.util.List;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+
+/**
+ * Codec for {@link TaskFileEventType}, keyed by the file path, the task handle
+ * ID, and the task creation date, joined by {@link #SEPARATOR}. An event
+ * without a task ID is keyed by its file path only.
+ */
+public class TaskFileColumnCodec extends
+    AbstractColumnCodec<TaskFileEventListType, TaskFileEventType> {
+
+  /**
+   * Separates the fields of a key. The character cannot appear in any of the
+   * fields, as it is not allowed in an XML document.
+   */
+  static final char SEPARATOR = '\u0000';
+
+  public TaskFileColumnCodec() {
+  }
+
+  @Override
+  public List<TaskFileEventListType> getCategories(EventListType doc) {
+    return doc.getTaskFileEvents();
+  }
+
+  @Override
+  public List<TaskFileEventType> getElements(TaskFileEventListType category) {
+    return category.getTaskFileEvent();
+  }
+
+  @Override
+  public TaskFileEventListType newCategory(XMLGregorianCalendar date) {
+    TaskFileEventListType type = objectFactory.createTaskFileEventListType();
+    type.setDate(date);
+    return type;
+  }
+
+  @Override
+  public String getKey(TaskFileEventType element) {
+    TaskIdType id = element.getTaskId();
+    if (id == null) {
+      return encode(element.getFilePath());
+    }
+    String creationDate = null;
+    if (id.getCreationDate() != null) {
+      creationDate = id.getCreationDate().toXMLFormat();
+    }
+    return encode(element.getFilePath()) + SEPARATOR
+        + encode(id.getHandleId()) + SEPARATOR
+        + encode(creationDate);
+  }
+
+  @Override
+  public long getValue(TaskFileEventType element) {
+    return element.getDuration();
+  }
+
+  @Override
+  public TaskFileEventType newElement(String key, long value) {
+    TaskFileEventType type = objectFactory.createTaskFileEventType();
+    type.setDuration(value);
+    int first = key.indexOf(SEPARATOR);
+    if (first < 0) {
+      type.setFilePath(decode(key));
+      return type;
+    }
+    int second = key.indexOf(SEPARATOR, first + 1);
+
+    TaskIdType id = objectFactory.createTaskIdType();
+    id.setHandleId(decode(key.substring(first + 1, second)));
+    String creationDate = decode(key.substring(second + 1));
+    // Files written before null fields were encoded have empty dates:
+    if (creationDate != null && creationDate.length() > 0) {
+      id.setCreationDate(DatatypeUtil.datatypeFactory
+          .newXMLGregorianCalendar(creationDate));
+    }
+    type.setFilePath(decode(key.substring(0, first)));
+    type.setTaskId(id);
+    return type;
+  }
+
+  @Override
+  public void setValue(TaskFileEventType type, long value) {
+    type.setDuration(value);
+  }
+}
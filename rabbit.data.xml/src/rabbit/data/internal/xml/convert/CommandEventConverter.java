@@ -31,7 +31,7 @@ public class CommandEventConverter extends
   protected CommandEventType doConvert(CommandEvent element) {
     CommandEventType type = new CommandEventType();
     type.setCommandId(element.getExecutionEvent().getCommand().getId());
-    type.setCount(1);
+    type.setCount(element.getCount());
     return type;
   }
 
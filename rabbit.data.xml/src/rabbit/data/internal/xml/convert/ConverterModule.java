@@ -15,16 +15,20 @@
  */
 package rabbit.data.internal.xml.convert;
 
+import rabbit.data.internal.xml.schema.events.BuildEventType;
 import rabbit.data.internal.xml.schema.events.CommandEventType;
 import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
 import rabbit.data.internal.xml.schema.events.JavaEventType;
 import rabbit.data.internal.xml.schema.events.LaunchEventType;
 import rabbit.data.internal.xml.schema.events.PartEventType;
 import rabbit.data.internal.xml.schema.events.PerspectiveEventType;
 import rabbit.data.internal.xml.schema.events.SessionEventType;
 import rabbit.data.internal.xml.schema.events.TaskFileEventType;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -44,12 +48,18 @@ public class ConverterModule extends AbstractModule {
 
   @Override
   protected void configure() {
+    bind(new TypeLiteral<IConverter<BuildEvent, BuildEventType>>() {})
+        .to(BuildEventConverter.class);
+
     bind(new TypeLiteral<IConverter<CommandEvent, CommandEventType>>() {})
         .to(CommandEventConverter.class);
 
     bind(new TypeLiteral<IConverter<FileEvent, FileEventType>>() {})
         .to(FileEventConverter.class);
 
+    bind(new TypeLiteral<IConverter<FreezeEvent, FreezeEventType>>() {})
+        .to(FreezeEventConverter.class);
+
     bind(new TypeLiteral<IConverter<JavaEvent, JavaEventType>>() {})
         .to(JavaEventConverter.class);
 
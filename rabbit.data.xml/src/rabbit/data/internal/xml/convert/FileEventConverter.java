@@ -30,7 +30,7 @@ public class FileEventConverter extends
   @Override
   protected FileEventType doConvert(FileEvent element) {
     FileEventType type = new FileEventType();
-    type.setDuration(element.getInterval().toDurationMillis());
+    type.setDuration(element.getDuration().getMillis());
     type.setFilePath(element.getFilePath().toString());
     return type;
   }
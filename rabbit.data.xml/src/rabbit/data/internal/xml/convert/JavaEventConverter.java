@@ -30,7 +30,7 @@ public class JavaEventConverter extends AbstractConverter<JavaEvent, JavaEventTy
   protected JavaEventType doConvert(JavaEvent event) {
     JavaEventType type = new JavaEventType();
     type.setHandleIdentifier(event.getElement().getHandleIdentifier());
-    type.setDuration(event.getInterval().toDurationMillis());
+    type.setDuration(event.getDuration().getMillis());
     return type;
   }
 
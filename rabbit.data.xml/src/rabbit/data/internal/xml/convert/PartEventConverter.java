@@ -30,7 +30,7 @@ public class PartEventConverter extends
   @Override
   protected PartEventType doConvert(PartEvent element) {
     PartEventType type = new PartEventType();
-    type.setDuration(element.getInterval().toDurationMillis());
+    type.setDuration(element.getDuration().getMillis());
     type.setPartId(element.getWorkbenchPart().getSite().getId());
     return type;
   }
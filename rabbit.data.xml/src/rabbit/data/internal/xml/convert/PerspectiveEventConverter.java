@@ -30,7 +30,7 @@ public class PerspectiveEventConverter extends
   @Override
   protected PerspectiveEventType doConvert(PerspectiveEvent element) {
     PerspectiveEventType type = new PerspectiveEventType();
-    type.setDuration(element.getInterval().toDurationMillis());
+    type.setDuration(element.getDuration().getMillis());
     type.setPerspectiveId(element.getPerspective().getId());
     return type;
   }
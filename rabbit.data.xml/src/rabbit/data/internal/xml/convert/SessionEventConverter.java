@@ -30,7 +30,7 @@ public class SessionEventConverter extends
   @Override
   protected SessionEventType doConvert(SessionEvent event) {
     SessionEventType type = new SessionEventType();
-    type.setDuration(event.getInterval().toDurationMillis());
+    type.setDuration(event.getDuration().getMillis());
     return type;
   }
 
@@ -45,7 +45,7 @@ public class TaskFileEventConverter extends
     id.setHandleId(event.getTask().getHandleIdentifier());
 
     final TaskFileEventType type = new TaskFileEventType();
-    type.setDuration(event.getInterval().toDurationMillis());
+    type.setDuration(event.getDuration().getMillis());
     type.setFilePath(event.getFilePath().toString());
     type.setTaskId(id);
 
@@ -17,6 +17,8 @@ package rabbit.data.internal.xml.merge;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import javax.annotation.Nullable;
+
 /**
  * Abstract class containing default implementations for an {@link IMerger}.
  * 
@@ -35,6 +37,12 @@ public abstract class AbstractMerger<T> implements IMerger<T> {
     return doIsMergeable(t1, t2);
   }
 
+  @Override
+  public final Object getMergeKey(T t) {
+    checkNotNull(t);
+    return doGetMergeKey(t);
+  }
+
   @Override
   public final T merge(T t1, T t2) {
     if (!isMergeable(t1, t2))
@@ -46,7 +54,8 @@ public abstract class AbstractMerger<T> implements IMerger<T> {
   /**
    * This method is called from {@link #isMergeable(Object, Object)} by the
    * super class after checking both arguments are not null. Subclasses can
-   * safely compare the objects without further checking for null.
+   * safely compare the objects without further checking for null. The default
+   * implementation compares the keys of the objects.
    * <p>
    * This method should not be invoked by subclasses.
    * </p>
@@ -56,7 +65,23 @@ public abstract class AbstractMerger<T> implements IMerger<T> {
    * @return True if the objects are mergeable, false otherwise.
    * 
    */
-  protected abstract boolean doIsMergeable(T t1, T t2);
+  protected boolean doIsMergeable(T t1, T t2) {
+    Object key = doGetMergeKey(t1);
+    return (key != null) && key.equals(doGetMergeKey(t2));
+  }
+
+  /**
+   * This method is called from {@link #getMergeKey(Object)} by the super class
+   * after checking the argument is not null.
+   * <p>
+   * This method should not be invoked by subclasses.
+   * </p>
+   * 
+   * @param t The object.
+   * @return The key of the object, or null if the object is not mergeable.
+   */
+  @Nullable
+  protected abstract Object doGetMergeKey(T t);
 
   /**
    * This method will be called from {@link #merge(Object, Object)} by the super
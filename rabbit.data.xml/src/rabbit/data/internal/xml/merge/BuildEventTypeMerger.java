@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.merge;
+
+import rabbit.data.internal.xml.schema.events.BuildEventType;
+
+import java.util.Arrays;
+
+/**
+ * Merger for {@link BuildEventType}.
+ */
+public class BuildEventTypeMerger extends AbstractMerger<BuildEventType> {
+
+  public BuildEventTypeMerger() {
+  }
+
+  @Override
+  protected Object doGetMergeKey(BuildEventType t) {
+    if (t.getProject() == null) {
+      return null;
+    }
+    return Arrays.asList(t.getProject(), t.isFullBuild());
+  }
+
+  @Override
+  protected BuildEventType doMerge(BuildEventType t1, BuildEventType t2) {
+    BuildEventType result = new BuildEventType();
+    result.setProject(t1.getProject());
+    result.setFullBuild(t1.isFullBuild());
+    result.setCount(t1.getCount() + t2.getCount());
+    result.setTotalDuration(t1.getTotalDuration() + t2.getTotalDuration());
+    return result;
+  }
+
+}
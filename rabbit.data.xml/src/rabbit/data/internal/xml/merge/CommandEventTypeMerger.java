@@ -34,9 +34,8 @@ public class CommandEventTypeMerger extends AbstractMerger<CommandEventType> {
   }
 
   @Override
-  public boolean doIsMergeable(CommandEventType t1, CommandEventType t2) {
-    return (t1.getCommandId() != null)
-        && (t1.getCommandId().equals(t2.getCommandId()));
+  protected Object doGetMergeKey(CommandEventType t) {
+    return t.getCommandId();
   }
 
 }
@@ -34,8 +34,8 @@ public class FileEventTypeMerger extends AbstractMerger<FileEventType> {
   }
 
   @Override
-  public boolean doIsMergeable(FileEventType t1, FileEventType t2) {
-    return (t1.getFilePath() != null) && (t1.getFilePath().equals(t2.getFilePath()));
+  protected Object doGetMergeKey(FileEventType t) {
+    return t.getFilePath();
   }
 
 }
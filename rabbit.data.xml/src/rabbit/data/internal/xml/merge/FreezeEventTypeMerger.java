@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.xml.merge;
+
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
+
+import java.util.Arrays;
+
+/**
+ * Merger for {@link FreezeEventType}.
+ */
+public class FreezeEventTypeMerger extends AbstractMerger<FreezeEventType> {
+
+  public FreezeEventTypeMerger() {
+  }
+
+  @Override
+  protected Object doGetMergeKey(FreezeEventType t) {
+    if (t.getPartId() == null) {
+      return null;
+    }
+    return Arrays.asList(t.getPartId(), t.getBucket());
+  }
+
+  @Override
+  protected FreezeEventType doMerge(FreezeEventType t1, FreezeEventType t2) {
+    FreezeEventType result = new FreezeEventType();
+    result.setPartId(t1.getPartId());
+    result.setBucket(t1.getBucket());
+    result.setCount(t1.getCount() + t2.getCount());
+    result.setTotalDuration(t1.getTotalDuration() + t2.getTotalDuration());
+    return result;
+  }
+
+}
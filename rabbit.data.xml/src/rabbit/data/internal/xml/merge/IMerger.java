@@ -15,6 +15,8 @@
  */
 package rabbit.data.internal.xml.merge;
 
+import javax.annotation.Nullable;
+
 /**
  * An interface contains utility methods for merging data objects. These objects
  * usually consist of two "parts", one identify part and one value part, if the
@@ -33,6 +35,19 @@ public interface IMerger<T> {
    */
   boolean isMergeable(T t1, T t2);
 
+  /**
+   * Gets the identity part of the given object. Two objects are mergeable if
+   * and only if their keys are not null and are equal, so the keys can be used
+   * to look up mergeable objects in a hash table.
+   * 
+   * @param t The object.
+   * @return The key of the object, or null if the object is not mergeable with
+   *         any other object.
+   * @throws NullPointerException If the argument is null.
+   */
+  @Nullable
+  Object getMergeKey(T t);
+
   /**
    * Merges the two objects into one.
    * 
@@ -26,8 +26,8 @@ public class JavaEventTypeMerger extends AbstractMerger<JavaEventType> {
   }
 
   @Override
-  protected boolean doIsMergeable(JavaEventType t1, JavaEventType t2) {
-    return t1.getHandleIdentifier().equals(t2.getHandleIdentifier());
+  protected Object doGetMergeKey(JavaEventType t) {
+    return t.getHandleIdentifier();
   }
 
   @Override
@@ -19,6 +19,7 @@ import rabbit.data.internal.xml.schema.events.LaunchEventType;
 
 import com.google.common.collect.Sets;
 
+import java.util.Arrays;
 import java.util.Set;
 
 /**
@@ -30,15 +31,13 @@ public class LaunchEventTypeMerger extends AbstractMerger<LaunchEventType> {
   }
 
   @Override
-  protected boolean doIsMergeable(LaunchEventType t1, LaunchEventType t2) {
-    return (t1.getName() != null)
-        && (t1.getName().equals(t2.getName()))
-        
-        && (t1.getLaunchModeId() != null)
-        && (t1.getLaunchModeId().equals(t2.getLaunchModeId()))
-        
-        && (t1.getLaunchTypeId() != null)
-        && (t1.getLaunchTypeId().equals(t2.getLaunchTypeId()));
+  protected Object doGetMergeKey(LaunchEventType t) {
+    if (t.getName() == null
+        || t.getLaunchModeId() == null
+        || t.getLaunchTypeId() == null) {
+      return null;
+    }
+    return Arrays.asList(t.getName(), t.getLaunchModeId(), t.getLaunchTypeId());
   }
 
   @Override
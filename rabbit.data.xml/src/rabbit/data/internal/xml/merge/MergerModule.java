@@ -15,8 +15,10 @@
  */
 package rabbit.data.internal.xml.merge;
 
+import rabbit.data.internal.xml.schema.events.BuildEventType;
 import rabbit.data.internal.xml.schema.events.CommandEventType;
 import rabbit.data.internal.xml.schema.events.FileEventType;
+import rabbit.data.internal.xml.schema.events.FreezeEventType;
 import rabbit.data.internal.xml.schema.events.JavaEventType;
 import rabbit.data.internal.xml.schema.events.LaunchEventType;
 import rabbit.data.internal.xml.schema.events.PartEventType;
@@ -36,8 +38,10 @@ public class MergerModule extends AbstractModule {
 
   @Override
   protected void configure() {
+    bind(new TypeLiteral<IMerger<BuildEventType>>       () {}).to(BuildEventTypeMerger.class);
     bind(new TypeLiteral<IMerger<CommandEventType>>     () {}).to(CommandEventTypeMerger.class);
     bind(new TypeLiteral<IMerger<FileEventType>>        () {}).to(FileEventTypeMerger.class);
+    bind(new TypeLiteral<IMerger<FreezeEventType>>      () {}).to(FreezeEventTypeMerger.class);
     bind(new TypeLiteral<IMerger<JavaEventType>>        () {}).to(JavaEventTypeMerger.class);
     bind(new TypeLiteral<IMerger<LaunchEventType>>      () {}).to(LaunchEventTypeMerger.class);
     bind(new TypeLiteral<IMerger<PartEventType>>        () {}).to(PartEventTypeMerger.class);
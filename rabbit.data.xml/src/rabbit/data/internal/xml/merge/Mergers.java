@@ -17,8 +17,13 @@ package rabbit.data.internal.xml.merge;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.Maps;
+
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 
 import javax.annotation.Nullable;
 
@@ -32,6 +37,13 @@ public class Mergers {
    * element is not merged with another element, it will be added to the
    * collection instead. If merger is null, the second collection is simply 
    * added to the first collection.
+   * <p>
+   * If the collection to merge to is a random access list, the elements are
+   * looked up by their {@link IMerger#getMergeKey(Object) keys} in a hash
+   * table, and a merged element replaces the old one at its position in the
+   * list, otherwise each element is merged as by
+   * {@link #merge(IMerger, Collection, Object)}.
+   * </p>
    * 
    * @param merger The merger to use.
    * @param to The collection to merge the elements to.
@@ -50,8 +62,38 @@ public class Mergers {
       return to;
     }
 
+    if (!(to instanceof List<?>) || !(to instanceof RandomAccess)) {
+      for (T element : from) {
+        merge(merger, to, element);
+      }
+      return to;
+    }
+
+    // Indexes the elements by their keys, the first element of each key is
+    // the one the linear scan would find:
+    List<T> list = (List<T>) to;
+    Map<Object, Integer> index = Maps.newHashMapWithExpectedSize(
+        list.size() + from.size());
+    for (int i = 0; i < list.size(); i++) {
+      Object key = merger.getMergeKey(list.get(i));
+      if (key != null && !index.containsKey(key)) {
+        index.put(key, i);
+      }
+    }
+
     for (T element : from) {
-      merge(merger, to, element);
+      checkNotNull(element);
+      Object key = merger.getMergeKey(element);
+      Integer position = (key == null) ? null : index.get(key);
+      if (position == null) {
+        if (key != null) {
+          index.put(key, list.size());
+        }
+        list.add(element);
+      } else {
+        int i = position.intValue();
+        list.set(i, merger.merge(list.get(i), element));
+      }
     }
     return to;
   }
@@ -77,10 +119,16 @@ public class Mergers {
       return collection;
     }
 
+    Object key = merger.getMergeKey(item);
+    if (key == null) {
+      collection.add(item);
+      return collection;
+    }
+
     T mergedElement = null;
     for (Iterator<T> it = collection.iterator(); it.hasNext();) {
       T element = it.next();
-      if (merger.isMergeable(element, item)) {
+      if (key.equals(merger.getMergeKey(element))) {
         mergedElement = merger.merge(element, item);
 
         // Removes the old one, the new one will be added after the loop:
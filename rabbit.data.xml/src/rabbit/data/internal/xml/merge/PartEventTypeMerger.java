@@ -26,9 +26,8 @@ public class PartEventTypeMerger extends AbstractMerger<PartEventType> {
   }
 
   @Override
-  protected boolean doIsMergeable(PartEventType t1, PartEventType t2) {
-    return (t1.getPartId() != null)
-        && (t1.getPartId().equals(t2.getPartId()));
+  protected Object doGetMergeKey(PartEventType t) {
+    return t.getPartId();
   }
 
   @Override
@@ -27,9 +27,8 @@ public class PerspectiveEventTypeMerger extends
   }
   
   @Override
-  protected boolean doIsMergeable(PerspectiveEventType t1, PerspectiveEventType t2) {
-    return (t1.getPerspectiveId() != null)
-        && (t1.getPerspectiveId().equals(t2.getPerspectiveId()));
+  protected Object doGetMergeKey(PerspectiveEventType t) {
+    return t.getPerspectiveId();
   }
 
   @Override
@@ -21,14 +21,19 @@ import rabbit.data.internal.xml.schema.events.SessionEventType;
  * Merges {@link SessionEventType} elements.
  */
 public class SessionEventTypeMerger extends AbstractMerger<SessionEventType> {
+
+  /**
+   * The key of all session events.
+   */
+  private static final Object KEY = SessionEventType.class;
   
   public SessionEventTypeMerger() {
   }
 
   @Override
-  protected boolean doIsMergeable(SessionEventType t1, SessionEventType t2) {
+  protected Object doGetMergeKey(SessionEventType t) {
     // All session events are mergeable, because they contain no ID, only value.
-    return true;
+    return KEY;
   }
 
   @Override
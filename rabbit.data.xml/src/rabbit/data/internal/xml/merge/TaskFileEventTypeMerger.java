@@ -18,6 +18,8 @@ package rabbit.data.internal.xml.merge;
 import rabbit.data.internal.xml.schema.events.TaskFileEventType;
 import rabbit.data.internal.xml.schema.events.TaskIdType;
 
+import java.util.Arrays;
+
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -29,29 +31,15 @@ public class TaskFileEventTypeMerger extends AbstractMerger<TaskFileEventType> {
   }
 
   @Override
-  protected boolean doIsMergeable(TaskFileEventType t1, TaskFileEventType t2) {
-    boolean result = false;
-    
-    TaskIdType id1 = t1.getTaskId();
-    TaskIdType id2 = t2.getTaskId();
-    if (id1 != null && id2 != null) {
-      
-      // Check the handle identifiers of the IDs:
-      result = (id1.getHandleId() != null) 
-            && (id2.getHandleId() != null) 
-            && (id1.getHandleId().equals(id2.getHandleId()))
-            
-            // Check the creation dates of the IDs:
-            && (id1.getCreationDate() != null)
-            && (id2.getCreationDate() != null)
-            && (id1.getCreationDate().equals(id2.getCreationDate()))
-            
-            // Check the file IDs:
-            && (t1.getFilePath() != null)
-            && (t2.getFilePath() != null)
-            && (t1.getFilePath().equals(t2.getFilePath()));
+  protected Object doGetMergeKey(TaskFileEventType t) {
+    TaskIdType id = t.getTaskId();
+    if (id == null
+        || id.getHandleId() == null
+        || id.getCreationDate() == null
+        || t.getFilePath() == null) {
+      return null;
     }
-    return result;
+    return Arrays.asList(id.getHandleId(), id.getCreationDate(), t.getFilePath());
   }
 
   @Override
@@ -34,6 +34,8 @@ import javax.xml.bind.annotation.XmlType;
  *         &lt;element name="launchEvents" type="{}launchEventListType" maxOccurs="unbounded"/>
  *         &lt;element name="sessionEvents" type="{}sessionEventListType" maxOccurs="unbounded"/>
  *         &lt;element name="javaEvents" type="{}javaEventListType" maxOccurs="unbounded"/>
+ *         &lt;element name="freezeEvents" type="{}freezeEventListType" maxOccurs="unbounded"/>
+ *         &lt;element name="buildEvents" type="{}buildEventListType" maxOccurs="unbounded"/>
  *       &lt;/sequence>
  *     &lt;/restriction>
  *   &lt;/complexContent>
@@ -51,7 +53,9 @@ import javax.xml.bind.annotation.XmlType;
     "taskFileEvents",
     "launchEvents",
     "sessionEvents",
-    "javaEvents"
+    "javaEvents",
+    "freezeEvents",
+    "buildEvents"
 })
 public class EventListType {
 
@@ -71,6 +75,10 @@ public class EventListType {
     protected List<SessionEventListType> sessionEvents;
     @XmlElement(required = true)
     protected List<JavaEventListType> javaEvents;
+    @XmlElement(required = true)
+    protected List<FreezeEventListType> freezeEvents;
+    @XmlElement(required = true)
+    protected List<BuildEventListType> buildEvents;
 
     /**
      * Gets the value of the commandEvents property.
@@ -304,4 +312,62 @@ public class EventListType {
         return this.javaEvents;
     }
 
+    /**
+     * Gets the value of the freezeEvents property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the JAXB object.
+     * This is why there is not a <CODE>set</CODE> method for the freezeEvents property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getFreezeEvents().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link FreezeEventListType }
+     * 
+     * 
+     */
+    public List<FreezeEventListType> getFreezeEvents() {
+        if (freezeEvents == null) {
+            freezeEvents = new ArrayList<FreezeEventListType>();
+        }
+        return this.freezeEvents;
+    }
+
+    /**
+     * Gets the value of the buildEvents property.
+     * 
+     * <p>
+     * This accessor method returns a reference to the live list,
+     * not a snapshot. Therefore any modification you make to the
+     * returned list will be present inside the JAXB object.
+     * This is why there is not a <CODE>set</CODE> method for the buildEvents property.
+     * 
+     * <p>
+     * For example, to add a new item, do as follows:
+     * <pre>
+     *    getBuildEvents().add(newItem);
+     * </pre>
+     * 
+     * 
+     * <p>
+     * Objects of the following type(s) are allowed in the list
+     * {@link BuildEventListType }
+     * 
+     * 
+     */
+    public List<BuildEventListType> getBuildEvents() {
+        if (buildEvents == null) {
+            buildEvents = new ArrayList<BuildEventListType>();
+        }
+        return this.buildEvents;
+    }
+
 }
@@ -200,6 +200,38 @@ public class ObjectFactory {
         return new JavaEventListType();
     }
 
+    /**
+     * Create an instance of {@link FreezeEventListType }
+     * 
+     */
+    public FreezeEventListType createFreezeEventListType() {
+        return new FreezeEventListType();
+    }
+
+    /**
+     * Create an instance of {@link FreezeEventType }
+     * 
+     */
+    public FreezeEventType createFreezeEventType() {
+        return new FreezeEventType();
+    }
+
+    /**
+     * Create an instance of {@link BuildEventListType }
+     * 
+     */
+    public BuildEventListType createBuildEventListType() {
+        return new BuildEventListType();
+    }
+
+    /**
+     * Create an instance of {@link BuildEventType }
+     * 
+     */
+    public BuildEventType createBuildEventType() {
+        return new BuildEventType();
+    }
+
     /**
      * Create an instance of {@link FileEventType }
      * 
@@ -17,9 +17,17 @@ package rabbit.data.internal.xml.store;
 
 import static rabbit.data.internal.xml.DatatypeUtil.isSameDate;
 import static rabbit.data.internal.xml.DatatypeUtil.isSameMonthInYear;
+import static rabbit.data.internal.xml.DatatypeUtil.toLocalDate;
 import static rabbit.data.internal.xml.DatatypeUtil.toXmlDate;
 
+import rabbit.data.internal.xml.DayCache;
+import rabbit.data.internal.xml.EventGroupReader;
 import rabbit.data.internal.xml.IDataStore;
+import rabbit.data.internal.xml.IEventGroupHandler;
+import rabbit.data.internal.xml.JaxbUtil;
+import rabbit.data.internal.xml.Rollups;
+import rabbit.data.internal.xml.Rollups.Period;
+import rabbit.data.internal.xml.SpillBuffer;
 import rabbit.data.internal.xml.XmlPlugin;
 import rabbit.data.internal.xml.convert.IConverter;
 import rabbit.data.internal.xml.merge.IMerger;
@@ -27,22 +35,37 @@ import rabbit.data.internal.xml.merge.Mergers;
 import rabbit.data.internal.xml.schema.events.EventGroupType;
 import rabbit.data.internal.xml.schema.events.EventListType;
 import rabbit.data.internal.xml.schema.events.ObjectFactory;
-import rabbit.data.store.IStorer;
+import rabbit.data.store.IBufferedStorer;
+import rabbit.data.store.ISpillableStorer;
 import rabbit.data.store.model.DiscreteEvent;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+import javax.xml.bind.JAXBException;
 import javax.xml.datatype.XMLGregorianCalendar;
 
 /**
@@ -55,17 +78,26 @@ import javax.xml.datatype.XMLGregorianCalendar;
  * @param <S> A category type that holds the XML types according to event date.
  */
 public abstract class AbstractStorer<E extends DiscreteEvent, T, S extends EventGroupType>
-    implements IStorer<E> {
+    implements ISpillableStorer<E>, IBufferedStorer<E> {
 
   /** Factory object for creating XML schema Java types. */
   protected final ObjectFactory objectFactory;
 
+  /**
+   * The size in bytes a journal can grow to before it is folded into its data
+   * file.
+   */
+  private static final long JOURNAL_COMPACTION_SIZE = 256 * 1024;
+
   /** Data in memory, not yet saved. */
   private final Set<S> data;
 
   /** The current month. */
   private LocalDate currentMonth;
 
+  /** True if the compaction of the previous month has been scheduled. */
+  private boolean isPreviousMonthCompacted;
+
   /** Converter for converting an event to its corresponding XML type. */
   private final IConverter<E, T> converter;
 
@@ -75,6 +107,19 @@ public abstract class AbstractStorer<E extends DiscreteEvent, T, S extends Event
   /** The data store to store the data to. */
   private final IDataStore store;
 
+  /** The crash-safe buffer of the data recorded, or null if not used. */
+  @Nullable
+  private final SpillBuffer buffer;
+
+  /** True if the buffer has been found full. */
+  private volatile boolean isBufferFull;
+
+  /**
+   * The mark of the records of the data in memory that is about to be written,
+   * or -1 if none.
+   */
+  private long preparedMark = -1;
+
   /**
    * Constructor.
    * 
@@ -91,77 +136,281 @@ public abstract class AbstractStorer<E extends DiscreteEvent, T, S extends Event
     data = new LinkedHashSet<S>();
     currentMonth = new LocalDate();
     objectFactory = new ObjectFactory();
+    buffer = openBuffer();
+  }
+
+  @Override
+  public synchronized void commit() {
+    save(XmlPlugin.getDefault().isJournalEnabled());
+  }
+
+  /**
+   * Commits the data in memory, then releases the records before the given
+   * mark, the data is stored by the time this method returns.
+   */
+  @Override
+  public synchronized void commit(long mark) {
+    prepare(mark);
+    commit();
+    release(mark);
+  }
+
+  /**
+   * Notes the mark in the buffer before each write of the data in memory,
+   * together with the state of the file written to, until the records are
+   * released. If the process dies after a write and before the release,
+   * {@link #recover()} finds the file changed and skips the records.
+   */
+  @Override
+  public synchronized void prepare(long mark) {
+    preparedMark = mark;
   }
 
+  /**
+   * Appends the data in memory to the journal of its data file, even if
+   * journaling is disabled. The journal is folded into the data file by the
+   * next commit that rewrites the file, or by a compaction.
+   */
   @Override
-  public void commit() {
+  public synchronized void spill() {
+    save(true);
+  }
+
+  /**
+   * Saves the data in memory to the data file of the current month.
+   * 
+   * @param append True to append the data to the journal of the file, false to
+   *          rewrite the file.
+   */
+  private void save(boolean append) {
     if (data.isEmpty())
       return;
 
+    if (!isPreviousMonthCompacted) {
+      // The previous month may have been spilled at the last shutdown, the
+      // current month will be folded by the rewrite or the compaction:
+      isPreviousMonthCompacted = true;
+      LocalDate previousMonth = currentMonth.minusMonths(1);
+      scheduleCompaction(getDataStore().getDataFile(previousMonth));
+    }
+
     File f = getDataStore().getDataFile(currentMonth);
-    EventListType events = getDataStore().read(f);
-    List<S> categories = getCategories(events);
+    if (append) {
+      prepareWrite(getDataStore().getJournalFile(f));
+      append(f);
+    } else {
+      prepareWrite(f);
+      rewrite(f);
+    }
+    // Only the days written have changed, the cached data of the other days of
+    // the month is still valid:
+    List<LocalDate> days = Lists.newArrayListWithCapacity(data.size());
+    for (S category : data) {
+      days.add(toLocalDate(category.getDate()));
+    }
+    DayCache.getDefault().update(getDataStore(), f, days);
+    data.clear();
+  }
 
-    IMerger<T> merger = getMerger();
-    for (S mergeFrom : data) {
-
-      boolean done = false;
-      for (S mergeTo : categories) {
-        if (mergeFrom.getDate().equals(mergeTo.getDate())) {
-          if (merger != null)
-            Mergers.merge(merger, getElements(mergeTo), getElements(mergeFrom));
-          else
-            getElements(mergeTo).addAll(getElements(mergeFrom));
-
-          done = true;
-          break;
-        }
+  @Override
+  public void insert(Collection<? extends E> collection) {
+    // The converted elements are collected by date first, then merged into
+    // each date in one go, which lets the merging use a hash index:
+    Map<S, List<T>> pending = Maps.newLinkedHashMap();
+    for (E event : collection) {
+      DateTime time = event.getTime();
+      if (!isSameMonthInYear(time, currentMonth)) {
+        merge(pending);
+        commit();
+        // The month is over, its journal will not grow any further:
+        scheduleCompaction(getDataStore().getDataFile(currentMonth));
+        currentMonth = time.toLocalDate();
       }
 
-      if (!done) {
-        categories.add(mergeFrom);
+      S category = getCategory(time);
+      List<T> elements = pending.get(category);
+      if (elements == null) {
+        elements = Lists.newArrayList();
+        pending.put(category, elements);
       }
+      elements.add(getConverter().convert(event));
     }
+    merge(pending);
+  }
 
-    if (!getDataStore().write(events, f)) {
-      XmlPlugin.getDefault().getLog().log(
-          new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, "Unable to save data."));
-    }
-    data.clear();
+  @Override
+  public void insert(E event) {
+    insert(Collections.singleton(event));
   }
 
+  /**
+   * Records the events in the buffer of this storer, if the buffer is enabled.
+   * The events are converted and merged by date, and recorded as one XML
+   * fragment, the same form as they are stored in. This does not block on the
+   * writing of the data.
+   */
   @Override
-  public void insert(Collection<? extends E> collection) {
-    for (E elements : collection)
-      insert(elements);
+  public long record(Collection<? extends E> events) {
+    if (buffer == null)
+      return 0;
+    if (events.isEmpty())
+      return buffer.mark();
+
+    Map<LocalDate, List<T>> elements = Maps.newLinkedHashMap();
+    for (E event : events) {
+      LocalDate date = event.getTime().toLocalDate();
+      List<T> list = elements.get(date);
+      if (list == null) {
+        list = Lists.newArrayList();
+        elements.put(date, list);
+      }
+      list.add(getConverter().convert(event));
+    }
+    EventListType fragment = objectFactory.createEventListType();
+    for (Map.Entry<LocalDate, List<T>> entry : elements.entrySet()) {
+      S category = newCategory(toXmlDate(entry.getKey()));
+      Mergers.merge(getMerger(), getElements(category), entry.getValue());
+      getCategories(fragment).add(category);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      JaxbUtil.marshalFragment(objectFactory.createEvents(fragment), out);
+    } catch (JAXBException e) {
+      XmlPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+          XmlPlugin.PLUGIN_ID, "Unable to record data.", e));
+      return buffer.mark();
+    }
+
+    boolean appended;
+    long mark;
+    synchronized (buffer) {
+      // The mark must follow this record and not a record appended later:
+      appended = buffer.append(out.toByteArray());
+      mark = buffer.mark();
+    }
+    if (!appended && !isBufferFull) {
+      isBufferFull = true;
+      XmlPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+          XmlPlugin.PLUGIN_ID, "The spill buffer is full, data will only be"
+              + " kept in memory until it is stored.\n"
+              + getDataStore().getSpillFile().getAbsolutePath()));
+    }
+    return mark;
   }
 
+  /**
+   * Stores the data left in the buffer by a previous session that has not
+   * been shut down properly, then releases it from the buffer. Only the
+   * records read are released, a record appended in the meantime is kept. The
+   * records of a write that was done before the previous session died, but not
+   * released, are released without being stored again.
+   */
   @Override
-  public void insert(E event) {
+  public synchronized void recover() {
+    if (buffer == null)
+      return;
 
-    DateTime time = event.getTime();
-    if (!isSameMonthInYear(event.getTime(), currentMonth)) {
-      commit();
-      currentMonth = time.toLocalDate();
+    byte[] note = buffer.getPrepared();
+    if (note != null) {
+      if (isWritten(note)) {
+        buffer.releasePrepared();
+      } else {
+        buffer.discardPrepared();
+      }
     }
 
-    IMerger<T> merger = getMerger();
-    T element = getConverter().convert(event);
-    for (S category : data) {
-      if (isSameDate(event.getTime(), category.getDate())) {
+    List<byte[]> records;
+    long mark;
+    synchronized (buffer) {
+      records = buffer.read();
+      mark = buffer.mark();
+    }
+    if (records.isEmpty())
+      return;
 
-        if (merger != null)
-          Mergers.merge(merger, getElements(category), element);
-        else
-          getElements(category).add(element);
+    final EventListType events = objectFactory.createEventListType();
+    IEventGroupHandler handler = new IEventGroupHandler() {
+      @SuppressWarnings("unchecked")
+      @Override
+      public void handle(EventGroupType group) {
+        // Only the groups of this storer are recorded in its buffer:
+        getCategories(events).add((S) group);
+      }
+    };
+    for (byte[] record : records) {
+      try {
+        EventGroupReader.read(new ByteArrayInputStream(record), null, null,
+            handler);
+      } catch (Exception e) {
+        XmlPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+            XmlPlugin.PLUGIN_ID, "Unable to recover data.", e));
+      }
+    }
 
-        return;
+    // Each month is stored to its own file, the groups of the same date are
+    // merged when they are written:
+    Map<LocalDate, List<S>> months = Maps.newTreeMap();
+    for (S category : getCategories(events)) {
+      if (category.getDate() == null)
+        continue;
+
+      LocalDate month = toLocalDate(category.getDate()).withDayOfMonth(1);
+      List<S> list = months.get(month);
+      if (list == null) {
+        list = Lists.newArrayList();
+        months.put(month, list);
       }
+      list.add(category);
+    }
+    LocalDate month = currentMonth;
+    prepare(mark);
+    for (Map.Entry<LocalDate, List<S>> entry : months.entrySet()) {
+      currentMonth = entry.getKey();
+      data.addAll(entry.getValue());
+      commit();
     }
+    currentMonth = month;
+    release(mark);
+  }
 
-    S category = newCategory(toXmlDate(event.getTime()));
-    getElements(category).add(element);
-    data.add(category);
+  @Override
+  public synchronized void release(long mark) {
+    if (buffer != null) {
+      buffer.release(mark);
+    }
+    if (mark >= preparedMark) {
+      preparedMark = -1;
+    }
+  }
+
+  /**
+   * Folds the journal of the given data file into the data file, if the file
+   * has a journal.
+   * 
+   * @param f The data file.
+   */
+  protected final synchronized void compact(File f) {
+    if (!getDataStore().getJournalFile(f).exists())
+      return;
+
+    EventListType events = getDataStore().readForUpdate(f);
+    if (events == null) {
+      // The journal is kept, the data file must not be replaced:
+      XmlPlugin.getDefault().getLog().log(new Status(IStatus.ERROR,
+          XmlPlugin.PLUGIN_ID, "Unable to compact data, the data file cannot"
+              + " be read.\n" + f.getAbsolutePath()));
+      return;
+    }
+    fold(getCategories(events));
+    if (!getDataStore().write(events, f)) {
+      XmlPlugin.getDefault().getLog().log(
+          new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, "Unable to compact data."));
+    } else {
+      // The data has only been moved from the journal into the file:
+      DayCache.getDefault().update(getDataStore(), f,
+          Collections.<LocalDate> emptySet());
+      rollUp(events, f);
+    }
   }
 
   /**
@@ -216,4 +465,236 @@ public abstract class AbstractStorer<E extends DiscreteEvent, T, S extends Event
    * @return A new category configured with the date.
    */
   protected abstract S newCategory(XMLGregorianCalendar date);
+
+  /**
+   * Appends the data in memory to the journal of the given data file, the data
+   * file itself is not read nor rewritten. Schedules a compaction if the
+   * journal has grown too large.
+   * 
+   * @param f The data file.
+   */
+  private void append(File f) {
+    EventListType events = objectFactory.createEventListType();
+    getCategories(events).addAll(data);
+    if (!getDataStore().append(events, f)) {
+      XmlPlugin.getDefault().getLog().log(
+          new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, "Unable to save data."));
+    } else if (getDataStore().getJournalFile(f).length() > JOURNAL_COMPACTION_SIZE) {
+      scheduleCompaction(f);
+    }
+  }
+
+  /**
+   * Notes the prepared mark in the buffer, with the state of the file about to
+   * be written, if a mark has been prepared.
+   * 
+   * @param target The file about to be written.
+   */
+  private void prepareWrite(File target) {
+    if (buffer == null || preparedMark < 0)
+      return;
+
+    byte[] note = (target.getAbsolutePath() + "\n" + target.length() + "\n"
+        + target.lastModified()).getBytes(Charsets.UTF_8);
+    if (note.length <= SpillBuffer.MAX_NOTE_SIZE) {
+      buffer.prepare(preparedMark, note);
+    } else {
+      // The records will be stored again if the process dies after the write:
+      buffer.discardPrepared();
+    }
+  }
+
+  /**
+   * Checks whether the file of a note of a prepared write has changed since
+   * the note was taken, in which case the write has been done. A file written
+   * within the same second without changing its length is taken as not
+   * written, its records are then stored again.
+   * 
+   * @param note The note.
+   * @return True if the file has changed.
+   */
+  private static boolean isWritten(byte[] note) {
+    String[] parts = new String(note, Charsets.UTF_8).split("\n");
+    if (parts.length != 3)
+      return false;
+
+    File file = new File(parts[0]);
+    try {
+      return file.length() != Long.parseLong(parts[1])
+          || file.lastModified() != Long.parseLong(parts[2]);
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Opens the buffer of this storer, if the buffer is enabled.
+   * 
+   * @return The buffer, or null if the buffer is disabled or cannot be opened.
+   */
+  @Nullable
+  private SpillBuffer openBuffer() {
+    XmlPlugin plugin = XmlPlugin.getDefault();
+    if (plugin == null || !plugin.isBufferEnabled())
+      return null;
+
+    File file = getDataStore().getSpillFile();
+    try {
+      return SpillBuffer.open(file, SpillBuffer.DEFAULT_CAPACITY);
+    } catch (IOException e) {
+      plugin.getLog().log(new Status(IStatus.WARNING, XmlPlugin.PLUGIN_ID,
+          "Unable to open spill buffer.\n" + file.getAbsolutePath(), e));
+      return null;
+    }
+  }
+
+  /**
+   * Gets the category in memory for the given date, creating one if there is
+   * none.
+   * 
+   * @param time The date.
+   * @return The category.
+   */
+  private S getCategory(DateTime time) {
+    for (S category : data) {
+      if (isSameDate(time, category.getDate()))
+        return category;
+    }
+    S category = newCategory(toXmlDate(time));
+    data.add(category);
+    return category;
+  }
+
+  /**
+   * Merges the pending elements into their categories.
+   * 
+   * @param pending The elements to merge, mapped by category, will be cleared.
+   */
+  private void merge(Map<S, List<T>> pending) {
+    IMerger<T> merger = getMerger();
+    for (Map.Entry<S, List<T>> entry : pending.entrySet()) {
+      Mergers.merge(merger, getElements(entry.getKey()), entry.getValue());
+    }
+    pending.clear();
+  }
+
+  /**
+   * Merges the groups of the same date into one.
+   * 
+   * @param categories The groups, will be modified.
+   */
+  private void fold(List<S> categories) {
+    IMerger<T> merger = getMerger();
+    for (int i = 0; i < categories.size(); i++) {
+      S mergeTo = categories.get(i);
+      if (mergeTo.getDate() == null)
+        continue;
+
+      for (Iterator<S> it = categories.listIterator(i + 1); it.hasNext();) {
+        S mergeFrom = it.next();
+        if (mergeTo.getDate().equals(mergeFrom.getDate())) {
+          Mergers.merge(merger, getElements(mergeTo), getElements(mergeFrom));
+          it.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the given data file, merges the data in memory into it, and writes
+   * the whole file back. If the data file cannot be read, the data is appended
+   * to its journal instead.
+   * 
+   * @param f The data file.
+   */
+  private void rewrite(File f) {
+    EventListType events = getDataStore().readForUpdate(f);
+    if (events == null) {
+      // The data file must not be replaced, the data is kept in the journal:
+      append(f);
+      return;
+    }
+    List<S> categories = getCategories(events);
+    // The groups from the journal, and the groups in memory, are added to the
+    // end of the list, and merged into the groups of the same date:
+    categories.addAll(data);
+    fold(categories);
+
+    if (!getDataStore().write(events, f)) {
+      XmlPlugin.getDefault().getLog().log(
+          new Status(IStatus.ERROR, XmlPlugin.PLUGIN_ID, "Unable to save data."));
+    } else {
+      rollUp(events, f);
+    }
+  }
+
+  /**
+   * Writes the weekly and monthly rollups of the given data file, from the
+   * content just written to it.
+   * 
+   * @param events The content of the data file, will not be modified.
+   * @param f The data file.
+   */
+  private void rollUp(EventListType events, File f) {
+    for (Period period : Period.values()) {
+      Map<LocalDate, S> groups = Maps.newTreeMap();
+      for (S category : getCategories(events)) {
+        if (category.getDate() == null)
+          continue;
+
+        LocalDate start = period.getStart(toLocalDate(category.getDate()));
+        S group = groups.get(start);
+        if (group == null) {
+          group = newCategory(toXmlDate(start));
+          groups.put(start, group);
+        }
+        // The mergers create new elements, the elements of the file are not
+        // modified:
+        Mergers.merge(getMerger(), getElements(group), getElements(category));
+      }
+
+      EventListType rollup = objectFactory.createEventListType();
+      getCategories(rollup).addAll(groups.values());
+      try {
+        Rollups.write(getDataStore(), f, period, rollup);
+      } catch (Exception e) {
+        // The daily data will be used instead:
+        Rollups.getRollupFile(f, period).delete();
+        XmlPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+            XmlPlugin.PLUGIN_ID, "Unable to save rollup.", e));
+      }
+    }
+  }
+
+  /**
+   * Schedules a background compaction of the given data file, if the file has
+   * a journal.
+   * 
+   * @param f The data file.
+   */
+  private void scheduleCompaction(File f) {
+    if (getDataStore().getJournalFile(f).exists()) {
+      new CompactionJob(f).schedule();
+    }
+  }
+
+  /**
+   * A job for folding the journal of a data file into the data file.
+   */
+  private class CompactionJob extends Job {
+
+    private final File file;
+
+    CompactionJob(File file) {
+      super("Compacting " + file.getName());
+      this.file = file;
+      setSystem(true);
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+      compact(file);
+      return Status.OK_STATUS;
+    }
+  }
 }
@@ -16,8 +16,10 @@
 package rabbit.data.internal.xml.store;
 
 import rabbit.data.store.IStorer;
+import rabbit.data.store.model.BuildEvent;
 import rabbit.data.store.model.CommandEvent;
 import rabbit.data.store.model.FileEvent;
+import rabbit.data.store.model.FreezeEvent;
 import rabbit.data.store.model.JavaEvent;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.data.store.model.PartEvent;
@@ -40,8 +42,10 @@ public class StorerModule extends AbstractModule {
 
   @Override
   protected void configure() {
+    bind(new TypeLiteral<IStorer<BuildEvent>>       () {}).to(BuildEventStorer.class);
     bind(new TypeLiteral<IStorer<CommandEvent>>     () {}).to(CommandEventStorer.class);
     bind(new TypeLiteral<IStorer<FileEvent>>        () {}).to(FileEventStorer.class);
+    bind(new TypeLiteral<IStorer<FreezeEvent>>      () {}).to(FreezeEventStorer.class);
     bind(new TypeLiteral<IStorer<JavaEvent>>        () {}).to(JavaEventStorer.class);
     bind(new TypeLiteral<IStorer<LaunchEvent>>      () {}).to(LaunchEventStorer.class);
     bind(new TypeLiteral<IStorer<PartEvent>>        () {}).to(PartEventStorer.class);
@@ -1,7 +1,9 @@
 package rabbit.data.xml;
 
 import rabbit.data.internal.xml.StoreNamesModule;
+import rabbit.data.internal.xml.XmlPlugin;
 import rabbit.data.internal.xml.access.AccessorModule;
+import rabbit.data.internal.xml.columnar.ColumnarStoreNamesModule;
 import rabbit.data.internal.xml.convert.ConverterModule;
 import rabbit.data.internal.xml.merge.MergerModule;
 import rabbit.data.internal.xml.store.StorerModule;
@@ -15,7 +17,12 @@ public class XmlModule extends AbstractModule {
 
   @Override
   protected void configure() {
-    install(new StoreNamesModule());
+    XmlPlugin plugin = XmlPlugin.getDefault();
+    if (plugin != null && plugin.isColumnarEnabled()) {
+      install(new ColumnarStoreNamesModule());
+    } else {
+      install(new StoreNamesModule());
+    }
     install(new ConverterModule());
     install(new MergerModule());
     install(new StorerModule());
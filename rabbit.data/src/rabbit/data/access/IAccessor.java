@@ -15,6 +15,8 @@
  */
 package rabbit.data.access;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.joda.time.LocalDate;
 
 import java.util.Collection;
@@ -35,4 +37,37 @@ public interface IAccessor<T> {
    * @throws NullPointerException If any of the arguments is null.
    */
   Collection<T> getData(LocalDate start, LocalDate end);
+
+  /**
+   * Gets the data between the dates, inclusive, checking the given monitor for
+   * cancellation while the data is being read.
+   * 
+   * @param start The start date.
+   * @param end The end Date.
+   * @param monitor The monitor to check for cancellation.
+   * @return A collection of data, or an empty collection if no data is found.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws OperationCanceledException If the monitor is canceled before all
+   *           the data has been read.
+   */
+  Collection<T> getData(LocalDate start, LocalDate end,
+      IProgressMonitor monitor);
+
+  /**
+   * Gets the data between the dates, inclusive, passing each element to the
+   * handler as soon as it has been read, instead of collecting all the data
+   * first. The elements are passed in the same order as they would be returned
+   * by {@link #getData(LocalDate, LocalDate)}, from the calling thread.
+   * 
+   * @param start The start date.
+   * @param end The end Date.
+   * @param monitor The monitor to check for cancellation.
+   * @param handler The handler to receive the data.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws OperationCanceledException If the monitor is canceled before all
+   *           the data has been read, some of the data may have already been
+   *           passed to the handler.
+   */
+  void getData(LocalDate start, LocalDate end, IProgressMonitor monitor,
+      IDataHandler<? super T> handler);
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.access;
+
+import rabbit.data.access.model.IData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.Keys;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.joda.time.LocalDate;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Represents a data accessor that groups and sums the data inside the data
+ * store, instead of returning every element of data.
+ * 
+ * @param <T> The type of the data being aggregated.
+ */
+public interface IAggregateAccessor<T extends IData> {
+
+  /**
+   * Gets the data between the dates, inclusive, grouped by the values of the
+   * given dimensions. Each returned row contains the values of the dimensions
+   * shared by the data in its group, and the sum of the measure of that data.
+   * Data without a value for the measure is ignored.
+   * 
+   * @param start The start date.
+   * @param end The end Date.
+   * @param dimensions The keys to group the data by, such as {@link Keys#DATE}
+   *          and {@link Keys#WORKSPACE}. An empty set sums all the data into a
+   *          single row.
+   * @param measure The key of the values to sum, either {@link Keys#DURATION}
+   *          or {@link Keys#COUNT}.
+   * @param monitor The monitor to check for cancellation.
+   * @return The rows, one for each group, or an empty collection if no data is
+   *         found.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws IllegalArgumentException If the measure is not supported.
+   * @throws OperationCanceledException If the monitor is canceled.
+   */
+  Collection<IData> getData(LocalDate start, LocalDate end,
+      Set<? extends IKey<?>> dimensions, IKey<?> measure,
+      IProgressMonitor monitor);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.access;
+
+/**
+ * Receives data from an {@link IAccessor} one element at a time, as the data is
+ * being read.
+ * 
+ * @param <T> The data type.
+ * @see IAccessor#getData(org.joda.time.LocalDate, org.joda.time.LocalDate,
+ *      org.eclipse.core.runtime.IProgressMonitor, IDataHandler)
+ */
+public interface IDataHandler<T> {
+
+  /**
+   * Handles an element of data that has just been read.
+   * 
+   * @param data The data, never null.
+   */
+  void handle(T data);
+
+}
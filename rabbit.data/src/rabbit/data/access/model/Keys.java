@@ -19,6 +19,7 @@ import rabbit.data.common.TaskId;
 
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IJavaElement;
 import org.joda.time.Duration;
 import org.joda.time.LocalDate;
@@ -59,6 +60,18 @@ public class Keys {
    * Key for a set of files.
    */
   public static final IKey<Set<IFile>> FILES = Key.create();
+
+  /**
+   * Key for the bucket of a number of freezes of the user interface, the lower
+   * bound of their lengths.
+   */
+  public static final IKey<Duration> FREEZE_BUCKET = Key.create();
+
+  /**
+   * Key for whether a number of builds are full builds rather than incremental
+   * builds.
+   */
+  public static final IKey<Boolean> FULL_BUILD = Key.create();
   
 
   /**
@@ -80,6 +93,11 @@ public class Keys {
    * Key for a perspective ID.
    */
   public static final IKey<String> PERSPECTIVE_ID = Key.create();
+
+  /**
+   * Key for a project.
+   */
+  public static final IKey<IProject> PROJECT = Key.create();
   
   /**
    * Key for a task ID.
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.access.model;
+
+import rabbit.data.access.model.IData;
+import rabbit.data.access.model.IKey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Contains the values shared by a group of data, and the sum of a measure of
+ * the data in the group.
+ */
+public class AggregateData implements IData {
+
+  /**
+   * Unmodifiable map of data, values may be null.
+   */
+  private final Map<IKey<? extends Object>, Object> data;
+
+  /**
+   * Constructor.
+   * @param data The keys and values of the row, including the measure, values
+   *        may be null. The map is copied.
+   * @throws NullPointerException If the map is null.
+   */
+  public AggregateData(Map<? extends IKey<? extends Object>, ?> data) {
+    this.data = Collections.unmodifiableMap(
+        Maps.<IKey<? extends Object>, Object> newHashMap(
+            checkNotNull(data, "data")));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(@Nullable IKey<T> key) {
+    return (T) data.get(key);
+  }
+}
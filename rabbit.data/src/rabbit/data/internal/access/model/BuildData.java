@@ -0,0 +1,79 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.access.model;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.WorkspaceStorage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.eclipse.core.resources.IProject;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Contains information about the builds of a project.
+ */
+public class BuildData implements IBuildData {
+
+  /**
+   * An immutable map of data.
+   */
+  private final Map<IKey<? extends Object>, Object> data;
+
+  /**
+   * Constructor.
+   * @param date The date of the builds.
+   * @param workspace The workspace of the builds.
+   * @param project The project built.
+   * @param fullBuild True if the builds are full builds, false if they are
+   *        incremental builds.
+   * @param count The number of builds.
+   * @param duration The total time taken by the builds.
+   * @throws NullPointerException If any of the arguments are null.
+   * @throws IllegalArgumentException If {@code count < 1}.
+   */
+  public BuildData(LocalDate date,
+                   WorkspaceStorage workspace,
+                   IProject project,
+                   boolean fullBuild,
+                   int count,
+                   Duration duration) {
+
+    checkArgument(count >= 1, "count < 1");
+
+    data = new KeyMapBuilder()
+        .put(DATE,       checkNotNull(date, "date"))
+        .put(WORKSPACE,  checkNotNull(workspace, "workspace"))
+        .put(PROJECT,    checkNotNull(project, "project"))
+        .put(FULL_BUILD, fullBuild)
+        .put(COUNT,      count)
+        .put(DURATION,   checkNotNull(duration, "duration"))
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(@Nullable IKey<T> key) {
+    return (T) data.get(key);
+  }
+}
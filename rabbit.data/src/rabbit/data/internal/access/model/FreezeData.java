@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.internal.access.model;
+
+import rabbit.data.access.model.IFreezeData;
+import rabbit.data.access.model.IKey;
+import rabbit.data.access.model.WorkspaceStorage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Contains information about the freezes of the user interface.
+ */
+public class FreezeData implements IFreezeData {
+
+  /**
+   * An immutable map of data.
+   */
+  private final Map<IKey<? extends Object>, Object> data;
+
+  /**
+   * Constructor.
+   * @param date The date of the freezes.
+   * @param workspace The workspace of the freezes.
+   * @param partId The ID of the workbench part that was active.
+   * @param bucket The bucket of the freezes, the lower bound of their lengths.
+   * @param count The number of freezes.
+   * @param duration The total length of the freezes.
+   * @throws NullPointerException If any of the arguments are null.
+   * @throws IllegalArgumentException If {@code count < 1}.
+   */
+  public FreezeData(LocalDate date,
+                    WorkspaceStorage workspace,
+                    String partId,
+                    Duration bucket,
+                    int count,
+                    Duration duration) {
+
+    checkArgument(count >= 1, "count < 1");
+
+    data = new KeyMapBuilder()
+        .put(DATE,          checkNotNull(date, "date"))
+        .put(WORKSPACE,     checkNotNull(workspace, "workspace"))
+        .put(PART_ID,       checkNotNull(partId, "partId"))
+        .put(FREEZE_BUCKET, checkNotNull(bucket, "bucket"))
+        .put(COUNT,         count)
+        .put(DURATION,      checkNotNull(duration, "duration"))
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(@Nullable IKey<T> key) {
+    return (T) data.get(key);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+import java.util.Collection;
+
+/**
+ * Represents a storer that can record objects in a crash-safe buffer as they
+ * are produced, long before they are inserted and committed. The objects
+ * recorded and not released by the time the process dies are stored by
+ * {@link #recover()} the next time.
+ * <p>
+ * The records are released only after their objects have been stored. If the
+ * process dies in between, the records of a write that has been
+ * {@link #prepare(long) prepared} are not stored again where the storer can
+ * tell that the write has been done. Where it cannot, the records are stored
+ * again, so an object is stored at least once, and may be counted twice after
+ * a crash, but is never lost.
+ * </p>
+ * 
+ * @param <T> The object type.
+ */
+public interface IBufferedStorer<T> extends IStorer<T> {
+
+  /**
+   * Records objects in the buffer. The objects are not stored by this, they
+   * must still be inserted and committed as usual.
+   * 
+   * @param elements The objects.
+   * @return A mark following the records of the objects, to release them with
+   *         once they have been stored.
+   */
+  long record(Collection<? extends T> elements);
+
+  /**
+   * Commits the objects inserted, and releases the records before the given
+   * mark once the objects have been stored. The objects recorded before the
+   * mark must all have been inserted by now, or have been stored already.
+   * 
+   * @param mark A mark returned by {@link #record(Collection)}.
+   */
+  void commit(long mark);
+
+  /**
+   * Notes that the objects recorded before the given mark have all been
+   * inserted and are about to be stored by the next commit or spill, so that
+   * their records are not stored again by a recovery if the process dies after
+   * the objects are stored and before the records are released.
+   * 
+   * @param mark A mark returned by {@link #record(Collection)}.
+   */
+  void prepare(long mark);
+
+  /**
+   * Stores the objects left in the buffer by a previous session that has not
+   * been shut down properly, then releases them. This is to be called once,
+   * after the storer has been created and before it is used.
+   */
+  void recover();
+
+  /**
+   * Releases the records before the given mark, the objects of the records
+   * must have been stored.
+   * 
+   * @param mark A mark returned by {@link #record(Collection)}.
+   */
+  void release(long mark);
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+/**
+ * Represents a storer that can also store its data quickly, without merging it
+ * into the stored data, for when there is no time for a full commit, such as
+ * at shutdown.
+ * 
+ * @param <T> The object type.
+ */
+public interface ISpillableStorer<T> extends IStorer<T> {
+
+  /**
+   * Stores the data to an append only file, which is merged into the stored
+   * data later. The data is visible to readers as soon as this method returns.
+   */
+  void spill();
+
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes batches of events to their storers on a single background thread.
+ * <p>
+ * All the batches waiting when the thread wakes up are written together, each
+ * storer is committed once for all of its batches, so the commits of several
+ * trackers are grouped into one pass over the data files. The storers are
+ * written in parallel, as each of them writes its own files. The number of
+ * events waiting is bounded, submitting a batch blocks until there is room for
+ * it.
+ * </p>
+ */
+public final class StoreWriter {
+
+  /** The default maximum number of events waiting to be written. */
+  public static final int DEFAULT_CAPACITY = 100000;
+
+  /** The time in milliseconds the thread is kept alive without work. */
+  private static final long KEEP_ALIVE_MILLIS = 30000;
+
+  private static final StoreWriter DEFAULT = new StoreWriter(DEFAULT_CAPACITY);
+
+  /**
+   * Gets the writer shared by all the storers.
+   * 
+   * @return The shared writer.
+   */
+  public static StoreWriter getDefault() {
+    return DEFAULT;
+  }
+
+  /** A batch of events to be inserted into a storer. */
+  private static final class Batch<T> {
+    final IStorer<T> storer;
+    final Collection<? extends T> events;
+    @Nullable final Runnable onStoring;
+    @Nullable final Runnable onStored;
+
+    Batch(IStorer<T> storer, Collection<? extends T> events,
+        @Nullable Runnable onStoring, @Nullable Runnable onStored) {
+      this.storer = storer;
+      this.events = events;
+      this.onStoring = onStoring;
+      this.onStored = onStored;
+    }
+  }
+
+  /** The maximum number of events waiting. */
+  private final int capacity;
+
+  /** Guards all the fields below. */
+  private final Object lock = new Object();
+
+  /** The batches waiting to be written, in the order they were submitted. */
+  private final LinkedList<Batch<?>> queue = Lists.newLinkedList();
+
+  /** The number of events in the queue and being written. */
+  private int size;
+
+  /** The number of batches ever submitted. */
+  private long submitted;
+
+  /** The number of batches ever written. */
+  private long written;
+
+  /** The writer thread, or null if it is not running. */
+  private Thread thread;
+
+  /** The threads writing the storers in parallel, created when needed. */
+  private ThreadPoolExecutor executor;
+
+  /**
+   * Constructor.
+   * 
+   * @param capacity The maximum number of events waiting to be written.
+   * @throws IllegalArgumentException If the capacity is less than 1.
+   */
+  public StoreWriter(int capacity) {
+    checkArgument(capacity > 0, "capacity = " + capacity);
+    this.capacity = capacity;
+  }
+
+  /**
+   * Queues the events to be inserted into the storer and committed. If the
+   * number of events waiting would exceed the capacity, this method blocks
+   * until enough of them have been written. A batch larger than the capacity
+   * is accepted once the writer is idle.
+   * 
+   * @param storer The storer to store the events.
+   * @param events The events, this collection must not be modified afterwards.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public <T> void submit(IStorer<T> storer, Collection<? extends T> events) {
+    submit(storer, events, null);
+  }
+
+  /**
+   * Queues the events to be inserted into the storer and committed, and runs
+   * the given callback on the writer's thread once the storer has been
+   * committed or spilled. The callback is not run if the storer fails.
+   * 
+   * @param storer The storer to store the events.
+   * @param events The events, this collection must not be modified afterwards.
+   * @param onStored The callback, or null.
+   * @throws NullPointerException If storer or events is null.
+   * @see #submit(IStorer, Collection)
+   */
+  public <T> void submit(IStorer<T> storer, Collection<? extends T> events,
+      @Nullable Runnable onStored) {
+    submit(storer, events, null, onStored);
+  }
+
+  /**
+   * Queues the events to be inserted into the storer and committed, runs the
+   * first callback on the writer's thread right before the events are
+   * inserted, and the second callback once the storer has been committed or
+   * spilled. The second callback is not run if the storer fails.
+   * 
+   * @param storer The storer to store the events.
+   * @param events The events, this collection must not be modified afterwards.
+   * @param onStoring The callback to run before the events are stored, or
+   *          null.
+   * @param onStored The callback to run after the events are stored, or null.
+   * @throws NullPointerException If storer or events is null.
+   * @see #submit(IStorer, Collection, Runnable)
+   */
+  public <T> void submit(IStorer<T> storer, Collection<? extends T> events,
+      @Nullable Runnable onStoring, @Nullable Runnable onStored) {
+    checkNotNull(storer);
+    checkNotNull(events);
+    if (events.isEmpty()) {
+      return;
+    }
+
+    boolean interrupted = false;
+    synchronized (lock) {
+      while (size > 0 && size + events.size() > capacity) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          // Keeps waiting, dropping the events is worse than blocking:
+          interrupted = true;
+        }
+      }
+      queue.add(new Batch<T>(storer, events, onStoring, onStored));
+      size += events.size();
+      submitted++;
+      if (thread == null) {
+        thread = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            work();
+          }
+        }, "Rabbit Data Writer");
+        thread.setDaemon(true);
+        thread.start();
+      } else {
+        lock.notifyAll();
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Waits for all the batches submitted before this call to be written.
+   * 
+   * @param timeout The maximum time to wait.
+   * @param unit The unit of the timeout.
+   * @return True if the batches have been written, false if the time is up.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public boolean drain(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (lock) {
+      long target = submitted;
+      while (written < target) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Waits for all the batches submitted before this call to be written. If
+   * they have not been written within the given time, the batches not yet
+   * being written are spilled instead: {@link ISpillableStorer#spill()} is
+   * used instead of {@link IStorer#commit()} if the storer supports it. The
+   * batches already being written when the time is up are still waited for,
+   * however long that takes, as the writer threads do not keep the JVM alive
+   * and a data file must not be left half written.
+   * 
+   * @param timeout The time to wait for the batches to be written before the
+   *          rest is spilled.
+   * @param unit The unit of the timeout.
+   * @return True if the batches have been written, false if some have been
+   *         spilled.
+   * @throws InterruptedException If the thread is interrupted while waiting
+   *           for the batches to be written, before any batch is spilled.
+   */
+  public boolean flush(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long target;
+    synchronized (lock) {
+      target = submitted;
+    }
+    if (drain(timeout, unit)) {
+      return true;
+    }
+
+    List<Batch<?>> batches;
+    int events = 0;
+    synchronized (lock) {
+      batches = ImmutableList.copyOf(queue);
+      queue.clear();
+      for (Batch<?> batch : batches) {
+        events += batch.events.size();
+      }
+    }
+    try {
+      for (List<Batch<?>> group : groupByStorer(batches)) {
+        store(group, true);
+      }
+    } finally {
+      synchronized (lock) {
+        size -= events;
+        written += batches.size();
+        lock.notifyAll();
+      }
+    }
+
+    boolean interrupted = false;
+    synchronized (lock) {
+      while (written < target) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          // Keeps waiting, the batches being written must be finished:
+          interrupted = true;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  /**
+   * Gets the number of events waiting to be written.
+   * 
+   * @return The number of events.
+   */
+  public int size() {
+    synchronized (lock) {
+      return size;
+    }
+  }
+
+  /**
+   * The loop of the writer thread, takes all the batches waiting and writes
+   * them, until there has been no work for a while.
+   */
+  private void work() {
+    while (true) {
+      List<Batch<?>> batches;
+      int events = 0;
+      synchronized (lock) {
+        long idleSince = System.currentTimeMillis();
+        while (queue.isEmpty()) {
+          long idle = System.currentTimeMillis() - idleSince;
+          if (idle >= KEEP_ALIVE_MILLIS) {
+            thread = null;
+            if (executor != null) {
+              executor.shutdown();
+              executor = null;
+            }
+            return;
+          }
+          try {
+            lock.wait(KEEP_ALIVE_MILLIS - idle);
+          } catch (InterruptedException e) {
+            // Ignored, the thread only stops when there is nothing to write.
+          }
+        }
+        batches = ImmutableList.copyOf(queue);
+        queue.clear();
+        for (Batch<?> batch : batches) {
+          events += batch.events.size();
+        }
+      }
+
+      try {
+        write(batches);
+      } finally {
+        synchronized (lock) {
+          size -= events;
+          written += batches.size();
+          lock.notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the batches, inserting the batches of each storer in order and then
+   * committing the storer once. Different storers are written in parallel.
+   * 
+   * @param batches The batches to write.
+   */
+  private void write(List<Batch<?>> batches) {
+    List<List<Batch<?>>> groups = groupByStorer(batches);
+    if (groups.size() == 1) {
+      store(groups.get(0), false);
+      return;
+    }
+
+    ExecutorService service = getExecutor();
+    List<Future<?>> futures = Lists.newArrayListWithCapacity(groups.size());
+    for (final List<Batch<?>> group : groups) {
+      futures.add(service.submit(new Runnable() {
+        @Override
+        public void run() {
+          store(group, false);
+        }
+      }));
+    }
+
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException e) {
+          // The batches must be accounted for only once they are written:
+          interrupted = true;
+        } catch (ExecutionException e) {
+          break; // Not thrown, the storing handles all the exceptions.
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Gets the executor for writing the storers in parallel.
+   * 
+   * @return The executor.
+   */
+  private ExecutorService getExecutor() {
+    synchronized (lock) {
+      if (executor == null) {
+        // The writing is bound by the disk rather than the processors, there
+        // is at most one thread for each storer:
+        executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<Runnable>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("Rabbit Data Writer %d")
+                .build());
+      }
+      return executor;
+    }
+  }
+
+  /**
+   * Groups the batches by their storers.
+   * 
+   * @param batches The batches.
+   * @return The batches of each storer, in the order they were submitted.
+   */
+  private static List<List<Batch<?>>> groupByStorer(List<Batch<?>> batches) {
+    Map<IStorer<?>, List<Batch<?>>> byStorer = Maps.newLinkedHashMap();
+    for (Batch<?> batch : batches) {
+      List<Batch<?>> list = byStorer.get(batch.storer);
+      if (list == null) {
+        list = Lists.newArrayList();
+        byStorer.put(batch.storer, list);
+      }
+      list.add(batch);
+    }
+    return Lists.newArrayList(byStorer.values());
+  }
+
+  /**
+   * Inserts the batches into their storer, then commits or spills the storer.
+   * 
+   * @param batches The batches of a storer, not empty.
+   * @param spill True to spill the storer if it supports it.
+   */
+  private static void store(final List<Batch<?>> batches, final boolean spill) {
+    final IStorer<?> storer = batches.get(0).storer;
+    // A failing storer must not stop the others from being written:
+    SafeRunner.run(new ISafeRunnable() {
+      @Override
+      public void handleException(Throwable e) {
+        // Logged by the runner.
+      }
+
+      @Override
+      public void run() {
+        // A spill and a write of the same storer must not be interleaved:
+        synchronized (storer) {
+          for (Batch<?> batch : batches) {
+            if (batch.onStoring != null) {
+              batch.onStoring.run();
+            }
+            insert(batch);
+          }
+          if (spill && storer instanceof ISpillableStorer<?>) {
+            ((ISpillableStorer<?>) storer).spill();
+          } else {
+            storer.commit();
+          }
+          for (Batch<?> batch : batches) {
+            if (batch.onStored != null) {
+              batch.onStored.run();
+            }
+          }
+        }
+      }
+    });
+  }
+
+  private static <T> void insert(Batch<T> batch) {
+    batch.storer.insert(batch.events);
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A storer that writes the data of another storer in the background. The
+ * inserted objects are kept until {@link #commit()} is called, they are then
+ * handed to a {@link StoreWriter} to be inserted into the other storer and
+ * committed on the writer's thread, so that the caller is not blocked by the
+ * writing.
+ * <p>
+ * If the other storer is an {@link IBufferedStorer}, the objects recorded are
+ * recorded by the other storer, and the records before the mark given to
+ * {@link #commit(long)} are released once the objects handed to the writer
+ * by the same call have been stored.
+ * </p>
+ * 
+ * @param <T> The object type.
+ */
+public final class WriteBehindStorer<T> implements IBufferedStorer<T> {
+
+  private final IStorer<T> storer;
+  private final StoreWriter writer;
+
+  /** The objects inserted since the last commit. */
+  private List<T> pending;
+
+  /**
+   * Constructor.
+   * 
+   * @param storer The storer to write the data to.
+   * @param writer The writer to write the data with.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public WriteBehindStorer(IStorer<T> storer, StoreWriter writer) {
+    this.storer = checkNotNull(storer);
+    this.writer = checkNotNull(writer);
+    pending = Lists.newArrayList();
+  }
+
+  /**
+   * Hands the objects inserted since the last commit to the writer. This
+   * method only blocks if the writer has too many objects waiting.
+   */
+  @Override
+  public void commit() {
+    List<T> batch = takePending();
+    if (batch != null) {
+      writer.submit(storer, batch);
+    }
+  }
+
+  /**
+   * Hands the objects inserted since the last commit to the writer, the mark
+   * is prepared on the writer's thread right before the objects are stored,
+   * and the records before it are released once they have been stored. If
+   * nothing has been inserted, the records are kept until a later commit, as
+   * the objects handed to the writer before may not have been stored yet.
+   */
+  @Override
+  public void commit(final long mark) {
+    if (!(storer instanceof IBufferedStorer<?>)) {
+      commit();
+      return;
+    }
+    List<T> batch = takePending();
+    if (batch != null) {
+      writer.submit(storer, batch, new Runnable() {
+        @Override
+        public void run() {
+          prepare(mark);
+        }
+      }, new Runnable() {
+        @Override
+        public void run() {
+          release(mark);
+        }
+      });
+    }
+  }
+
+  /**
+   * Gets the storer the data is written to.
+   * 
+   * @return The storer.
+   */
+  public IStorer<T> getStorer() {
+    return storer;
+  }
+
+  @Override
+  public long record(Collection<? extends T> elements) {
+    if (storer instanceof IBufferedStorer<?>) {
+      return ((IBufferedStorer<T>) storer).record(elements);
+    }
+    return 0;
+  }
+
+  @Override
+  public void prepare(long mark) {
+    if (storer instanceof IBufferedStorer<?>) {
+      ((IBufferedStorer<T>) storer).prepare(mark);
+    }
+  }
+
+  @Override
+  public void recover() {
+    if (storer instanceof IBufferedStorer<?>) {
+      ((IBufferedStorer<T>) storer).recover();
+    }
+  }
+
+  @Override
+  public void release(long mark) {
+    if (storer instanceof IBufferedStorer<?>) {
+      ((IBufferedStorer<T>) storer).release(mark);
+    }
+  }
+
+  @Override
+  public synchronized void insert(Collection<? extends T> collection) {
+    pending.addAll(collection);
+  }
+
+  @Override
+  public synchronized void insert(T element) {
+    pending.add(element);
+  }
+
+  /**
+   * Takes the objects inserted since the last commit.
+   * 
+   * @return The objects, or null if nothing has been inserted.
+   */
+  @Nullable
+  private synchronized List<T> takePending() {
+    if (pending.isEmpty()) {
+      return null;
+    }
+    List<T> batch = pending;
+    pending = Lists.newArrayList();
+    return batch;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store.model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.eclipse.core.resources.IProject;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * An event representing a number of builds of a project, either all full
+ * builds or all incremental builds.
+ */
+public class BuildEvent extends DiscreteEvent {
+
+  private final IProject project;
+  private final boolean fullBuild;
+  private final int count;
+  private final Duration duration;
+
+  /**
+   * Constructs a new event.
+   * 
+   * @param time The time of the first build.
+   * @param project The project built.
+   * @param fullBuild True if the builds are full builds, false if they are
+   *          incremental builds.
+   * @param count The number of builds.
+   * @param duration The total time taken by the builds.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws IllegalArgumentException If count is not positive.
+   */
+  public BuildEvent(DateTime time, IProject project, boolean fullBuild,
+      int count, Duration duration) {
+    super(time);
+    checkArgument(count > 0);
+    this.project = checkNotNull(project);
+    this.duration = checkNotNull(duration);
+    this.fullBuild = fullBuild;
+    this.count = count;
+  }
+
+  /**
+   * Gets the number of builds this event represents.
+   * 
+   * @return The number of builds.
+   */
+  public final int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the total time taken by the builds.
+   * 
+   * @return The total duration.
+   */
+  public final Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the project built.
+   * 
+   * @return The project.
+   */
+  public final IProject getProject() {
+    return project;
+  }
+
+  /**
+   * Checks whether the builds are full builds.
+   * 
+   * @return True if the builds are full builds, false if they are incremental
+   *         builds.
+   */
+  public final boolean isFullBuild() {
+    return fullBuild;
+  }
+}
@@ -15,6 +15,7 @@
  */
 package rabbit.data.store.model;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.core.commands.ExecutionEvent;
@@ -26,6 +27,7 @@ import org.joda.time.DateTime;
 public class CommandEvent extends DiscreteEvent {
 
   private final ExecutionEvent event;
+  private final int count;
 
   /**
    * Constructs a new event.
@@ -35,8 +37,33 @@ public class CommandEvent extends DiscreteEvent {
    * @throws NullPointerException If any of the arguments is null.
    */
   public CommandEvent(DateTime time, ExecutionEvent event) {
+    this(time, event, 1);
+  }
+
+  /**
+   * Constructs a new event representing a number of executions of the same
+   * command.
+   * 
+   * @param time The time of the first execution.
+   * @param event The execution event.
+   * @param count The number of executions.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws IllegalArgumentException If count is not positive.
+   */
+  public CommandEvent(DateTime time, ExecutionEvent event, int count) {
     super(time);
+    checkArgument(count > 0);
     this.event = checkNotNull(event);
+    this.count = count;
+  }
+
+  /**
+   * Gets the number of executions this event represents.
+   * 
+   * @return The number of executions.
+   */
+  public final int getCount() {
+    return count;
   }
 
   /**
@@ -17,6 +17,7 @@ package rabbit.data.store.model;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -25,6 +26,7 @@ import org.joda.time.Interval;
 public class ContinuousEvent extends DiscreteEvent {
 
   private final Interval interval;
+  private final Duration duration;
 
   /**
    * Constructor.
@@ -33,8 +35,31 @@ public class ContinuousEvent extends DiscreteEvent {
    * @throws NullPointerException If parameter is null.
    */
   public ContinuousEvent(Interval interval) {
+    this(interval, checkNotNull(interval).toDuration());
+  }
+
+  /**
+   * Constructs an event standing for several events of the same kind.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events, which is less than the
+   *          interval if there are gaps between the events.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public ContinuousEvent(Interval interval, Duration duration) {
     super(checkNotNull(interval).getStart());
     this.interval = interval;
+    this.duration = checkNotNull(duration);
+  }
+
+  /**
+   * Gets the duration of this event.
+   * 
+   * @return The duration, the length of the interval unless this event stands
+   *         for several events.
+   */
+  public final Duration getDuration() {
+    return duration;
   }
 
   /**
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 import java.net.URI;
@@ -47,6 +48,19 @@ public class FileEvent extends ContinuousEvent {
     this.filePath = checkNotNull(filePath);
   }
 
+  /**
+   * Constructs an event standing for several events of the same file.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events.
+   * @param filePath The path of the file.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public FileEvent(Interval interval, Duration duration, IPath filePath) {
+    super(interval, duration);
+    this.filePath = checkNotNull(filePath);
+  }
+
   /**
    * Gets the file path.
    * 
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.data.store.model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+/**
+ * An event representing a number of freezes of the user interface, of lengths
+ * within the same bucket, that happened while the same workbench part was
+ * active.
+ */
+public class FreezeEvent extends DiscreteEvent {
+
+  private final String partId;
+  private final Duration bucket;
+  private final int count;
+  private final Duration duration;
+
+  /**
+   * Constructs a new event.
+   * 
+   * @param time The time of the first freeze.
+   * @param partId The ID of the workbench part that was active.
+   * @param bucket The bucket of the freezes, the lower bound of their lengths.
+   * @param count The number of freezes.
+   * @param duration The total length of the freezes.
+   * @throws NullPointerException If any of the arguments is null.
+   * @throws IllegalArgumentException If count is not positive.
+   */
+  public FreezeEvent(DateTime time, String partId, Duration bucket, int count,
+      Duration duration) {
+    super(time);
+    checkArgument(count > 0);
+    this.partId = checkNotNull(partId);
+    this.bucket = checkNotNull(bucket);
+    this.duration = checkNotNull(duration);
+    this.count = count;
+  }
+
+  /**
+   * Gets the bucket of the freezes, the lower bound of their lengths.
+   * 
+   * @return The bucket.
+   */
+  public final Duration getBucket() {
+    return bucket;
+  }
+
+  /**
+   * Gets the number of freezes this event represents.
+   * 
+   * @return The number of freezes.
+   */
+  public final int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the total length of the freezes.
+   * 
+   * @return The total length.
+   */
+  public final Duration getDuration() {
+    return duration;
+  }
+
+  /**
+   * Gets the ID of the workbench part that was active.
+   * 
+   * @return The part ID.
+   */
+  public final String getPartId() {
+    return partId;
+  }
+}
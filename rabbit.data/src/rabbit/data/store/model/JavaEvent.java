@@ -18,6 +18,7 @@ package rabbit.data.store.model;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.jdt.core.IJavaElement;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -39,6 +40,19 @@ public class JavaEvent extends ContinuousEvent {
     this.element = checkNotNull(element);
   }
 
+  /**
+   * Constructs an event standing for several events of the same element.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events.
+   * @param element The Java element of the events.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public JavaEvent(Interval interval, Duration duration, IJavaElement element) {
+    super(interval, duration);
+    this.element = checkNotNull(element);
+  }
+
   /**
    * Gets the element of this event.
    * 
@@ -18,6 +18,7 @@ package rabbit.data.store.model;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.ui.IWorkbenchPart;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -39,6 +40,19 @@ public class PartEvent extends ContinuousEvent {
     this.workbenchPart = checkNotNull(part);
   }
 
+  /**
+   * Constructs an event standing for several events of the same part.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events.
+   * @param part The workbench part.
+   * @throws NullPointerException If any of the arguments are null.
+   */
+  public PartEvent(Interval interval, Duration duration, IWorkbenchPart part) {
+    super(interval, duration);
+    this.workbenchPart = checkNotNull(part);
+  }
+
   /**
    * Gets the workbench part.
    * 
@@ -18,6 +18,7 @@ package rabbit.data.store.model;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.ui.IPerspectiveDescriptor;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -39,6 +40,20 @@ public class PerspectiveEvent extends ContinuousEvent {
     this.perspective = checkNotNull(perspective);
   }
 
+  /**
+   * Constructs an event standing for several events of the same perspective.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events.
+   * @param perspective The perspective.
+   * @throws NullPointerException If any of the arguments are null.
+   */
+  public PerspectiveEvent(Interval interval, Duration duration,
+      IPerspectiveDescriptor perspective) {
+    super(interval, duration);
+    this.perspective = checkNotNull(perspective);
+  }
+
   /**
    * Gets the perspective.
    * 
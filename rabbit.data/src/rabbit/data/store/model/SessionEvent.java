@@ -15,6 +15,7 @@
  */
 package rabbit.data.store.model;
 
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -31,4 +32,15 @@ public class SessionEvent extends ContinuousEvent {
   public SessionEvent(Interval interval) {
     super(interval);
   }
+
+  /**
+   * Constructs an event standing for several sessions.
+   * 
+   * @param interval The interval covering the sessions.
+   * @param duration The total duration of the sessions.
+   * @throws NullPointerException If any of the arguments is null.
+   */
+  public SessionEvent(Interval interval, Duration duration) {
+    super(interval, duration);
+  }
 }
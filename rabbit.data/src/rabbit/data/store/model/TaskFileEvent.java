@@ -19,6 +19,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.mylyn.tasks.core.ITask;
+import org.joda.time.Duration;
 import org.joda.time.Interval;
 
 /**
@@ -41,6 +42,22 @@ public class TaskFileEvent extends FileEvent {
     this.task = checkNotNull(task);
   }
 
+  /**
+   * Constructs an event standing for several events of the same file and
+   * task.
+   * 
+   * @param interval The interval covering the events.
+   * @param duration The total duration of the events.
+   * @param filePath The path of the file.
+   * @param task The task that was working on.
+   * @throws NullPointerException If any of the arguments are null.
+   */
+  public TaskFileEvent(Interval interval, Duration duration, IPath filePath,
+      ITask task) {
+    super(interval, duration, filePath);
+    this.task = checkNotNull(task);
+  }
+
   /**
    * Gets the task.
    * 
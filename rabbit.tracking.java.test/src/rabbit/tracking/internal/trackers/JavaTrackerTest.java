@@ -67,8 +67,10 @@ import static java.lang.String.format;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.Collection;
 import java.util.Observable;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @see JavaTracker
@@ -363,13 +365,13 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
+    assertEquals(1, data.size());
 
-    JavaEvent event = tracker.getData().iterator().next();
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -427,14 +429,14 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     // Delete the file:
     myUnit.getResource().delete(true, null);
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
     // One data should be in the collection (the parent of the previously
     // selected package declaration):
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -511,17 +513,17 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     len = field.length();
     document.replace(offset, len, "");
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
     // Gets the data, the data is remained in the tracker as long as we don't
     // enable it again (according to the contract of the tracker):
     //
     // One data should be in the collection
     // (the parent of the selected package declaration):
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -562,13 +564,13 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
+    assertEquals(1, data.size());
 
-    JavaEvent event = tracker.getData().iterator().next();
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -607,12 +609,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -664,12 +666,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -710,13 +712,13 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
+    assertEquals(1, data.size());
 
-    JavaEvent event = tracker.getData().iterator().next();
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -751,13 +753,13 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
+    assertEquals(1, data.size());
 
-    JavaEvent event = tracker.getData().iterator().next();
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -804,12 +806,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -847,12 +849,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    final JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    final JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -885,12 +887,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    final JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    final JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -929,12 +931,12 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
     tracker.setEnabled(false);
     long postEnd = System.currentTimeMillis();
 
-    // Ask the tracker to save the data, the data should be appropriately
-    // filtered
-    tracker.saveData();
+    // Ask the tracker to normalize the data as it does before saving it, the
+    // data should be appropriately filtered
+    Collection<JavaEvent> data = tracker.normalizeData(tracker.getData());
 
-    assertEquals(1, tracker.getData().size());
-    JavaEvent event = tracker.getData().iterator().next();
+    assertEquals(1, data.size());
+    JavaEvent event = data.iterator().next();
     long start = event.getInterval().getStartMillis();
     long end = event.getInterval().getEndMillis();
     checkTime(preStart, start, postStart, preEnd, end, postEnd);
@@ -1095,7 +1097,7 @@ public class JavaTrackerTest extends AbstractTrackerTest<JavaEvent> {
 
     IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
     detector.setRunning(true);
-    isActive.set(detector, false);
+    ((AtomicBoolean) isActive.get(detector)).set(false);
     setChanged.invoke(detector);
     notifyObservers.invoke(detector);
     detector.setRunning(false);
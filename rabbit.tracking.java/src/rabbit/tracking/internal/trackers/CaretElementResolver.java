@@ -0,0 +1,182 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import com.google.common.collect.Maps;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.ISourceReference;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.ui.actions.SelectionConverter;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+import org.eclipse.jface.text.ITextSelection;
+import org.eclipse.jface.viewers.ISelection;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves the Java element at the caret of Java editors. For each editor, the
+ * source range around the caret in which the resolved element stays the same
+ * is remembered, that is, the range of the element less the ranges of its
+ * children, so that the caret moving within that range needs no lookup in the
+ * Java model. The range of an editor is forgotten when its document is
+ * modified, as the elements may have changed.
+ */
+@SuppressWarnings("restriction")
+final class CaretElementResolver {
+
+  /**
+   * The range of a resolved element.
+   */
+  private static final class Entry {
+    final int start;
+    final int end;
+    final long modificationStamp;
+
+    Entry(int start, int end, long modificationStamp) {
+      this.start = start;
+      this.end = end;
+      this.modificationStamp = modificationStamp;
+    }
+  }
+
+  /** The last resolved entry of each editor. */
+  private final Map<JavaEditor, Entry> entries = Maps.newHashMap();
+
+  /**
+   * Checks whether the element at the caret of the editor is known to be the
+   * same as the last one resolved, without looking it up.
+   * 
+   * @param editor The editor.
+   * @return True if the caret is within the remembered range and the document
+   *         has not been modified since, false otherwise.
+   */
+  synchronized boolean isUnchanged(JavaEditor editor) {
+    Entry entry = entries.get(editor);
+    if (entry == null) {
+      return false;
+    }
+    int offset = getCaretOffset(editor);
+    return offset >= entry.start
+        && offset <= entry.end
+        && getModificationStamp(editor) == entry.modificationStamp;
+  }
+
+  /**
+   * Resolves the element at the caret of the editor, remembering its range.
+   * 
+   * @param editor The editor.
+   * @return The element, or null if none.
+   * @throws JavaModelException If an error occurs while accessing the model.
+   */
+  @Nullable
+  synchronized IJavaElement resolve(JavaEditor editor)
+      throws JavaModelException {
+    entries.remove(editor);
+    long stamp = getModificationStamp(editor);
+    int offset = getCaretOffset(editor);
+    IJavaElement element = SelectionConverter.getElementAtOffset(editor);
+    if (element == null
+        || offset < 0
+        || stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP
+        || !(element instanceof ISourceReference)) {
+      return element;
+    }
+
+    ISourceRange range = ((ISourceReference) element).getSourceRange();
+    if (range == null) {
+      return element;
+    }
+    int start = range.getOffset();
+    int end = range.getOffset() + range.getLength();
+    if (element instanceof IParent) {
+      for (IJavaElement child : ((IParent) element).getChildren()) {
+        if (!(child instanceof ISourceReference)) {
+          continue;
+        }
+        ISourceRange r = ((ISourceReference) child).getSourceRange();
+        if (r == null) {
+          continue;
+        }
+        int childStart = r.getOffset();
+        int childEnd = r.getOffset() + r.getLength();
+        if (childEnd <= offset) {
+          start = Math.max(start, childEnd);
+        } else if (childStart > offset) {
+          end = Math.min(end, childStart);
+        } else {
+          return element; // The caret is on the child, don't remember.
+        }
+      }
+    }
+    if (start <= offset && offset <= end) {
+      entries.put(editor, new Entry(start, end, stamp));
+    }
+    return element;
+  }
+
+  /**
+   * Forgets the range of the given editor.
+   * 
+   * @param editor The editor.
+   */
+  synchronized void remove(JavaEditor editor) {
+    entries.remove(editor);
+  }
+
+  /**
+   * Forgets the ranges of all editors.
+   */
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Gets the offset of the caret in the document of the editor.
+   * 
+   * @param editor The editor.
+   * @return The offset, or -1 if unknown.
+   */
+  private int getCaretOffset(JavaEditor editor) {
+    ISelection selection = editor.getSelectionProvider().getSelection();
+    if (selection instanceof ITextSelection) {
+      return ((ITextSelection) selection).getOffset();
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the modification stamp of the document of the editor.
+   * 
+   * @param editor The editor.
+   * @return The stamp, or {@link IDocumentExtension4#UNKNOWN_MODIFICATION_STAMP}
+   *         if unknown.
+   */
+  private long getModificationStamp(JavaEditor editor) {
+    IDocument doc = editor.getDocumentProvider().getDocument(
+        editor.getEditorInput());
+    if (doc instanceof IDocumentExtension4) {
+      return ((IDocumentExtension4) doc).getModificationStamp();
+    }
+    return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+  }
+}
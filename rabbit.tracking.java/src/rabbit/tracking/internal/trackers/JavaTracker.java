@@ -23,14 +23,21 @@ import rabbit.tracking.internal.TrackingPlugin;
 import rabbit.tracking.internal.util.Recorder;
 import rabbit.tracking.internal.util.WorkbenchUtil;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.internal.ui.actions.SelectionConverter;
 import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Event;
@@ -46,6 +53,8 @@ import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.joda.time.Interval;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Set;
@@ -58,6 +67,16 @@ import javax.annotation.Nullable;
 @SuppressWarnings("restriction")
 public class JavaTracker extends AbstractTracker<JavaEvent> {
 
+  /**
+   * Preference key of the minimum time in milliseconds between two lookups of
+   * the Java element at the caret as the user types or clicks in an editor.
+   */
+  public static final String PREF_RESOLVE_INTERVAL_MILLIS =
+      "javaResolveIntervalMillis";
+
+  /** The default value of {@link #PREF_RESOLVE_INTERVAL_MILLIS}. */
+  private static final int DEFAULT_RESOLVE_INTERVAL_MILLIS = 500;
+
   /*
    * Note that a lot of elements may be tracked by this tracker, and many of
    * them are of no interest to us, for example, invalid elements, anonymous
@@ -93,6 +112,42 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
    */
   private final Recorder<IJavaElement> recorder = new Recorder<IJavaElement>();
 
+  /**
+   * Resolves the elements at the carets, remembering the ranges in which the
+   * elements stay the same.
+   */
+  private final CaretElementResolver resolver = new CaretElementResolver();
+
+  /** The value of {@link #PREF_RESOLVE_INTERVAL_MILLIS} when enabled. */
+  private long resolveIntervalMillis;
+
+  /**
+   * The time of the last lookup caused by input, only accessed on the UI
+   * thread.
+   */
+  private long lastInputResolveMillis;
+
+  /**
+   * The time of the first input not yet looked up, or -1 if none, only
+   * accessed on the UI thread.
+   */
+  private long pendingInputMillis = -1;
+
+  /**
+   * Looks up the element at the caret for the input that came within
+   * {@link #resolveIntervalMillis} of the last lookup, runs on the UI thread.
+   */
+  private final Runnable pendingInputCheck = new Runnable() {
+    @Override
+    public void run() {
+      long inputMillis = pendingInputMillis;
+      pendingInputMillis = -1;
+      if (isEnabled()) {
+        checkInput(inputMillis);
+      }
+    }
+  };
+
   /**
    * A part listener listening for Java editor events.
    */
@@ -202,7 +257,17 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
 
     @Override
     public void handleEvent(Event event) {
-      checkStart();
+      if (pendingInputMillis >= 0) {
+        return; // A lookup has already been scheduled.
+      }
+      long now = System.currentTimeMillis();
+      long wait = lastInputResolveMillis + resolveIntervalMillis - now;
+      if (wait <= 0) {
+        checkInput(now);
+      } else {
+        pendingInputMillis = now;
+        event.display.timerExec((int) wait, pendingInputCheck);
+      }
     }
   };
 
@@ -216,9 +281,22 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
   }
 
   @Override
-  public void saveData() {
-    filterData();
-    super.saveData();
+  protected IAggregator<JavaEvent> createAggregator() {
+    return new IAggregator<JavaEvent>() {
+      @Override
+      public Object getKey(JavaEvent event) {
+        return dailyKey(event.getTime(),
+            event.getElement().getHandleIdentifier());
+      }
+
+      @Override
+      public JavaEvent aggregate(JavaEvent existing, JavaEvent event) {
+        return new JavaEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()),
+            existing.getElement());
+      }
+    };
   }
 
   @Override
@@ -229,6 +307,7 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
   @Override
   protected void doDisable() {
     recorder.stop();
+    resolver.clear();
     TrackingPlugin.getDefault().getIdleDetector().deleteObserver(observer);
 
     IWorkbench workbench = PlatformUI.getWorkbench();
@@ -240,6 +319,12 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
 
   @Override
   protected void doEnable() {
+    IPreferenceStore store = TrackingPlugin.getDefault().getPreferenceStore();
+    store.setDefault(PREF_RESOLVE_INTERVAL_MILLIS,
+        DEFAULT_RESOLVE_INTERVAL_MILLIS);
+    resolveIntervalMillis = Math.max(0,
+        store.getInt(PREF_RESOLVE_INTERVAL_MILLIS));
+
     IWorkbench workbench = PlatformUI.getWorkbench();
     workbench.addWindowListener(winListener);
     for (IWorkbenchWindow window : workbench.getWorkbenchWindows()) {
@@ -280,21 +365,55 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
     PlatformUI.getWorkbench().getDisplay().syncExec(new Runnable() {
       @Override
       public void run() {
-        IJavaElement element = null;
-        try {
-          element = SelectionConverter.getElementAtOffset((JavaEditor) activePart);
-          if (element != null) {
-            recorder.start(element);
-          }
-        } catch (JavaModelException e) {
-          // Nothing we can do.
-          System.err.println(getClass().getSimpleName() + " - checkStart: "
-              + e.getMessage());
-        }
+        start((JavaEditor) activePart, System.currentTimeMillis());
       }
     });
   }
 
+  /**
+   * Checks the element at the caret of the active editor after input from the
+   * user, the element is only looked up if the caret may have moved on to
+   * another element. Must be called on the UI thread.
+   * 
+   * @param inputMillis The time of the input.
+   */
+  private void checkInput(long inputMillis) {
+    IWorkbenchWindow win = WorkbenchUtil.getActiveWindow();
+    if (win == null || !WorkbenchUtil.isActiveShell(win)) {
+      return;
+    }
+    IWorkbenchPart part = win.getPartService().getActivePart();
+    if (part instanceof JavaEditor && recorder.isRecording()
+        && resolver.isUnchanged((JavaEditor) part)) {
+      return;
+    }
+    if (part instanceof JavaEditor) {
+      lastInputResolveMillis = System.currentTimeMillis();
+      start((JavaEditor) part, inputMillis);
+    }
+  }
+
+  /**
+   * Starts a tracking session on the element at the caret of the editor, if
+   * it is not the element currently being tracked. Must be called on the UI
+   * thread.
+   * 
+   * @param editor The editor.
+   * @param timeMillis The time the user started working on the element.
+   */
+  private void start(JavaEditor editor, long timeMillis) {
+    try {
+      IJavaElement element = resolver.resolve(editor);
+      if (element != null) {
+        recorder.start(element, timeMillis);
+      }
+    } catch (JavaModelException e) {
+      // Nothing we can do.
+      System.err.println(getClass().getSimpleName() + " - checkStart: "
+          + e.getMessage());
+    }
+  }
+
   /**
    * Removes the workbench window so that it's no longer being tracked.
    * 
@@ -317,7 +436,7 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
    * 
    * @param editor The editor.
    */
-  private synchronized void deregister(JavaEditor editor) {
+  private synchronized void deregister(final JavaEditor editor) {
     final StyledText widget = editor.getViewer().getTextWidget();
     if (registeredWidgets.contains(widget)) {
       PlatformUI.getWorkbench().getDisplay().syncExec(new Runnable() {
@@ -325,6 +444,7 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
         public void run() {
           widget.removeListener(SWT.KeyDown, listener);
           widget.removeListener(SWT.MouseDown, listener);
+          resolver.remove(editor);
         }
       });
       registeredWidgets.remove(widget);
@@ -332,7 +452,7 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
   }
 
   /**
-   * Performs filtering of the data before saving.
+   * Filters the data before saving.
    * <p>
    * NOTE: Then a user starts to type a new java element, like a method, he/she
    * knows what the name he/she is going to type for the method, but we have no
@@ -346,38 +466,70 @@ public class JavaTracker extends AbstractTracker<JavaEvent> {
    * of the elements, if all parents are missing (e.g. deletes the file), we
    * save it under the file parent, like "File.java".
    * </p>
+   * <p>
+   * Each distinct element is only looked up once per call, and all the lookups
+   * are done in a single Java model batch operation, so the cost grows with
+   * the number of distinct elements rather than the number of events. The
+   * data is normalized in the background, as it is saved.
+   * </p>
    */
-  private void filterData() {
-    Set<JavaEvent> filteredData = Sets.newLinkedHashSet();
-    for (JavaEvent event : getData()) {
-      IJavaElement e = event.getElement();
-      // ITypeRoot represents the file, xxx.java. Everything above that is not
-      // modifiable in a JavaEditor, so no need to check them:
-      if (!e.exists()) {
-        for (; !e.exists() && !(e instanceof ITypeRoot); e = e.getParent());
-        filteredData.add(new JavaEvent(event.getInterval(), e));
-
-      } else {
-        IJavaElement actual = null;
-        try {
-          actual = filterElement(e);
-        } catch (JavaModelException ex) {
-          actual = null;
-          ex.printStackTrace();
+  @Override
+  protected Collection<JavaEvent> normalizeData(
+      final Collection<JavaEvent> data) {
+    final Set<JavaEvent> filteredData = Sets.newLinkedHashSet();
+    final Map<IJavaElement, IJavaElement> normalized = Maps.newHashMap();
+    try {
+      JavaCore.run(new IWorkspaceRunnable() {
+        @Override
+        public void run(IProgressMonitor monitor) {
+          for (JavaEvent event : data) {
+            IJavaElement element = event.getElement();
+            IJavaElement actual = normalized.get(element);
+            if (actual == null) {
+              actual = normalizeElement(element);
+              normalized.put(element, actual);
+            }
+            if (actual.equals(element)) {
+              filteredData.add(event);
+            } else {
+              filteredData.add(new JavaEvent(event.getInterval(),
+                  event.getDuration(), actual));
+            }
+          }
         }
+      }, null, null);
+    } catch (CoreException e) {
+      TrackingPlugin.getDefault().getLog().log(new Status(IStatus.WARNING,
+          TrackingPlugin.PLUGIN_ID, "Unable to normalize Java data.", e));
+      return data;
+    }
+    return filteredData;
+  }
 
-        if (actual == null) {
-          filteredData.add(event);
-        } else {
-          filteredData.add(new JavaEvent(event.getInterval(), actual));
-        }
-      }
+  /**
+   * Gets the element to save the data of the given element under.
+   * 
+   * @param e The element.
+   * @return The first existing parent of the element if the element does not
+   *         exist, the filtered element if the element should be filtered, or
+   *         the element itself.
+   * @see #normalizeData(Collection)
+   */
+  private IJavaElement normalizeElement(IJavaElement e) {
+    // ITypeRoot represents the file, xxx.java. Everything above that is not
+    // modifiable in a JavaEditor, so no need to check them:
+    if (!e.exists()) {
+      for (; !e.exists() && !(e instanceof ITypeRoot); e = e.getParent());
+      return e;
     }
-    // Replace the old data with the filtered:
-    flushData();
-    for (JavaEvent event : filteredData) {
-      addData(event);
+
+    IJavaElement actual = null;
+    try {
+      actual = filterElement(e);
+    } catch (JavaModelException ex) {
+      ex.printStackTrace();
     }
+    return (actual == null) ? e : actual;
   }
 
   /**
@@ -32,6 +32,7 @@ import org.eclipse.ui.IWorkbenchPart;
 import org.joda.time.Interval;
 
 import java.net.URI;
+import java.util.Arrays;
 
 /**
  * Tracks task events.
@@ -42,6 +43,26 @@ public class TaskTracker extends AbstractPartTracker<TaskFileEvent> {
     super();
   }
 
+  @Override
+  protected IAggregator<TaskFileEvent> createAggregator() {
+    return new IAggregator<TaskFileEvent>() {
+      @Override
+      public Object getKey(TaskFileEvent event) {
+        return dailyKey(event.getTime(), Arrays.asList(event.getFilePath(),
+            event.getTask().getHandleIdentifier()));
+      }
+
+      @Override
+      public TaskFileEvent aggregate(TaskFileEvent existing,
+          TaskFileEvent event) {
+        return new TaskFileEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()),
+            existing.getFilePath(), existing.getTask());
+      }
+    };
+  }
+
   @Override
   protected IStorer<TaskFileEvent> createDataStorer() {
     return DataHandler.getStorer(TaskFileEvent.class);
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal;
+
+import rabbit.data.store.IStorer;
+import rabbit.tracking.internal.trackers.AbstractTracker;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @see CheckpointService
+ */
+public class CheckpointServiceTest {
+
+  /**
+   * A tracker keeping its stored data in memory.
+   */
+  private static class TrackerTester extends AbstractTracker<String> {
+    private List<String> stored;
+
+    @Override
+    protected IStorer<String> createDataStorer() {
+      stored = Lists.newArrayList();
+      return new IStorer<String>() {
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void insert(Collection<? extends String> collection) {
+          stored.addAll(collection);
+        }
+
+        @Override
+        public void insert(String element) {
+          stored.add(element);
+        }
+      };
+    }
+
+    @Override
+    protected void doDisable() {
+    }
+
+    @Override
+    protected void doEnable() {
+    }
+  }
+
+  private TrackerTester tracker;
+
+  @Before
+  public void before() {
+    tracker = new TrackerTester();
+    tracker.setEnabled(true);
+  }
+
+  @After
+  public void after() {
+    tracker.setEnabled(false);
+  }
+
+  @Test
+  public void shouldCheckpointAllTrackersWhenTheIntervalHasPassed()
+      throws Exception {
+    CheckpointService service = create(1, 100);
+    tracker.addData("a");
+    Thread.sleep(5);
+    service.check();
+
+    assertThat(tracker.stored.size(), is(1));
+    assertThat(tracker.getData().isEmpty(), is(true));
+    assertThat(tracker.isEnabled(), is(true));
+  }
+
+  @Test
+  public void shouldCheckpointATrackerWhenTheThresholdIsReached() {
+    CheckpointService service = create(Long.MAX_VALUE, 2);
+    tracker.addData("a");
+    service.check();
+    assertThat(tracker.stored.isEmpty(), is(true));
+
+    tracker.addData("b");
+    service.check();
+    assertThat(tracker.stored.size(), is(2));
+    assertThat(tracker.getData().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldNotCheckpointADisabledTracker() throws Exception {
+    CheckpointService service = create(1, 1);
+    tracker.setEnabled(false);
+    tracker.stored.clear();
+    tracker.addData("a");
+    Thread.sleep(5);
+    service.check();
+    assertThat(tracker.stored.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testSetRunning() {
+    CheckpointService service = create(1, 1);
+    assertThat(service.isRunning(), is(false));
+    service.setRunning(true);
+    assertThat(service.isRunning(), is(true));
+    service.setRunning(false);
+    assertThat(service.isRunning(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionIfIntervalIsNotPositive() {
+    create(0, 1);
+  }
+
+  private CheckpointService create(long interval, int threshold) {
+    return new CheckpointService(ImmutableList.of(tracker), interval,
+        threshold);
+  }
+}
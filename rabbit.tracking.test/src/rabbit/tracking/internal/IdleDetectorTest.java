@@ -34,7 +34,7 @@ import org.junit.Test;
 import java.lang.reflect.Field;
 import java.util.Observable;
 import java.util.Observer;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * @see IdleDetector
@@ -276,24 +276,39 @@ public class IdleDetectorTest {
 
     d.setRunning(true);
     assertTrue(d.isRunning());
+    ScheduledFuture<?> task = null;
     try {
-      assertFalse(getTimer(d).isShutdown());
+      task = getCurrentTask(d);
+      assertFalse(task.isDone());
     } catch (Exception e) {
       fail();
     }
 
     d.setRunning(false);
     assertFalse(d.isRunning());
-    try {
-      assertTrue(getTimer(d).isShutdown());
-    } catch (Exception e) {
-      fail();
-    }
+    assertTrue(task.isCancelled());
+    assertFalse(TrackingExecutor.getDefault().isShutdown());
+  }
+
+  @Test
+  public void shouldNotWakeUpWhileTheUserIsIdle() throws Exception {
+    long idleInterval = 50;
+    long runDelay = 10;
+    IdleDetector d = new IdleDetector(display, idleInterval, runDelay);
+    d.setRunning(true);
+
+    Thread.sleep((idleInterval + runDelay) * 2);
+    assertFalse(d.isUserActive());
+    assertTrue(getCurrentTask(d).isDone());
+
+    shell.notifyListeners(SWT.KeyDown, new Event());
+    assertFalse(getCurrentTask(d).isDone());
+    d.setRunning(false);
   }
 
-  private ScheduledThreadPoolExecutor getTimer(IdleDetector d) throws Exception {
-    Field field = d.getClass().getDeclaredField("timer");
+  private ScheduledFuture<?> getCurrentTask(IdleDetector d) throws Exception {
+    Field field = d.getClass().getDeclaredField("currentTask");
     field.setAccessible(true);
-    return (ScheduledThreadPoolExecutor) field.get(d);
+    return (ScheduledFuture<?>) field.get(d);
   }
 }
@@ -34,6 +34,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test for {@link TrackingPlugin}
@@ -118,6 +119,7 @@ public class TrackingPluginTest {
     
     rc.saveCurrentData();
     assertTrue(tracker.getData().isEmpty());
+    assertTrue(rc.waitForCurrentData(5, TimeUnit.SECONDS));
     rc.stop(rc.getBundle().getBundleContext());
   }
 
@@ -48,6 +48,7 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Observable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Test {@link AbstractPartTracker}
@@ -280,7 +281,7 @@ public abstract class AbstractPartTrackerTest<E extends ContinuousEvent>
 
     IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
     detector.setRunning(true);
-    isActive.set(detector, false);
+    ((AtomicBoolean) isActive.get(detector)).set(false);
     setChanged.invoke(detector);
     notifyObservers.invoke(detector);
     detector.setRunning(false);
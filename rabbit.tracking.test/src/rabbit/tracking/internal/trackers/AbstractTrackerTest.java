@@ -22,9 +22,14 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import com.google.common.collect.Lists;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
 /**
  * Test for {@link AbstractTracker}
  */
@@ -43,6 +48,53 @@ public abstract class AbstractTrackerTest<T> {
     assertEquals(1, tracker.getData().size());
   }
 
+  @Test
+  public void testAddData_concurrently() throws Exception {
+    final List<T> events = Lists.newArrayList();
+    for (int i = 0; i < 500; i++) {
+      events.add(createEvent());
+    }
+    final CountDownLatch start = new CountDownLatch(1);
+    Thread[] producers = new Thread[4];
+    for (int i = 0; i < producers.length; i++) {
+      producers[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (T event : events) {
+            tracker.addData(event);
+          }
+        }
+      };
+      producers[i].start();
+    }
+
+    start.countDown();
+    for (int i = 0; i < 100; i++) {
+      tracker.getData(); // Must not fail while the events are being added.
+      tracker.flushData();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    tracker.flushData();
+    assertTrue(tracker.getData().isEmpty());
+  }
+
+  @Test
+  public void testEndCurrentEvents() {
+    tracker.endCurrentEvents();
+    assertFalse(tracker.isEnabled());
+
+    tracker.setEnabled(true);
+    tracker.endCurrentEvents();
+    assertTrue(tracker.isEnabled());
+  }
+
   @Test
   public void testFlushData() {
     tracker.addData(createEvent());
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import rabbit.data.store.model.BuildEvent;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+/**
+ * @see BuildTracker
+ */
+public class BuildTrackerTest extends AbstractTrackerTest<BuildEvent> {
+
+  private static IProject project;
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    project = ResourcesPlugin.getWorkspace().getRoot()
+        .getProject("BuildTrackerTest");
+    if (!project.exists()) {
+      project.create(null);
+    }
+    project.open(null);
+  }
+
+  @AfterClass
+  public static void afterClass() throws Exception {
+    project.delete(true, null);
+  }
+
+  @After
+  public void after() {
+    tracker.setEnabled(false);
+  }
+
+  @Test
+  public void testIsFullBuild() {
+    assertTrue(BuildTracker.isFullBuild(IncrementalProjectBuilder.FULL_BUILD));
+    assertTrue(BuildTracker.isFullBuild(IncrementalProjectBuilder.CLEAN_BUILD));
+    assertFalse(BuildTracker.isFullBuild(
+        IncrementalProjectBuilder.INCREMENTAL_BUILD));
+    assertFalse(BuildTracker.isFullBuild(IncrementalProjectBuilder.AUTO_BUILD));
+  }
+
+  @Test
+  public void testAddData_aggregatesTheSameProjectAndKindOfTheSameDay() {
+    DateTime time = new DateTime();
+    IProject a = mock(IProject.class);
+    IProject b = mock(IProject.class);
+    tracker.addData(new BuildEvent(time, a, true, 1, new Duration(600)));
+    tracker.addData(new BuildEvent(time, a, true, 2, new Duration(1300)));
+    tracker.addData(new BuildEvent(time, b, true, 1, new Duration(700)));
+    tracker.addData(new BuildEvent(time, a, false, 1, new Duration(100)));
+    tracker.addData(new BuildEvent(time.minusDays(1), a, true, 1,
+        new Duration(500)));
+
+    assertThat(tracker.getData().size(), is(4));
+    BuildEvent event = tracker.getData().iterator().next();
+    assertThat(event.getProject(), equalTo(a));
+    assertThat(event.isFullBuild(), is(true));
+    assertThat(event.getCount(), is(3));
+    assertThat(event.getDuration(), equalTo(new Duration(1900)));
+    assertThat(event.getTime(), equalTo(time));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    tracker.setEnabled(false);
+    project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+    assertTrue(tracker.getData().isEmpty());
+  }
+
+  @Test
+  public void testFullBuild() throws Exception {
+    tracker.setEnabled(true);
+    project.build(IncrementalProjectBuilder.FULL_BUILD, null);
+
+    Iterator<BuildEvent> it = tracker.getData().iterator();
+    assertTrue(it.hasNext());
+    BuildEvent event = it.next();
+    assertThat(event.getProject(), equalTo(project));
+    assertThat(event.isFullBuild(), is(true));
+    assertThat(event.getCount(), is(1));
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testIncrementalBuild() throws Exception {
+    tracker.setEnabled(true);
+    project.build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+
+    Iterator<BuildEvent> it = tracker.getData().iterator();
+    assertTrue(it.hasNext());
+    BuildEvent event = it.next();
+    assertThat(event.getProject(), equalTo(project));
+    assertThat(event.isFullBuild(), is(false));
+    assertThat(event.getCount(), is(1));
+    assertFalse(it.hasNext());
+  }
+
+  @Override
+  protected BuildEvent createEvent() {
+    return new BuildEvent(new DateTime(), mock(IProject.class), true, 1,
+        new Duration(700));
+  }
+
+  @Override
+  protected BuildTracker createTracker() {
+    return new BuildTracker();
+  }
+}
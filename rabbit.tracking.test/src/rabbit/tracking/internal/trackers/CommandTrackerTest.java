@@ -79,6 +79,22 @@ public class CommandTrackerTest extends AbstractTrackerTest<CommandEvent> {
     assertTrue(end >= e.getTime().getMillis());
   }
 
+  @Test
+  public void testAddData_aggregatesTheSameCommandOfTheSameDay() {
+    DateTime time = new DateTime();
+    tracker.addData(new CommandEvent(time, createExecutionEvent("1")));
+    tracker.addData(new CommandEvent(time, createExecutionEvent("1"), 2));
+    tracker.addData(new CommandEvent(time, createExecutionEvent("2")));
+    tracker.addData(new CommandEvent(time.minusDays(1),
+        createExecutionEvent("1")));
+
+    assertEquals(3, tracker.getData().size());
+    CommandEvent e = tracker.getData().iterator().next();
+    assertEquals("1", e.getExecutionEvent().getCommand().getId());
+    assertEquals(3, e.getCount());
+    assertEquals(time, e.getTime());
+  }
+
   @Test
   public void testExecution_failure() throws Exception {
     tracker.setEnabled(true);
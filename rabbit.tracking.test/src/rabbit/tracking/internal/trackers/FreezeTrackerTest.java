@@ -0,0 +1,174 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import rabbit.data.store.model.FreezeEvent;
+import rabbit.tracking.internal.IdleDetector;
+import rabbit.tracking.internal.TrackingPlugin;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.PlatformUI;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @see FreezeTracker
+ */
+public class FreezeTrackerTest extends AbstractTrackerTest<FreezeEvent> {
+
+  @After
+  public void after() {
+    tracker.setEnabled(false);
+  }
+
+  @Test
+  public void testGetBucket() {
+    assertThat(FreezeTracker.getBucket(0), equalTo(new Duration(0)));
+    assertThat(FreezeTracker.getBucket(499), equalTo(new Duration(250)));
+    assertThat(FreezeTracker.getBucket(500), equalTo(new Duration(500)));
+    assertThat(FreezeTracker.getBucket(1999), equalTo(new Duration(1000)));
+    assertThat(FreezeTracker.getBucket(60000), equalTo(new Duration(10000)));
+  }
+
+  @Test
+  public void testAddData_aggregatesTheSamePartAndBucketOfTheSameDay() {
+    DateTime time = new DateTime();
+    Duration bucket = new Duration(500);
+    tracker.addData(new FreezeEvent(time, "a", bucket, 1, new Duration(600)));
+    tracker.addData(new FreezeEvent(time, "a", bucket, 2, new Duration(1300)));
+    tracker.addData(new FreezeEvent(time, "b", bucket, 1, new Duration(700)));
+    tracker.addData(new FreezeEvent(time, "a", new Duration(1000), 1,
+        new Duration(1100)));
+    tracker.addData(new FreezeEvent(time.minusDays(1), "a", bucket, 1,
+        new Duration(500)));
+
+    assertThat(tracker.getData().size(), is(4));
+    FreezeEvent event = tracker.getData().iterator().next();
+    assertThat(event.getPartId(), equalTo("a"));
+    assertThat(event.getBucket(), equalTo(bucket));
+    assertThat(event.getCount(), is(3));
+    assertThat(event.getDuration(), equalTo(new Duration(1900)));
+    assertThat(event.getTime(), equalTo(time));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    tracker.setEnabled(false);
+    freeze(1500);
+    dispatch(500);
+    assertTrue(tracker.getData().isEmpty());
+  }
+
+  @Test
+  public void testFreeze() throws Exception {
+    tracker.setEnabled(true);
+    long freezeMillis = 1500;
+    freeze(freezeMillis);
+    dispatch(freezeMillis);
+
+    Iterator<FreezeEvent> it = tracker.getData().iterator();
+    assertTrue(it.hasNext());
+    FreezeEvent event = it.next();
+    assertThat(event.getPartId(), notNullValue());
+    assertThat(event.getCount(), is(1));
+    assertTrue(event.getDuration().getMillis()
+        >= freezeMillis - 2 * FreezeTracker.PROBE_INTERVAL_MILLIS);
+    assertThat(event.getBucket(),
+        equalTo(FreezeTracker.getBucket(event.getDuration().getMillis())));
+    assertFalse(it.hasNext()); // A freeze is only recorded once.
+  }
+
+  @Test
+  public void testFreeze_whileUserInactive() throws Exception {
+    tracker.setEnabled(true);
+    IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
+    boolean wasRunning = detector.isRunning();
+    detector.setRunning(true);
+    try {
+      callIdleDetectorToNotify(detector, false);
+      freeze(1500);
+      dispatch(500);
+      assertTrue(tracker.getData().isEmpty());
+    } finally {
+      callIdleDetectorToNotify(detector, true);
+      detector.setRunning(wasRunning);
+    }
+
+    long freezeMillis = 1500;
+    freeze(freezeMillis);
+    dispatch(freezeMillis);
+    assertFalse(tracker.getData().isEmpty());
+  }
+
+  @Test
+  public void testObserverIsAdded() {
+    tracker.setEnabled(false); // It should remove itself from the observable
+    int count = TrackingPlugin.getDefault().getIdleDetector().countObservers();
+    tracker.setEnabled(true); // It should add itself to the observable
+    assertEquals(count + 1,
+        TrackingPlugin.getDefault().getIdleDetector().countObservers());
+  }
+
+  @Override
+  protected FreezeEvent createEvent() {
+    return new FreezeEvent(new DateTime(), "partId", new Duration(500), 1,
+        new Duration(700));
+  }
+
+  @Override
+  protected FreezeTracker createTracker() {
+    return new FreezeTracker();
+  }
+
+  /** Sets the user state of the running detector and notifies the tracker. */
+  private void callIdleDetectorToNotify(IdleDetector detector, boolean active)
+      throws Exception {
+    Field isActive = IdleDetector.class.getDeclaredField("isActive");
+    isActive.setAccessible(true);
+    ((AtomicBoolean) isActive.get(detector)).set(active);
+    detector.notifyObservers();
+  }
+
+  /** Blocks the UI thread, this must be called on the UI thread. */
+  private void freeze(long millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+
+  /** Runs the event loop of the UI thread for the given time. */
+  private void dispatch(long millis) {
+    Display display = PlatformUI.getWorkbench().getDisplay();
+    long end = System.currentTimeMillis() + millis;
+    while (System.currentTimeMillis() < end) {
+      if (!display.readAndDispatch()) {
+        Thread.yield();
+      }
+    }
+  }
+}
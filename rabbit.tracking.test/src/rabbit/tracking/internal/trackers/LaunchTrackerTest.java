@@ -52,7 +52,7 @@ import org.junit.Test;
 
 import static java.lang.String.format;
 
-import java.io.IOException;
+import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -173,8 +173,7 @@ public class LaunchTrackerTest extends AbstractTrackerTest<LaunchEvent> {
    * Tests the launching in normal mode ("run");
    */
   @Test
-  public void testEnabled() throws CoreException, IOException,
-      InterruptedException {
+  public void testEnabled() throws Exception {
 
     // Create a new Java class:
     String className = "TestEnabled";
@@ -218,6 +217,8 @@ public class LaunchTrackerTest extends AbstractTrackerTest<LaunchEvent> {
     } finally {
       lock.unlock();
     }
+    // Nothing about the launch should be kept once it has terminated:
+    assertTrue(getLaunches(tracker).isEmpty());
     tracker.setEnabled(false);
 
     // Check the result:
@@ -479,6 +480,65 @@ public class LaunchTrackerTest extends AbstractTrackerTest<LaunchEvent> {
     assertTrue(event.getFilePaths().contains(unit2.getResource().getFullPath()));
   }
 
+  @Test
+  public void testEndCurrentEvents_whileLaunchRunning() throws Exception {
+    String className = "TestEndCurrentEventsWhileLaunchRunning";
+    StringBuilder content = new StringBuilder();
+    content.append(format("package %s;%n", pkg.getElementName()));
+    content.append(format("public class %s {%n", className));
+    content
+        .append(format("  public static void main(String[] args) throws Exception {%n"));
+    content.append(format("    Thread.sleep(500);%n")); // Sleep 500 millis.
+    content.append(format("  }%n"));
+    content.append(format("}"));
+    ICompilationUnit unit = pkg.createCompilationUnit(className + ".java",
+        content.toString(), true, null);
+
+    MyDebugListener listener = new MyDebugListener();
+    DebugPlugin.getDefault().addDebugEventListener(listener);
+    tracker.setEnabled(true);
+
+    ILaunchConfiguration config = launch(className,
+        pkg.getJavaProject().getElementName(),
+        unit.getTypes()[0].getFullyQualifiedName(), ILaunchManager.RUN_MODE);
+
+    final Lock lock = new ReentrantLock();
+    final Condition condition = lock.newCondition();
+    lock.lock();
+    try {
+      // Wait for the launch to be running:
+      while (getLaunches(tracker).isEmpty()) {
+        condition.await(10, TimeUnit.MILLISECONDS);
+      }
+      // As on a refresh of the view, the launch must be kept running:
+      tracker.endCurrentEvents();
+      assertEquals(1, getLaunches(tracker).size());
+
+      ILaunch launch = listener.getLaunch(className);
+      while (launch == null || !launch.isTerminated()) {
+        condition.await(100, TimeUnit.MILLISECONDS);
+        launch = listener.getLaunch(className);
+      }
+      // Give the tracker a bit more time to finish:
+      condition.await(100, TimeUnit.MILLISECONDS);
+    } finally {
+      lock.unlock();
+    }
+    tracker.setEnabled(false);
+
+    // The launch is recorded once, from its creation to its termination:
+    assertEquals(1, tracker.getData().size());
+    LaunchEvent event = tracker.getData().iterator().next();
+    assertEquals(config, event.getLaunchConfiguration());
+    long preStart = listener.getProcessCreationTimeMillis(className) - 10;
+    long start = event.getInterval().getStartMillis();
+    long postStart = listener.getProcessCreationTimeMillis(className) + 10;
+    long preEnd = listener.getProcessTerminationTimeMillis(className) - 10;
+    long end = event.getInterval().getEndMillis();
+    long postEnd = listener.getProcessTerminationTimeMillis(className) + 10;
+    checkTime(preStart, start, postStart, preEnd, end, postEnd);
+  }
+
   @Override
   protected LaunchEvent createEvent() {
     ILaunchConfigurationType type = mock(ILaunchConfigurationType.class);
@@ -496,6 +556,15 @@ public class LaunchTrackerTest extends AbstractTrackerTest<LaunchEvent> {
     return new LaunchTracker();
   }
 
+  /**
+   * Gets the states of the running launches of the tracker.
+   */
+  private Map<?, ?> getLaunches(Object tracker) throws Exception {
+    Field field = LaunchTracker.class.getDeclaredField("launches");
+    field.setAccessible(true);
+    return (Map<?, ?>) field.get(tracker);
+  }
+
   /**
    * Launches a Java application.
    * 
@@ -38,6 +38,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Observable;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Test for {@link PerspectiveTracker}
@@ -303,7 +304,7 @@ public class PerspectiveTrackerTest extends
 
     IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
     detector.setRunning(true);
-    isActive.set(detector, false);
+    ((AtomicBoolean) isActive.get(detector)).set(false);
     setChanged.invoke(detector);
     notifyObservers.invoke(detector);
     detector.setRunning(false);
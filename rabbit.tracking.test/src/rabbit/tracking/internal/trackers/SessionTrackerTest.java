@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.PlatformUI;
+import org.joda.time.DateTime;
 import org.joda.time.Interval;
 import org.junit.Test;
 
@@ -34,6 +35,7 @@ import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Observable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @see SessionTracker
@@ -52,6 +54,18 @@ public class SessionTrackerTest extends AbstractTrackerTest<SessionEvent> {
     }
   }
 
+  @Test
+  public void testAddData_sumsTheDurationsOfTheSameDay() {
+    long start = new DateTime(2010, 3, 15, 10, 0, 0, 0).getMillis();
+    tracker.addData(new SessionEvent(new Interval(start, start + 10)));
+    tracker.addData(new SessionEvent(new Interval(start + 100, start + 120)));
+
+    assertEquals(1, tracker.getData().size());
+    SessionEvent event = tracker.getData().iterator().next();
+    assertEquals(new Interval(start, start + 120), event.getInterval());
+    assertEquals(30, event.getDuration().getMillis());
+  }
+
   /**
    * Test when the tracker is set to be enabled, if there is no active workbench
    * window, no data will be recorded.
@@ -168,7 +182,7 @@ public class SessionTrackerTest extends AbstractTrackerTest<SessionEvent> {
 
     IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
     detector.setRunning(true);
-    isActive.set(detector, false);
+    ((AtomicBoolean) isActive.get(detector)).set(false);
     setChanged.invoke(detector);
     notifyObservers.invoke(detector);
     detector.setRunning(false);
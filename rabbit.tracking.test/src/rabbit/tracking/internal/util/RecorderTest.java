@@ -222,6 +222,20 @@ public class RecorderTest {
     check(recorder.getLastRecord(), start, end, obj);
   }
 
+  @Test
+  public void testStart_withTime() {
+    Object obj = this;
+    recorder.start(null, 1000);
+    recorder.start(obj, 2000);
+    assertEquals(1000, recorder.getLastRecord().getStartTimeMillis());
+    assertEquals(2000, recorder.getLastRecord().getEndTimeMillis());
+
+    recorder.start(null, 1500); // Before the start of the current session.
+    assertEquals(obj, recorder.getLastRecord().getUserData());
+    assertEquals(2000, recorder.getLastRecord().getStartTimeMillis());
+    assertEquals(2000, recorder.getLastRecord().getEndTimeMillis());
+  }
+
   @Test
   public void testStop_multiCalls() throws Exception {
     recorder.start();
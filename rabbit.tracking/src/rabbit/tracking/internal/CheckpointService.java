@@ -0,0 +1,160 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal;
+
+import rabbit.tracking.ITracker;
+import rabbit.tracking.internal.trackers.AbstractTracker;
+
+import com.google.common.collect.ImmutableList;
+
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+
+import java.util.Collection;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves the data of the trackers periodically in the background, so that the
+ * data does not pile up in memory during a long session. The trackers are
+ * checkpointed when the interval has passed since the last checkpoint, and a
+ * tracker is checkpointed earlier if it holds more events than the threshold.
+ * Only the trackers extending {@link AbstractTracker} are checkpointed.
+ * <p>
+ * When {@link #isRunning()} is false, no trackers will be checkpointed.
+ * </p>
+ */
+public final class CheckpointService {
+
+  /** How often in milliseconds the trackers are checked. */
+  private static final long CHECK_DELAY_MILLIS = 10000;
+
+  private final Collection<ITracker<?>> trackers;
+  private final long intervalMillis;
+  private final int threshold;
+
+  private ScheduledFuture<?> currentTask;
+
+  /** Held while checking, so that stopping can wait for a check to finish. */
+  private final Object checkLock = new Object();
+
+  /** The time of the last checkpoint of all the trackers. */
+  private long lastCheckpointNanoTime;
+
+  private final Runnable taskCode = new Runnable() {
+    @Override
+    public void run() {
+      check();
+    }
+  };
+
+  /**
+   * Constructor. When constructed, this object is not yet running.
+   * 
+   * @param trackers The trackers to checkpoint.
+   * @param interval The time in milliseconds between the checkpoints.
+   * @param threshold The number of events a tracker can hold before it is
+   *          checkpointed without waiting for the interval.
+   * @throws NullPointerException If trackers is null.
+   * @throws IllegalArgumentException If the interval or the threshold is not
+   *           positive.
+   * @see #setRunning(boolean)
+   */
+  public CheckpointService(Collection<? extends ITracker<?>> trackers,
+      long interval, int threshold) {
+    if (interval <= 0 || threshold <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.trackers = ImmutableList.copyOf(trackers);
+    this.intervalMillis = interval;
+    this.threshold = threshold;
+  }
+
+  /**
+   * Checks whether this service is running.
+   * 
+   * @return True if running, false otherwise.
+   */
+  public synchronized boolean isRunning() {
+    return currentTask != null;
+  }
+
+  /**
+   * Sets whether this service should be running or not. Subsequent calls to
+   * set the same state will have no effects. When stopped, a checkpoint in
+   * progress is waited for, so that the trackers are not saved concurrently
+   * afterwards.
+   * 
+   * @param run True to run, false to stop.
+   */
+  public synchronized void setRunning(boolean run) {
+    if (isRunning() == run) {
+      return;
+    }
+
+    if (run) {
+      lastCheckpointNanoTime = System.nanoTime();
+      currentTask = TrackingExecutor.getWorker().scheduleWithFixedDelay(
+          taskCode, CHECK_DELAY_MILLIS, CHECK_DELAY_MILLIS,
+          TimeUnit.MILLISECONDS);
+    } else {
+      currentTask.cancel(false);
+      currentTask = null;
+      synchronized (checkLock) {
+        // Waits for a check in progress.
+      }
+    }
+  }
+
+  /**
+   * Checkpoints all the trackers if the interval has passed, otherwise only
+   * the trackers holding more events than the threshold.
+   */
+  void check() {
+    synchronized (checkLock) {
+      checkTrackers();
+    }
+  }
+
+  private void checkTrackers() {
+    long now = System.nanoTime();
+    boolean all = TimeUnit.NANOSECONDS.toMillis(now - lastCheckpointNanoTime)
+        >= intervalMillis;
+    if (all) {
+      lastCheckpointNanoTime = now;
+    }
+    for (ITracker<?> tracker : trackers) {
+      if (!(tracker instanceof AbstractTracker<?>)) {
+        continue;
+      }
+      final AbstractTracker<?> t = (AbstractTracker<?>) tracker;
+      if (all || t.getDataSize() >= threshold) {
+        // A failing tracker must not stop the others from being saved:
+        SafeRunner.run(new ISafeRunnable() {
+          @Override
+          public void handleException(Throwable e) {
+            // Logged by the runner.
+          }
+
+          @Override
+          public void run() {
+            t.checkpoint();
+          }
+        });
+      }
+    }
+  }
+}
@@ -21,9 +21,12 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 
 import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Utility class for detecting user idleness.
@@ -37,29 +40,54 @@ import java.util.concurrent.TimeUnit;
  * <p>
  * When {@link #isRunning()} is false, no observers will be notified.
  * </p>
+ * <p>
+ * The observers are kept in a copy-on-write list, and are notified without
+ * holding any locks and regardless of {@link #hasChanged()}. Handling an input
+ * event takes no locks, the user is marked idle by the timer.
+ * </p>
+ * <p>
+ * Rather than polling, the timer is armed to fire when the user would become
+ * idle if there were no more input. If input has arrived by then, the timer is
+ * armed again for the new deadline, so there is at most one wake up per idle
+ * interval while the user is active, and none while the user is idle. The
+ * timer runs on the {@link TrackingExecutor}.
+ * </p>
  */
 public final class IdleDetector extends Observable implements Listener {
 
-  private ScheduledThreadPoolExecutor timer;
+  private final ScheduledExecutorService timer;
+  /** Guards currentTask, and the arming of the timer against stopping. */
+  private final Object timerLock = new Object();
   private ScheduledFuture<?> currentTask;
   private final Display display;
-  private boolean isRunning;
-  private boolean isActive;
-  private long lastEventNanoTime;
+  private volatile boolean isRunning;
+  private final AtomicBoolean isActive;
+  private volatile long lastEventNanoTime;
+  private final CopyOnWriteArrayList<Observer> observers;
   private final long idleIntervalMillis;
   private final long runDelayMillis;
 
   private final Runnable taskCode = new Runnable() {
     @Override
     public void run() {
-      if (!isActive) {
+      if (!isRunning || !isActive.get()) {
         return;
       }
-      long durationMillis = TimeUnit.NANOSECONDS.toMillis(nowNanoTime()
-          - lastEventNanoTime);
-      if (durationMillis > idleIntervalMillis) {
-        isActive = false;
-        setChanged();
+      long lastNanoTime = lastEventNanoTime;
+      long remainingNanos = lastNanoTime
+          + TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis) - nowNanoTime();
+      if (remainingNanos > 0) {
+        // There has been input since the timer was armed:
+        schedule(remainingNanos);
+
+      } else if (isActive.compareAndSet(true, false)) {
+        if (lastEventNanoTime != lastNanoTime
+            && isActive.compareAndSet(false, true)) {
+          // An input event came in while we were checking, the user is still
+          // active:
+          schedule(TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis));
+          return;
+        }
         notifyObservers();
       }
     }
@@ -90,7 +118,8 @@ public final class IdleDetector extends Observable implements Listener {
    *          After no activities within this period (in milliseconds), the user
    *          is considered idle.
    * @param delay
-   *          The time (in milliseconds) of how often checks should run.
+   *          The minimum time (in milliseconds) between two checks, input
+   *          arriving more often than this is only checked this often.
    * @throws NullPointerException
    *           If display is null.
    * @throws IllegalArgumentException
@@ -105,7 +134,9 @@ public final class IdleDetector extends Observable implements Listener {
       throw new IllegalArgumentException();
     }
     isRunning = false;
-    isActive = false;
+    timer = TrackingExecutor.getDefault();
+    isActive = new AtomicBoolean(false);
+    observers = new CopyOnWriteArrayList<Observer>();
     runDelayMillis = delay;
     idleIntervalMillis = idleTime;
     display = disp;
@@ -130,17 +161,46 @@ public final class IdleDetector extends Observable implements Listener {
 
   @Override
   public void handleEvent(Event event) {
-    
-    synchronized (this) {
-      lastEventNanoTime = nowNanoTime();
-      if (isActive) {
-        return;
-      }
-      isActive = true;
+    lastEventNanoTime = nowNanoTime();
+    if (!isActive.get() && isActive.compareAndSet(false, true)) {
+      schedule(TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis));
+      notifyObservers();
+    }
+  }
+
+  @Override
+  public void addObserver(Observer o) {
+    if (o == null) {
+      throw new NullPointerException();
+    }
+    observers.addIfAbsent(o);
+  }
+
+  @Override
+  public int countObservers() {
+    return observers.size();
+  }
+
+  @Override
+  public void deleteObserver(Observer o) {
+    observers.remove(o);
+  }
+
+  @Override
+  public void deleteObservers() {
+    observers.clear();
+  }
+
+  @Override
+  public void notifyObservers() {
+    notifyObservers(null);
+  }
+
+  @Override
+  public void notifyObservers(Object arg) {
+    for (Observer o : observers) {
+      o.update(this, arg);
     }
-    
-    setChanged();
-    notifyObservers();
   }
 
   /**
@@ -148,7 +208,7 @@ public final class IdleDetector extends Observable implements Listener {
    * 
    * @return True if running, false otherwise.
    */
-  public synchronized boolean isRunning() {
+  public boolean isRunning() {
     return isRunning;
   }
 
@@ -160,11 +220,11 @@ public final class IdleDetector extends Observable implements Listener {
    *         return true.
    * @see #isRunning()
    */
-  public synchronized boolean isUserActive() {
+  public boolean isUserActive() {
     if (!isRunning) {
       return true;
     }
-    return isActive;
+    return isActive.get();
   }
 
   /**
@@ -181,19 +241,40 @@ public final class IdleDetector extends Observable implements Listener {
     }
 
     if (run) {
-      isRunning = true;
-      isActive = true;
       lastEventNanoTime = nowNanoTime();
+      isActive.set(true);
+      isRunning = true;
       display.syncExec(addFilters);
-      timer = new ScheduledThreadPoolExecutor(1);
-      currentTask = timer.scheduleWithFixedDelay(taskCode, runDelayMillis,
-          runDelayMillis, TimeUnit.MILLISECONDS);
+      schedule(TimeUnit.MILLISECONDS.toNanos(idleIntervalMillis));
     } else {
       display.syncExec(removeFilters);
-      currentTask.cancel(false);
-      isRunning = false;
-      isActive = false;
-      timer.shutdownNow();
+      synchronized (timerLock) {
+        isRunning = false;
+        currentTask.cancel(false);
+        currentTask = null;
+      }
+      isActive.set(false);
+    }
+  }
+
+  /**
+   * Arms the timer to check the idleness after the given delay, replacing the
+   * check previously armed. Does nothing if this detector is not running.
+   * 
+   * @param delayNanos The delay in nanoseconds, the delay will be at least
+   *          {@link #getRunDelay()}.
+   */
+  private void schedule(long delayNanos) {
+    long delay = Math.max(delayNanos,
+        TimeUnit.MILLISECONDS.toNanos(runDelayMillis));
+    synchronized (timerLock) {
+      if (!isRunning) {
+        return;
+      }
+      if (currentTask != null) {
+        currentTask.cancel(false);
+      }
+      currentTask = timer.schedule(taskCode, delay, TimeUnit.NANOSECONDS);
     }
   }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Holds the executors shared by the background tasks of the tracking plug-in,
+ * so that the tasks do not each keep a thread of their own. Each executor runs
+ * its tasks one at a time on a single daemon thread, so a long task delays the
+ * others of the same executor. Short timer tasks, such as the idleness checks,
+ * run on the {@link #getDefault() default} executor, where they must not be
+ * delayed. Long or blocking tasks, such as the checkpoints of the trackers,
+ * run on the {@link #getWorker() worker}.
+ */
+public final class TrackingExecutor {
+
+  private static final ScheduledExecutorService DEFAULT =
+      newExecutor("Rabbit Tracking Timer");
+
+  private static final ScheduledExecutorService WORKER =
+      newExecutor("Rabbit Tracking Worker");
+
+  /**
+   * Gets the shared executor for short timer tasks, a task must not block nor
+   * take long. Clients may schedule tasks and cancel the tasks they have
+   * scheduled, but must not shut the executor down.
+   * 
+   * @return The shared executor.
+   */
+  public static ScheduledExecutorService getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Gets the shared executor for long or blocking tasks, such as saving the
+   * data of the trackers. Clients may schedule tasks and cancel the tasks they
+   * have scheduled, but must not shut the executor down.
+   * 
+   * @return The shared worker.
+   */
+  public static ScheduledExecutorService getWorker() {
+    return WORKER;
+  }
+
+  private static ScheduledExecutorService newExecutor(String name) {
+    return Executors.unconfigurableScheduledExecutorService(
+        new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat(name)
+            .build()));
+  }
+
+  private TrackingExecutor() {
+  }
+}
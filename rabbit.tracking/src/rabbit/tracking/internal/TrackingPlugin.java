@@ -15,10 +15,13 @@
  */
 package rabbit.tracking.internal;
 
+import rabbit.data.store.StoreWriter;
 import rabbit.tracking.ITracker;
+import rabbit.tracking.internal.trackers.AbstractTracker;
 
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -31,7 +34,12 @@ import org.eclipse.ui.IWorkbenchListener;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.osgi.framework.BundleContext;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -45,6 +53,34 @@ public class TrackingPlugin extends AbstractUIPlugin implements
   /** ID of the tracker extension point. */
   public static final String TRACKER_EXTENSION_ID = "rabbit.tracking.trackers";
 
+  /**
+   * Preference key of the time in seconds to wait at shutdown for the data of
+   * the trackers to be written, the data not written by then is spilled.
+   */
+  public static final String PREF_SHUTDOWN_SAVE_SECONDS = "shutdownSaveSeconds";
+
+  /** The default value of {@link #PREF_SHUTDOWN_SAVE_SECONDS}. */
+  private static final int DEFAULT_SHUTDOWN_SAVE_SECONDS = 10;
+
+  /**
+   * Preference key of the time in minutes between the background checkpoints
+   * of the data of the trackers, a value less than or equal to zero disables
+   * the checkpoints.
+   */
+  public static final String PREF_CHECKPOINT_MINUTES = "checkpointMinutes";
+
+  /** The default value of {@link #PREF_CHECKPOINT_MINUTES}. */
+  private static final int DEFAULT_CHECKPOINT_MINUTES = 15;
+
+  /**
+   * Preference key of the number of events a tracker can hold before its data
+   * is checkpointed without waiting for {@link #PREF_CHECKPOINT_MINUTES}.
+   */
+  public static final String PREF_CHECKPOINT_EVENTS = "checkpointEvents";
+
+  /** The default value of {@link #PREF_CHECKPOINT_EVENTS}. */
+  private static final int DEFAULT_CHECKPOINT_EVENTS = 5000;
+
   // The shared instance
   private static TrackingPlugin plugin;
 
@@ -62,6 +98,12 @@ public class TrackingPlugin extends AbstractUIPlugin implements
   /** An set of trackers. */
   private ImmutableSet<ITracker<?>> trackers;
 
+  /** Checkpoints the trackers, null if the checkpoints are disabled. */
+  private CheckpointService checkpoints;
+
+  /** The checkpoints started by the last call to {@link #saveCurrentData()}. */
+  private volatile List<Future<?>> currentDataSaves = Collections.emptyList();
+
   /**
    * The constructor
    */
@@ -91,28 +133,90 @@ public class TrackingPlugin extends AbstractUIPlugin implements
 
   @Override
   public boolean preShutdown(IWorkbench workbench, boolean forced) {
+    stopCheckpoints();
     for (ITracker<?> tracker : trackers) {
       tracker.setEnabled(false);
     }
+    waitForWrites();
     return true;
   }
 
   /**
    * Call this method to saves all current data collected by the trackers now.
-   * All data will be saved and flushed from the trackers.
+   * All data will be saved and flushed from the trackers, including the events
+   * still in progress. The data of the trackers extending
+   * {@link AbstractTracker} is saved in the background, this method does not
+   * wait for it, {@link #waitForCurrentData(long, TimeUnit)} does.
    */
   public void saveCurrentData() {
+    List<Future<?>> saves = Lists.newArrayList();
     for (ITracker<?> tracker : trackers) {
-      tracker.setEnabled(false);
-      tracker.flushData();
-      tracker.setEnabled(true);
+      if (tracker instanceof AbstractTracker<?>) {
+        final AbstractTracker<?> t = (AbstractTracker<?>) tracker;
+        // The events in progress are ended on the calling thread, as the
+        // trackers are enabled on it:
+        t.endCurrentEvents();
+        saves.add(TrackingExecutor.getWorker().submit(new Runnable() {
+          @Override
+          public void run() {
+            SafeRunner.run(new ISafeRunnable() {
+              @Override
+              public void handleException(Throwable e) {
+                // Logged by the runner.
+              }
+
+              @Override
+              public void run() {
+                t.checkpoint();
+              }
+            });
+          }
+        }));
+      } else {
+        tracker.setEnabled(false);
+        tracker.flushData();
+        tracker.setEnabled(true);
+      }
+    }
+    currentDataSaves = saves;
+  }
+
+  /**
+   * Waits for the data saved by the last call to {@link #saveCurrentData()} to
+   * be handed to the storers. The data may still be being written afterwards,
+   * see {@link StoreWriter#drain(long, TimeUnit)}.
+   * 
+   * @param timeout The maximum time to wait.
+   * @param unit The unit of the timeout.
+   * @return True if the data has been handed to the storers, false if the time
+   *         is up.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public boolean waitForCurrentData(long timeout, TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Future<?> save : currentDataSaves) {
+      try {
+        save.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (ExecutionException e) {
+        continue; // Not thrown, the checkpoint handles all the exceptions.
+      } catch (TimeoutException e) {
+        return false;
+      }
     }
+    return true;
   }
 
   @Override
   public void start(BundleContext context) throws Exception {
     super.start(context);
     plugin = this;
+    getPreferenceStore().setDefault(PREF_SHUTDOWN_SAVE_SECONDS,
+        DEFAULT_SHUTDOWN_SAVE_SECONDS);
+    getPreferenceStore().setDefault(PREF_CHECKPOINT_MINUTES,
+        DEFAULT_CHECKPOINT_MINUTES);
+    getPreferenceStore().setDefault(PREF_CHECKPOINT_EVENTS,
+        DEFAULT_CHECKPOINT_EVENTS);
 
     if (trackers != null)
       setEnableTrackers(trackers, false);
@@ -122,18 +226,88 @@ public class TrackingPlugin extends AbstractUIPlugin implements
     setEnableTrackers(trackers, true);
 
     idleDetector.setRunning(true);
+    startCheckpoints();
   }
 
   @Override
   public void stop(BundleContext context) throws Exception {
     idleDetector.setRunning(false);
+    stopCheckpoints();
     getWorkbench().removeWorkbenchListener(this);
     setEnableTrackers(trackers, false);
+    waitForWrites();
 
     plugin = null;
     super.stop(context);
   }
 
+  /**
+   * Starts checkpointing the trackers in the background, unless disabled by
+   * {@link #PREF_CHECKPOINT_MINUTES}.
+   */
+  private void startCheckpoints() {
+    int minutes = getPreferenceStore().getInt(PREF_CHECKPOINT_MINUTES);
+    int events = getPreferenceStore().getInt(PREF_CHECKPOINT_EVENTS);
+    if (minutes <= 0) {
+      return;
+    }
+    checkpoints = new CheckpointService(trackers,
+        TimeUnit.MINUTES.toMillis(minutes),
+        events > 0 ? events : DEFAULT_CHECKPOINT_EVENTS);
+    checkpoints.setRunning(true);
+  }
+
+  /**
+   * Stops checkpointing the trackers, waiting for a checkpoint in progress.
+   */
+  private void stopCheckpoints() {
+    if (checkpoints != null) {
+      checkpoints.setRunning(false);
+      checkpoints = null;
+    }
+  }
+
+  /**
+   * Waits for the data saved by the trackers to be handed to the storers on
+   * the worker of the {@link TrackingExecutor}, then for the data to be
+   * written, the writing is done in the background and must finish before the
+   * workbench exits. The data not being written within
+   * {@link #PREF_SHUTDOWN_SAVE_SECONDS} is spilled, to be merged into the
+   * stored data on the next start, the data already being written is waited
+   * for until it has been written.
+   */
+  private void waitForWrites() {
+    int seconds = Math.max(0,
+        getPreferenceStore().getInt(PREF_SHUTDOWN_SAVE_SECONDS));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    try {
+      // The worker runs its tasks in order, this runs after the saves:
+      TrackingExecutor.getWorker().submit(new Runnable() {
+        @Override
+        public void run() {
+          // Nothing to do.
+        }
+      }).get(seconds, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (ExecutionException e) {
+      // Not thrown, the task does nothing.
+    } catch (TimeoutException e) {
+      getLog().log(new Status(IStatus.INFO, PLUGIN_ID,
+          "Data not handed to the storers in time may be lost."));
+    }
+    try {
+      long remaining = Math.max(0, deadline - System.nanoTime());
+      if (!StoreWriter.getDefault().flush(remaining, TimeUnit.NANOSECONDS)) {
+        getLog().log(new Status(IStatus.INFO, PLUGIN_ID,
+            "Data not saved in time has been spilled."));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   /**
    * Creates trackers from the extension point.
    * 
@@ -15,55 +15,269 @@
  */
 package rabbit.tracking.internal.trackers;
 
+import rabbit.data.store.IBufferedStorer;
 import rabbit.data.store.IStorer;
 import rabbit.tracking.ITracker;
+import rabbit.tracking.internal.TrackingExecutor;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.ISafeRunnable;
+import org.eclipse.core.runtime.SafeRunner;
+import org.joda.time.DateTime;
+import org.joda.time.Interval;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
 
 /**
  * Defines common behaviors for a tracker.
+ * <p>
+ * The data may be added on any thread without blocking, the events are queued
+ * and folded into the data collected on a background thread shortly after, or
+ * when the data is next read or saved, and may be saved by
+ * {@link #checkpoint()} on a background thread while the tracker is enabled.
+ * </p>
+ * <p>
+ * Events that will be merged when they are stored are folded together as they
+ * arrive, see {@link #createAggregator()}, so the data held grows with the
+ * number of distinct keys rather than with the number of events.
+ * </p>
  */
 public abstract class AbstractTracker<T> implements ITracker<T> {
 
   /** Variable to indicate whether this tracker is activated. */
-  private boolean isEnabled;
+  private volatile boolean isEnabled;
+
+  /**
+   * The time in milliseconds the events added are queued before they are
+   * folded into the data collected in the background, the events queued in
+   * the meantime are folded and recorded together.
+   */
+  private static final long DRAIN_DELAY_MILLIS = 1000;
+
+  /** The events added but not yet folded into the data collected. */
+  private final Queue<T> queue = new ConcurrentLinkedQueue<T>();
+
+  /** True if a drain of the queue has been scheduled but not yet started. */
+  private final AtomicBoolean isDrainScheduled = new AtomicBoolean();
+
+  private final Runnable drainTask = new Runnable() {
+    @Override
+    public void run() {
+      isDrainScheduled.set(false);
+      // A failure must not go unnoticed on the executor:
+      SafeRunner.run(new ISafeRunnable() {
+        @Override
+        public void handleException(Throwable e) {
+          // Logged by the runner.
+        }
+
+        @Override
+        public void run() {
+          dataLock.lock();
+          try {
+            foldQueue();
+          } finally {
+            dataLock.unlock();
+          }
+        }
+      });
+    }
+  };
+
+  /** Guards the data collected, only held by the readers of the data. */
+  private final Lock dataLock = new ReentrantLock();
+
+  /** The data collected, by their aggregation keys, guarded by dataLock. */
+  private Map<Object, T> data;
 
-  private Set<T> data;
+  /**
+   * The mark following the records of the events folded into the data, if the
+   * storer is an {@link IBufferedStorer}, guarded by dataLock.
+   */
+  private long recorded;
+
+  /**
+   * Guards the saving of the data, so that the data is not saved by a
+   * checkpoint and by the disabling of this tracker at the same time.
+   */
+  private final Object saveLock = new Object();
 
   private IStorer<T> storer;
 
+  /** Folds the events of the same key, or null to keep every event. */
+  @Nullable
+  private final IAggregator<T> aggregator;
+
   /**
    * Constructs a new tracker.
    */
   public AbstractTracker() {
     isEnabled = false;
-    data = new LinkedHashSet<T>();
+    data = Maps.newLinkedHashMap();
     storer = createDataStorer();
     Assert.isNotNull(storer);
+    aggregator = createAggregator();
   }
 
   /**
-   * Adds an event data to the collection.
+   * Adds an event data to the collection. If the storer supports it, the data
+   * is also recorded in the storer's crash-safe buffer when it is folded into
+   * the data collected, so that it can be recovered if the workbench dies
+   * before the data is saved.
+   * <p>
+   * This method may be called on any thread. It only queues the data, the
+   * folding and the recording are done by a task on the worker of the
+   * {@link TrackingExecutor}, which is scheduled by the first call after the
+   * previous task has started, so this method does not wait for the data
+   * collected nor for the storer.
+   * </p>
    * 
    * @param o The data.
    */
   public void addData(T o) {
-    data.add(o);
+    queue.offer(o);
+    if (isDrainScheduled.compareAndSet(false, true)) {
+      TrackingExecutor.getWorker().schedule(drainTask, DRAIN_DELAY_MILLIS,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Records the queued events in the storer's buffer and folds them into the
+   * data collected, the caller must hold dataLock.
+   */
+  private void foldQueue() {
+    List<T> events = Lists.newArrayList();
+    T o;
+    while ((o = queue.poll()) != null) {
+      events.add(o);
+    }
+    if (events.isEmpty()) {
+      return;
+    }
+    // The events are recorded before they become part of the data, so that
+    // the mark taken with the data follows the records of exactly that data:
+    if (storer instanceof IBufferedStorer<?>) {
+      recorded = ((IBufferedStorer<T>) storer).record(events);
+    }
+    for (T event : events) {
+      fold(event);
+    }
+  }
+
+  /**
+   * Folds the given event into the data collected, the caller must hold
+   * dataLock.
+   * 
+   * @param o The event.
+   */
+  private void fold(T o) {
+    Object key = (aggregator == null) ? null : aggregator.getKey(o);
+    if (key == null) {
+      data.put(o, o);
+    } else {
+      T existing = data.get(key);
+      data.put(key, (existing == null) ? o : aggregator.aggregate(existing, o));
+    }
+  }
+
+  /**
+   * Saves the data collected so far and removes it from this tracker, without
+   * disabling the tracker. Does nothing if the tracker is disabled, as the
+   * data has then already been saved. This method may be called on any
+   * thread.
+   */
+  public void checkpoint() {
+    synchronized (saveLock) {
+      if (!isEnabled()) {
+        return;
+      }
+      Map<Object, T> snapshot;
+      long mark;
+      dataLock.lock();
+      try {
+        foldQueue();
+        if (data.isEmpty()) {
+          return;
+        }
+        snapshot = data;
+        data = Maps.newLinkedHashMap();
+        mark = recorded;
+      } finally {
+        dataLock.unlock();
+      }
+      store(new ArrayList<T>(snapshot.values()), mark);
+    }
+  }
+
+  /**
+   * Ends the events in progress, such as the time spent in the current part so
+   * far, so that they are added to the data collected, and starts them again.
+   * Does nothing if the tracker is disabled. This method is to be called on the
+   * thread this tracker is enabled on.
+   */
+  public void endCurrentEvents() {
+    if (isEnabled()) {
+      doDisable();
+      doEnable();
+    }
   }
 
   @Override
   public void flushData() {
-    data.clear();
+    dataLock.lock();
+    try {
+      foldQueue();
+      data.clear();
+    } finally {
+      dataLock.unlock();
+    }
   }
 
+  /**
+   * Returns a copy of the data collected.
+   */
   @Override
   public Collection<T> getData() {
-    return Collections.unmodifiableSet(data);
+    dataLock.lock();
+    try {
+      foldQueue();
+      return Collections.unmodifiableSet(new LinkedHashSet<T>(data.values()));
+    } finally {
+      dataLock.unlock();
+    }
+  }
+
+  /**
+   * Gets the number of data collected.
+   * 
+   * @return The number of data.
+   */
+  public int getDataSize() {
+    dataLock.lock();
+    try {
+      foldQueue();
+      return data.size();
+    } finally {
+      dataLock.unlock();
+    }
   }
 
   @Override
@@ -71,12 +285,42 @@ public abstract class AbstractTracker<T> implements ITracker<T> {
     return isEnabled;
   }
 
+  /**
+   * Saves a copy of the data collected. The data is normalized and handed to
+   * the storer by a task on the worker of the {@link TrackingExecutor}, so
+   * this method does not wait for the normalization, which may be slow.
+   */
   @Override
   public void saveData() {
-    if (!getData().isEmpty()) {
-      storer.insert(getData());
-      storer.commit();
+    final Collection<T> snapshot;
+    final long mark;
+    dataLock.lock();
+    try {
+      foldQueue();
+      snapshot = new ArrayList<T>(data.values());
+      mark = recorded;
+    } finally {
+      dataLock.unlock();
     }
+    if (snapshot.isEmpty()) {
+      return;
+    }
+    TrackingExecutor.getWorker().execute(new Runnable() {
+      @Override
+      public void run() {
+        SafeRunner.run(new ISafeRunnable() {
+          @Override
+          public void handleException(Throwable e) {
+            // Logged by the runner.
+          }
+
+          @Override
+          public void run() {
+            store(snapshot, mark);
+          }
+        });
+      }
+    });
   }
 
   @Override
@@ -87,12 +331,91 @@ public abstract class AbstractTracker<T> implements ITracker<T> {
         doEnable();
       } else {
         doDisable();
-        saveData();
+        synchronized (saveLock) {
+          saveData();
+          isEnabled = false;
+        }
       }
       isEnabled = enable;
     }
   }
 
+  /**
+   * Creates the aggregator folding the events of this tracker as they are
+   * added. This implementation returns null, which keeps every event as it is.
+   * 
+   * @return The aggregator, or null.
+   */
+  @Nullable
+  protected IAggregator<T> createAggregator() {
+    return null;
+  }
+
+  /**
+   * Creates an aggregation key for the events of the given identity occurring
+   * on the same day as the given time.
+   * 
+   * @param time The time of an event.
+   * @param id The identity of the event, such as its command ID.
+   * @return The key.
+   */
+  protected static Object dailyKey(DateTime time, Object id) {
+    return Arrays.asList(time.toLocalDate(), id);
+  }
+
+  /**
+   * Gets the interval covering both of the given intervals. Continuous events
+   * aggregated with this interval and the sum of their durations keep the
+   * start of the earliest event, which is the date they are stored under.
+   * 
+   * @param first The interval of the event already collected.
+   * @param second The interval of the event being added.
+   * @return The interval covering both intervals.
+   */
+  protected static Interval span(Interval first, Interval second) {
+    return new Interval(
+        Math.min(first.getStartMillis(), second.getStartMillis()),
+        Math.max(first.getEndMillis(), second.getEndMillis()),
+        first.getChronology());
+  }
+
+  /**
+   * Normalizes the data before it is saved. Subclasses may override this to
+   * replace the data with the form it is saved in, this implementation returns
+   * the data as it is. This method is called on a background thread.
+   * 
+   * @param data The data to be saved.
+   * @return The data to save.
+   */
+  protected Collection<T> normalizeData(Collection<T> data) {
+    return data;
+  }
+
+  /**
+   * Normalizes the data, then inserts it into the storer and commits it.
+   * 
+   * @param snapshot The data to save.
+   * @param mark The mark following the records of the data.
+   */
+  private void store(Collection<T> snapshot, long mark) {
+    storer.insert(normalizeData(snapshot));
+    commit(mark);
+  }
+
+  /**
+   * Commits the storer, releasing the records before the given mark from the
+   * storer's buffer once the data inserted has been stored.
+   * 
+   * @param mark The mark following the records of the data inserted.
+   */
+  private void commit(long mark) {
+    if (storer instanceof IBufferedStorer<?>) {
+      ((IBufferedStorer<T>) storer).commit(mark);
+    } else {
+      storer.commit();
+    }
+  }
+
   /**
    * Creates a storer for storing the data.
    * 
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import rabbit.data.handler.DataHandler;
+import rabbit.data.store.IStorer;
+import rabbit.data.store.model.BuildEvent;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the durations of the builds of the projects.
+ * <p>
+ * A build is timed from its {@link IResourceChangeEvent#PRE_BUILD} event to its
+ * {@link IResourceChangeEvent#POST_BUILD} event, both of which are sent on the
+ * thread running the build, so only a timestamp is taken while the build is
+ * running. The duration of a build of a single project is recorded for that
+ * project, the duration of a build of the workspace is split evenly between
+ * the projects changed by the build.
+ * </p>
+ */
+public class BuildTracker extends AbstractTracker<BuildEvent> {
+
+  /** Marks that no build has been started since this tracker is enabled. */
+  private static final long NO_BUILD = -1;
+
+  /**
+   * Checks whether the given build kind is a full build.
+   * 
+   * @param kind The kind of the build, one of the constants of
+   *          {@link IncrementalProjectBuilder}.
+   * @return True if the build is a full or a clean build, false if it is an
+   *         incremental build.
+   */
+  static boolean isFullBuild(int kind) {
+    return kind == IncrementalProjectBuilder.FULL_BUILD
+        || kind == IncrementalProjectBuilder.CLEAN_BUILD;
+  }
+
+  /** The time the current build started, or {@link #NO_BUILD}. */
+  private volatile long buildNanoTime = NO_BUILD;
+
+  /** Times the builds, called on the thread running the builds. */
+  private final IResourceChangeListener listener =
+      new IResourceChangeListener() {
+        @Override
+        public void resourceChanged(IResourceChangeEvent event) {
+          if (event.getType() == IResourceChangeEvent.PRE_BUILD) {
+            buildNanoTime = System.nanoTime();
+          } else if (event.getType() == IResourceChangeEvent.POST_BUILD) {
+            long start = buildNanoTime;
+            buildNanoTime = NO_BUILD;
+            if (start != NO_BUILD) {
+              buildFinished(event, TimeUnit.NANOSECONDS.toMillis(
+                  System.nanoTime() - start));
+            }
+          }
+        }
+      };
+
+  /** Constructor. */
+  public BuildTracker() {
+    super();
+  }
+
+  @Override
+  protected IAggregator<BuildEvent> createAggregator() {
+    return new IAggregator<BuildEvent>() {
+      @Override
+      public Object getKey(BuildEvent event) {
+        return dailyKey(event.getTime(),
+            Arrays.asList(event.getProject(), event.isFullBuild()));
+      }
+
+      @Override
+      public BuildEvent aggregate(BuildEvent existing, BuildEvent event) {
+        return new BuildEvent(existing.getTime(), existing.getProject(),
+            existing.isFullBuild(), existing.getCount() + event.getCount(),
+            existing.getDuration().plus(event.getDuration()));
+      }
+    };
+  }
+
+  @Override
+  protected IStorer<BuildEvent> createDataStorer() {
+    return DataHandler.getStorer(BuildEvent.class);
+  }
+
+  @Override
+  protected void doDisable() {
+    ResourcesPlugin.getWorkspace().removeResourceChangeListener(listener);
+  }
+
+  @Override
+  protected void doEnable() {
+    buildNanoTime = NO_BUILD;
+    ResourcesPlugin.getWorkspace().addResourceChangeListener(listener,
+        IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.POST_BUILD);
+  }
+
+  /**
+   * Records a finished build.
+   * 
+   * @param event The {@link IResourceChangeEvent#POST_BUILD} event.
+   * @param millis The duration of the build in milliseconds.
+   */
+  private void buildFinished(IResourceChangeEvent event, long millis) {
+    Set<IProject> projects = getBuiltProjects(event);
+    if (projects.isEmpty()) {
+      return;
+    }
+    DateTime time = new DateTime();
+    boolean fullBuild = isFullBuild(event.getBuildKind());
+    Duration duration = new Duration(millis / projects.size());
+    for (IProject project : projects) {
+      addData(new BuildEvent(time, project, fullBuild, 1, duration));
+    }
+  }
+
+  /**
+   * Gets the projects built, without walking the delta any deeper than the
+   * projects.
+   * 
+   * @param event The {@link IResourceChangeEvent#POST_BUILD} event.
+   * @return The projects, may be empty.
+   */
+  private Set<IProject> getBuiltProjects(IResourceChangeEvent event) {
+    Set<IProject> projects = new LinkedHashSet<IProject>();
+    if (event.getSource() instanceof IProject) {
+      projects.add((IProject) event.getSource());
+      return projects;
+    }
+    IResourceDelta delta = event.getDelta();
+    if (delta != null) {
+      for (IResourceDelta child : delta.getAffectedChildren()) {
+        if (child.getResource().getType() == IResource.PROJECT) {
+          projects.add((IProject) child.getResource());
+        }
+      }
+    }
+    return projects;
+  }
+}
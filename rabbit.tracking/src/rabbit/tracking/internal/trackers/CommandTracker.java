@@ -78,6 +78,25 @@ public class CommandTracker extends AbstractTracker<CommandEvent> implements
     lastEvent = event;
   }
 
+  @Override
+  protected IAggregator<CommandEvent> createAggregator() {
+    return new IAggregator<CommandEvent>() {
+      @Override
+      public Object getKey(CommandEvent event) {
+        return dailyKey(event.getTime(),
+            event.getExecutionEvent().getCommand().getId());
+      }
+
+      @Override
+      public CommandEvent aggregate(CommandEvent existing,
+          CommandEvent event) {
+        return new CommandEvent(existing.getTime(),
+            existing.getExecutionEvent(),
+            existing.getCount() + event.getCount());
+      }
+    };
+  }
+
   @Override
   protected IStorer<CommandEvent> createDataStorer() {
     return DataHandler.getStorer(CommandEvent.class);
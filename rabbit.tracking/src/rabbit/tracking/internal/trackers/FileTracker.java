@@ -43,6 +43,24 @@ public class FileTracker extends AbstractPartTracker<FileEvent> {
     super();
   }
 
+  @Override
+  protected IAggregator<FileEvent> createAggregator() {
+    return new IAggregator<FileEvent>() {
+      @Override
+      public Object getKey(FileEvent event) {
+        return dailyKey(event.getTime(), event.getFilePath());
+      }
+
+      @Override
+      public FileEvent aggregate(FileEvent existing, FileEvent event) {
+        return new FileEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()),
+            existing.getFilePath());
+      }
+    };
+  }
+
   @Override
   protected IStorer<FileEvent> createDataStorer() {
     return DataHandler.getStorer(FileEvent.class);
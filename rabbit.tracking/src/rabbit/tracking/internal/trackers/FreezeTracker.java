@@ -0,0 +1,228 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import rabbit.data.handler.DataHandler;
+import rabbit.data.store.IStorer;
+import rabbit.data.store.model.FreezeEvent;
+import rabbit.tracking.internal.IdleDetector;
+import rabbit.tracking.internal.TrackingExecutor;
+import rabbit.tracking.internal.TrackingPlugin;
+import rabbit.tracking.internal.util.WorkbenchUtil;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import java.util.Arrays;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the freezes of the user interface.
+ * <p>
+ * A watchdog on the {@link TrackingExecutor} posts a probe to the UI thread
+ * every {@link #PROBE_INTERVAL_MILLIS} milliseconds, and the probe measures how
+ * long it has waited to be run. A probe that waited for at least
+ * {@link #PREF_FREEZE_THRESHOLD_MILLIS} is recorded as a freeze of the part
+ * active at the time, in the bucket of its length. No new probe is posted
+ * until the last one has run, so a long freeze is recorded once. The watchdog
+ * is suspended while the user is inactive, so that it does not wake up the
+ * process while the workbench is left alone.
+ * </p>
+ */
+public class FreezeTracker extends AbstractTracker<FreezeEvent> {
+
+  /**
+   * Preference key of the minimum time in milliseconds the user interface has
+   * to stop responding for it to be recorded as a freeze.
+   */
+  public static final String PREF_FREEZE_THRESHOLD_MILLIS =
+      "freezeThresholdMillis";
+
+  /** The default value of {@link #PREF_FREEZE_THRESHOLD_MILLIS}. */
+  private static final int DEFAULT_FREEZE_THRESHOLD_MILLIS = 500;
+
+  /** The time in milliseconds between two probes of the UI thread. */
+  static final long PROBE_INTERVAL_MILLIS = 250;
+
+  /** The lower bounds of the buckets of the freeze lengths, in milliseconds. */
+  private static final long[] BUCKETS = {
+      0, 100, 250, 500, 1000, 2000, 5000, 10000};
+
+  /**
+   * Gets the bucket of a freeze of the given length.
+   * 
+   * @param millis The length of the freeze in milliseconds.
+   * @return The lower bound of the bucket.
+   */
+  static Duration getBucket(long millis) {
+    long bucket = BUCKETS[0];
+    for (long bound : BUCKETS) {
+      if (millis < bound) {
+        break;
+      }
+      bucket = bound;
+    }
+    return new Duration(bucket);
+  }
+
+  /** True if a probe has been posted and has not yet run. */
+  private final AtomicBoolean isProbing = new AtomicBoolean();
+
+  /** The time the pending probe was posted. */
+  private volatile long probeNanoTime;
+
+  /** True while this tracker is enabled, checked by the probes. */
+  private volatile boolean isRunning;
+
+  /** The value of {@link #PREF_FREEZE_THRESHOLD_MILLIS} when enabled. */
+  private volatile long thresholdMillis;
+
+  /** The display being watched, set when enabled. */
+  private Display display;
+
+  /** The scheduled watchdog, null if disabled or the user is inactive. */
+  private ScheduledFuture<?> watchdogTask;
+
+  /** Suspends and resumes the watchdog as the user becomes inactive. */
+  private final Observer idleObserver = new Observer() {
+    @Override
+    public void update(Observable o, Object arg) {
+      setWatching(((IdleDetector) o).isUserActive());
+    }
+  };
+
+  /** Runs on the UI thread, measures how long it has waited. */
+  private final Runnable probe = new Runnable() {
+    @Override
+    public void run() {
+      long millis = TimeUnit.NANOSECONDS.toMillis(
+          System.nanoTime() - probeNanoTime);
+      isProbing.set(false);
+      if (isRunning && millis >= thresholdMillis) {
+        addData(new FreezeEvent(new DateTime(), getActivePartId(),
+            getBucket(millis), 1, new Duration(millis)));
+      }
+    }
+  };
+
+  /** Runs on the tracking executor, posts a probe if none is pending. */
+  private final Runnable watchdog = new Runnable() {
+    @Override
+    public void run() {
+      if (!isRunning || !isProbing.compareAndSet(false, true)) {
+        return; // The UI thread has not got to the last probe yet.
+      }
+      probeNanoTime = System.nanoTime();
+      try {
+        display.asyncExec(probe);
+      } catch (SWTException e) {
+        // The display has been disposed.
+        isProbing.set(false);
+      }
+    }
+  };
+
+  /** Constructor. */
+  public FreezeTracker() {
+    super();
+  }
+
+  @Override
+  protected IAggregator<FreezeEvent> createAggregator() {
+    return new IAggregator<FreezeEvent>() {
+      @Override
+      public Object getKey(FreezeEvent event) {
+        return dailyKey(event.getTime(),
+            Arrays.asList(event.getPartId(), event.getBucket()));
+      }
+
+      @Override
+      public FreezeEvent aggregate(FreezeEvent existing, FreezeEvent event) {
+        return new FreezeEvent(existing.getTime(), existing.getPartId(),
+            existing.getBucket(), existing.getCount() + event.getCount(),
+            existing.getDuration().plus(event.getDuration()));
+      }
+    };
+  }
+
+  @Override
+  protected IStorer<FreezeEvent> createDataStorer() {
+    return DataHandler.getStorer(FreezeEvent.class);
+  }
+
+  @Override
+  protected void doDisable() {
+    TrackingPlugin.getDefault().getIdleDetector().deleteObserver(idleObserver);
+    isRunning = false;
+    setWatching(false);
+  }
+
+  @Override
+  protected void doEnable() {
+    IPreferenceStore store = TrackingPlugin.getDefault().getPreferenceStore();
+    store.setDefault(PREF_FREEZE_THRESHOLD_MILLIS,
+        DEFAULT_FREEZE_THRESHOLD_MILLIS);
+    thresholdMillis = Math.max(0, store.getInt(PREF_FREEZE_THRESHOLD_MILLIS));
+
+    display = PlatformUI.getWorkbench().getDisplay();
+    isProbing.set(false);
+    isRunning = true;
+    IdleDetector detector = TrackingPlugin.getDefault().getIdleDetector();
+    detector.addObserver(idleObserver);
+    setWatching(detector.isUserActive());
+  }
+
+  /**
+   * Schedules or cancels the watchdog. The watchdog is only scheduled while
+   * this tracker is enabled.
+   * 
+   * @param watch True to schedule the watchdog, false to cancel it.
+   */
+  private synchronized void setWatching(boolean watch) {
+    if (watch && isRunning && watchdogTask == null) {
+      watchdogTask = TrackingExecutor.getDefault().scheduleWithFixedDelay(
+          watchdog, PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS,
+          TimeUnit.MILLISECONDS);
+    } else if (!watch && watchdogTask != null) {
+      watchdogTask.cancel(false);
+      watchdogTask = null;
+    }
+  }
+
+  /**
+   * Gets the ID of the active part, must be called on the UI thread.
+   * 
+   * @return The ID, or an empty string if there is no active part.
+   */
+  private String getActivePartId() {
+    IWorkbenchWindow window = WorkbenchUtil.getActiveWindow();
+    if (window == null) {
+      return "";
+    }
+    IWorkbenchPart part = window.getPartService().getActivePart();
+    return (part == null) ? "" : part.getSite().getId();
+  }
+}
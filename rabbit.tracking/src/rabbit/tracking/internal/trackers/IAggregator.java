@@ -0,0 +1,48 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.tracking.internal.trackers;
+
+import javax.annotation.Nullable;
+
+/**
+ * Folds the events of a tracker that will be merged when they are stored, as
+ * the events are added, see {@link AbstractTracker#createAggregator()}.
+ * 
+ * @param <T> The event type.
+ */
+public interface IAggregator<T> {
+
+  /**
+   * Gets the key by which the given event is aggregated. Events of the same
+   * key are folded into one by {@link #aggregate(Object, Object)}, so the key
+   * must identify the events that will be merged when they are stored, such as
+   * the date of an event together with its command ID.
+   * 
+   * @param event The event.
+   * @return The key, or null if the event is not to be aggregated.
+   */
+  @Nullable
+  Object getKey(T event);
+
+  /**
+   * Folds two events of the same key into one.
+   * 
+   * @param existing The event already collected.
+   * @param event The event being added.
+   * @return The event representing both events.
+   */
+  T aggregate(T existing, T event);
+}
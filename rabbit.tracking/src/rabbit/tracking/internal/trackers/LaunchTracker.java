@@ -20,7 +20,7 @@ import rabbit.data.store.IStorer;
 import rabbit.data.store.model.LaunchEvent;
 import rabbit.tracking.internal.util.Recorder;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.MapMaker;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.CoreException;
@@ -36,20 +36,60 @@ import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.ISourceLocator;
 import org.eclipse.debug.core.model.IStackFrame;
 import org.eclipse.debug.core.model.IThread;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupDirector;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
 import org.joda.time.Interval;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
 
 /**
  * Tracks launch events.
  */
 public class LaunchTracker extends AbstractTracker<LaunchEvent> {
 
+  /** The maximum number of files to record for each launch. */
+  static final int MAX_FILES_PER_LAUNCH = 500;
+
+  /** The maximum number of source lookups to cache for each launch. */
+  static final int MAX_CACHED_SOURCES = 256;
+
+  /**
+   * The states of a running launch, removed from the tracker as soon as the
+   * launch terminates.
+   */
+  private static class LaunchState {
+
+    /** The recorder of the launch. */
+    final Recorder<ILaunch> recorder = new Recorder<ILaunch>();
+
+    /** The files involved (for debug launches). */
+    final Set<IPath> files = Collections.newSetFromMap(
+        new MapMaker().<IPath, Boolean> makeMap());
+
+    /**
+     * The paths of the source elements by the source names of the stack
+     * frames, the path is null if the source element of a source name is not a
+     * workspace file.
+     */
+    final Map<String, IPath> sources = Collections.synchronizedMap(
+        new LinkedHashMap<String, IPath>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, IPath> e) {
+            return size() > MAX_CACHED_SOURCES;
+          }
+        });
+  }
+
   private final IDebugEventSetListener listener = new IDebugEventSetListener() {
     @Override
     public void handleDebugEvents(DebugEvent[] events) {
@@ -62,12 +102,11 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
   private final Observer observer = new Observer() {
     @Override
     public void update(Observable o, Object arg) {
-      if (recorders.values().contains(o)) {
-        @SuppressWarnings("unchecked")
-        Recorder<ILaunch> recorder = (Recorder<ILaunch>) o;
-        long start = recorder.getLastRecord().getStartTimeMillis();
-        long end = recorder.getLastRecord().getEndTimeMillis();
-        ILaunch launch = recorder.getLastRecord().getUserData();
+      if (o instanceof Recorder<?>) {
+        Recorder.Record<?> record = ((Recorder<?>) o).getLastRecord();
+        long start = record.getStartTimeMillis();
+        long end = record.getEndTimeMillis();
+        ILaunch launch = (ILaunch) record.getUserData();
         ILaunchConfiguration config = launch.getLaunchConfiguration();
         if (config == null) {
           return;
@@ -80,22 +119,24 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
           return;
         }
         
-        Set<IPath> files = launchFiles.get(launch);
-        if (files == null) {
-          files = Collections.emptySet();
+        LaunchState state = launches.get(launch);
+        Set<IPath> files = Collections.emptySet();
+        if (state != null) {
+          files = state.files;
         }
-        
+
         Interval interval = new Interval(start, end);
         addData(new LaunchEvent(interval, launch, config, type, files));
       }
     }
   };
 
-  /** A map of launches and the files involved (for debug launches). */
-  private final Map<ILaunch, Set<IPath>> launchFiles = Maps.newHashMap();
-
-  /** One recorder for each launch. */
-  private final Map<ILaunch, Recorder<ILaunch>> recorders = Maps.newHashMap();
+  /**
+   * The states of the running launches. This map is updated from the debug
+   * event threads.
+   */
+  private final ConcurrentMap<ILaunch, LaunchState> launches =
+      new MapMaker().makeMap();
 
   /**
    * Constructs a new tracker.
@@ -103,6 +144,16 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
   public LaunchTracker() {
   }
 
+  /**
+   * Does nothing. A launch is recorded as one event when it terminates, ending
+   * it early would record it twice, so the running launches are kept as they
+   * are.
+   */
+  @Override
+  public void endCurrentEvents() {
+    // Nothing to end.
+  }
+
   @Override
   protected IStorer<LaunchEvent> createDataStorer() {
     return DataHandler.getStorer(LaunchEvent.class);
@@ -112,6 +163,7 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
   protected void doDisable() {
     DebugPlugin debug = DebugPlugin.getDefault();
     debug.removeDebugEventListener(listener);
+    launches.clear();
   }
 
   @Override
@@ -147,18 +199,23 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
 
     // Records the start time of this launch:
     if (event.getKind() == DebugEvent.CREATE) {
-      Recorder<ILaunch> r = recorders.get(launch);
-      if (r == null) {
-        r = new Recorder<ILaunch>();
-        r.addObserver(observer);
-        recorders.put(launch, r);
+      LaunchState state = launches.get(launch);
+      if (state == null) {
+        LaunchState newState = new LaunchState();
+        state = launches.putIfAbsent(launch, newState);
+        if (state == null) {
+          state = newState;
+          state.recorder.addObserver(observer);
+        }
       }
-      r.start(launch);
+      state.recorder.start(launch);
 
     } else if (event.getKind() == DebugEvent.TERMINATE) {
-      Recorder<ILaunch> r = recorders.get(launch);
-      if (r != null) {
-        r.stop();
+      LaunchState state = launches.get(launch);
+      if (state != null) {
+        // Stops before removing, the event needs the files of the launch:
+        state.recorder.stop();
+        launches.remove(launch, state);
       }
     }
   }
@@ -177,8 +234,8 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
     }
 
     ILaunch launch = thread.getLaunch();
-    ILaunchConfiguration config = launch.getLaunchConfiguration();
-    if (config == null) {
+    LaunchState state = launches.get(launch);
+    if (state == null || launch.getLaunchConfiguration() == null) {
       return;
     }
 
@@ -198,17 +255,54 @@ public class LaunchTracker extends AbstractTracker<LaunchEvent> {
       return;
     }
 
-    Object element = sourceLocator.getSourceElement(stack);
+    // The source name identifies the source of the frame, such as the path of
+    // the Java file of its declaring type, and is quick to get:
+    String sourceName = getSourceName(sourceLocator, stack);
+    IPath path = null;
+    if (sourceName != null && state.sources.containsKey(sourceName)) {
+      path = state.sources.get(sourceName);
+    } else {
+      Object element = sourceLocator.getSourceElement(stack);
+      // Element is a file in workspace, record it:
+      if (element instanceof IFile) {
+        path = ((IFile) element).getFullPath();
+      }
+      if (sourceName != null) {
+        state.sources.put(sourceName, path);
+      }
+    }
+
+    if (path != null && state.files.size() < MAX_FILES_PER_LAUNCH) {
+      state.files.add(path);
+    }
+  }
 
-    // Element is a file in workspace, record it:
-    if (element != null && element instanceof IFile) {
-      IFile file = (IFile) element;
-      Set<IPath> filePaths = launchFiles.get(launch);
-      if (filePaths == null) {
-        filePaths = new HashSet<IPath>(3);
-        launchFiles.put(launch, filePaths);
+  /**
+   * Gets the name of the source of the given stack frame from the source
+   * lookup participants of the locator.
+   * 
+   * @param locator The source locator of the launch of the frame.
+   * @param frame The stack frame.
+   * @return The source name, or null if the locator is not a source lookup
+   *         director or none of its participants knows the name.
+   */
+  @Nullable
+  private static String getSourceName(ISourceLocator locator,
+      IStackFrame frame) {
+    if (!(locator instanceof ISourceLookupDirector)) {
+      return null;
+    }
+    ISourceLookupDirector director = (ISourceLookupDirector) locator;
+    for (ISourceLookupParticipant participant : director.getParticipants()) {
+      try {
+        String name = participant.getSourceName(frame);
+        if (name != null) {
+          return name;
+        }
+      } catch (CoreException e) {
+        continue;
       }
-      filePaths.add(file.getFullPath());
     }
+    return null;
   }
 }
@@ -34,6 +34,25 @@ public class PartTracker extends AbstractPartTracker<PartEvent> {
     super();
   }
 
+  @Override
+  protected IAggregator<PartEvent> createAggregator() {
+    return new IAggregator<PartEvent>() {
+      @Override
+      public Object getKey(PartEvent event) {
+        return dailyKey(event.getTime(),
+            event.getWorkbenchPart().getSite().getId());
+      }
+
+      @Override
+      public PartEvent aggregate(PartEvent existing, PartEvent event) {
+        return new PartEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()),
+            existing.getWorkbenchPart());
+      }
+    };
+  }
+
   @Override
   protected IStorer<PartEvent> createDataStorer() {
     return DataHandler.getStorer(PartEvent.class);
@@ -126,6 +126,25 @@ public class PerspectiveTracker extends AbstractTracker<PerspectiveEvent> {
     recorder.addObserver(observer);
   }
 
+  @Override
+  protected IAggregator<PerspectiveEvent> createAggregator() {
+    return new IAggregator<PerspectiveEvent>() {
+      @Override
+      public Object getKey(PerspectiveEvent event) {
+        return dailyKey(event.getTime(), event.getPerspective().getId());
+      }
+
+      @Override
+      public PerspectiveEvent aggregate(PerspectiveEvent existing,
+          PerspectiveEvent event) {
+        return new PerspectiveEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()),
+            existing.getPerspective());
+      }
+    };
+  }
+
   @Override
   protected IStorer<PerspectiveEvent> createDataStorer() {
     return DataHandler.getStorer(PerspectiveEvent.class);
@@ -81,6 +81,23 @@ public class SessionTracker extends AbstractTracker<SessionEvent> {
     recorder.addObserver(observer);
   }
 
+  @Override
+  protected IAggregator<SessionEvent> createAggregator() {
+    return new IAggregator<SessionEvent>() {
+      @Override
+      public Object getKey(SessionEvent event) {
+        return event.getTime().toLocalDate();
+      }
+
+      @Override
+      public SessionEvent aggregate(SessionEvent existing, SessionEvent event) {
+        return new SessionEvent(
+            span(existing.getInterval(), event.getInterval()),
+            existing.getDuration().plus(event.getDuration()));
+      }
+    };
+  }
+
   @Override
   protected IStorer<SessionEvent> createDataStorer() {
     return DataHandler.getStorer(SessionEvent.class);
@@ -135,14 +135,32 @@ public final class Recorder<T> extends Observable {
    * @see #isRecording()
    */
   public synchronized void start(@Nullable T userData) {
+    start(userData, System.currentTimeMillis());
+  }
+
+  /**
+   * Starts recording on the given user object as of the given time, such as
+   * the time the user moved on to the object if that is only known later.
+   * Behaves the same as {@link #start(Object)} otherwise, the session being
+   * stopped ends at the given time.
+   * 
+   * @param userData
+   *          The optional user object for this record session.
+   * @param timeMillis
+   *          The start time of the session, a time before the start of the
+   *          current session is treated as the start of the current session.
+   * @see #isRecording()
+   */
+  public synchronized void start(@Nullable T userData, long timeMillis) {
     if (isRecording()) {
       if (!Objects.equal(data, userData)) {
-        stop();
+        timeMillis = Math.max(start, timeMillis);
+        stop(timeMillis);
       } else {
         return;
       }
     }
-    start = System.currentTimeMillis();
+    start = timeMillis;
     data = userData;
     running = true;
   }
@@ -162,12 +180,21 @@ public final class Recorder<T> extends Observable {
    * no effects.
    */
   public void stop() {
+    stop(System.currentTimeMillis());
+  }
+
+  /**
+   * Stops recording at the given time.
+   * 
+   * @param endMillis The end time of the session.
+   */
+  private void stop(long endMillis) {
     Record<T> r = null;
     synchronized (this) {
       if (!isRecording()) {
         return;
       }
-      record = new Record<T>(start, System.currentTimeMillis(), data);
+      record = new Record<T>(start, Math.max(start, endMillis), data);
       r = record;
       running = false;
       data = null;
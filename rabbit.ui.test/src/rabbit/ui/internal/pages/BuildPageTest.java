@@ -0,0 +1,38 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.pages;
+
+import static rabbit.ui.internal.pages.Category.BUILD_KIND;
+import static rabbit.ui.internal.pages.Category.DATE;
+import static rabbit.ui.internal.pages.Category.PROJECT;
+import static rabbit.ui.internal.pages.Category.WORKSPACE;
+
+/**
+ * @see BuildPage
+ */
+public class BuildPageTest extends AbsPageTest {
+
+  @Override
+  protected AbsPage create() {
+    return new BuildPage();
+  }
+
+  @Override
+  protected Category[] getSupportedCategories() {
+    return new Category[]{PROJECT, BUILD_KIND, DATE, WORKSPACE};
+  }
+
+}
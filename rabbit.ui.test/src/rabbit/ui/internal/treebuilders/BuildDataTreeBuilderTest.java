@@ -0,0 +1,152 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.treebuilders;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.ui.IProvider;
+import rabbit.ui.internal.pages.Category;
+import rabbit.ui.internal.treebuilders.BuildDataTreeBuilder.IBuildDataProvider;
+import rabbit.ui.internal.util.BuildKind;
+import rabbit.ui.internal.util.ICategory;
+import rabbit.ui.internal.util.ICategoryProvider;
+import rabbit.ui.internal.viewers.ITreePathBuilder;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.hasItems;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.viewers.TreePath;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+
+import static java.util.Arrays.asList;
+
+import java.util.Collection;
+import java.util.List;
+
+public final class BuildDataTreeBuilderTest extends
+    AbstractDataTreeBuilderTest<IBuildData> {
+
+  IProject project;
+  LocalDate date;
+  Duration duration;
+  Integer count;
+  WorkspaceStorage ws;
+
+  IBuildData data;
+
+  @Before
+  public void setup() {
+    project = mock(IProject.class);
+    date = new LocalDate().minusDays(1);
+    duration = new Duration(2500);
+    count = 2;
+    ws = new WorkspaceStorage(new Path(".a"), new Path("/a"));
+
+    data = mock(IBuildData.class);
+    given(data.get(IBuildData.DATE)).willReturn(date);
+    given(data.get(IBuildData.WORKSPACE)).willReturn(ws);
+    given(data.get(IBuildData.PROJECT)).willReturn(project);
+    given(data.get(IBuildData.FULL_BUILD)).willReturn(true);
+    given(data.get(IBuildData.COUNT)).willReturn(count);
+    given(data.get(IBuildData.DURATION)).willReturn(duration);
+  }
+
+  @Override
+  public void shouldCorrectlyBuildASinglePath() {
+    ICategory[] categories = {Category.DATE, Category.WORKSPACE,
+        Category.PROJECT, Category.BUILD_KIND};
+    List<TreePath> expected = asList(
+        newPath(date, ws, project, BuildKind.FULL, count),
+        newPath(date, ws, project, BuildKind.FULL, duration));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data)));
+    assertThat(toString(actual, expected), actual, equalTo(expected));
+  }
+
+  @Override
+  public void shouldCorrectlyBuildMultiplePaths() {
+    Duration duration2 = new Duration(6000);
+    Integer count2 = 1;
+
+    IBuildData data2 = mock(IBuildData.class);
+    given(data2.get(IBuildData.DATE)).willReturn(date);
+    given(data2.get(IBuildData.WORKSPACE)).willReturn(ws);
+    given(data2.get(IBuildData.PROJECT)).willReturn(project);
+    given(data2.get(IBuildData.FULL_BUILD)).willReturn(false);
+    given(data2.get(IBuildData.COUNT)).willReturn(count2);
+    given(data2.get(IBuildData.DURATION)).willReturn(duration2);
+
+    ICategory[] categories = {Category.BUILD_KIND};
+    List<TreePath> expected = asList(
+        newPath(BuildKind.FULL, count),
+        newPath(BuildKind.FULL, duration),
+        newPath(BuildKind.INCREMENTAL, count2),
+        newPath(BuildKind.INCREMENTAL, duration2));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data, data2)));
+    assertThat(actual.size(), equalTo(expected.size()));
+    assertThat(toString(actual, expected),
+        actual, hasItems(expected.toArray(new TreePath[0])));
+  }
+
+  @Override
+  public void shouldRetainIdenticalPaths() {
+    ICategory[] categories = {Category.DATE, Category.PROJECT};
+    List<TreePath> expected = asList(
+        newPath(date, project, count),
+        newPath(date, project, duration),
+        newPath(date, project, count),
+        newPath(date, project, duration));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data, data)));
+    assertThat(toString(actual, expected), actual, equalTo(expected));
+  }
+
+  @Override
+  protected ITreePathBuilder create(ICategoryProvider p) {
+    return new BuildDataTreeBuilder(p);
+  }
+
+  @Override
+  protected IProvider<IBuildData> input(
+      final Collection<IBuildData> inputData) {
+    return new IBuildDataProvider() {
+      @Override
+      public Collection<IBuildData> get() {
+        return inputData;
+      }
+    };
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.treebuilders;
+
+import rabbit.data.access.model.IFreezeData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.ui.IProvider;
+import rabbit.ui.internal.pages.Category;
+import rabbit.ui.internal.treebuilders.FreezeDataTreeBuilder.IFreezeDataProvider;
+import rabbit.ui.internal.util.FreezeBucket;
+import rabbit.ui.internal.util.ICategory;
+import rabbit.ui.internal.util.ICategoryProvider;
+import rabbit.ui.internal.util.UndefinedWorkbenchPartDescriptor;
+import rabbit.ui.internal.viewers.ITreePathBuilder;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.hasItems;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.ui.IWorkbenchPartDescriptor;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.views.IViewDescriptor;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+
+import java.util.Collection;
+import java.util.List;
+
+public final class FreezeDataTreeBuilderTest extends
+    AbstractDataTreeBuilderTest<IFreezeData> {
+
+  IViewDescriptor view;
+  LocalDate date;
+  Duration bucket;
+  Duration duration;
+  Integer count;
+  WorkspaceStorage ws;
+
+  IFreezeData data;
+
+  @Before
+  public void setup() {
+    view = PlatformUI.getWorkbench().getViewRegistry().getViews()[0];
+    date = new LocalDate().minusDays(1);
+    bucket = new Duration(1000);
+    duration = new Duration(2500);
+    count = 2;
+    ws = new WorkspaceStorage(new Path(".a"), new Path("/a"));
+
+    data = mock(IFreezeData.class);
+    given(data.get(IFreezeData.DATE)).willReturn(date);
+    given(data.get(IFreezeData.WORKSPACE)).willReturn(ws);
+    given(data.get(IFreezeData.PART_ID)).willReturn(view.getId());
+    given(data.get(IFreezeData.FREEZE_BUCKET)).willReturn(bucket);
+    given(data.get(IFreezeData.COUNT)).willReturn(count);
+    given(data.get(IFreezeData.DURATION)).willReturn(duration);
+  }
+
+  @Override
+  public void shouldCorrectlyBuildASinglePath() {
+    ICategory[] categories = {Category.DATE, Category.WORKSPACE,
+        Category.WORKBENCH_TOOL, Category.FREEZE_BUCKET};
+    FreezeBucket b = new FreezeBucket(bucket);
+    List<TreePath> expected = asList(
+        newPath(date, ws, view, b, count),
+        newPath(date, ws, view, b, duration));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data)));
+    assertThat(toString(actual, expected), actual, equalTo(expected));
+  }
+
+  @Test
+  public void shouldBuildAPathWithUndefinedWorkbenchPartId() {
+    IWorkbenchPartDescriptor undefined =
+        new UndefinedWorkbenchPartDescriptor("abc123");
+    given(data.get(IFreezeData.PART_ID)).willReturn(undefined.getId());
+
+    ICategory[] categories = {Category.WORKBENCH_TOOL};
+    List<TreePath> expected = asList(
+        newPath(undefined, count),
+        newPath(undefined, duration));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data)));
+    assertThat(toString(actual, expected), actual, equalTo(expected));
+  }
+
+  @Override
+  public void shouldCorrectlyBuildMultiplePaths() {
+    Duration bucket2 = new Duration(5000);
+    Duration duration2 = new Duration(6000);
+    Integer count2 = 1;
+
+    IFreezeData data2 = mock(IFreezeData.class);
+    given(data2.get(IFreezeData.DATE)).willReturn(date);
+    given(data2.get(IFreezeData.WORKSPACE)).willReturn(ws);
+    given(data2.get(IFreezeData.PART_ID)).willReturn(view.getId());
+    given(data2.get(IFreezeData.FREEZE_BUCKET)).willReturn(bucket2);
+    given(data2.get(IFreezeData.COUNT)).willReturn(count2);
+    given(data2.get(IFreezeData.DURATION)).willReturn(duration2);
+
+    ICategory[] categories = {Category.FREEZE_BUCKET};
+    List<TreePath> expected = asList(
+        newPath(new FreezeBucket(bucket), count),
+        newPath(new FreezeBucket(bucket), duration),
+        newPath(new FreezeBucket(bucket2), count2),
+        newPath(new FreezeBucket(bucket2), duration2));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data, data2)));
+    assertThat(actual.size(), equalTo(expected.size()));
+    assertThat(toString(actual, expected),
+        actual, hasItems(expected.toArray(new TreePath[0])));
+  }
+
+  @Override
+  public void shouldRetainIdenticalPaths() {
+    ICategory[] categories = {Category.DATE, Category.WORKSPACE};
+    List<TreePath> expected = asList(
+        newPath(date, ws, count),
+        newPath(date, ws, duration),
+        newPath(date, ws, count),
+        newPath(date, ws, duration));
+
+    ICategoryProvider provider = mock(ICategoryProvider.class);
+    given(provider.getSelected()).willReturn(asList(categories));
+    ITreePathBuilder builder = create(provider);
+
+    List<TreePath> actual = builder.build(input(asList(data, data)));
+    assertThat(toString(actual, expected), actual, equalTo(expected));
+  }
+
+  @Override
+  protected ITreePathBuilder create(ICategoryProvider p) {
+    return new FreezeDataTreeBuilder(p);
+  }
+
+  @Override
+  protected IProvider<IFreezeData> input(
+      final Collection<IFreezeData> inputData) {
+    return new IFreezeDataProvider() {
+      @Override
+      public Collection<IFreezeData> get() {
+        return inputData;
+      }
+    };
+  }
+}
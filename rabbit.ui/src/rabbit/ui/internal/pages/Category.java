@@ -86,6 +86,14 @@ public enum Category implements ICategory {
   /** Java member category, includes {@link #JAVA_TYPE} and {@link #JAVA_METHOD} */
   JAVA_MEMBER("Java Members", SharedImages.JAVA_MEMBER),
 
+  /** Category of the lengths of the freezes of the user interface */
+  FREEZE_BUCKET("Freeze Lengths", PlatformUI.getWorkbench().getSharedImages()
+      .getImageDescriptor(ISharedImages.IMG_OBJS_WARN_TSK)),
+
+  /** Category of the kinds of the builds, full or incremental */
+  BUILD_KIND("Build Kinds", PlatformUI.getWorkbench().getSharedImages()
+      .getImageDescriptor(ISharedImages.IMG_OBJS_INFO_TSK)),
+
   ;
 
   private String text;
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.pages;
+
+import static rabbit.ui.internal.pages.Category.DATE;
+import static rabbit.ui.internal.pages.Category.FREEZE_BUCKET;
+import static rabbit.ui.internal.pages.Category.WORKBENCH_TOOL;
+import static rabbit.ui.internal.pages.Category.WORKSPACE;
+import static rabbit.ui.internal.viewers.Viewers.newTreeViewerColumn;
+
+import rabbit.data.access.IAccessor;
+import rabbit.data.access.model.IFreezeData;
+import rabbit.data.access.model.WorkspaceStorage;
+import rabbit.data.handler.DataHandler;
+import rabbit.ui.Preference;
+import rabbit.ui.internal.treebuilders.FreezeDataTreeBuilder;
+import rabbit.ui.internal.treebuilders.FreezeDataTreeBuilder.IFreezeDataProvider;
+import rabbit.ui.internal.util.Categorizer;
+import rabbit.ui.internal.util.CategoryProvider;
+import rabbit.ui.internal.util.FreezeBucket;
+import rabbit.ui.internal.util.ICategorizer;
+import rabbit.ui.internal.util.IConverter;
+import rabbit.ui.internal.util.TreePathDurationConverter;
+import rabbit.ui.internal.util.TreePathIntConverter;
+import rabbit.ui.internal.util.TreePathValueProvider;
+import rabbit.ui.internal.viewers.CompositeCellLabelProvider;
+import rabbit.ui.internal.viewers.DateLabelProvider;
+import rabbit.ui.internal.viewers.FilterableTreePathContentProvider;
+import rabbit.ui.internal.viewers.FreezeBucketLabelProvider;
+import rabbit.ui.internal.viewers.TreePathContentProvider;
+import rabbit.ui.internal.viewers.TreePathDurationLabelProvider;
+import rabbit.ui.internal.viewers.TreePathIntLabelProvider;
+import rabbit.ui.internal.viewers.TreePathPatternFilter;
+import rabbit.ui.internal.viewers.TreeViewerCellPainter;
+import rabbit.ui.internal.viewers.TreeViewerColumnSorter;
+import rabbit.ui.internal.viewers.TreeViewerColumnValueSorter;
+import rabbit.ui.internal.viewers.Viewers;
+import rabbit.ui.internal.viewers.WorkbenchPartLabelProvider;
+import rabbit.ui.internal.viewers.WorkspaceStorageLabelProvider;
+
+import static com.google.common.base.Predicates.instanceOf;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableMap;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.action.IContributionItem;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.viewers.DecoratingStyledCellLabelProvider;
+import org.eclipse.jface.viewers.ILabelDecorator;
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.TreeViewerColumn;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IWorkbenchPartDescriptor;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.dialogs.FilteredTree;
+import org.joda.time.Duration;
+import org.joda.time.LocalDate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page for displaying the freezes of the user interface.
+ */
+public class FreezePage extends AbsPage {
+
+  private FilteredTree filteredTree;
+  private CategoryProvider categoryProvider;
+  private TreePathValueProvider durationProvider;
+  private TreePathValueProvider countProvider;
+  private TreePathContentProvider contentProvider;
+
+  public FreezePage() {}
+
+  @Override
+  public void createContents(Composite parent) {
+    Category[] supported = {WORKSPACE, DATE, WORKBENCH_TOOL, FREEZE_BUCKET};
+    categoryProvider = new CategoryProvider(supported, WORKBENCH_TOOL);
+    categoryProvider.addObserver(this);
+
+    contentProvider = new TreePathContentProvider(
+        new FreezeDataTreeBuilder(categoryProvider));
+    contentProvider.addObserver(this);
+
+    durationProvider = createDurationValueProvider();
+    durationProvider.addObserver(this);
+
+    countProvider = createCountValueProvider();
+    countProvider.addObserver(this);
+
+    // The main label provider for the first column:
+    CompositeCellLabelProvider mainLabels = new CompositeCellLabelProvider(
+        new WorkbenchPartLabelProvider(),
+        new FreezeBucketLabelProvider(),
+        new DateLabelProvider(),
+        new WorkspaceStorageLabelProvider());
+
+    // The viewer:
+    filteredTree = Viewers.newFilteredTree(parent,
+        new TreePathPatternFilter(mainLabels));
+    TreeViewer viewer = filteredTree.getViewer();
+    FilterableTreePathContentProvider filteredContentProvider =
+        new FilterableTreePathContentProvider(contentProvider);
+    filteredContentProvider.addFilter(instanceOf(Integer.class));
+    filteredContentProvider.addFilter(instanceOf(Duration.class));
+    viewer.setContentProvider(filteredContentProvider);
+
+    // Column sorters:
+    TreeViewerColumnSorter labelSorter =
+        new InternalTreeViewerColumnLabelSorter(viewer, mainLabels);
+    TreeViewerColumnSorter countSorter =
+        new TreeViewerColumnValueSorter(viewer, countProvider);
+    TreeViewerColumnSorter durationSorter =
+        new TreeViewerColumnValueSorter(viewer, durationProvider);
+
+    // The columns:
+
+    TreeViewerColumn mainColumn =
+        newTreeViewerColumn(viewer, SWT.LEFT, "Name", 200);
+    mainColumn.getColumn().addSelectionListener(labelSorter);
+    ILabelDecorator decorator =
+        PlatformUI.getWorkbench().getDecoratorManager().getLabelDecorator();
+    mainColumn.setLabelProvider(new DecoratingStyledCellLabelProvider(
+        mainLabels, decorator, null));
+
+    TreeViewerColumn countColumn =
+        newTreeViewerColumn(viewer, SWT.RIGHT, "Count", 100);
+    countColumn.getColumn().addSelectionListener(countSorter);
+    countColumn.setLabelProvider(
+        new TreePathIntLabelProvider(countProvider, mainLabels));
+
+    TreeViewerColumn countGraphColumn =
+        newTreeViewerColumn(viewer, SWT.LEFT, "", 100);
+    countGraphColumn.getColumn().addSelectionListener(countSorter);
+    countGraphColumn.setLabelProvider(new TreeViewerCellPainter(countProvider) {
+      @Override
+      protected Color createColor(Display display) {
+        return new Color(display, 118, 146, 60);
+      }
+    });
+
+    TreeViewerColumn durationColumn =
+        newTreeViewerColumn(viewer, SWT.RIGHT, "Total Duration", 150);
+    durationColumn.getColumn().addSelectionListener(durationSorter);
+    durationColumn.setLabelProvider(
+        new TreePathDurationLabelProvider(durationProvider, mainLabels));
+
+    TreeViewerColumn durationGraphColumn =
+        newTreeViewerColumn(viewer, SWT.LEFT, "", 100);
+    durationGraphColumn.getColumn().addSelectionListener(durationSorter);
+    durationGraphColumn.setLabelProvider(new TreeViewerCellPainter(
+        durationProvider) {
+      @Override
+      protected Color createColor(Display display) {
+        return new Color(display, 49, 132, 155);
+      }
+    });
+  }
+
+  @Override
+  public IContributionItem[] createToolBarItems(IToolBarManager toolBar) {
+    List<IContributionItem> items = new CommonToolBarBuilder()
+        .enableFilterControlAction(filteredTree, true)
+        .enableTreeAction(filteredTree.getViewer())
+        .enableGroupByAction(categoryProvider)
+        .enableColorByAction(durationProvider, countProvider)
+
+        .addGroupByAction(WORKBENCH_TOOL)
+        .addGroupByAction(WORKBENCH_TOOL, FREEZE_BUCKET)
+        .addGroupByAction(FREEZE_BUCKET, WORKBENCH_TOOL)
+        .addGroupByAction(DATE, WORKBENCH_TOOL)
+        .addGroupByAction(WORKSPACE, WORKBENCH_TOOL)
+
+        .addColorByAction(WORKBENCH_TOOL)
+        .addColorByAction(FREEZE_BUCKET)
+        .addColorByAction(DATE)
+        .addColorByAction(WORKSPACE)
+        .build();
+
+    for (IContributionItem item : items) {
+      toolBar.add(item);
+    }
+    return items.toArray(new IContributionItem[items.size()]);
+  }
+
+  @Override
+  public Job updateJob(Preference pref) {
+    TreeViewer viewer = filteredTree.getViewer();
+    return new UpdateJob<IFreezeData>(viewer, pref, getAccessor()) {
+      @Override
+      protected Object getInput(final Collection<IFreezeData> data) {
+        return new IFreezeDataProvider() {
+          @Override
+          public Collection<IFreezeData> get() {
+            return data;
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  protected FilteredTree getFilteredTree() {
+    return filteredTree;
+  }
+
+  @Override
+  protected Category[] getSelectedCategories() {
+    return categoryProvider.getSelected().toArray(new Category[0]);
+  }
+
+  @Override
+  protected Category getVisualCategory() {
+    return (Category) durationProvider.getVisualCategory();
+  }
+
+  @Override
+  protected void setSelectedCategories(List<Category> categories) {
+    Category[] selected = categories.toArray(new Category[0]);
+    categoryProvider.setSelected(selected);
+  }
+
+  @Override
+  protected void setVisualCategory(Category category) {
+    durationProvider.setVisualCategory(category);
+    countProvider.setVisualCategory(category);
+  }
+
+  @Override
+  protected void updateMaxValue() {
+    durationProvider.setMaxValue(durationProvider.getVisualCategory());
+    countProvider.setMaxValue(countProvider.getVisualCategory());
+  }
+
+  private TreePathValueProvider createDurationValueProvider() {
+    ICategorizer categorizer = createCategorizer();
+    IConverter<TreePath> converter = new TreePathDurationConverter();
+    return new TreePathValueProvider(
+        categorizer, contentProvider, converter, WORKBENCH_TOOL);
+  }
+
+  private TreePathValueProvider createCountValueProvider() {
+    ICategorizer categorizer = createCategorizer();
+    IConverter<TreePath> converter = new TreePathIntConverter();
+    return new TreePathValueProvider(
+        categorizer, contentProvider, converter, WORKBENCH_TOOL);
+  }
+
+  private ICategorizer createCategorizer() {
+    Map<Predicate<Object>, Category> categories = ImmutableMap.of(
+        instanceOf(IWorkbenchPartDescriptor.class), WORKBENCH_TOOL,
+        instanceOf(FreezeBucket.class), FREEZE_BUCKET,
+        instanceOf(LocalDate.class), DATE,
+        instanceOf(WorkspaceStorage.class), WORKSPACE);
+    ICategorizer categorizer = new Categorizer(categories);
+    return categorizer;
+  }
+
+  private IAccessor<IFreezeData> getAccessor() {
+    return DataHandler.getAccessor(IFreezeData.class);
+  }
+}
@@ -16,12 +16,15 @@
 package rabbit.ui.internal.pages;
 
 import rabbit.data.access.IAccessor;
+import rabbit.data.store.StoreWriter;
+import rabbit.tracking.internal.TrackingPlugin;
 import rabbit.ui.Preference;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jface.viewers.TreePath;
@@ -30,12 +33,19 @@ import org.eclipse.ui.PlatformUI;
 import org.joda.time.LocalDate;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An internal update job for updating a page.
  */
 public abstract class UpdateJob<T> extends Job {
 
+  /**
+   * The time in seconds to wait for the data just saved to be written before
+   * reading the data.
+   */
+  private static final long WRITE_WAIT_SECONDS = 10;
+
   private final TreeViewer viewer;
   private final Preference pref;
   private final IAccessor<T> accessor;
@@ -65,7 +75,21 @@ public abstract class UpdateJob<T> extends Job {
 
     LocalDate start = LocalDate.fromCalendarFields(pref.getStartDate());
     LocalDate end = LocalDate.fromCalendarFields(pref.getEndDate());
-    final Collection<T> data = accessor.getData(start, end);
+    final Collection<T> data;
+    try {
+      // Today's data may have just been saved in the background, then handed
+      // to the storers:
+      TrackingPlugin.getDefault().waitForCurrentData(WRITE_WAIT_SECONDS,
+          TimeUnit.SECONDS);
+      StoreWriter.getDefault().drain(WRITE_WAIT_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      return Status.CANCEL_STATUS;
+    }
+    try {
+      data = accessor.getData(start, end, monitor);
+    } catch (OperationCanceledException e) {
+      return Status.CANCEL_STATUS;
+    }
     monitor.worked(1);
 
     if (monitor.isCanceled()) {
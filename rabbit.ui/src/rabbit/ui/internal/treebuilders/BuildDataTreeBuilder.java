@@ -0,0 +1,103 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.treebuilders;
+
+import rabbit.data.access.model.IBuildData;
+import rabbit.ui.IProvider;
+import rabbit.ui.internal.pages.Category;
+import rabbit.ui.internal.util.BuildKind;
+import rabbit.ui.internal.util.ICategory;
+import rabbit.ui.internal.util.ICategoryProvider;
+import rabbit.ui.internal.viewers.ITreePathBuilder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Lists.newArrayList;
+
+import org.eclipse.jface.viewers.TreePath;
+import org.joda.time.Duration;
+
+import static java.util.Collections.emptyList;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link BuildDataTreeBuilder} takes input as {@link IBuildDataProvider} and
+ * builds tree leaves based on the order of the categories provided by the
+ * {@link ICategoryProvider}, the last segment of every path will be either an
+ * {@link Integer} data node ({@link IBuildData#COUNT}) or an {@link Duration}
+ * data node ({@link IBuildData#DURATION}). Each {@link IBuildData} provided by
+ * the provider will be transformed into two paths (one ends with
+ * {@link Integer} and the other ends with {@link Duration}).
+ */
+public final class BuildDataTreeBuilder implements ITreePathBuilder {
+
+  /**
+   * Provides {@link IBuildData}.
+   */
+  public static interface IBuildDataProvider extends IProvider<IBuildData> {}
+
+  private final ICategoryProvider provider;
+
+  public BuildDataTreeBuilder(ICategoryProvider provider) {
+    this.provider = checkNotNull(provider);
+  }
+
+  @Override
+  public List<TreePath> build(Object input) {
+    if (!(input instanceof IBuildDataProvider)) {
+      return emptyList();
+    }
+
+    Collection<IBuildData> dataCol = ((IBuildDataProvider) input).get();
+    if (dataCol == null) {
+      return emptyList();
+    }
+
+    List<TreePath> result = newArrayList();
+    for (IBuildData data : dataCol) {
+
+      List<Object> segments = newArrayList();
+      for (ICategory c : provider.getSelected()) {
+        if (!(c instanceof Category)) {
+          continue;
+        }
+
+        switch ((Category) c) {
+        case WORKSPACE:
+          segments.add(data.get(IBuildData.WORKSPACE));
+          break;
+        case DATE:
+          segments.add(data.get(IBuildData.DATE));
+          break;
+        case PROJECT:
+          segments.add(data.get(IBuildData.PROJECT));
+          break;
+        case BUILD_KIND:
+          segments.add(BuildKind.of(data.get(IBuildData.FULL_BUILD)));
+          break;
+        default:
+          break;
+        }
+      }
+
+      TreePath parent = new TreePath(segments.toArray());
+      result.add(parent.createChildPath(data.get(IBuildData.COUNT)));
+      result.add(parent.createChildPath(data.get(IBuildData.DURATION)));
+    }
+    return result;
+  }
+}
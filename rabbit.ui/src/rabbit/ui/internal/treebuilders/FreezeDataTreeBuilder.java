@@ -0,0 +1,121 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.treebuilders;
+
+import rabbit.data.access.model.IFreezeData;
+import rabbit.ui.IProvider;
+import rabbit.ui.internal.pages.Category;
+import rabbit.ui.internal.util.FreezeBucket;
+import rabbit.ui.internal.util.ICategory;
+import rabbit.ui.internal.util.ICategoryProvider;
+import rabbit.ui.internal.util.UndefinedWorkbenchPartDescriptor;
+import rabbit.ui.internal.viewers.ITreePathBuilder;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Lists.newArrayList;
+
+import org.eclipse.jface.viewers.TreePath;
+import org.eclipse.ui.IEditorRegistry;
+import org.eclipse.ui.IWorkbench;
+import org.eclipse.ui.IWorkbenchPartDescriptor;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.views.IViewRegistry;
+import org.joda.time.Duration;
+
+import static java.util.Collections.emptyList;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link FreezeDataTreeBuilder} takes input as {@link IFreezeDataProvider}
+ * and builds tree leaves based on the order of the categories provided by the
+ * {@link ICategoryProvider}, the last segment of every path will be either an
+ * {@link Integer} data node ({@link IFreezeData#COUNT}) or an {@link Duration}
+ * data node ({@link IFreezeData#DURATION}). Each {@link IFreezeData} provided
+ * by the provider will be transformed into two paths (one ends with
+ * {@link Integer} and the other ends with {@link Duration}).
+ */
+public final class FreezeDataTreeBuilder implements ITreePathBuilder {
+
+  /**
+   * Provides {@link IFreezeData}.
+   */
+  public static interface IFreezeDataProvider extends IProvider<IFreezeData> {}
+
+  private final ICategoryProvider provider;
+
+  public FreezeDataTreeBuilder(ICategoryProvider provider) {
+    this.provider = checkNotNull(provider);
+  }
+
+  @Override
+  public List<TreePath> build(Object input) {
+    if (!(input instanceof IFreezeDataProvider)) {
+      return emptyList();
+    }
+
+    Collection<IFreezeData> dataCol = ((IFreezeDataProvider) input).get();
+    if (dataCol == null) {
+      return emptyList();
+    }
+
+    IWorkbench workbench = PlatformUI.getWorkbench();
+    IViewRegistry viewRegistry = workbench.getViewRegistry();
+    IEditorRegistry editorRegistry = workbench.getEditorRegistry();
+
+    List<TreePath> result = newArrayList();
+    for (IFreezeData data : dataCol) {
+
+      List<Object> segments = newArrayList();
+      for (ICategory c : provider.getSelected()) {
+        if (!(c instanceof Category)) {
+          continue;
+        }
+
+        switch ((Category) c) {
+        case WORKSPACE:
+          segments.add(data.get(IFreezeData.WORKSPACE));
+          break;
+        case DATE:
+          segments.add(data.get(IFreezeData.DATE));
+          break;
+        case WORKBENCH_TOOL:
+          String id = data.get(IFreezeData.PART_ID);
+          IWorkbenchPartDescriptor part = viewRegistry.find(id);
+          if (part == null) {
+            part = editorRegistry.findEditor(id);
+          }
+          if (part == null) {
+            part = new UndefinedWorkbenchPartDescriptor(id);
+          }
+          segments.add(part);
+          break;
+        case FREEZE_BUCKET:
+          segments.add(new FreezeBucket(data.get(IFreezeData.FREEZE_BUCKET)));
+          break;
+        default:
+          break;
+        }
+      }
+
+      TreePath parent = new TreePath(segments.toArray());
+      result.add(parent.createChildPath(data.get(IFreezeData.COUNT)));
+      result.add(parent.createChildPath(data.get(IFreezeData.DURATION)));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.util;
+
+/**
+ * Represents the kind of a build, kept apart from the {@link Boolean} value it
+ * is stored as.
+ */
+public enum BuildKind {
+
+  /** Full builds, including clean builds. */
+  FULL,
+
+  /** Incremental builds, including auto builds. */
+  INCREMENTAL;
+
+  /**
+   * @param fullBuild true for a full build, false for an incremental build.
+   * @return the kind of the build.
+   */
+  public static BuildKind of(boolean fullBuild) {
+    return fullBuild ? FULL : INCREMENTAL;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Objects;
+
+import org.joda.time.Duration;
+
+/**
+ * Represents a bucket of the lengths of the freezes of the user interface,
+ * kept apart from the {@link Duration} data nodes of the freezes.
+ */
+public final class FreezeBucket {
+
+  private final Duration lowerBound;
+
+  /**
+   * @param lowerBound the shortest freeze in this bucket.
+   * @throws NullPointerException if argument is null.
+   */
+  public FreezeBucket(Duration lowerBound) {
+    this.lowerBound = checkNotNull(lowerBound);
+  }
+
+  /**
+   * @return the shortest freeze in this bucket.
+   */
+  public Duration getLowerBound() {
+    return lowerBound;
+  }
+
+  @Override
+  public String toString() {
+    return Objects.toStringHelper(this).addValue(getLowerBound()).toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return getLowerBound().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof FreezeBucket) {
+      return getLowerBound().equals(((FreezeBucket) obj).getLowerBound());
+    }
+    return false;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2010 The Rabbit Eclipse Plug-in Project
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package rabbit.ui.internal.viewers;
+
+import rabbit.ui.internal.util.DurationFormat;
+import rabbit.ui.internal.util.FreezeBucket;
+
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+
+import javax.annotation.Nullable;
+
+/**
+ * Label provider for {@link FreezeBucket}.
+ */
+public final class FreezeBucketLabelProvider extends NullLabelProvider {
+
+  /** Shared by the workbench, must not be disposed. */
+  private final Image image;
+
+  public FreezeBucketLabelProvider() {
+    image = PlatformUI.getWorkbench().getSharedImages().getImage(
+        ISharedImages.IMG_OBJS_WARN_TSK);
+  }
+
+  @Override
+  public Image getImage(@Nullable Object element) {
+    if (element instanceof FreezeBucket) {
+      return image;
+    }
+    return super.getImage(element);
+  }
+
+  @Override
+  public String getText(@Nullable Object element) {
+    if (element instanceof FreezeBucket) {
+      long millis = ((FreezeBucket) element).getLowerBound().getMillis();
+      String length = (millis < 1000)
+          ? millis + " ms"
+          : DurationFormat.format(millis);
+      return "At least " + length;
+    }
+    return super.getText(element);
+  }
+}